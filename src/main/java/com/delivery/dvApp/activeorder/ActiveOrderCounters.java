@@ -0,0 +1,216 @@
+package com.delivery.dvApp.activeorder;
+
+import com.delivery.dvApp.enums.OrderStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory count of the open orders of every courier and customer.
+ *
+ * <p>Every order that is not delivered or cancelled yet is tracked with its
+ * courier, customer and status. Per courier and per customer, an array holds
+ * the number of tracked orders in each status, so "does this courier have an
+ * order in one of these statuses" is a map lookup instead of a query against
+ * the ever-growing order table.</p>
+ *
+ * <p>Order and count updates happen together inside
+ * {@link ConcurrentHashMap#compute}, so the counts always match the tracked
+ * orders. Count arrays are replaced rather than modified and dropped when they
+ * reach zero, so readers need no locking and finished couriers and customers
+ * do not stay in memory.</p>
+ *
+ * <p>Changes made within a transaction are applied once it has committed.
+ * Each change sets the new state instead of adding a delta, so applying it
+ * twice, or after the {@link ActiveOrderReconciler} already applied it, does
+ * no harm. The reconciler fills the counters at start-up and corrects any
+ * drift from writes that bypass the application.</p>
+ */
+@Component
+public class ActiveOrderCounters implements MeterBinder {
+    /** Statuses of the orders that are tracked */
+    public static final Set<OrderStatus> OPEN_STATUSES =
+            Collections.unmodifiableSet(EnumSet.of(OrderStatus.CREATED, OrderStatus.ACCEPTED, OrderStatus.PICKED_UP));
+
+    private static final int STATUS_COUNT = OrderStatus.values().length;
+
+    private final ConcurrentHashMap<Long, OpenOrder> orders = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, int[]> courierCounts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, int[]> customerCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Starts tracking a newly created order.
+     *
+     * @param orderId ID of the order
+     * @param courierId ID of the assigned courier, or null if none is assigned yet
+     * @param customerId ID of the customer
+     * @param restaurantId ID of the restaurant
+     */
+    public void created(Long orderId, Long courierId, Long customerId, Long restaurantId) {
+        OpenOrder order = new OpenOrder(orderId, courierId, customerId, restaurantId, OrderStatus.CREATED);
+        afterCommit(() -> update(orderId, current -> current != null ? current : order));
+    }
+
+    /**
+     * Records that a courier was assigned to a tracked order.
+     *
+     * @param orderId ID of the order
+     * @param courierId ID of the courier
+     */
+    public void assigned(Long orderId, Long courierId) {
+        afterCommit(() -> update(orderId, current -> current != null ? current.withCourier(courierId) : null));
+    }
+
+    /**
+     * Records the new status of an order; orders leaving the open statuses are no longer tracked.
+     *
+     * @param orderId ID of the order
+     * @param status new status of the order
+     */
+    public void moved(Long orderId, OrderStatus status) {
+        afterCommit(() -> update(orderId, current ->
+                current != null && OPEN_STATUSES.contains(status) ? current.withStatus(status) : null));
+    }
+
+    /**
+     * @param courierId ID of the courier
+     * @param statuses statuses to look for
+     * @return true if the courier has a tracked order in one of the statuses
+     */
+    public boolean courierHasOrderIn(Long courierId, Collection<OrderStatus> statuses) {
+        return hasAny(courierCounts.get(courierId), statuses);
+    }
+
+    /**
+     * @param customerId ID of the customer
+     * @param statuses statuses to look for
+     * @return true if the customer has a tracked order in one of the statuses
+     */
+    public boolean customerHasOrderIn(Long customerId, Collection<OrderStatus> statuses) {
+        return hasAny(customerCounts.get(customerId), statuses);
+    }
+
+    /**
+     * @param orderId ID of the order
+     * @return tracked state of the order, or null if it is not tracked
+     */
+    public OpenOrder find(Long orderId) {
+        return orders.get(orderId);
+    }
+
+    /**
+     * @return number of tracked orders
+     */
+    public int size() {
+        return orders.size();
+    }
+
+    /**
+     * Publishes the number of tracked orders.
+     *
+     * @param registry registry to bind to
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("orders.open", this, ActiveOrderCounters::size)
+                .description("Orders tracked by the in-memory active order counters")
+                .register(registry);
+    }
+
+    /**
+     * @return read-only view of the tracked orders by ID
+     */
+    Map<Long, OpenOrder> orders() {
+        return Collections.unmodifiableMap(orders);
+    }
+
+    /**
+     * Replaces the tracked state of an order, unless it changed since it was read.
+     *
+     * @param orderId ID of the order
+     * @param expected state the caller saw, or null if it saw none
+     * @param actual state to set, or null to stop tracking the order
+     * @return true if the state was replaced
+     */
+    boolean replace(Long orderId, OpenOrder expected, OpenOrder actual) {
+        boolean[] replaced = new boolean[1];
+        update(orderId, current -> {
+            if (!Objects.equals(current, expected)) {
+                return current;
+            }
+            replaced[0] = true;
+            return actual;
+        });
+        return replaced[0];
+    }
+
+    private void update(Long orderId, UnaryOperator<OpenOrder> change) {
+        orders.compute(orderId, (id, current) -> {
+            OpenOrder next = change.apply(current);
+            if (!Objects.equals(current, next)) {
+                if (current != null) {
+                    count(courierCounts, current.getCourierId(), current.getStatus(), -1);
+                    count(customerCounts, current.getCustomerId(), current.getStatus(), -1);
+                }
+                if (next != null) {
+                    count(courierCounts, next.getCourierId(), next.getStatus(), 1);
+                    count(customerCounts, next.getCustomerId(), next.getStatus(), 1);
+                }
+            }
+            return next;
+        });
+    }
+
+    private static void count(ConcurrentHashMap<Long, int[]> counts, Long id, OrderStatus status, int delta) {
+        if (id == null) {
+            return;
+        }
+        counts.compute(id, (key, current) -> {
+            int[] next = current != null ? current.clone() : new int[STATUS_COUNT];
+            next[status.ordinal()] += delta;
+            for (int count : next) {
+                if (count != 0) {
+                    return next;
+                }
+            }
+            return null;
+        });
+    }
+
+    private static boolean hasAny(int[] counts, Collection<OrderStatus> statuses) {
+        if (counts == null) {
+            return false;
+        }
+        for (OrderStatus status : statuses) {
+            if (counts[status.ordinal()] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+}
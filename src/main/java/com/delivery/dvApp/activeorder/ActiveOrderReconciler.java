@@ -0,0 +1,149 @@
+package com.delivery.dvApp.activeorder;
+
+import com.delivery.dvApp.repository.OrderRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the {@link ActiveOrderCounters} in line with the database.
+ *
+ * <p>At start-up every open order is loaded into the counters, before the
+ * web server accepts requests and before scheduled jobs run: until then the
+ * counters would report every courier and customer as having no open
+ * orders, letting the dispatcher treat busy couriers as idle and deletions
+ * go through for parties with orders in flight. Afterwards,
+ * every {@code active-orders.reconcile-interval}, the tracked orders are
+ * compared with the open orders in the database. Transitions that commit
+ * while the comparison runs make orders look different without being wrong,
+ * so every difference is read again and only corrected if the counters
+ * still hold what was compared. Corrections are counted under
+ * {@code orders.open.corrections}.</p>
+ */
+@Component
+public class ActiveOrderReconciler implements MeterBinder, SmartInitializingSingleton {
+    /** Number of open orders read per query */
+    private static final int PAGE_SIZE = 10_000;
+
+    /** Largest number of IDs in one {@code IN} list when differences are read again */
+    private static final int RECHECK_CHUNK = 1_000;
+
+    private final ActiveOrderCounters counters;
+    private final OrderRepository orderRepository;
+    private final AtomicLong corrections = new AtomicLong();
+
+    /**
+     * @param counters counters to keep up to date
+     * @param orderRepository repository the open orders are read from
+     */
+    public ActiveOrderReconciler(ActiveOrderCounters counters, OrderRepository orderRepository) {
+        this.counters = counters;
+        this.orderRepository = orderRepository;
+    }
+
+    /**
+     * Loads the counters once all beans exist, before the context is refreshed
+     * and the web server and the scheduler start.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Loads every open order into the counters.
+     *
+     * <p>Orders the counters already track, because they changed while
+     * loading, are left alone.</p>
+     */
+    public synchronized void rebuild() {
+        for (OpenOrder order : readOpenOrders().values()) {
+            counters.replace(order.getOrderId(), null, order);
+        }
+    }
+
+    /**
+     * Compares the counters with the database and corrects the orders that differ.
+     *
+     * @return number of corrected orders
+     */
+    @Scheduled(initialDelayString = "${active-orders.reconcile-interval:PT5M}",
+            fixedDelayString = "${active-orders.reconcile-interval:PT5M}")
+    public synchronized int reconcile() {
+        Map<Long, OpenOrder> tracked = new HashMap<>(counters.orders());
+        Map<Long, OpenOrder> open = readOpenOrders();
+
+        Set<Long> suspects = new HashSet<>();
+        for (Map.Entry<Long, OpenOrder> entry : open.entrySet()) {
+            if (!entry.getValue().equals(tracked.get(entry.getKey()))) {
+                suspects.add(entry.getKey());
+            }
+        }
+        for (Long orderId : tracked.keySet()) {
+            if (!open.containsKey(orderId)) {
+                suspects.add(orderId);
+            }
+        }
+
+        int corrected = 0;
+        List<Long> ids = new ArrayList<>(suspects);
+        for (int from = 0; from < ids.size(); from += RECHECK_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + RECHECK_CHUNK));
+            Map<Long, OpenOrder> current = new HashMap<>();
+            for (OpenOrder order : orderRepository.findOpenOrderStates(chunk)) {
+                if (ActiveOrderCounters.OPEN_STATUSES.contains(order.getStatus())) {
+                    current.put(order.getOrderId(), order);
+                }
+            }
+            for (Long orderId : chunk) {
+                OpenOrder expected = tracked.get(orderId);
+                OpenOrder actual = current.get(orderId);
+                if (!Objects.equals(expected, actual) && counters.replace(orderId, expected, actual)) {
+                    corrected++;
+                }
+            }
+        }
+        corrections.addAndGet(corrected);
+        return corrected;
+    }
+
+    /**
+     * Publishes the number of corrections made so far.
+     *
+     * @param registry registry to bind to
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("orders.open.corrections", corrections, AtomicLong::get)
+                .description("Tracked orders corrected by the reconciler")
+                .register(registry);
+    }
+
+    private Map<Long, OpenOrder> readOpenOrders() {
+        Map<Long, OpenOrder> open = new HashMap<>();
+        long afterId = 0;
+        List<OpenOrder> page;
+        do {
+            page = orderRepository.findOpenOrders(ActiveOrderCounters.OPEN_STATUSES, afterId,
+                    PageRequest.of(0, PAGE_SIZE));
+            for (OpenOrder order : page) {
+                open.put(order.getOrderId(), order);
+                afterId = order.getOrderId();
+            }
+        } while (page.size() == PAGE_SIZE);
+        return open;
+    }
+}
@@ -0,0 +1,87 @@
+package com.delivery.dvApp.activeorder;
+
+import com.delivery.dvApp.enums.OrderStatus;
+
+import java.util.Objects;
+
+/**
+ * Order as tracked by the {@link ActiveOrderCounters}: who it belongs to and its status.
+ */
+public final class OpenOrder {
+    private final Long orderId;
+    private final Long courierId;
+    private final Long customerId;
+    private final Long restaurantId;
+    private final OrderStatus status;
+
+    public OpenOrder(Long orderId, Long courierId, Long customerId, Long restaurantId, OrderStatus status) {
+        this.orderId = orderId;
+        this.courierId = courierId;
+        this.customerId = customerId;
+        this.restaurantId = restaurantId;
+        this.status = status;
+    }
+
+    /**
+     * @return order ID
+     */
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * @return ID of the assigned courier, or null if none is assigned yet
+     */
+    public Long getCourierId() {
+        return courierId;
+    }
+
+    /**
+     * @return ID of the customer who placed the order
+     */
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    /**
+     * @return ID of the restaurant preparing the order
+     */
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    /**
+     * @return current status of the order
+     */
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    OpenOrder withCourier(Long courierId) {
+        return new OpenOrder(orderId, courierId, customerId, restaurantId, status);
+    }
+
+    OpenOrder withStatus(OrderStatus status) {
+        return new OpenOrder(orderId, courierId, customerId, restaurantId, status);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof OpenOrder that)) {
+            return false;
+        }
+        return Objects.equals(orderId, that.orderId)
+                && Objects.equals(courierId, that.courierId)
+                && Objects.equals(customerId, that.customerId)
+                && Objects.equals(restaurantId, that.restaurantId)
+                && status == that.status;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(orderId, courierId, customerId, restaurantId, status);
+    }
+}
@@ -0,0 +1,70 @@
+package com.delivery.dvApp.board;
+
+import com.delivery.dvApp.dto.OrderBoardDto;
+import com.delivery.dvApp.dto.OrderBoardEntryDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Latest changes to one restaurant's board, kept in a fixed-size ring.
+ *
+ * <p>Each change raises the version by one, so the change made at version
+ * {@code v} sits {@code version - v} places behind the newest one and the
+ * changes after any retained version are found without searching.</p>
+ */
+final class BoardHistory {
+    private final OrderBoardEntryDto[] ring;
+    private long version;
+    private int count;
+    private int next;
+
+    /**
+     * @param capacity number of changes kept
+     * @param version version of the board before its first change
+     */
+    BoardHistory(int capacity, long version) {
+        this.ring = new OrderBoardEntryDto[capacity];
+        this.version = version;
+    }
+
+    /**
+     * Records a change, overwriting the oldest one when the ring is full.
+     *
+     * @param change the change
+     * @return version of the board after the change
+     */
+    synchronized long add(OrderBoardEntryDto change) {
+        ring[next] = change;
+        next = (next + 1) % ring.length;
+        count = Math.min(count + 1, ring.length);
+        return ++version;
+    }
+
+    /**
+     * @return current version
+     */
+    synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Returns the changes made after a version.
+     *
+     * @param since version the caller has seen
+     * @return the changes, oldest first, with the current version, or null if
+     *         they are no longer all kept or the version was never handed out
+     *         by this board
+     */
+    synchronized OrderBoardDto changesSince(long since) {
+        long missing = version - since;
+        if (missing < 0 || missing > count) {
+            return null;
+        }
+        List<OrderBoardEntryDto> changes = new ArrayList<>((int) missing);
+        for (int i = (int) missing; i > 0; i--) {
+            changes.add(ring[Math.floorMod(next - i, ring.length)]);
+        }
+        return new OrderBoardDto(version, false, changes);
+    }
+}
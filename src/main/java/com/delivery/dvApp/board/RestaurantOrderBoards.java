@@ -0,0 +1,98 @@
+package com.delivery.dvApp.board;
+
+import com.delivery.dvApp.dto.OrderBoardDto;
+import com.delivery.dvApp.dto.OrderBoardEntryDto;
+import com.delivery.dvApp.enums.OrderStatus;
+import com.delivery.dvApp.event.OrderStatusEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Versioned order boards of the restaurants, kept in memory.
+ *
+ * <p>A board shows the orders a restaurant still has to hand over
+ * ({@link #BOARD_STATUSES}). Every committed {@link OrderStatusEvent} of a
+ * restaurant's order raises the version of its board by one and is kept in
+ * a ring of the last {@code order-board.history-size} changes, so a client
+ * that is at most that many changes behind is brought up to date from
+ * memory, at a cost that only depends on the number of changes.</p>
+ *
+ * <p>Versions start at a value derived from the start-up time, so every
+ * version handed out after a restart is larger than the ones before it and
+ * a client holding an old version gets a new snapshot. A snapshot reads the
+ * version before loading the orders: changes that commit in between are
+ * both in the snapshot and in the next delta, which is harmless because a
+ * change carries the full state of its order.</p>
+ */
+@Component
+public class RestaurantOrderBoards {
+    /** Statuses of the orders shown on a board */
+    public static final List<OrderStatus> BOARD_STATUSES = List.of(OrderStatus.CREATED, OrderStatus.ACCEPTED);
+
+    private final int historySize;
+    private final long initialVersion = System.currentTimeMillis() * 1000;
+    private final ConcurrentHashMap<Long, BoardHistory> histories = new ConcurrentHashMap<>();
+
+    /**
+     * @param historySize number of changes kept per restaurant
+     */
+    public RestaurantOrderBoards(@Value("${order-board.history-size:64}") int historySize) {
+        this.historySize = historySize;
+    }
+
+    /**
+     * Records a committed change of an order.
+     *
+     * @param event the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void record(OrderStatusEvent event) {
+        if (event.getRestaurantId() == null) {
+            return;
+        }
+        histories.computeIfAbsent(event.getRestaurantId(), id -> new BoardHistory(historySize, initialVersion))
+                .add(new OrderBoardEntryDto(event.getOrderId(), event.getStatus(),
+                        event.getCourierId(), event.getChangedAt()));
+    }
+
+    /**
+     * Builds a snapshot of a board.
+     *
+     * @param restaurantId ID of the restaurant
+     * @param loader reads the orders currently on the board
+     * @return the orders with the version they are at least as new as
+     */
+    public OrderBoardDto snapshot(Long restaurantId, Supplier<List<OrderBoardEntryDto>> loader) {
+        long version = version(restaurantId);
+        return new OrderBoardDto(version, true, loader.get());
+    }
+
+    /**
+     * Returns the changes to a board after a version.
+     *
+     * @param restaurantId ID of the restaurant
+     * @param since version the client has seen
+     * @return the changes, or null if the client needs a new snapshot
+     */
+    public OrderBoardDto changesSince(Long restaurantId, long since) {
+        BoardHistory history = histories.get(restaurantId);
+        if (history == null) {
+            return since == initialVersion ? new OrderBoardDto(since, false, List.of()) : null;
+        }
+        return history.changesSince(since);
+    }
+
+    /**
+     * @param restaurantId ID of the restaurant
+     * @return current version of the restaurant's board
+     */
+    public long version(Long restaurantId) {
+        BoardHistory history = histories.get(restaurantId);
+        return history != null ? history.version() : initialVersion;
+    }
+}
@@ -0,0 +1,85 @@
+package com.delivery.dvApp.cache;
+
+import com.delivery.dvApp.dto.MenuItemDto;
+
+import java.util.List;
+
+/**
+ * Menu of a restaurant as held by the {@link MenuCache}.
+ *
+ * <p>The version is the restaurant's menu version at the time the menu was
+ * loaded. It changes whenever an item of the restaurant is added, removed
+ * or repriced, or the restaurant is deleted.</p>
+ *
+ * <p>Besides the items, the menu keeps its JSON representation as ready to
+ * write UTF-8 bytes, a gzip compressed copy of them for larger menus, and a
+ * strong ETag for each of the two encodings.</p>
+ */
+public class CachedMenu {
+    private final long version;
+    private final List<MenuItemDto> items;
+    private final byte[] json;
+    private final byte[] gzippedJson;
+    private final String etag;
+
+    public CachedMenu(long version, List<MenuItemDto> items, byte[] json, byte[] gzippedJson, String etag) {
+        this.version = version;
+        this.items = List.copyOf(items);
+        this.json = json;
+        this.gzippedJson = gzippedJson;
+        this.etag = etag;
+    }
+
+    /**
+     * @return menu version the items belong to
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return unmodifiable list of menu items that are not deleted
+     */
+    public List<MenuItemDto> getItems() {
+        return items;
+    }
+
+    /**
+     * @return items serialized as a UTF-8 JSON array; must not be modified
+     */
+    public byte[] getJson() {
+        return json;
+    }
+
+    /**
+     * @return gzip compressed JSON, or {@code null} if the menu is too small to be worth compressing;
+     *         must not be modified
+     */
+    public byte[] getGzippedJson() {
+        return gzippedJson;
+    }
+
+    /**
+     * @return true if a gzip compressed copy of the JSON is available
+     */
+    public boolean hasGzippedJson() {
+        return gzippedJson != null;
+    }
+
+    /**
+     * @return quoted strong ETag of the uncompressed JSON
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * Strong validators have to differ between content encodings, so the
+     * compressed representation gets its own tag.
+     *
+     * @return quoted strong ETag of the gzip compressed JSON
+     */
+    public String getGzippedEtag() {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+}
@@ -0,0 +1,163 @@
+package com.delivery.dvApp.cache;
+
+import com.delivery.dvApp.dto.MenuItemDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-process cache of restaurant menus, keyed by restaurant ID.
+ *
+ * <p>The cache is bounded by {@code menu.cache.max-size} entries and every
+ * entry expires {@code menu.cache.ttl} after it was loaded. Each restaurant
+ * also has a menu version number. Writes that change a menu call
+ * {@link #invalidate(Long)}, which bumps the version and drops the cached
+ * entry once the surrounding transaction has committed, so a reader can
+ * never re-cache data that is about to be replaced.</p>
+ *
+ * <p>Menus are serialized once when they are loaded. The ETag combines the
+ * restaurant ID, an epoch chosen when the cache is created and the menu
+ * version; the epoch keeps tags handed out before a restart from matching
+ * the versions counted after it.</p>
+ *
+ * <p>Hit, miss, eviction and size metrics are published under the
+ * {@code cache.*} meters with the tag {@code cache=menu}.</p>
+ */
+@Component
+public class MenuCache implements MeterBinder {
+    /** Menus smaller than this are not worth compressing */
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    private final Cache<Long, CachedMenu> menus;
+    private final ConcurrentHashMap<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final JsonMapper jsonMapper;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    /**
+     * Creates the menu cache.
+     *
+     * @param maxSize maximum number of cached menus
+     * @param ttl time after which a cached menu is reloaded
+     * @param jsonMapper mapper used to serialize the menus
+     */
+    public MenuCache(@Value("${menu.cache.max-size:10000}") long maxSize,
+                     @Value("${menu.cache.ttl:PT10M}") Duration ttl,
+                     JsonMapper jsonMapper) {
+        this.menus = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.jsonMapper = jsonMapper;
+    }
+
+    /**
+     * Returns the cached menu of a restaurant, loading it on a miss.
+     *
+     * <p>Concurrent misses for the same restaurant share a single load.
+     * The menu version is read before the loader runs, so a write that
+     * commits while the menu is loading can only make the result look
+     * older, never newer. If the loader throws, nothing is cached and the
+     * exception is rethrown.</p>
+     *
+     * @param restaurantId ID of the restaurant
+     * @param loader loads the menu items from the database
+     * @return cached menu with its version and serialized forms
+     */
+    public CachedMenu get(Long restaurantId, Function<Long, List<MenuItemDto>> loader) {
+        return menus.get(restaurantId, id -> {
+            long version = getVersion(id);
+            return toCachedMenu(id, version, loader.apply(id));
+        });
+    }
+
+    /**
+     * @param restaurantId ID of the restaurant
+     * @return current menu version of the restaurant
+     */
+    public long getVersion(Long restaurantId) {
+        AtomicLong version = versions.get(restaurantId);
+        return version == null ? 0L : version.get();
+    }
+
+    /**
+     * Marks the menu of a restaurant as changed.
+     *
+     * <p>Inside a transaction the version is bumped and the entry dropped
+     * after commit; outside of one this happens immediately.</p>
+     *
+     * @param restaurantId ID of the restaurant whose menu changed
+     */
+    public void invalidate(Long restaurantId) {
+        invalidate(List.of(restaurantId));
+    }
+
+    /**
+     * Marks the menus of several restaurants as changed.
+     *
+     * @param restaurantIds IDs of the restaurants whose menus changed
+     * @see #invalidate(Long)
+     */
+    public void invalidate(Collection<Long> restaurantIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    restaurantIds.forEach(MenuCache.this::evict);
+                }
+            });
+        } else {
+            restaurantIds.forEach(this::evict);
+        }
+    }
+
+    /**
+     * Publishes the cache statistics to the meter registry.
+     *
+     * @param registry registry to bind to
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, menus, "menu");
+    }
+
+    private void evict(Long restaurantId) {
+        versions.computeIfAbsent(restaurantId, id -> new AtomicLong()).incrementAndGet();
+        menus.invalidate(restaurantId);
+    }
+
+    private CachedMenu toCachedMenu(Long restaurantId, long version, List<MenuItemDto> items) {
+        byte[] json = jsonMapper.writeValueAsBytes(items);
+        byte[] gzippedJson = json.length >= GZIP_MIN_BYTES ? gzip(json) : null;
+        String etag = "\"" + restaurantId + "-" + epoch + "-" + version + "\"";
+        return new CachedMenu(version, items, json, gzippedJson, etag);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,18 @@
+package com.delivery.dvApp.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Turns on the {@code @Scheduled} background jobs: batch dispatch, location
+ * flushes, track sealing, outbox relay, estimate refreshes and counter checks.
+ *
+ * <p>Set {@code scheduling.enabled=false} to keep them from running, for
+ * example in integration tests that count the statements of a single call.</p>
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfiguration {
+}
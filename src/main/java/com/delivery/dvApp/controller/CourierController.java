@@ -1,18 +1,28 @@
 package com.delivery.dvApp.controller;
 
 import com.delivery.dvApp.dto.ActiveOrderDto;
+import com.delivery.dvApp.dto.CourierLocationUpdateDto;
+import com.delivery.dvApp.dto.CursorPageDto;
 import com.delivery.dvApp.dto.DeliveredOrderDto;
+import com.delivery.dvApp.dto.LocationBatchResultDto;
+import com.delivery.dvApp.dto.NearbyCourierDto;
+import com.delivery.dvApp.dto.TrackPointDto;
 import com.delivery.dvApp.entity.Courier;
 import com.delivery.dvApp.service.CourierService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
  * REST controller responsible for courier-related endpoints.
  *
  * <p>Provides APIs for managing couriers, viewing active deliveries,
- * and retrieving delivery history.</p>
+ * retrieving delivery history and finding nearby couriers.</p>
  */
 @RestController
 @RequestMapping("courier")
@@ -68,17 +78,96 @@ public class CourierController {
     }
 
     /**
-     * Retrieves delivery history for a courier.
+     * Streams the status changes of the orders assigned to a courier as Server-Sent Events.
      *
-     * <p>Only delivered orders are included.</p>
+     * <p>Each change is an {@code order-status} event; a {@code resync} event
+     * means changes were dropped and the active orders should be reloaded.</p>
      *
      * @param courierId ID of the courier
-     * @return list of delivered order DTOs
+     * @return event stream
+     */
+    @GetMapping(value = "/order-events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderEvents(@RequestParam Long courierId){
+        return courierService.subscribeToOrderEvents(courierId);
+    }
+
+    /**
+     * Retrieves one page of the delivery history for a courier.
+     *
+     * <p>Only delivered orders are included, newest first.
+     * Pass the returned {@code nextCursor} as {@code cursor} to get the next page.</p>
+     *
+     * @param courierId ID of the courier
+     * @param cursor cursor of the page to fetch; omit for the first page
+     * @param limit maximum number of orders on the page (at most 200)
+     * @return page of delivered order DTOs
      */
     @GetMapping("/view-courierHistory")
-    public List<DeliveredOrderDto> getCourierHistory(@RequestParam Long courierId){
-        return courierService.getCourierHistory(courierId);
+    public CursorPageDto<DeliveredOrderDto> getCourierHistory(@RequestParam Long courierId,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "50") int limit){
+        return courierService.getCourierHistory(courierId, cursor, limit);
+
+    }
+
+    /**
+     * Streams the complete delivery history of a courier.
+     *
+     * <p>Orders are written as newline-delimited JSON while they are read
+     * from the database, newest first.</p>
+     *
+     * @param courierId ID of the courier
+     * @return emitter writing one delivered order DTO per line
+     */
+    @GetMapping(value = "/view-courierHistory/stream", produces = NdjsonStreams.NDJSON)
+    public ResponseBodyEmitter streamCourierHistory(@RequestParam Long courierId){
+        return NdjsonStreams.<DeliveredOrderDto>stream(
+                consumer -> courierService.streamCourierHistory(courierId, consumer));
+    }
 
+    /**
+     * Finds the couriers closest to a location.
+     *
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @param limit maximum number of couriers (at most 100)
+     * @param radiusMeters search radius in meters (at most 50 km)
+     * @return nearby couriers, closest first
+     */
+    @GetMapping("/nearby")
+    public List<NearbyCourierDto> findNearbyCouriers(@RequestParam Double latitude,
+                                                     @RequestParam Double longitude,
+                                                     @RequestParam(defaultValue = "10") int limit,
+                                                     @RequestParam(defaultValue = "5000") double radiusMeters){
+        return courierService.findNearbyCouriers(latitude, longitude, limit, radiusMeters);
     }
 
+    /**
+     * Receives a batch of courier position reports.
+     *
+     * <p>Positions are visible to nearby searches at once and are written
+     * to the database in the background.</p>
+     *
+     * @param updates position reports
+     * @return number of accepted and rejected reports
+     */
+    @PostMapping("/locations")
+    public LocationBatchResultDto ingestLocations(@RequestBody List<CourierLocationUpdateDto> updates){
+        return courierService.ingestLocations(updates);
+    }
+
+    /**
+     * Retrieves the recorded trajectory of a courier.
+     *
+     * @param courierId ID of the courier
+     * @param from start of the range (ISO date-time), inclusive
+     * @param to end of the range (ISO date-time), inclusive; at most 7 days after {@code from}
+     * @return positions in time order
+     */
+    @GetMapping("/track")
+    public List<TrackPointDto> getCourierTrack(@RequestParam Long courierId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to){
+        return courierService.getCourierTrack(courierId, from, to);
+    }
 }
@@ -1,10 +1,14 @@
 package com.delivery.dvApp.controller;
 
 import com.delivery.dvApp.dto.ActiveOrderCustomerDto;
+import com.delivery.dvApp.dto.CursorPageDto;
 import com.delivery.dvApp.dto.OrderHistoryDto;
 import com.delivery.dvApp.entity.Customer;
 import com.delivery.dvApp.service.CustomerService;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 /**
@@ -67,16 +71,50 @@ public class CustomerController {
         return customerService.viewActiveOrders(customerId);
 
     }
+
+    /**
+     * Streams the status changes of a customer's orders as Server-Sent Events.
+     *
+     * <p>Each change is an {@code order-status} event; a {@code resync} event
+     * means changes were dropped and the active orders should be reloaded.</p>
+     *
+     * @param customerId ID of the customer
+     * @return event stream
+     */
+    @GetMapping(value = "/order-events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderEvents(@RequestParam Long customerId){
+        return customerService.subscribeToOrderEvents(customerId);
+    }
     /**
-     * Retrieves order history for a customer.
+     * Retrieves one page of the order history for a customer.
      *
-     * <p>Only delivered orders are included in the history.</p>
+     * <p>Only delivered orders are included in the history, newest first.
+     * Pass the returned {@code nextCursor} as {@code cursor} to get the next page.</p>
      *
      * @param customerId ID of the customer
-     * @return list of order history DTOs
+     * @param cursor cursor of the page to fetch; omit for the first page
+     * @param limit maximum number of orders on the page (at most 200)
+     * @return page of order history DTOs
      */
     @GetMapping("/view-orderHistory")
-    public List<OrderHistoryDto> viewOrderHistory(@RequestParam Long customerId){
-        return customerService.viewOrderHistory(customerId);
+    public CursorPageDto<OrderHistoryDto> viewOrderHistory(@RequestParam Long customerId,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(defaultValue = "50") int limit){
+        return customerService.viewOrderHistory(customerId, cursor, limit);
+    }
+
+    /**
+     * Streams the complete order history of a customer.
+     *
+     * <p>Orders are written as newline-delimited JSON while they are read
+     * from the database, newest first.</p>
+     *
+     * @param customerId ID of the customer
+     * @return emitter writing one order history DTO per line
+     */
+    @GetMapping(value = "/view-orderHistory/stream", produces = NdjsonStreams.NDJSON)
+    public ResponseBodyEmitter streamOrderHistory(@RequestParam Long customerId){
+        return NdjsonStreams.<OrderHistoryDto>stream(
+                consumer -> customerService.streamOrderHistory(customerId, consumer));
     }
 }
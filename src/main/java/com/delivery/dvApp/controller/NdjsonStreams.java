@@ -0,0 +1,61 @@
+package com.delivery.dvApp.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Helper for endpoints that stream rows as newline-delimited JSON.
+ *
+ * <p>The producer runs on its own virtual thread and every row is written
+ * to the response as soon as it is handed over, so nothing accumulates
+ * on the server. Each row is serialized by the regular JSON message
+ * converter and written together with its line break in one send.
+ * Producers read their rows in short chunks, so a slow client never
+ * keeps a transaction or a database cursor open.</p>
+ */
+final class NdjsonStreams {
+    /** Content type of streamed responses */
+    static final String NDJSON = "application/x-ndjson";
+
+    private NdjsonStreams() {
+    }
+
+    /**
+     * Starts streaming the rows of {@code producer} to a new response emitter.
+     *
+     * @param producer pushes every row into the consumer it is given
+     * @return emitter to return from the controller method
+     * @param <T> type of the streamed rows
+     */
+    static <T> ResponseBodyEmitter stream(Consumer<Consumer<T>> producer) {
+        // No timeout: long histories may take a while to drain to slow clients,
+        // and waiting for them holds no database resources.
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(0L);
+        Thread.startVirtualThread(() -> {
+            try {
+                producer.accept(row -> send(emitter, row));
+                emitter.complete();
+            } catch (RuntimeException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    private static void send(ResponseBodyEmitter emitter, Object row) {
+        try {
+            Set<ResponseBodyEmitter.DataWithMediaType> line = new LinkedHashSet<>();
+            line.add(new ResponseBodyEmitter.DataWithMediaType(row, MediaType.APPLICATION_JSON));
+            line.add(new ResponseBodyEmitter.DataWithMediaType("\n", MediaType.TEXT_PLAIN));
+            emitter.send(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
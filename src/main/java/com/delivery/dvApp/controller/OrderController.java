@@ -1,8 +1,10 @@
 package com.delivery.dvApp.controller;
 
+import com.delivery.dvApp.dto.BulkTransitionRequestDto;
+import com.delivery.dvApp.dto.BulkTransitionResultDto;
 import com.delivery.dvApp.dto.OrderRequestDto;
+import com.delivery.dvApp.dto.OrderTransitionDto;
 import com.delivery.dvApp.dto.ReceiptDto;
-import com.delivery.dvApp.entity.Order;
 import com.delivery.dvApp.service.OrderService;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,6 +17,9 @@ import org.springframework.web.bind.annotation.*;
  * <p>Provides APIs for creating orders and managing
  * order lifecycle transitions such as acceptance,
  * pickup, delivery, and cancellation.</p>
+ *
+ * <p>Transition endpoints return a compact {@link OrderTransitionDto}.
+ * Passing {@code ?expand=order} additionally includes the full order.</p>
  */
 public class OrderController {
     private OrderService orderService;
@@ -49,11 +54,12 @@ public class OrderController {
      * <p>Only orders with CREATED status can be accepted.</p>
      *
      * @param id ID of the order
-     * @return updated order
+     * @param expand optional; {@code order} includes the full order in the response
+     * @return transition result with the new status
      */
     @PutMapping("/{id}/accept")
-    public Order acceptOrder(@PathVariable Long id){
-        return orderService.acceptOrder(id);
+    public OrderTransitionDto acceptOrder(@PathVariable Long id, @RequestParam(required = false) String expand){
+        return orderService.acceptOrder(id, isOrderExpanded(expand));
 
     }
 
@@ -63,11 +69,12 @@ public class OrderController {
      * <p>Order must be in ACCEPTED state.</p>
      *
      * @param id ID of the order
-     * @return updated order
+     * @param expand optional; {@code order} includes the full order in the response
+     * @return transition result with the new status
      */
     @PutMapping("/{id}/pickup")
-    public Order pickUp(@PathVariable Long id){
-        return  orderService.pickUpOrder(id);
+    public OrderTransitionDto pickUp(@PathVariable Long id, @RequestParam(required = false) String expand){
+        return orderService.pickUpOrder(id, isOrderExpanded(expand));
     }
 
     /**
@@ -76,11 +83,12 @@ public class OrderController {
      * <p>Order must be in PICKED_UP state.</p>
      *
      * @param id ID of the order
-     * @return updated order
+     * @param expand optional; {@code order} includes the full order in the response
+     * @return transition result with the new status
      */
     @PutMapping("/{id}/deliver")
-    public Order deliver(@PathVariable Long id){
-        return orderService.deliverOrder(id);
+    public OrderTransitionDto deliver(@PathVariable Long id, @RequestParam(required = false) String expand){
+        return orderService.deliverOrder(id, isOrderExpanded(expand));
     }
 
     /**
@@ -89,11 +97,36 @@ public class OrderController {
      * <p>Delivered orders cannot be cancelled.</p>
      *
      * @param id ID of the order
-     * @return updated order
+     * @param expand optional; {@code order} includes the full order in the response
+     * @return transition result with the new status
      */
     @PutMapping("/{id}/cancel")
-    public Order cancel(@PathVariable Long id){
-        return orderService.cancelOrder(id);
+    public OrderTransitionDto cancel(@PathVariable Long id, @RequestParam(required = false) String expand){
+        return orderService.cancelOrder(id, isOrderExpanded(expand));
+    }
+
+    /**
+     * Moves many orders to the same status in one request.
+     *
+     * <p>Orders that do not exist or cannot move to the requested status
+     * are reported individually instead of failing the request.</p>
+     *
+     * @param request IDs of the orders and the status to move them to
+     * @return number of moved orders and the outcome per order
+     */
+    @PutMapping("/bulk-transition")
+    public BulkTransitionResultDto transitionOrders(@RequestBody BulkTransitionRequestDto request){
+        return orderService.transitionOrders(request);
+    }
+
+    /**
+     * Checks whether the caller asked for the full order.
+     *
+     * @param expand value of the {@code expand} request parameter
+     * @return true if the parameter is {@code order}
+     */
+    private boolean isOrderExpanded(String expand){
+        return "order".equalsIgnoreCase(expand);
     }
 
 }
@@ -1,9 +1,22 @@
 package com.delivery.dvApp.controller;
 
+import com.delivery.dvApp.cache.CachedMenu;
+import com.delivery.dvApp.dto.CursorPageDto;
 import com.delivery.dvApp.dto.MenuItemDto;
+import com.delivery.dvApp.dto.NearbyRestaurantDto;
+import com.delivery.dvApp.dto.OrderBoardDto;
+import com.delivery.dvApp.dto.RestaurantDeletionDto;
+import com.delivery.dvApp.dto.RestaurantListingPageDto;
+import com.delivery.dvApp.dto.RestaurantSuggestionDto;
+import com.delivery.dvApp.dto.SearchHitDto;
 import com.delivery.dvApp.entity.Restaurant;
 import com.delivery.dvApp.service.RestaurantService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -32,14 +45,22 @@ public class RestaurantController {
     }
 
     /**
-     * Retrieves all active restaurants.
+     * Retrieves one page of the active restaurants.
      *
-     * @return list of restaurants that are not marked as deleted
+     * <p>Restaurants are ordered by ID; pass the returned {@code nextCursor}
+     * as {@code cursor} to get the next page. {@code fields} limits the
+     * returned fields, e.g. {@code fields=id,name,category}.</p>
+     *
+     * @param fields fields to return (id, name, address, phoneNumber, category); omit for all of them
+     * @param cursor cursor of the page to fetch; omit for the first page
+     * @param limit maximum number of restaurants on the page (at most 200)
+     * @return page of restaurants that are not marked as deleted, with an estimated total
      */
     @GetMapping("/findAll")
-    public List<Restaurant> findAllRestaurants(){
-
-        return restaurantService.findAllRestaurants();
+    public RestaurantListingPageDto findAllRestaurants(@RequestParam(required = false) List<String> fields,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "50") int limit){
+        return restaurantService.listRestaurants(fields, cursor, limit);
     }
     /**
      * Retrieves a restaurant by its name.
@@ -58,23 +79,130 @@ public class RestaurantController {
      *
      * <p>Only items that are not marked as deleted are included.</p>
      *
+     * <p>The menu is written from its cached JSON bytes, gzip compressed when
+     * the client accepts it and a compressed copy exists. The response carries
+     * a strong ETag; Spring answers a matching {@code If-None-Match} with
+     * {@code 304 Not Modified} and no body.</p>
+     *
      * @param restaurantId ID of the restaurant
-     * @return list of menu item DTOs
+     * @param acceptEncoding value of the {@code Accept-Encoding} request header
+     * @return JSON array of menu item DTOs
      */
     @GetMapping("/getMenu")
-    public List<MenuItemDto> getMenu(@RequestParam Long restaurantId){
-        return restaurantService.getMenuOfRestaurant(restaurantId);
+    public ResponseEntity<byte[]> getMenu(@RequestParam Long restaurantId,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding){
+        CachedMenu menu = restaurantService.getMenu(restaurantId);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        if(menu.hasGzippedJson() && acceptsGzip(acceptEncoding)){
+            return response.eTag(menu.getGzippedEtag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(menu.getGzippedJson());
+        }
+        return response.eTag(menu.getEtag()).body(menu.getJson());
+    }
+
+    /**
+     * Checks whether an {@code Accept-Encoding} header allows gzip.
+     *
+     * @param acceptEncoding header value, may be null
+     * @return true unless gzip is missing or explicitly refused with {@code q=0}
+     */
+    private boolean acceptsGzip(String acceptEncoding){
+        if(acceptEncoding == null){
+            return false;
+        }
+        boolean wildcard = false;
+        for(String coding : acceptEncoding.split(",")){
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            boolean refused = false;
+            for(int i = 1; i < parts.length; i++){
+                refused |= parts[i].replace(" ", "").matches("q=0(\\.0{0,3})?");
+            }
+            if(name.equalsIgnoreCase("gzip")){
+                return !refused;
+            }
+            if(name.equals("*")){
+                wildcard = !refused;
+            }
+        }
+        return wildcard;
     }
 
     /**
-     * Retrieves restaurants by category.
+     * Searches restaurant names, item names and item descriptions.
+     *
+     * <p>Matches prefixes and small typos, so "margh" finds "Margherita".</p>
      *
-     * @param category category name (case-insensitive)
-     * @return list of restaurants belonging to the category
+     * @param q text typed by the user
+     * @param limit maximum number of results (at most 50)
+     * @return matching restaurants and items, best match first
+     */
+    @GetMapping("/search")
+    public List<SearchHitDto> search(@RequestParam String q, @RequestParam(defaultValue = "20") int limit){
+        return restaurantService.search(q, limit);
+    }
+
+    /**
+     * Suggests restaurants while their name is typed.
+     *
+     * <p>Meant to be called on every keystroke; answered from memory.</p>
+     *
+     * @param prefix text typed so far
+     * @param limit maximum number of suggestions (at most 10)
+     * @return live restaurants with a word starting with the prefix, most popular first
+     */
+    @GetMapping("/autocomplete")
+    public List<RestaurantSuggestionDto> autocomplete(@RequestParam String prefix,
+                                                      @RequestParam(defaultValue = "10") int limit){
+        return restaurantService.suggestRestaurants(prefix, limit);
+    }
+
+    /**
+     * Retrieves one page of the restaurants in any of the given categories.
+     *
+     * <p>Several categories are passed comma separated or as repeated
+     * parameters, e.g. {@code category=VEGAN,DESSERT}. Restaurants are
+     * ordered by ID; pass the returned {@code nextCursor} as {@code cursor}
+     * to get the next page.</p>
+     *
+     * @param category category names (case-insensitive)
+     * @param cursor cursor of the page to fetch; omit for the first page
+     * @param limit maximum number of restaurants on the page (at most 200)
+     * @return page of live restaurants belonging to the categories
      */
     @GetMapping("/getByCategory")
-    public List<Restaurant> getByCategory(@RequestParam String category) {
-        return restaurantService.getRestaurantsByCategory(category);
+    public CursorPageDto<Restaurant> getByCategory(@RequestParam List<String> category,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(defaultValue = "50") int limit) {
+        return restaurantService.getRestaurantsByCategory(category, cursor, limit);
+    }
+
+    /**
+     * Finds the restaurants closest to a location.
+     *
+     * <p>Optionally limited to some categories, passed like for
+     * {@code getByCategory}, e.g. {@code category=VEGAN,DESSERT}.</p>
+     *
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @param category category names (case-insensitive); omit for every category
+     * @param limit maximum number of restaurants (at most 100)
+     * @param radiusMeters search radius in meters (at most 50 km)
+     * @return nearby restaurants, closest first
+     */
+    @GetMapping("/nearby")
+    public List<NearbyRestaurantDto> findNearbyRestaurants(@RequestParam Double latitude,
+                                                           @RequestParam Double longitude,
+                                                           @RequestParam(required = false) List<String> category,
+                                                           @RequestParam(defaultValue = "20") int limit,
+                                                           @RequestParam(defaultValue = "5000") double radiusMeters){
+        return restaurantService.findNearbyRestaurants(latitude, longitude, category, limit, radiusMeters);
     }
 
     /**
@@ -99,6 +227,19 @@ public class RestaurantController {
         restaurantService.changeRestaurantAddress(restaurantId,address);
     }
 
+    /**
+     * Updates the location of a restaurant.
+     *
+     * @param restaurantId ID of the restaurant
+     * @param latitude new latitude in degrees
+     * @param longitude new longitude in degrees
+     */
+    @PutMapping("/changeLocation")
+    public void changeLocation(@RequestParam Long restaurantId, @RequestParam Double latitude,
+                               @RequestParam Double longitude){
+        restaurantService.changeRestaurantLocation(restaurantId, latitude, longitude);
+    }
+
     /**
      * Updates the price of a menu item.
      *
@@ -142,6 +283,17 @@ public class RestaurantController {
         restaurantService.deleteRestaurant(restaurantId);
     }
 
+    /**
+     * Soft deletes many restaurants and all their menu items at once.
+     *
+     * @param restaurantIds IDs of the restaurants
+     * @return number of restaurants and items that were deleted
+     */
+    @DeleteMapping("/delete-restaurants")
+    public RestaurantDeletionDto deleteRestaurants(@RequestParam List<Long> restaurantIds){
+        return restaurantService.deleteRestaurants(restaurantIds);
+    }
+
     /**
      * Soft deletes an item from a restaurant's menu.
      *
@@ -153,5 +305,35 @@ public class RestaurantController {
         restaurantService.removeItem(restaurantId,itemId);
     }
 
+    /**
+     * Streams the status changes of the orders a restaurant prepares as Server-Sent Events.
+     *
+     * <p>Each change is an {@code order-status} event; a {@code resync} event
+     * means changes were dropped and the orders should be reloaded.</p>
+     *
+     * @param restaurantId ID of the restaurant
+     * @return event stream
+     */
+    @GetMapping(value = "/order-events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderEvents(@RequestParam Long restaurantId){
+        return restaurantService.subscribeToOrderEvents(restaurantId);
+    }
+
+    /**
+     * Retrieves a restaurant's board of orders waiting to be handed over.
+     *
+     * <p>The first request returns a snapshot with a version; passing that
+     * version as {@code since} returns only the changes after it.</p>
+     *
+     * @param restaurantId ID of the restaurant
+     * @param since board version the client has seen
+     * @return snapshot or changes, with the new board version
+     */
+    @GetMapping("/order-board")
+    public OrderBoardDto getOrderBoard(@RequestParam Long restaurantId,
+                                       @RequestParam(required = false) Long since){
+        return restaurantService.getOrderBoard(restaurantId, since);
+    }
+
 
 }
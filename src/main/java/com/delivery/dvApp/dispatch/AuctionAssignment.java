@@ -0,0 +1,98 @@
+package com.delivery.dvApp.dispatch;
+
+import java.util.Arrays;
+
+/**
+ * Min-cost assignment of orders to couriers with Bertsekas' auction algorithm.
+ *
+ * <p>The problem is sparse: every order lists the couriers it may be given
+ * to, with the cost of each pairing. Orders are bidders and couriers the
+ * objects on sale. An unassigned order bids for the courier with the best
+ * value (cost plus current price) and raises its price by the margin over
+ * the second-best option plus {@code epsilon}, taking the courier away from
+ * its previous holder. Each order also has a private option of staying
+ * unassigned for {@code unassignedCost}, which no other order competes for;
+ * this keeps the auction finite when couriers are short.</p>
+ *
+ * <p>The result is within {@code orders * epsilon} of the minimum total
+ * cost, where leaving an order unassigned counts as {@code unassignedCost}.
+ * Prices start at zero and only rise, so couriers nobody bid for end up
+ * unassigned at price zero, as the asymmetric problem requires.</p>
+ */
+public final class AuctionAssignment {
+    /** Marks an order that is not assigned to any courier */
+    public static final int UNASSIGNED = -1;
+
+    private AuctionAssignment() {
+    }
+
+    /**
+     * Solves the assignment.
+     *
+     * @param couriers number of couriers; courier indexes run from 0 to {@code couriers - 1}
+     * @param edgeStart for order {@code i}, its candidates are edges {@code edgeStart[i]} to
+     *                  {@code edgeStart[i + 1] - 1}; the array has one more entry than there are orders
+     * @param edgeCourier courier index of every edge
+     * @param edgeCost cost of every edge, non-negative
+     * @param unassignedCost cost of leaving an order unassigned; should exceed every edge cost
+     * @param epsilon minimum bid increment, positive
+     * @return courier index assigned to every order, or {@link #UNASSIGNED}
+     */
+    public static int[] solve(int couriers, int[] edgeStart, int[] edgeCourier, long[] edgeCost,
+                              long unassignedCost, long epsilon) {
+        int orders = edgeStart.length - 1;
+        int[] assigned = new int[orders];
+        Arrays.fill(assigned, UNASSIGNED);
+        int[] holder = new int[couriers];
+        Arrays.fill(holder, UNASSIGNED);
+        long[] price = new long[couriers];
+
+        // Ring buffer of orders that still have to bid; an order is in it at most once.
+        int[] queue = new int[orders];
+        int head = 0;
+        int size = 0;
+        for (int i = 0; i < orders; i++) {
+            if (edgeStart[i] < edgeStart[i + 1]) {
+                queue[size++] = i;
+            }
+        }
+
+        while (size > 0) {
+            int order = queue[head];
+            head = (head + 1) % orders;
+            size--;
+
+            // Lowest and second lowest "cost + price"; staying unassigned is always an option.
+            int best = UNASSIGNED;
+            long bestValue = unassignedCost;
+            long secondValue = unassignedCost;
+            for (int e = edgeStart[order]; e < edgeStart[order + 1]; e++) {
+                int courier = edgeCourier[e];
+                long value = edgeCost[e] + price[courier];
+                if (value < bestValue) {
+                    secondValue = bestValue;
+                    bestValue = value;
+                    best = courier;
+                } else if (value < secondValue) {
+                    secondValue = value;
+                }
+            }
+
+            if (best == UNASSIGNED) {
+                // Prices never drop, so staying unassigned remains the best choice for good.
+                continue;
+            }
+
+            price[best] += secondValue - bestValue + epsilon;
+            int outbid = holder[best];
+            holder[best] = order;
+            assigned[order] = best;
+            if (outbid != UNASSIGNED) {
+                assigned[outbid] = UNASSIGNED;
+                queue[(head + size) % orders] = outbid;
+                size++;
+            }
+        }
+        return assigned;
+    }
+}
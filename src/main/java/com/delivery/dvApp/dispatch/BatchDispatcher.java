@@ -0,0 +1,165 @@
+package com.delivery.dvApp.dispatch;
+
+import com.delivery.dvApp.activeorder.ActiveOrderCounters;
+import com.delivery.dvApp.activeorder.OpenOrder;
+import com.delivery.dvApp.enums.OrderStatus;
+import com.delivery.dvApp.event.OrderStatusEvent;
+import com.delivery.dvApp.geo.CourierLocation;
+import com.delivery.dvApp.geo.CourierSpatialIndex;
+import com.delivery.dvApp.repository.OrderRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns couriers to every order that is still waiting for one.
+ *
+ * <p>Runs are started by the {@link DispatchTrigger}. Each run reads the pending orders and the positions of all idle
+ * couriers, matches them with a {@link DispatchPlanner} and writes every
+ * assignment in one JDBC batch within one transaction. An assignment only
+ * applies if the order still has no courier and is still pending, so
+ * orders that were cancelled or assigned in the meantime are left alone.
+ * Orders that got no courier are retried with the next run.</p>
+ *
+ * <p>Whether a courier is idle is answered by the {@link ActiveOrderCounters},
+ * which also learn about every assignment once the run has committed. Every
+ * assignment is published as an {@link OrderStatusEvent} within the run's
+ * transaction, so the courier is told about the new order and the change
+ * reaches the order event outbox.</p>
+ */
+@Component
+public class BatchDispatcher {
+    /** Statuses in which an order can still get a courier */
+    static final List<OrderStatus> PENDING_STATUSES = List.of(OrderStatus.CREATED, OrderStatus.ACCEPTED);
+
+    /** Statuses in which an order keeps its courier busy */
+    static final List<OrderStatus> BUSY_STATUSES =
+            List.of(OrderStatus.CREATED, OrderStatus.ACCEPTED, OrderStatus.PICKED_UP);
+
+    /** Largest number of orders dispatched in one run; the rest waits for the next one */
+    private static final int MAX_BATCH_ORDERS = 10_000;
+
+    /** Number of nearest idle couriers considered for each order */
+    private static final int CANDIDATES_PER_ORDER = 16;
+
+    /** Couriers further away from the pickup location are never assigned */
+    private static final double RADIUS_METERS = 10_000;
+
+    private static final String ASSIGN_SQL =
+            "update cus_order set courier_id = ? " +
+            "where id = ? and courier_id is null and status in ('CREATED', 'ACCEPTED')";
+
+    private final OrderRepository orderRepository;
+    private final CourierSpatialIndex courierSpatialIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final ActiveOrderCounters activeOrderCounters;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DispatchPlanner planner = new DispatchPlanner(CANDIDATES_PER_ORDER, RADIUS_METERS);
+
+    /**
+     * @param orderRepository repository for orders
+     * @param courierSpatialIndex index of courier positions
+     * @param jdbcTemplate template used for the batched assignment
+     * @param activeOrderCounters in-memory counts of open orders
+     * @param eventPublisher bus the assignment events are published on
+     */
+    public BatchDispatcher(OrderRepository orderRepository,
+                           CourierSpatialIndex courierSpatialIndex,
+                           JdbcTemplate jdbcTemplate,
+                           ActiveOrderCounters activeOrderCounters,
+                           ApplicationEventPublisher eventPublisher) {
+        this.orderRepository = orderRepository;
+        this.courierSpatialIndex = courierSpatialIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.activeOrderCounters = activeOrderCounters;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Assigns couriers to pending orders.
+     *
+     * @return number of orders that got a courier
+     */
+    @Transactional
+    public int dispatch() {
+        List<PendingOrder> orders =
+                orderRepository.findPendingDispatch(PENDING_STATUSES, PageRequest.of(0, MAX_BATCH_ORDERS));
+        if (orders.isEmpty()) {
+            return 0;
+        }
+
+        List<CourierLocation> idle = new ArrayList<>();
+        for (CourierLocation location : courierSpatialIndex.snapshot()) {
+            if (!activeOrderCounters.courierHasOrderIn(location.getCourierId(), BUSY_STATUSES)) {
+                idle.add(location);
+            }
+        }
+
+        List<DispatchAssignment> assignments = planner.plan(orders, idle);
+        if (assignments.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> rows = new ArrayList<>(assignments.size());
+        for (DispatchAssignment assignment : assignments) {
+            rows.add(new Object[]{assignment.getCourierId(), assignment.getOrderId()});
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int[] counts = jdbcTemplate.batchUpdate(ASSIGN_SQL, rows);
+        List<DispatchAssignment> applied = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            // Drivers may report SUCCESS_NO_INFO (-2) instead of a row count.
+            if (counts[i] != 0) {
+                applied.add(assignments.get(i));
+            }
+        }
+        publishAssignments(applied, now);
+        for (DispatchAssignment assignment : applied) {
+            activeOrderCounters.assigned(assignment.getOrderId(), assignment.getCourierId());
+        }
+        return applied.size();
+    }
+
+    /**
+     * Publishes an event for every applied assignment.
+     *
+     * <p>The other parties of an order come from the {@link ActiveOrderCounters};
+     * the orders they do not track yet are read with a single query, so no
+     * assignment goes unpublished.</p>
+     *
+     * @param applied assignments that were written
+     * @param now time of the assignment
+     */
+    private void publishAssignments(List<DispatchAssignment> applied, LocalDateTime now) {
+        Map<Long, OpenOrder> orders = new HashMap<>();
+        List<Long> untracked = new ArrayList<>();
+        for (DispatchAssignment assignment : applied) {
+            OpenOrder order = activeOrderCounters.find(assignment.getOrderId());
+            if (order != null) {
+                orders.put(order.getOrderId(), order);
+            } else {
+                untracked.add(assignment.getOrderId());
+            }
+        }
+        if (!untracked.isEmpty()) {
+            for (OpenOrder order : orderRepository.findOpenOrderStates(untracked)) {
+                orders.put(order.getOrderId(), order);
+            }
+        }
+        for (DispatchAssignment assignment : applied) {
+            OpenOrder order = orders.get(assignment.getOrderId());
+            if (order != null) {
+                eventPublisher.publishEvent(new OrderStatusEvent(order.getOrderId(), order.getStatus(), now,
+                        assignment.getCourierId(), order.getCustomerId(), order.getRestaurantId()));
+            }
+        }
+    }
+}
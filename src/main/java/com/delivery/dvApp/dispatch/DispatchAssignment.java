@@ -0,0 +1,37 @@
+package com.delivery.dvApp.dispatch;
+
+/**
+ * Courier chosen for an order by the {@link DispatchPlanner}.
+ */
+public final class DispatchAssignment {
+    private final Long orderId;
+    private final Long courierId;
+    private final double travelSeconds;
+
+    public DispatchAssignment(Long orderId, Long courierId, double travelSeconds) {
+        this.orderId = orderId;
+        this.courierId = courierId;
+        this.travelSeconds = travelSeconds;
+    }
+
+    /**
+     * @return order ID
+     */
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * @return ID of the assigned courier
+     */
+    public Long getCourierId() {
+        return courierId;
+    }
+
+    /**
+     * @return estimated time for the courier to reach the first pickup location of its bundle, in seconds
+     */
+    public double getTravelSeconds() {
+        return travelSeconds;
+    }
+}
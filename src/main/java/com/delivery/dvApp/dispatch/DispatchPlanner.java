@@ -0,0 +1,224 @@
+package com.delivery.dvApp.dispatch;
+
+import com.delivery.dvApp.enums.Vehicle;
+import com.delivery.dvApp.geo.CourierLocation;
+import com.delivery.dvApp.geo.CourierNeighbor;
+import com.delivery.dvApp.geo.CourierSpatialIndex;
+import com.delivery.dvApp.geo.GeoDistance;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches a batch of pending orders to idle couriers at minimum total travel time.
+ *
+ * <p>Orders are first grouped into bundles that one courier can serve in a
+ * single trip: up to {@value #MAX_BUNDLE_SIZE} orders whose pickup locations
+ * are within {@value #BUNDLE_PICKUP_METERS} m and whose drop-off locations
+ * are within {@value #BUNDLE_DROPOFF_METERS} m of the bundle's first order.
+ * Orders without a known drop-off location are never bundled.</p>
+ *
+ * <p>The cost of giving a bundle to a courier is the time the courier needs
+ * to reach the first pickup location at its vehicle's average speed. Only
+ * the {@code candidatesPerOrder} nearest idle couriers within
+ * {@code radiusMeters} are considered for each bundle, which keeps the
+ * problem sparse; the matching itself is solved by {@link AuctionAssignment}
+ * to within a second of travel time per bundle. Orders that get no courier
+ * stay pending for the next batch.</p>
+ */
+public final class DispatchPlanner {
+    /**
+     * Bid increment of the auction, in milliseconds of travel time. Smaller
+     * values cost more bidding rounds; a second is well below the error of
+     * an average-speed estimate.
+     */
+    private static final long EPSILON_MILLIS = 1000;
+
+    /** Largest number of orders given to one courier in one batch */
+    static final int MAX_BUNDLE_SIZE = 3;
+
+    /** Pickup locations of bundled orders are at most this far from the first one */
+    static final double BUNDLE_PICKUP_METERS = 300;
+
+    /** Drop-off locations of bundled orders are at most this far from the first one */
+    static final double BUNDLE_DROPOFF_METERS = 2_000;
+
+    private final int candidatesPerOrder;
+    private final double radiusMeters;
+
+    /**
+     * @param candidatesPerOrder number of nearest idle couriers considered for each bundle
+     * @param radiusMeters couriers further away from the pickup location are not considered
+     */
+    public DispatchPlanner(int candidatesPerOrder, double radiusMeters) {
+        this.candidatesPerOrder = candidatesPerOrder;
+        this.radiusMeters = radiusMeters;
+    }
+
+    /**
+     * Chooses a courier for as many orders as possible.
+     *
+     * @param orders orders waiting for a courier, oldest first
+     * @param idleCouriers positions of couriers without an order in progress
+     * @return one assignment per matched order; orders of one bundle share a courier,
+     *         otherwise every courier is used at most once
+     */
+    public List<DispatchAssignment> plan(List<PendingOrder> orders, List<CourierLocation> idleCouriers) {
+        if (orders.isEmpty() || idleCouriers.isEmpty()) {
+            return List.of();
+        }
+
+        CourierSpatialIndex index = new CourierSpatialIndex();
+        Map<Long, Integer> courierIndexes = new HashMap<>(idleCouriers.size() * 2);
+        for (CourierLocation courier : idleCouriers) {
+            if (courierIndexes.putIfAbsent(courier.getCourierId(), courierIndexes.size()) == null) {
+                index.update(courier.getCourierId(), courier.getVehicle(),
+                        courier.getLatitude(), courier.getLongitude());
+            }
+        }
+        Long[] courierIds = new Long[courierIndexes.size()];
+        courierIndexes.forEach((courierId, i) -> courierIds[i] = courierId);
+
+        List<List<PendingOrder>> bundles = bundle(orders);
+
+        int[] edgeStart = new int[bundles.size() + 1];
+        int[] edgeCourier = new int[bundles.size() * candidatesPerOrder];
+        long[] edgeCost = new long[edgeCourier.length];
+        int edges = 0;
+        for (int i = 0; i < bundles.size(); i++) {
+            PendingOrder first = bundles.get(i).get(0);
+            edgeStart[i] = edges;
+            for (CourierNeighbor neighbor : index.nearest(first.getPickupLatitude(), first.getPickupLongitude(),
+                    candidatesPerOrder, radiusMeters)) {
+                edgeCourier[edges] = courierIndexes.get(neighbor.getLocation().getCourierId());
+                edgeCost[edges] = travelMillis(neighbor.getLocation().getVehicle(), neighbor.getDistanceMeters());
+                edges++;
+            }
+        }
+        edgeStart[bundles.size()] = edges;
+
+        int[] assigned = AuctionAssignment.solve(courierIds.length, edgeStart, edgeCourier, edgeCost,
+                unassignedCost(), EPSILON_MILLIS);
+
+        List<DispatchAssignment> assignments = new ArrayList<>();
+        for (int i = 0; i < bundles.size(); i++) {
+            int courier = assigned[i];
+            if (courier == AuctionAssignment.UNASSIGNED) {
+                continue;
+            }
+            long millis = 0;
+            for (int e = edgeStart[i]; e < edgeStart[i + 1]; e++) {
+                if (edgeCourier[e] == courier) {
+                    millis = edgeCost[e];
+                    break;
+                }
+            }
+            for (PendingOrder order : bundles.get(i)) {
+                assignments.add(new DispatchAssignment(order.getOrderId(), courierIds[courier], millis / 1000d));
+            }
+        }
+        return assignments;
+    }
+
+    /**
+     * Groups compatible orders, oldest first. Each order that is not bundled yet
+     * starts a bundle and takes the compatible orders with the closest drop-off
+     * locations. Candidates are found through a grid of pickup locations with
+     * cells of {@value #BUNDLE_PICKUP_METERS} m.
+     *
+     * @param orders orders to group
+     * @return bundles in the order of their first order; unbundled orders form bundles of one
+     */
+    private static List<List<PendingOrder>> bundle(List<PendingOrder> orders) {
+        double cellDegrees = BUNDLE_PICKUP_METERS / GeoDistance.METERS_PER_DEGREE;
+        Map<Long, List<Integer>> cells = new HashMap<>();
+        for (int i = 0; i < orders.size(); i++) {
+            PendingOrder order = orders.get(i);
+            if (order.hasDropoff()) {
+                cells.computeIfAbsent(cellKey(cell(order.getPickupLatitude(), cellDegrees),
+                        cell(order.getPickupLongitude(), cellDegrees)), key -> new ArrayList<>()).add(i);
+            }
+        }
+
+        boolean[] bundled = new boolean[orders.size()];
+        List<List<PendingOrder>> bundles = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            if (bundled[i]) {
+                continue;
+            }
+            bundled[i] = true;
+            PendingOrder first = orders.get(i);
+            List<PendingOrder> bundle = new ArrayList<>(MAX_BUNDLE_SIZE);
+            bundle.add(first);
+            bundles.add(bundle);
+            if (!first.hasDropoff()) {
+                continue;
+            }
+
+            // A degree of longitude shrinks towards the poles, so more columns cover the same distance.
+            int latCell = cell(first.getPickupLatitude(), cellDegrees);
+            int lonCell = cell(first.getPickupLongitude(), cellDegrees);
+            int lonReach = (int) Math.ceil(1 / Math.max(0.01, Math.cos(Math.toRadians(first.getPickupLatitude()))));
+            List<Integer> candidates = new ArrayList<>();
+            List<Double> dropoffMeters = new ArrayList<>();
+            for (int dLat = -1; dLat <= 1; dLat++) {
+                for (int dLon = -lonReach; dLon <= lonReach; dLon++) {
+                    for (int j : cells.getOrDefault(cellKey(latCell + dLat, lonCell + dLon), List.of())) {
+                        if (bundled[j]) {
+                            continue;
+                        }
+                        PendingOrder other = orders.get(j);
+                        double dropoff = GeoDistance.meters(first.getDropoffLatitude(), first.getDropoffLongitude(),
+                                other.getDropoffLatitude(), other.getDropoffLongitude());
+                        if (dropoff <= BUNDLE_DROPOFF_METERS
+                                && GeoDistance.meters(first.getPickupLatitude(), first.getPickupLongitude(),
+                                other.getPickupLatitude(), other.getPickupLongitude()) <= BUNDLE_PICKUP_METERS) {
+                            candidates.add(j);
+                            dropoffMeters.add(dropoff);
+                        }
+                    }
+                }
+            }
+
+            while (bundle.size() < MAX_BUNDLE_SIZE && !candidates.isEmpty()) {
+                int closest = 0;
+                for (int c = 1; c < candidates.size(); c++) {
+                    if (dropoffMeters.get(c) < dropoffMeters.get(closest)) {
+                        closest = c;
+                    }
+                }
+                int j = candidates.remove(closest);
+                dropoffMeters.remove(closest);
+                bundled[j] = true;
+                bundle.add(orders.get(j));
+            }
+        }
+        return bundles;
+    }
+
+    /**
+     * Leaving an order pending costs more than the slowest courier at the edge of the radius,
+     * so an order is only left out when every courier it could get is better used elsewhere.
+     */
+    private long unassignedCost() {
+        long slowest = 0;
+        for (Vehicle vehicle : Vehicle.values()) {
+            slowest = Math.max(slowest, travelMillis(vehicle, radiusMeters));
+        }
+        return slowest + 1;
+    }
+
+    private static long travelMillis(Vehicle vehicle, double meters) {
+        return Math.round(vehicle.travelSeconds(meters) * 1000);
+    }
+
+    private static int cell(double degrees, double cellDegrees) {
+        return (int) Math.floor(degrees / cellDegrees);
+    }
+
+    private static long cellKey(int latCell, int lonCell) {
+        return ((long) latCell << 32) | (lonCell & 0xFFFFFFFFL);
+    }
+}
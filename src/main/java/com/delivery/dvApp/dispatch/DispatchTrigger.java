@@ -0,0 +1,64 @@
+package com.delivery.dvApp.dispatch;
+
+import com.delivery.dvApp.enums.OrderStatus;
+import com.delivery.dvApp.event.OrderStatusEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Starts the runs of the {@link BatchDispatcher}.
+ *
+ * <p>A run starts every {@code dispatch.interval}, and as soon as an order
+ * without a courier has been committed, so a new order does not wait for
+ * the next interval. Orders created while a run is requested are picked up
+ * by that run, so a burst of orders costs one extra run, not one per order.</p>
+ *
+ * <p>Runs never overlap, including their commit, so two runs cannot hand
+ * the same idle courier to different orders.</p>
+ */
+@Component
+public class DispatchTrigger {
+    private final BatchDispatcher batchDispatcher;
+    private final ReentrantLock running = new ReentrantLock();
+    private final AtomicBoolean requested = new AtomicBoolean();
+
+    /**
+     * @param batchDispatcher dispatcher whose runs are started
+     */
+    public DispatchTrigger(BatchDispatcher batchDispatcher) {
+        this.batchDispatcher = batchDispatcher;
+    }
+
+    /**
+     * Runs the dispatcher once no other run is in progress.
+     *
+     * @return number of orders that got a courier
+     */
+    @Scheduled(fixedDelayString = "${dispatch.interval:PT5S}")
+    public int run() {
+        running.lock();
+        try {
+            requested.set(false);
+            return batchDispatcher.dispatch();
+        } finally {
+            running.unlock();
+        }
+    }
+
+    /**
+     * Requests a run on a virtual thread when an order without a courier has been created.
+     *
+     * @param event committed status change of an order
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void orderCreated(OrderStatusEvent event) {
+        if (event.getStatus() == OrderStatus.CREATED && event.getCourierId() == null
+                && requested.compareAndSet(false, true)) {
+            Thread.startVirtualThread(this::run);
+        }
+    }
+}
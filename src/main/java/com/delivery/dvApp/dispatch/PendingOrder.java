@@ -0,0 +1,67 @@
+package com.delivery.dvApp.dispatch;
+
+/**
+ * Order waiting for a courier, as read by the {@link BatchDispatcher}.
+ */
+public final class PendingOrder {
+    private final Long orderId;
+    private final double pickupLatitude;
+    private final double pickupLongitude;
+    private final Double dropoffLatitude;
+    private final Double dropoffLongitude;
+
+    public PendingOrder(Long orderId, Double pickupLatitude, Double pickupLongitude) {
+        this(orderId, pickupLatitude, pickupLongitude, null, null);
+    }
+
+    public PendingOrder(Long orderId, Double pickupLatitude, Double pickupLongitude,
+                        Double dropoffLatitude, Double dropoffLongitude) {
+        this.orderId = orderId;
+        this.pickupLatitude = pickupLatitude;
+        this.pickupLongitude = pickupLongitude;
+        this.dropoffLatitude = dropoffLatitude;
+        this.dropoffLongitude = dropoffLongitude;
+    }
+
+    /**
+     * @return order ID
+     */
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * @return latitude of the pickup location in degrees
+     */
+    public double getPickupLatitude() {
+        return pickupLatitude;
+    }
+
+    /**
+     * @return longitude of the pickup location in degrees
+     */
+    public double getPickupLongitude() {
+        return pickupLongitude;
+    }
+
+    /**
+     * @return latitude of the drop-off location in degrees, or null if unknown
+     */
+    public Double getDropoffLatitude() {
+        return dropoffLatitude;
+    }
+
+    /**
+     * @return longitude of the drop-off location in degrees, or null if unknown
+     */
+    public Double getDropoffLongitude() {
+        return dropoffLongitude;
+    }
+
+    /**
+     * @return true if the drop-off location is known, which bundling requires
+     */
+    public boolean hasDropoff() {
+        return dropoffLatitude != null && dropoffLongitude != null;
+    }
+}
@@ -0,0 +1,106 @@
+package com.delivery.dvApp.dispatch;
+
+import com.delivery.dvApp.geo.GeoDistance;
+
+/**
+ * Orders the stops of a courier into a short route.
+ *
+ * <p>The route starts at the courier's position and ends at the last stop
+ * (it does not return). It is built with the nearest-neighbour heuristic
+ * and then improved with 2-opt: a section of the route is reversed whenever
+ * that makes the route shorter, until no reversal helps. A courier carries
+ * a handful of orders, so the quadratic passes are cheap.</p>
+ */
+public final class RoutePlanner {
+
+    private RoutePlanner() {
+    }
+
+    /**
+     * Plans the order in which the stops are visited.
+     *
+     * @param startLatitude latitude of the courier
+     * @param startLongitude longitude of the courier
+     * @param latitudes latitudes of the stops
+     * @param longitudes longitudes of the stops
+     * @return indexes of the stops in visiting order
+     */
+    public static int[] plan(double startLatitude, double startLongitude, double[] latitudes, double[] longitudes) {
+        int stops = latitudes.length;
+        // Point 0 is the start, point i + 1 is stop i.
+        double[][] distance = new double[stops + 1][stops + 1];
+        for (int a = 0; a <= stops; a++) {
+            for (int b = a + 1; b <= stops; b++) {
+                double meters = GeoDistance.meters(
+                        a == 0 ? startLatitude : latitudes[a - 1], a == 0 ? startLongitude : longitudes[a - 1],
+                        latitudes[b - 1], longitudes[b - 1]);
+                distance[a][b] = meters;
+                distance[b][a] = meters;
+            }
+        }
+
+        int[] route = nearestNeighbour(distance, stops);
+        improve(distance, route);
+
+        int[] order = new int[stops];
+        for (int i = 0; i < stops; i++) {
+            order[i] = route[i + 1] - 1;
+        }
+        return order;
+    }
+
+    /**
+     * @return route over points {@code 0..stops}, starting at point 0
+     */
+    private static int[] nearestNeighbour(double[][] distance, int stops) {
+        int[] route = new int[stops + 1];
+        boolean[] visited = new boolean[stops + 1];
+        visited[0] = true;
+        for (int i = 1; i <= stops; i++) {
+            int from = route[i - 1];
+            int next = -1;
+            for (int candidate = 1; candidate <= stops; candidate++) {
+                if (!visited[candidate] && (next < 0 || distance[from][candidate] < distance[from][next])) {
+                    next = candidate;
+                }
+            }
+            route[i] = next;
+            visited[next] = true;
+        }
+        return route;
+    }
+
+    /**
+     * Applies improving 2-opt moves until none is left. The start stays in place;
+     * since the route is open, reversing a tail only replaces one edge.
+     */
+    private static void improve(double[][] distance, int[] route) {
+        int last = route.length - 1;
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int i = 1; i < last; i++) {
+                for (int j = i + 1; j <= last; j++) {
+                    double removed = distance[route[i - 1]][route[i]]
+                            + (j < last ? distance[route[j]][route[j + 1]] : 0);
+                    double added = distance[route[i - 1]][route[j]]
+                            + (j < last ? distance[route[i]][route[j + 1]] : 0);
+                    if (added < removed - 1e-6) {
+                        reverse(route, i, j);
+                        improved = true;
+                    }
+                }
+            }
+        }
+    }
+
+    private static void reverse(int[] route, int from, int to) {
+        while (from < to) {
+            int swap = route[from];
+            route[from] = route[to];
+            route[to] = swap;
+            from++;
+            to--;
+        }
+    }
+}
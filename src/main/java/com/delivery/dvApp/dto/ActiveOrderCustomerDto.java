@@ -1,4 +1,7 @@
 package com.delivery.dvApp.dto;
+import com.delivery.dvApp.enums.Vehicle;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -10,6 +13,9 @@ import java.util.List;
  * order creation time, and total price.</p>
  */
 public class ActiveOrderCustomerDto {
+    /** Unique identifier of the order */
+    private Long orderId;
+
     /** Name of the restaurant where the order was placed */
     private String restaurantName;
 
@@ -28,6 +34,50 @@ public class ActiveOrderCustomerDto {
     /** Total price of the order */
     private BigDecimal total;
 
+    /** Estimated delivery time, or null if it cannot be estimated */
+    private LocalDateTime estimatedDeliveryAt;
+
+    /** Courier ID, pickup and drop-off locations; inputs of the estimate, not part of the response */
+    private Long courierId;
+    private Vehicle courierVehicle;
+    private Double pickupLatitude;
+    private Double pickupLongitude;
+    private Double dropoffLatitude;
+    private Double dropoffLongitude;
+
+    public ActiveOrderCustomerDto() {
+    }
+
+    /**
+     * Constructor used by the active order projection query.
+     * Item details and the delivery estimate are attached afterwards.
+     */
+    public ActiveOrderCustomerDto(Long orderId, String restaurantName, String courierName, String courierNumber,
+                                  LocalDateTime createdAt, BigDecimal total,
+                                  Long courierId, Vehicle courierVehicle,
+                                  Double pickupLatitude, Double pickupLongitude,
+                                  Double dropoffLatitude, Double dropoffLongitude) {
+        this.orderId = orderId;
+        this.restaurantName = restaurantName;
+        this.courierName = courierName;
+        this.courierNumber = courierNumber;
+        this.createdAt = createdAt;
+        this.total = total;
+        this.courierId = courierId;
+        this.courierVehicle = courierVehicle;
+        this.pickupLatitude = pickupLatitude;
+        this.pickupLongitude = pickupLongitude;
+        this.dropoffLatitude = dropoffLatitude;
+        this.dropoffLongitude = dropoffLongitude;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
 
     public List<ItemDetailsDto> getItemDetailsDtos() {
         return itemDetailsDtos;
@@ -76,4 +126,42 @@ public class ActiveOrderCustomerDto {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public LocalDateTime getEstimatedDeliveryAt() {
+        return estimatedDeliveryAt;
+    }
+
+    public void setEstimatedDeliveryAt(LocalDateTime estimatedDeliveryAt) {
+        this.estimatedDeliveryAt = estimatedDeliveryAt;
+    }
+
+    @JsonIgnore
+    public Long getCourierId() {
+        return courierId;
+    }
+
+    @JsonIgnore
+    public Vehicle getCourierVehicle() {
+        return courierVehicle;
+    }
+
+    @JsonIgnore
+    public Double getPickupLatitude() {
+        return pickupLatitude;
+    }
+
+    @JsonIgnore
+    public Double getPickupLongitude() {
+        return pickupLongitude;
+    }
+
+    @JsonIgnore
+    public Double getDropoffLatitude() {
+        return dropoffLatitude;
+    }
+
+    @JsonIgnore
+    public Double getDropoffLongitude() {
+        return dropoffLongitude;
+    }
 }
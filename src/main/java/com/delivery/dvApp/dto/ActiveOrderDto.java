@@ -29,6 +29,36 @@ public class ActiveOrderDto {
     /** Customer phone number */
     private String customerNumber;
 
+    /** Latitude of the drop-off location, or null if unknown */
+    private Double dropoffLatitude;
+
+    /** Longitude of the drop-off location, or null if unknown */
+    private Double dropoffLongitude;
+
+    /** Position of this delivery in the courier's planned route, starting at 1 */
+    private Integer stopNumber;
+
+    /** Estimated delivery time along the planned route */
+    private LocalDateTime estimatedDeliveryAt;
+
+    public ActiveOrderDto() {
+    }
+
+    /**
+     * Constructor used by the courier active order projection query.
+     */
+    public ActiveOrderDto(Long orderId, String restaurantName, BigDecimal totalPrice, LocalDateTime pickedAt,
+                          String customerAddress, String customerNumber,
+                          Double dropoffLatitude, Double dropoffLongitude) {
+        this.orderId = orderId;
+        this.restaurantName = restaurantName;
+        this.totalPrice = totalPrice;
+        this.pickedAt = pickedAt;
+        this.customerAddress = customerAddress;
+        this.customerNumber = customerNumber;
+        this.dropoffLatitude = dropoffLatitude;
+        this.dropoffLongitude = dropoffLongitude;
+    }
 
     public String getRestaurantName() {
         return restaurantName;
@@ -77,4 +107,36 @@ public class ActiveOrderDto {
     public void setCustomerNumber(String customerNumber) {
         this.customerNumber = customerNumber;
     }
+
+    public Double getDropoffLatitude() {
+        return dropoffLatitude;
+    }
+
+    public void setDropoffLatitude(Double dropoffLatitude) {
+        this.dropoffLatitude = dropoffLatitude;
+    }
+
+    public Double getDropoffLongitude() {
+        return dropoffLongitude;
+    }
+
+    public void setDropoffLongitude(Double dropoffLongitude) {
+        this.dropoffLongitude = dropoffLongitude;
+    }
+
+    public Integer getStopNumber() {
+        return stopNumber;
+    }
+
+    public void setStopNumber(Integer stopNumber) {
+        this.stopNumber = stopNumber;
+    }
+
+    public LocalDateTime getEstimatedDeliveryAt() {
+        return estimatedDeliveryAt;
+    }
+
+    public void setEstimatedDeliveryAt(LocalDateTime estimatedDeliveryAt) {
+        this.estimatedDeliveryAt = estimatedDeliveryAt;
+    }
 }
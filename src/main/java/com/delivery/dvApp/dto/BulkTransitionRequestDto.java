@@ -0,0 +1,42 @@
+package com.delivery.dvApp.dto;
+
+import com.delivery.dvApp.enums.OrderStatus;
+
+import java.util.List;
+
+/**
+ * DTO representing a request to move many orders to the same status.
+ *
+ * <p>Repeated order IDs are applied once.</p>
+ */
+public class BulkTransitionRequestDto {
+    /** IDs of the orders to change */
+    private List<Long> orderIds;
+
+    /** Status the orders should move to */
+    private OrderStatus status;
+
+    public BulkTransitionRequestDto() {
+    }
+
+    public BulkTransitionRequestDto(List<Long> orderIds, OrderStatus status) {
+        this.orderIds = orderIds;
+        this.status = status;
+    }
+
+    public List<Long> getOrderIds() {
+        return orderIds;
+    }
+
+    public void setOrderIds(List<Long> orderIds) {
+        this.orderIds = orderIds;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+}
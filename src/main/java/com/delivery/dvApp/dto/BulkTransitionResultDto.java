@@ -0,0 +1,70 @@
+package com.delivery.dvApp.dto;
+
+import com.delivery.dvApp.enums.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO representing the outcome of a bulk status transition.
+ *
+ * <p>Orders that could not be moved do not fail the request; each of
+ * them is reported with its reason in {@link #outcomes}, in the order
+ * the IDs were given.</p>
+ */
+public class BulkTransitionResultDto {
+    /** Status the orders were moved to */
+    private OrderStatus status;
+
+    /** Timestamp recorded for every applied transition */
+    private LocalDateTime changedAt;
+
+    /** Number of orders that moved */
+    private int applied;
+
+    /** Outcome per requested order */
+    private List<OrderTransitionOutcomeDto> outcomes;
+
+    public BulkTransitionResultDto() {
+    }
+
+    public BulkTransitionResultDto(OrderStatus status, LocalDateTime changedAt, int applied,
+                                   List<OrderTransitionOutcomeDto> outcomes) {
+        this.status = status;
+        this.changedAt = changedAt;
+        this.applied = applied;
+        this.outcomes = outcomes;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    public int getApplied() {
+        return applied;
+    }
+
+    public void setApplied(int applied) {
+        this.applied = applied;
+    }
+
+    public List<OrderTransitionOutcomeDto> getOutcomes() {
+        return outcomes;
+    }
+
+    public void setOutcomes(List<OrderTransitionOutcomeDto> outcomes) {
+        this.outcomes = outcomes;
+    }
+}
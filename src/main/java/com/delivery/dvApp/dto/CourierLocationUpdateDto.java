@@ -0,0 +1,64 @@
+package com.delivery.dvApp.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO representing one position report sent by a courier's device.
+ *
+ * <p>Reports are sent in batches to the location ingestion endpoint.</p>
+ */
+public class CourierLocationUpdateDto {
+    /** ID of the reporting courier */
+    private Long courierId;
+
+    /** Reported latitude */
+    private Double latitude;
+
+    /** Reported longitude */
+    private Double longitude;
+
+    /** Time the position was measured on the device; the time of receipt if empty */
+    private LocalDateTime recordedAt;
+
+    public CourierLocationUpdateDto() {
+    }
+
+    public CourierLocationUpdateDto(Long courierId, Double latitude, Double longitude, LocalDateTime recordedAt) {
+        this.courierId = courierId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.recordedAt = recordedAt;
+    }
+
+    public Long getCourierId() {
+        return courierId;
+    }
+
+    public void setCourierId(Long courierId) {
+        this.courierId = courierId;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+
+    public void setRecordedAt(LocalDateTime recordedAt) {
+        this.recordedAt = recordedAt;
+    }
+}
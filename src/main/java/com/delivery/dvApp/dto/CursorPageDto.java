@@ -0,0 +1,44 @@
+package com.delivery.dvApp.dto;
+
+import java.util.List;
+
+/**
+ * DTO representing one page of a keyset-paginated listing.
+ *
+ * <p>The next page is requested by passing {@code nextCursor} back as
+ * the {@code cursor} parameter. A {@code null} cursor means the last
+ * page has been reached.</p>
+ *
+ * @param <T> type of the listed rows
+ */
+public class CursorPageDto<T> {
+    /** Rows of this page */
+    private List<T> items;
+
+    /** Opaque cursor of the next page, or null if there is none */
+    private String nextCursor;
+
+    public CursorPageDto() {
+    }
+
+    public CursorPageDto(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
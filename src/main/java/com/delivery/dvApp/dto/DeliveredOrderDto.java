@@ -23,6 +23,21 @@ public class DeliveredOrderDto {
     /** Customer delivery address */
     private String customerAddress;
 
+    public DeliveredOrderDto() {
+    }
+
+    /**
+     * Constructor used by the courier history projection query.
+     */
+    public DeliveredOrderDto(Long orderId, String restaurantName, BigDecimal totalPrice,
+                             LocalDateTime deliveredAt, String customerAddress) {
+        this.orderId = orderId;
+        this.restaurantName = restaurantName;
+        this.totalPrice = totalPrice;
+        this.deliveredAt = deliveredAt;
+        this.customerAddress = customerAddress;
+    }
+
     public String getRestaurantName() {
         return restaurantName;
     }
@@ -0,0 +1,36 @@
+package com.delivery.dvApp.dto;
+
+/**
+ * DTO representing the outcome of a batch of courier position reports.
+ */
+public class LocationBatchResultDto {
+    /** Reports that were recorded */
+    private int accepted;
+
+    /** Reports without a live courier, with coordinates outside the valid range, or older than a recorded one */
+    private int rejected;
+
+    public LocationBatchResultDto() {
+    }
+
+    public LocationBatchResultDto(int accepted, int rejected) {
+        this.accepted = accepted;
+        this.rejected = rejected;
+    }
+
+    public int getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(int accepted) {
+        this.accepted = accepted;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+}
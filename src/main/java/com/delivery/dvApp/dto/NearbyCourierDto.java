@@ -0,0 +1,76 @@
+package com.delivery.dvApp.dto;
+
+import com.delivery.dvApp.enums.Vehicle;
+
+/**
+ * DTO representing a courier found near a location.
+ *
+ * <p>Returned by the nearby courier search, closest courier first.</p>
+ */
+public class NearbyCourierDto {
+    /** Unique identifier of the courier */
+    private Long courierId;
+
+    /** Vehicle the courier uses */
+    private Vehicle vehicle;
+
+    /** Last known latitude of the courier */
+    private double latitude;
+
+    /** Last known longitude of the courier */
+    private double longitude;
+
+    /** Straight-line distance to the searched location in meters */
+    private double distanceMeters;
+
+    public NearbyCourierDto() {
+    }
+
+    public NearbyCourierDto(Long courierId, Vehicle vehicle, double latitude, double longitude, double distanceMeters) {
+        this.courierId = courierId;
+        this.vehicle = vehicle;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.distanceMeters = distanceMeters;
+    }
+
+    public Long getCourierId() {
+        return courierId;
+    }
+
+    public void setCourierId(Long courierId) {
+        this.courierId = courierId;
+    }
+
+    public Vehicle getVehicle() {
+        return vehicle;
+    }
+
+    public void setVehicle(Vehicle vehicle) {
+        this.vehicle = vehicle;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+
+    public double getDistanceMeters() {
+        return distanceMeters;
+    }
+
+    public void setDistanceMeters(double distanceMeters) {
+        this.distanceMeters = distanceMeters;
+    }
+}
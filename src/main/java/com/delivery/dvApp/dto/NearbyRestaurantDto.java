@@ -0,0 +1,89 @@
+package com.delivery.dvApp.dto;
+
+import com.delivery.dvApp.enums.Category;
+
+/**
+ * DTO representing a restaurant found near a location.
+ *
+ * <p>Returned by the nearby restaurant search, closest restaurant first.</p>
+ */
+public class NearbyRestaurantDto {
+    /** Unique identifier of the restaurant */
+    private Long restaurantId;
+
+    /** Name of the restaurant */
+    private String name;
+
+    /** Category of the restaurant */
+    private Category category;
+
+    /** Latitude of the restaurant */
+    private double latitude;
+
+    /** Longitude of the restaurant */
+    private double longitude;
+
+    /** Straight-line distance to the searched location in meters */
+    private double distanceMeters;
+
+    public NearbyRestaurantDto() {
+    }
+
+    public NearbyRestaurantDto(Long restaurantId, String name, Category category,
+                               double latitude, double longitude, double distanceMeters) {
+        this.restaurantId = restaurantId;
+        this.name = name;
+        this.category = category;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.distanceMeters = distanceMeters;
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    public void setRestaurantId(Long restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public void setCategory(Category category) {
+        this.category = category;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+
+    public double getDistanceMeters() {
+        return distanceMeters;
+    }
+
+    public void setDistanceMeters(double distanceMeters) {
+        this.distanceMeters = distanceMeters;
+    }
+}
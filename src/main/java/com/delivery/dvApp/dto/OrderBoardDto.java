@@ -0,0 +1,56 @@
+package com.delivery.dvApp.dto;
+
+import java.util.List;
+
+/**
+ * DTO representing a restaurant's order board or the changes to it.
+ *
+ * <p>A client first receives a snapshot ({@code snapshot = true}) with
+ * every order on the board and the board version. Later requests pass that
+ * version as {@code since} and receive only the changes after it, oldest
+ * first, together with the new version. When the server can no longer
+ * tell what changed, it answers with a snapshot instead.</p>
+ */
+public class OrderBoardDto {
+    /** Version of the board the response brings the client to */
+    private long version;
+
+    /** Whether {@link #orders} is the whole board rather than the changes since the client's version */
+    private boolean snapshot;
+
+    /** Orders of the snapshot, or changes in the order they happened */
+    private List<OrderBoardEntryDto> orders;
+
+    public OrderBoardDto() {
+    }
+
+    public OrderBoardDto(long version, boolean snapshot, List<OrderBoardEntryDto> orders) {
+        this.version = version;
+        this.snapshot = snapshot;
+        this.orders = orders;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(boolean snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public List<OrderBoardEntryDto> getOrders() {
+        return orders;
+    }
+
+    public void setOrders(List<OrderBoardEntryDto> orders) {
+        this.orders = orders;
+    }
+}
@@ -0,0 +1,69 @@
+package com.delivery.dvApp.dto;
+
+import com.delivery.dvApp.enums.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO representing one order on a restaurant's order board.
+ *
+ * <p>Used both for the orders of a snapshot and for the changes after it.
+ * A change carries the full state of the order, so applying it twice does
+ * no harm; an order whose status is no longer shown on the board should
+ * be removed by the client.</p>
+ */
+public class OrderBoardEntryDto {
+    /** Unique identifier of the order */
+    private Long orderId;
+
+    /** Current status of the order */
+    private OrderStatus status;
+
+    /** Assigned courier, or null if none is assigned yet */
+    private Long courierId;
+
+    /** Time of the change; creation time for orders of a snapshot */
+    private LocalDateTime changedAt;
+
+    public OrderBoardEntryDto() {
+    }
+
+    public OrderBoardEntryDto(Long orderId, OrderStatus status, Long courierId, LocalDateTime changedAt) {
+        this.orderId = orderId;
+        this.status = status;
+        this.courierId = courierId;
+        this.changedAt = changedAt;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    public Long getCourierId() {
+        return courierId;
+    }
+
+    public void setCourierId(Long courierId) {
+        this.courierId = courierId;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+}
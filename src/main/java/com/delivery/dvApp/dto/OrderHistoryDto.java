@@ -11,6 +11,9 @@ import java.util.List;
  */
 public class OrderHistoryDto {
 
+    /** Unique identifier of the order */
+    private Long orderId;
+
     /** Name of the restaurant */
     private String restaurantName;
 
@@ -29,7 +32,30 @@ public class OrderHistoryDto {
     /** Total price of the order */
     private BigDecimal total;
 
+    public OrderHistoryDto() {
+    }
+
+    /**
+     * Constructor used by the order history projection query.
+     * Item details are attached afterwards.
+     */
+    public OrderHistoryDto(Long orderId, String restaurantName, String courierName, String courierNumber,
+                           LocalDateTime deliveredAt, BigDecimal total) {
+        this.orderId = orderId;
+        this.restaurantName = restaurantName;
+        this.courierName = courierName;
+        this.courierNumber = courierNumber;
+        this.deliveredAt = deliveredAt;
+        this.total = total;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
 
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
 
     public String getRestaurantName() {
         return restaurantName;
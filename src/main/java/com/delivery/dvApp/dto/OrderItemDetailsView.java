@@ -0,0 +1,19 @@
+package com.delivery.dvApp.dto;
+
+/**
+ * Projection of a single order line used when building order views.
+ *
+ * <p>Carries the owning order ID so the lines of many orders can be
+ * loaded with one query and grouped per order afterwards.</p>
+ */
+public interface OrderItemDetailsView {
+
+    /** Unique identifier of the order the line belongs to */
+    Long getOrderId();
+
+    /** Name of the menu item */
+    String getItemName();
+
+    /** Quantity of the item ordered */
+    int getQuantity();
+}
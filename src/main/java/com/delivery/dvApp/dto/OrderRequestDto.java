@@ -6,6 +6,9 @@ import java.util.List;
  *
  * <p>Contains references to restaurant, customer, courier,
  * and the list of requested items with quantities.</p>
+ *
+ * <p>When no courier is given, the nearest free courier to the pickup
+ * location is assigned automatically; the pickup coordinates are then required.</p>
  */
 public class OrderRequestDto {
 
@@ -15,8 +18,21 @@ public class OrderRequestDto {
     /** ID of the customer placing the order */
     private Long customerId;
 
-    /** ID of the courier assigned to the order */
+    /** ID of the courier assigned to the order, or null to leave the order to batch dispatch */
     private Long courierId;
+
+    /** Latitude of the pickup location, required when no courier is given */
+    private Double pickupLatitude;
+
+    /** Longitude of the pickup location, required when no courier is given */
+    private Double pickupLongitude;
+
+    /** Latitude of the drop-off location, optional; lets the order be bundled with others */
+    private Double dropoffLatitude;
+
+    /** Longitude of the drop-off location, optional */
+    private Double dropoffLongitude;
+
     /** List of items and their requested quantities */
     private List<ItemQuantityDto> itemToQuantities;
 
@@ -57,6 +73,38 @@ public class OrderRequestDto {
         this.courierId = courierId;
     }
 
+    public Double getPickupLatitude() {
+        return pickupLatitude;
+    }
+
+    public void setPickupLatitude(Double pickupLatitude) {
+        this.pickupLatitude = pickupLatitude;
+    }
+
+    public Double getPickupLongitude() {
+        return pickupLongitude;
+    }
+
+    public void setPickupLongitude(Double pickupLongitude) {
+        this.pickupLongitude = pickupLongitude;
+    }
+
+    public Double getDropoffLatitude() {
+        return dropoffLatitude;
+    }
+
+    public void setDropoffLatitude(Double dropoffLatitude) {
+        this.dropoffLatitude = dropoffLatitude;
+    }
+
+    public Double getDropoffLongitude() {
+        return dropoffLongitude;
+    }
+
+    public void setDropoffLongitude(Double dropoffLongitude) {
+        this.dropoffLongitude = dropoffLongitude;
+    }
+
     public List<ItemQuantityDto> getItemToQuantities() {
         return itemToQuantities;
     }
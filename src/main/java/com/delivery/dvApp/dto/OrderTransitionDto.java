@@ -0,0 +1,71 @@
+package com.delivery.dvApp.dto;
+
+import com.delivery.dvApp.entity.Order;
+import com.delivery.dvApp.enums.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO representing the result of an order status transition.
+ *
+ * <p>Returned by the accept, pickup, deliver and cancel endpoints.
+ * By default it only carries the order ID, the new status and the time
+ * of the change. The full order is included only when the caller asks
+ * for it with {@code ?expand=order}.</p>
+ */
+public class OrderTransitionDto {
+    /** Unique identifier of the order */
+    private Long orderId;
+
+    /** Status of the order after the transition */
+    private OrderStatus status;
+
+    /** Timestamp when the transition was applied */
+    private LocalDateTime changedAt;
+
+    /** Full order, only present when expanded */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Order order;
+
+    public OrderTransitionDto() {
+    }
+
+    public OrderTransitionDto(Long orderId, OrderStatus status, LocalDateTime changedAt) {
+        this.orderId = orderId;
+        this.status = status;
+        this.changedAt = changedAt;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public void setOrder(Order order) {
+        this.order = order;
+    }
+}
@@ -0,0 +1,66 @@
+package com.delivery.dvApp.dto;
+
+import com.delivery.dvApp.enums.OrderStatus;
+import com.delivery.dvApp.enums.TransitionOutcome;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * DTO representing what a bulk transition did to one order.
+ */
+public class OrderTransitionOutcomeDto {
+    /** Unique identifier of the order */
+    private Long orderId;
+
+    /** Whether the order moved, and if not, why */
+    private TransitionOutcome outcome;
+
+    /** Status of the order after the request, or null if it does not exist */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private OrderStatus status;
+
+    /** Reason the order did not move, only present for orders in the wrong status */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String message;
+
+    public OrderTransitionOutcomeDto() {
+    }
+
+    public OrderTransitionOutcomeDto(Long orderId, TransitionOutcome outcome, OrderStatus status, String message) {
+        this.orderId = orderId;
+        this.outcome = outcome;
+        this.status = status;
+        this.message = message;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public TransitionOutcome getOutcome() {
+        return outcome;
+    }
+
+    public void setOutcome(TransitionOutcome outcome) {
+        this.outcome = outcome;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -24,6 +24,9 @@ public class ReceiptDto {
     /** Unique identifier of the order */
     private  Long orderId;
 
+    /** Estimated delivery time, or null if it cannot be estimated yet */
+    private LocalDateTime estimatedDeliveryAt;
+
     public String getRestaurantName() {
         return restaurantName;
     }
@@ -63,4 +66,12 @@ public class ReceiptDto {
     public void setOrderId(Long orderId) {
         this.orderId = orderId;
     }
+
+    public LocalDateTime getEstimatedDeliveryAt() {
+        return estimatedDeliveryAt;
+    }
+
+    public void setEstimatedDeliveryAt(LocalDateTime estimatedDeliveryAt) {
+        this.estimatedDeliveryAt = estimatedDeliveryAt;
+    }
 }
@@ -0,0 +1,39 @@
+package com.delivery.dvApp.dto;
+
+/**
+ * DTO representing the outcome of a bulk restaurant deletion.
+ *
+ * <p>Both counts only include rows that were not deleted before,
+ * so repeating a deletion reports zeros.</p>
+ */
+public class RestaurantDeletionDto {
+    /** Number of restaurants marked as deleted */
+    private int restaurantsDeleted;
+
+    /** Number of menu items marked as deleted */
+    private int itemsDeleted;
+
+    public RestaurantDeletionDto() {
+    }
+
+    public RestaurantDeletionDto(int restaurantsDeleted, int itemsDeleted) {
+        this.restaurantsDeleted = restaurantsDeleted;
+        this.itemsDeleted = itemsDeleted;
+    }
+
+    public int getRestaurantsDeleted() {
+        return restaurantsDeleted;
+    }
+
+    public void setRestaurantsDeleted(int restaurantsDeleted) {
+        this.restaurantsDeleted = restaurantsDeleted;
+    }
+
+    public int getItemsDeleted() {
+        return itemsDeleted;
+    }
+
+    public void setItemsDeleted(int itemsDeleted) {
+        this.itemsDeleted = itemsDeleted;
+    }
+}
@@ -0,0 +1,85 @@
+package com.delivery.dvApp.dto;
+
+import com.delivery.dvApp.enums.Category;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * DTO representing one restaurant of the paged restaurant listing.
+ *
+ * <p>Only the fields the client asked for are set; the others are null
+ * and left out of the JSON.</p>
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RestaurantListingDto {
+    /** Unique identifier of the restaurant */
+    private Long id;
+
+    /** Name of the restaurant */
+    private String name;
+
+    /** Physical address of the restaurant */
+    private String address;
+
+    /** Contact phone number of the restaurant */
+    private String phoneNumber;
+
+    /** Category of the restaurant */
+    private Category category;
+
+    public RestaurantListingDto() {
+    }
+
+    public RestaurantListingDto(Long id, String name, Category category) {
+        this.id = id;
+        this.name = name;
+        this.category = category;
+    }
+
+    public RestaurantListingDto(Long id, String name, String address, String phoneNumber, Category category) {
+        this.id = id;
+        this.name = name;
+        this.address = address;
+        this.phoneNumber = phoneNumber;
+        this.category = category;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+    }
+
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    public void setPhoneNumber(String phoneNumber) {
+        this.phoneNumber = phoneNumber;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public void setCategory(Category category) {
+        this.category = category;
+    }
+}
@@ -0,0 +1,32 @@
+package com.delivery.dvApp.dto;
+
+import java.util.List;
+
+/**
+ * DTO representing one page of the restaurant listing.
+ *
+ * <p>Besides the rows and the cursor of the next page it carries an
+ * estimate of the number of live restaurants, e.g. for a scroll bar.
+ * The estimate is not read from the database and may briefly lag
+ * behind restaurants that were just added or deleted.</p>
+ */
+public class RestaurantListingPageDto extends CursorPageDto<RestaurantListingDto> {
+    /** Approximate number of live restaurants */
+    private long estimatedTotal;
+
+    public RestaurantListingPageDto() {
+    }
+
+    public RestaurantListingPageDto(List<RestaurantListingDto> items, String nextCursor, long estimatedTotal) {
+        super(items, nextCursor);
+        this.estimatedTotal = estimatedTotal;
+    }
+
+    public long getEstimatedTotal() {
+        return estimatedTotal;
+    }
+
+    public void setEstimatedTotal(long estimatedTotal) {
+        this.estimatedTotal = estimatedTotal;
+    }
+}
@@ -0,0 +1,36 @@
+package com.delivery.dvApp.dto;
+
+/**
+ * DTO representing a restaurant suggested while its name is being typed.
+ */
+public class RestaurantSuggestionDto {
+    /** Unique identifier of the restaurant */
+    private Long restaurantId;
+
+    /** Name of the restaurant as it is stored */
+    private String name;
+
+    public RestaurantSuggestionDto() {
+    }
+
+    public RestaurantSuggestionDto(Long restaurantId, String name) {
+        this.restaurantId = restaurantId;
+        this.name = name;
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    public void setRestaurantId(Long restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,92 @@
+package com.delivery.dvApp.dto;
+
+import com.delivery.dvApp.enums.SearchHitType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * DTO representing one result of a restaurant and menu search.
+ *
+ * <p>Results are returned best match first.</p>
+ */
+public class SearchHitDto {
+    /** Whether a restaurant or a menu item matched */
+    private SearchHitType type;
+
+    /** Unique identifier of the restaurant */
+    private Long restaurantId;
+
+    /** Name of the restaurant */
+    private String restaurantName;
+
+    /** Unique identifier of the item, only present for item results */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long itemId;
+
+    /** Name of the item, only present for item results */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String itemName;
+
+    /** Relevance of the result; only meaningful relative to the other results */
+    private double score;
+
+    public SearchHitDto() {
+    }
+
+    public SearchHitDto(SearchHitType type, Long restaurantId, String restaurantName,
+                        Long itemId, String itemName, double score) {
+        this.type = type;
+        this.restaurantId = restaurantId;
+        this.restaurantName = restaurantName;
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.score = score;
+    }
+
+    public SearchHitType getType() {
+        return type;
+    }
+
+    public void setType(SearchHitType type) {
+        this.type = type;
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    public void setRestaurantId(Long restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+
+    public String getRestaurantName() {
+        return restaurantName;
+    }
+
+    public void setRestaurantName(String restaurantName) {
+        this.restaurantName = restaurantName;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public void setItemName(String itemName) {
+        this.itemName = itemName;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
@@ -0,0 +1,50 @@
+package com.delivery.dvApp.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO representing one recorded position of a courier's track.
+ */
+public class TrackPointDto {
+    /** Time the position was measured */
+    private LocalDateTime recordedAt;
+
+    /** Latitude in degrees */
+    private double latitude;
+
+    /** Longitude in degrees */
+    private double longitude;
+
+    public TrackPointDto() {
+    }
+
+    public TrackPointDto(LocalDateTime recordedAt, double latitude, double longitude) {
+        this.recordedAt = recordedAt;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+
+    public void setRecordedAt(LocalDateTime recordedAt) {
+        this.recordedAt = recordedAt;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+}
@@ -24,11 +24,12 @@ public class Courier {
 
     /**
      * Unique identifier of the courier.
-     * Auto-generated by the database.
+     * Generated from the {@code courier_seq} sequence in blocks of 50.
      * Read-only in JSON requests.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "courier_seq")
+    @SequenceGenerator(name = "courier_seq", sequenceName = "courier_seq", allocationSize = 50)
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private Long id;
 
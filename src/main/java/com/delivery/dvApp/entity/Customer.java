@@ -25,11 +25,12 @@ public class Customer {
 
     /**
      * Unique identifier of the customer.
-     * Auto-generated by the database.
+     * Generated from the {@code customer_seq} sequence in blocks of 50.
      * Read-only in JSON requests.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq")
+    @SequenceGenerator(name = "customer_seq", sequenceName = "customer_seq", allocationSize = 50)
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private Long id;
 
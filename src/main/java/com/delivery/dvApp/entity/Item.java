@@ -27,12 +27,14 @@ public class Item {
      * Unique identifier of the item.
      *
      * <p>
-     * Auto-generated by the database using IDENTITY strategy.
+     * Generated from the {@code item_seq} sequence, which hands out
+     * blocks of 50 IDs so inserts can be batched.
      * This field is read-only in JSON requests.
      * </p>
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+    @SequenceGenerator(name = "item_seq", sequenceName = "item_seq", allocationSize = 50)
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private Long id;
 
@@ -31,11 +31,12 @@ public class Order {
 
     /**
      * Unique identifier of the order.
-     * Auto-generated by the database.
+     * Generated from the {@code cus_order_seq} sequence in blocks of 50.
      * Read-only in JSON requests.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cus_order_seq")
+    @SequenceGenerator(name = "cus_order_seq", sequenceName = "cus_order_seq", allocationSize = 50)
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private Long id;
 
@@ -117,6 +118,28 @@ public class Order {
      */
     private LocalDateTime cancelledAt;
 
+    /**
+     * Latitude of the pickup location.
+     * Required for orders that are created without a courier and wait for dispatch.
+     */
+    private Double pickupLatitude;
+
+    /**
+     * Longitude of the pickup location.
+     */
+    private Double pickupLongitude;
+
+    /**
+     * Latitude of the customer's drop-off location.
+     * Optional; used to bundle orders and plan the courier's route.
+     */
+    private Double dropoffLatitude;
+
+    /**
+     * Longitude of the customer's drop-off location.
+     */
+    private Double dropoffLongitude;
+
     /**
      * Default constructor required by JPA.
      */
@@ -309,4 +332,60 @@ public class Order {
     public void setCancelledAt(LocalDateTime cancelledAt) {
         this.cancelledAt = cancelledAt;
     }
+
+    /**
+     * @return latitude of the pickup location, or null if unknown
+     */
+    public Double getPickupLatitude() {
+        return pickupLatitude;
+    }
+
+    /**
+     * @param pickupLatitude latitude of the pickup location
+     */
+    public void setPickupLatitude(Double pickupLatitude) {
+        this.pickupLatitude = pickupLatitude;
+    }
+
+    /**
+     * @return longitude of the pickup location, or null if unknown
+     */
+    public Double getPickupLongitude() {
+        return pickupLongitude;
+    }
+
+    /**
+     * @param pickupLongitude longitude of the pickup location
+     */
+    public void setPickupLongitude(Double pickupLongitude) {
+        this.pickupLongitude = pickupLongitude;
+    }
+
+    /**
+     * @return latitude of the drop-off location, or null if unknown
+     */
+    public Double getDropoffLatitude() {
+        return dropoffLatitude;
+    }
+
+    /**
+     * @param dropoffLatitude latitude of the drop-off location
+     */
+    public void setDropoffLatitude(Double dropoffLatitude) {
+        this.dropoffLatitude = dropoffLatitude;
+    }
+
+    /**
+     * @return longitude of the drop-off location, or null if unknown
+     */
+    public Double getDropoffLongitude() {
+        return dropoffLongitude;
+    }
+
+    /**
+     * @param dropoffLongitude longitude of the drop-off location
+     */
+    public void setDropoffLongitude(Double dropoffLongitude) {
+        this.dropoffLongitude = dropoffLongitude;
+    }
 }
@@ -1,5 +1,6 @@
 package com.delivery.dvApp.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 
@@ -24,11 +25,12 @@ public class OrderItem {
 
     /**
      * Unique identifier of the order item.
-     * Auto-generated by the database.
+     * Generated from the {@code order_item_seq} sequence in blocks of 50.
      * Read-only in JSON requests.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_item_seq", allocationSize = 50)
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private Long id;
 
@@ -38,8 +40,11 @@ public class OrderItem {
      * <p>
      * Many OrderItems can belong to one Order.
      * A foreign key column {@code order_id} is used.
+     * Not serialized, so an expanded order does not recurse
+     * back into itself through its items.
      * </p>
      */
+    @JsonIgnore
     @ManyToOne
     @JoinColumn(name = "order_id")
     private Order order;
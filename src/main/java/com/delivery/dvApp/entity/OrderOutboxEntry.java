@@ -0,0 +1,146 @@
+package com.delivery.dvApp.entity;
+
+import com.delivery.dvApp.enums.OrderStatus;
+import com.delivery.dvApp.event.OrderStatusEvent;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Order event waiting in the transactional outbox to be handed to downstream consumers.
+ *
+ * <p>
+ * An entry is written in the same transaction as the order change it
+ * describes, so it exists if and only if the change committed. The relay
+ * deletes it once the event has been delivered.
+ * </p>
+ *
+ * <p>
+ * Parties are stored as plain IDs rather than associations: the entry must
+ * survive the deletion of the courier, customer or restaurant it mentions.
+ * </p>
+ */
+@Entity
+@Table(name = "order_outbox")
+public class OrderOutboxEntry {
+
+    /**
+     * Unique identifier of the entry.
+     * Generated from the {@code order_outbox_seq} sequence in blocks of 50.
+     * Consumers use it to drop events they have already seen.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_seq")
+    @SequenceGenerator(name = "order_outbox_seq", sequenceName = "order_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * ID of the changed order.
+     */
+    @Column(nullable = false)
+    private Long orderId;
+
+    /**
+     * Status of the order after the change.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+
+    /**
+     * Time of the change.
+     */
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+
+    /**
+     * ID of the assigned courier, or null if none is assigned yet.
+     */
+    private Long courierId;
+
+    /**
+     * ID of the customer who placed the order.
+     */
+    private Long customerId;
+
+    /**
+     * ID of the restaurant preparing the order.
+     */
+    private Long restaurantId;
+
+    /**
+     * Default constructor required by JPA.
+     */
+    public OrderOutboxEntry() {
+    }
+
+    /**
+     * Creates the entry describing an order event.
+     *
+     * @param event the event
+     */
+    public OrderOutboxEntry(OrderStatusEvent event) {
+        this.orderId = event.getOrderId();
+        this.status = event.getStatus();
+        this.changedAt = event.getChangedAt();
+        this.courierId = event.getCourierId();
+        this.customerId = event.getCustomerId();
+        this.restaurantId = event.getRestaurantId();
+    }
+
+    /**
+     * @return entry ID
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * @param id entry ID
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * @return ID of the changed order
+     */
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * @return status of the order after the change
+     */
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return time of the change
+     */
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    /**
+     * @return ID of the assigned courier, or null if none is assigned yet
+     */
+    public Long getCourierId() {
+        return courierId;
+    }
+
+    /**
+     * @return ID of the customer who placed the order
+     */
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    /**
+     * @return ID of the restaurant preparing the order
+     */
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+}
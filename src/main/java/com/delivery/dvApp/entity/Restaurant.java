@@ -23,12 +23,14 @@ public class Restaurant {
     /**
      * Unique identifier of the restaurant.
      * <p>
-     * Auto-generated by the database using IDENTITY strategy.
+     * Generated from the {@code restaurant_seq} sequence, which hands out
+     * blocks of 50 IDs so inserts can be batched.
      * This field is read-only in JSON responses.
      * </p>
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "restaurant_seq")
+    @SequenceGenerator(name = "restaurant_seq", sequenceName = "restaurant_seq", allocationSize = 50)
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private Long id;
 
@@ -49,6 +51,18 @@ public class Restaurant {
      */
     private String phoneNumber;
 
+    /**
+     * Latitude of the restaurant in degrees.
+     * Used for nearby searches; null if the location is not known.
+     */
+    private Double latitude;
+
+    /**
+     * Longitude of the restaurant in degrees.
+     * Used for nearby searches; null if the location is not known.
+     */
+    private Double longitude;
+
     /**
      * Category of the restaurant (e.g., FAST_FOOD, ITALIAN, CHINESE).
      *
@@ -153,6 +167,34 @@ public class Restaurant {
     }
 
 
+    /**
+     * @return latitude in degrees, or null if not known
+     */
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    /**
+     * @param latitude latitude in degrees
+     */
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    /**
+     * @return longitude in degrees, or null if not known
+     */
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * @param longitude longitude in degrees
+     */
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
     /**
      * @return restaurant category
      */
@@ -0,0 +1,91 @@
+package com.delivery.dvApp.enums;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Declarative table of the allowed {@link OrderStatus} transitions.
+ * <p>
+ * Each transition names the status an order moves to, the statuses it
+ * may move from, and the message reported when the order is in any
+ * other status. The order service turns each entry into a single
+ * conditional {@code UPDATE ... WHERE id = ? AND status IN (...)}, so
+ * the check and the write happen atomically in the database.
+ */
+public enum OrderTransition {
+    /** The restaurant confirms a freshly created order. */
+    ACCEPT(OrderStatus.ACCEPTED,
+            EnumSet.of(OrderStatus.CREATED),
+            "Only CREATED orders can be accepted."),
+
+    /** The courier collects an accepted order from the restaurant. */
+    PICK_UP(OrderStatus.PICKED_UP,
+            EnumSet.of(OrderStatus.ACCEPTED),
+            "Order must be ACCEPTED before pickup"),
+
+    /** The courier hands a picked up order over to the customer. */
+    DELIVER(OrderStatus.DELIVERED,
+            EnumSet.of(OrderStatus.PICKED_UP),
+            "Order Must be PICKED_UP before delivery."),
+
+    /** The order is terminated. Anything that has not been delivered can be cancelled. */
+    CANCEL(OrderStatus.CANCELLED,
+            EnumSet.complementOf(EnumSet.of(OrderStatus.DELIVERED)),
+            "Delivered order cannot be cancelled");
+
+    private final OrderStatus target;
+    private final Set<OrderStatus> sources;
+    private final String invalidStatusMessage;
+
+    OrderTransition(OrderStatus target, Set<OrderStatus> sources, String invalidStatusMessage) {
+        this.target = target;
+        this.sources = sources;
+        this.invalidStatusMessage = invalidStatusMessage;
+    }
+
+    /**
+     * @return status the order has after the transition
+     */
+    public OrderStatus getTarget() {
+        return target;
+    }
+
+    /**
+     * @return statuses the transition may start from
+     */
+    public Set<OrderStatus> getSources() {
+        return sources;
+    }
+
+    /**
+     * @return message used when the order is not in one of the source statuses
+     */
+    public String getInvalidStatusMessage() {
+        return invalidStatusMessage;
+    }
+
+    /**
+     * Checks whether the transition may be applied to an order in the given status.
+     *
+     * @param status current status of the order
+     * @return true if {@code status} is one of the source statuses
+     */
+    public boolean isAllowedFrom(OrderStatus status) {
+        return sources.contains(status);
+    }
+
+    /**
+     * Finds the transition leading to a status.
+     *
+     * @param target status an order should move to
+     * @return the transition, or null if no transition leads to {@code target}
+     */
+    public static OrderTransition toStatus(OrderStatus target) {
+        for (OrderTransition transition : values()) {
+            if (transition.target == target) {
+                return transition;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.delivery.dvApp.enums;
+
+/**
+ * Kind of document a search result points to.
+ */
+public enum SearchHitType {
+    /** The restaurant's name matched. */
+    RESTAURANT,
+
+    /** The name or description of a menu item matched. */
+    ITEM
+}
@@ -0,0 +1,15 @@
+package com.delivery.dvApp.enums;
+
+/**
+ * Result of applying a status transition to one order of a bulk request.
+ */
+public enum TransitionOutcome {
+    /** The order moved to the requested status. */
+    APPLIED,
+
+    /** No order with the given ID exists. */
+    NOT_FOUND,
+
+    /** The order is in a status the transition cannot start from. */
+    INVALID_STATUS
+}
@@ -10,20 +10,44 @@ public enum Vehicle {
     /** * Human-powered delivery. Best for high-density urban areas
      * with heavy traffic and short distances.
      */
-    BICYCLE,
+    BICYCLE(15),
 
     /** * Standard automobile. Offers the highest capacity and range
      * but is most susceptible to traffic congestion and parking delays.
      */
-    CAR,
+    CAR(25),
 
     /** * Motorized two-wheeler. Provides a balance of speed and
      * maneuverability in heavy traffic.
      */
-    MOTORBIKE,
+    MOTORBIKE(30),
 
     /** * Electric scooter. A modern, eco-friendly option for fast
      * short-range urban deliveries.
      */
-    E_SCOOTER
+    E_SCOOTER(20);
+
+    /** Typical average speed in city traffic, in km/h */
+    private final int averageSpeedKmh;
+
+    Vehicle(int averageSpeedKmh) {
+        this.averageSpeedKmh = averageSpeedKmh;
+    }
+
+    /**
+     * @return typical average speed in city traffic, in km/h
+     */
+    public int getAverageSpeedKmh() {
+        return averageSpeedKmh;
+    }
+
+    /**
+     * Estimates how long covering a distance takes with this vehicle.
+     *
+     * @param meters distance in meters
+     * @return travel time in seconds
+     */
+    public double travelSeconds(double meters) {
+        return meters * 3.6 / averageSpeedKmh;
+    }
 }
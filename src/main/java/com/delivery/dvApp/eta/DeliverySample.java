@@ -0,0 +1,88 @@
+package com.delivery.dvApp.eta;
+
+import com.delivery.dvApp.enums.Vehicle;
+
+import java.time.LocalDateTime;
+
+/**
+ * Completed delivery as read by the {@link EtaEstimator} to learn delivery speeds.
+ */
+public final class DeliverySample {
+    private final Long orderId;
+    private final Vehicle vehicle;
+    private final LocalDateTime pickedAt;
+    private final LocalDateTime deliveredAt;
+    private final Double pickupLatitude;
+    private final Double pickupLongitude;
+    private final Double dropoffLatitude;
+    private final Double dropoffLongitude;
+
+    public DeliverySample(Long orderId, Vehicle vehicle, LocalDateTime pickedAt, LocalDateTime deliveredAt,
+                          Double pickupLatitude, Double pickupLongitude,
+                          Double dropoffLatitude, Double dropoffLongitude) {
+        this.orderId = orderId;
+        this.vehicle = vehicle;
+        this.pickedAt = pickedAt;
+        this.deliveredAt = deliveredAt;
+        this.pickupLatitude = pickupLatitude;
+        this.pickupLongitude = pickupLongitude;
+        this.dropoffLatitude = dropoffLatitude;
+        this.dropoffLongitude = dropoffLongitude;
+    }
+
+    /**
+     * @return ID of the delivered order
+     */
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * @return vehicle of the courier who delivered the order
+     */
+    public Vehicle getVehicle() {
+        return vehicle;
+    }
+
+    /**
+     * @return pickup timestamp
+     */
+    public LocalDateTime getPickedAt() {
+        return pickedAt;
+    }
+
+    /**
+     * @return delivery timestamp
+     */
+    public LocalDateTime getDeliveredAt() {
+        return deliveredAt;
+    }
+
+    /**
+     * @return latitude of the pickup location, or null if unknown
+     */
+    public Double getPickupLatitude() {
+        return pickupLatitude;
+    }
+
+    /**
+     * @return longitude of the pickup location, or null if unknown
+     */
+    public Double getPickupLongitude() {
+        return pickupLongitude;
+    }
+
+    /**
+     * @return latitude of the drop-off location, or null if unknown
+     */
+    public Double getDropoffLatitude() {
+        return dropoffLatitude;
+    }
+
+    /**
+     * @return longitude of the drop-off location, or null if unknown
+     */
+    public Double getDropoffLongitude() {
+        return dropoffLongitude;
+    }
+}
@@ -0,0 +1,65 @@
+package com.delivery.dvApp.eta;
+
+/**
+ * Rolling delivery observations of one vehicle type.
+ *
+ * <p>Keeps the last {@value #WINDOW} delivery durations and, for deliveries
+ * with known locations, the last {@value #WINDOW} effective speeds
+ * (straight-line distance over duration). Estimates blend the window with a
+ * prior worth {@value #PRIOR_WEIGHT} observations, so a handful of unusual
+ * deliveries cannot swing them and a vehicle without history falls back to
+ * the prior.</p>
+ */
+final class DeliveryStats {
+    /** Number of observations kept per kind */
+    static final int WINDOW = 256;
+
+    /** Weight of the prior, in observations */
+    static final int PRIOR_WEIGHT = 20;
+
+    private final double[] speeds = new double[WINDOW];
+    private final double[] durations = new double[WINDOW];
+    private int speedCount;
+    private int speedNext;
+    private double speedSum;
+    private int durationCount;
+    private int durationNext;
+    private double durationSum;
+
+    /**
+     * Records a completed delivery.
+     *
+     * @param seconds time from pickup to delivery
+     * @param meters straight-line distance from pickup to drop-off, or a negative value if unknown
+     */
+    synchronized void add(double seconds, double meters) {
+        durationSum += seconds - (durationCount == WINDOW ? durations[durationNext] : 0);
+        durations[durationNext] = seconds;
+        durationNext = (durationNext + 1) % WINDOW;
+        durationCount = Math.min(durationCount + 1, WINDOW);
+
+        if (meters >= 0) {
+            double speed = meters / seconds;
+            speedSum += speed - (speedCount == WINDOW ? speeds[speedNext] : 0);
+            speeds[speedNext] = speed;
+            speedNext = (speedNext + 1) % WINDOW;
+            speedCount = Math.min(speedCount + 1, WINDOW);
+        }
+    }
+
+    /**
+     * @param priorMetersPerSecond speed assumed without observations
+     * @return effective straight-line speed in meters per second
+     */
+    synchronized double metersPerSecond(double priorMetersPerSecond) {
+        return (priorMetersPerSecond * PRIOR_WEIGHT + speedSum) / (PRIOR_WEIGHT + speedCount);
+    }
+
+    /**
+     * @param priorSeconds duration assumed without observations
+     * @return typical time from pickup to delivery in seconds
+     */
+    synchronized double deliverySeconds(double priorSeconds) {
+        return (priorSeconds * PRIOR_WEIGHT + durationSum) / (PRIOR_WEIGHT + durationCount);
+    }
+}
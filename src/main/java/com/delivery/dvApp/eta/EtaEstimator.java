@@ -0,0 +1,241 @@
+package com.delivery.dvApp.eta;
+
+import com.delivery.dvApp.enums.OrderStatus;
+import com.delivery.dvApp.enums.Vehicle;
+import com.delivery.dvApp.geo.CourierLocation;
+import com.delivery.dvApp.geo.CourierNeighbor;
+import com.delivery.dvApp.geo.CourierSpatialIndex;
+import com.delivery.dvApp.geo.GeoDistance;
+import com.delivery.dvApp.repository.OrderRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estimates delivery times from in-memory data only.
+ *
+ * <p>An estimate adds up the legs that are still ahead of an order: from the
+ * courier's last known position (taken from the {@link CourierSpatialIndex})
+ * to the pickup location, and from there to the drop-off location. Legs are
+ * straight-line distances divided by the effective speed of the courier's
+ * vehicle. That speed starts from the vehicle's average road speed, reduced
+ * by {@value #DETOUR_FACTOR} for streets not being straight, and is
+ * continuously corrected by the speeds observed on recent deliveries. When the
+ * drop-off location is unknown, the typical pickup-to-delivery time of the
+ * vehicle is used instead.</p>
+ *
+ * <p>At start-up the latest {@value DeliveryStats#WINDOW} deliveries of each
+ * vehicle are read, which is all a vehicle keeps; then every
+ * {@code eta.refresh-interval} the deliveries completed since are read in
+ * (delivery time, ID) order, so answering never touches the database. Each
+ * refresh starts {@code LATE_COMMIT_GRACE} before the newest delivery seen,
+ * so an order whose transaction committed up to that long after its
+ * delivery time is still read; orders read twice are skipped by ID.</p>
+ */
+@Component
+public class EtaEstimator {
+    /** Ratio of road distance to straight-line distance assumed before any observation */
+    private static final double DETOUR_FACTOR = 1.3;
+
+    /** Pickup-to-delivery time assumed before any observation */
+    private static final double DEFAULT_DELIVERY_SECONDS = 20 * 60;
+
+    /** Shorter deliveries were marked delivered right after pickup and say nothing about travel */
+    private static final double MIN_DELIVERY_SECONDS = 60;
+
+    /** Largest number of deliveries read by one refresh */
+    private static final int REFRESH_BATCH = 5_000;
+
+    /** How long after its delivery time an order may commit and still be read */
+    private static final Duration LATE_COMMIT_GRACE = Duration.ofMinutes(5);
+
+    private final CourierSpatialIndex courierSpatialIndex;
+    private final OrderRepository orderRepository;
+    private final Map<Vehicle, DeliveryStats> stats = new EnumMap<>(Vehicle.class);
+    private LocalDateTime lastDeliveredAt = LocalDateTime.now();
+
+    /** Orders already recorded, by ID, with their delivery time; kept for {@link #LATE_COMMIT_GRACE} */
+    private final Map<Long, LocalDateTime> recorded = new HashMap<>();
+
+    /**
+     * @param courierSpatialIndex index of courier positions
+     * @param orderRepository repository the observed deliveries are read from
+     */
+    public EtaEstimator(CourierSpatialIndex courierSpatialIndex, OrderRepository orderRepository) {
+        this.courierSpatialIndex = courierSpatialIndex;
+        this.orderRepository = orderRepository;
+        for (Vehicle vehicle : Vehicle.values()) {
+            stats.put(vehicle, new DeliveryStats());
+        }
+    }
+
+    /**
+     * Estimates when an order that has not been picked up yet will be delivered.
+     *
+     * @param courierId ID of the assigned courier, or null if none is assigned yet
+     * @param vehicle vehicle of the assigned courier, or null if none is assigned yet
+     * @param pickupLatitude latitude of the pickup location
+     * @param pickupLongitude longitude of the pickup location
+     * @param dropoffLatitude latitude of the drop-off location, may be null
+     * @param dropoffLongitude longitude of the drop-off location, may be null
+     * @return estimated delivery time, or null if the pickup location is unknown
+     */
+    public LocalDateTime estimateBeforePickup(Long courierId, Vehicle vehicle,
+                                              Double pickupLatitude, Double pickupLongitude,
+                                              Double dropoffLatitude, Double dropoffLongitude) {
+        if (!GeoDistance.isValid(pickupLatitude, pickupLongitude)) {
+            return null;
+        }
+
+        // Without a courier, the nearest indexed one stands in for whoever dispatch will pick.
+        CourierLocation courier = courierId != null ? courierSpatialIndex.get(courierId) : null;
+        if (courier == null && courierId == null) {
+            List<CourierNeighbor> nearest = courierSpatialIndex.nearest(pickupLatitude, pickupLongitude, 1,
+                    CourierSpatialIndex.MAX_SEARCH_METERS);
+            courier = nearest.isEmpty() ? null : nearest.get(0).getLocation();
+        }
+        if (vehicle == null) {
+            vehicle = courier != null ? courier.getVehicle() : Vehicle.BICYCLE;
+        }
+
+        double seconds = 0;
+        if (courier != null) {
+            seconds += travelSeconds(vehicle, GeoDistance.meters(courier.getLatitude(), courier.getLongitude(),
+                    pickupLatitude, pickupLongitude));
+        }
+        if (GeoDistance.isValid(dropoffLatitude, dropoffLongitude)) {
+            seconds += travelSeconds(vehicle, GeoDistance.meters(pickupLatitude, pickupLongitude,
+                    dropoffLatitude, dropoffLongitude));
+        } else {
+            seconds += deliverySeconds(vehicle);
+        }
+        return LocalDateTime.now().plus(toDuration(seconds));
+    }
+
+    /**
+     * Estimates when a picked up order will be delivered if it is the courier's next stop.
+     *
+     * @param courierId ID of the courier
+     * @param vehicle vehicle of the courier
+     * @param pickedAt pickup timestamp, or null if unknown
+     * @param dropoffLatitude latitude of the drop-off location, may be null
+     * @param dropoffLongitude longitude of the drop-off location, may be null
+     * @return estimated delivery time, never before now
+     */
+    public LocalDateTime estimateAfterPickup(Long courierId, Vehicle vehicle, LocalDateTime pickedAt,
+                                             Double dropoffLatitude, Double dropoffLongitude) {
+        LocalDateTime now = LocalDateTime.now();
+        CourierLocation courier = courierSpatialIndex.get(courierId);
+        if (courier != null && GeoDistance.isValid(dropoffLatitude, dropoffLongitude)) {
+            return now.plus(toDuration(travelSeconds(vehicle, GeoDistance.meters(
+                    courier.getLatitude(), courier.getLongitude(), dropoffLatitude, dropoffLongitude))));
+        }
+        LocalDateTime typical = (pickedAt != null ? pickedAt : now).plus(toDuration(deliverySeconds(vehicle)));
+        return typical.isBefore(now) ? now : typical;
+    }
+
+    /**
+     * @param vehicle vehicle of the courier
+     * @param meters straight-line distance
+     * @return expected travel time in seconds
+     */
+    public double travelSeconds(Vehicle vehicle, double meters) {
+        double prior = vehicle.getAverageSpeedKmh() / 3.6 / DETOUR_FACTOR;
+        return meters / stats.get(vehicle).metersPerSecond(prior);
+    }
+
+    /**
+     * @param vehicle vehicle of the courier
+     * @return typical time from pickup to delivery in seconds
+     */
+    public double deliverySeconds(Vehicle vehicle) {
+        return stats.get(vehicle).deliverySeconds(DEFAULT_DELIVERY_SECONDS);
+    }
+
+    /**
+     * Records a completed delivery.
+     *
+     * @param sample the delivery
+     */
+    public void record(DeliverySample sample) {
+        if (sample.getVehicle() == null) {
+            return;
+        }
+        double seconds = Duration.between(sample.getPickedAt(), sample.getDeliveredAt()).toMillis() / 1000d;
+        if (seconds < MIN_DELIVERY_SECONDS) {
+            return;
+        }
+        double meters = -1;
+        if (GeoDistance.isValid(sample.getPickupLatitude(), sample.getPickupLongitude())
+                && GeoDistance.isValid(sample.getDropoffLatitude(), sample.getDropoffLongitude())) {
+            meters = GeoDistance.meters(sample.getPickupLatitude(), sample.getPickupLongitude(),
+                    sample.getDropoffLatitude(), sample.getDropoffLongitude());
+        }
+        stats.get(sample.getVehicle()).add(seconds, meters);
+    }
+
+    /**
+     * Reads the latest deliveries of every vehicle, oldest first.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        for (Vehicle vehicle : Vehicle.values()) {
+            List<DeliverySample> latest = orderRepository.findLatestDeliverySamples(
+                    OrderStatus.DELIVERED, vehicle, PageRequest.of(0, DeliveryStats.WINDOW));
+            for (int i = latest.size() - 1; i >= 0; i--) {
+                recordOnce(latest.get(i));
+            }
+        }
+        forgetOldRecords();
+    }
+
+    /**
+     * Reads the deliveries completed since the last refresh.
+     */
+    @Scheduled(initialDelayString = "${eta.refresh-interval:PT1M}", fixedDelayString = "${eta.refresh-interval:PT1M}")
+    public synchronized void refresh() {
+        LocalDateTime afterDeliveredAt = lastDeliveredAt.minus(LATE_COMMIT_GRACE);
+        long afterId = 0;
+        List<DeliverySample> samples;
+        do {
+            samples = orderRepository.findDeliverySamples(
+                    OrderStatus.DELIVERED, afterDeliveredAt, afterId, PageRequest.of(0, REFRESH_BATCH));
+            for (DeliverySample sample : samples) {
+                recordOnce(sample);
+                afterDeliveredAt = sample.getDeliveredAt();
+                afterId = sample.getOrderId();
+            }
+        } while (samples.size() == REFRESH_BATCH);
+        forgetOldRecords();
+    }
+
+    private void recordOnce(DeliverySample sample) {
+        if (recorded.putIfAbsent(sample.getOrderId(), sample.getDeliveredAt()) == null) {
+            record(sample);
+        }
+        if (sample.getDeliveredAt().isAfter(lastDeliveredAt)) {
+            lastDeliveredAt = sample.getDeliveredAt();
+        }
+    }
+
+    /**
+     * Forgets the orders the next refresh no longer reads.
+     */
+    private void forgetOldRecords() {
+        LocalDateTime horizon = lastDeliveredAt.minus(LATE_COMMIT_GRACE);
+        recorded.values().removeIf(deliveredAt -> deliveredAt.isBefore(horizon));
+    }
+
+    private static Duration toDuration(double seconds) {
+        return Duration.ofMillis(Math.round(seconds * 1000));
+    }
+}
@@ -0,0 +1,31 @@
+package com.delivery.dvApp.event;
+
+import java.util.function.Function;
+
+/**
+ * Kind of party that can subscribe to the order events that concern it.
+ */
+public enum OrderEventAudience {
+    /** Receives the events of the orders it placed. */
+    CUSTOMER(OrderStatusEvent::getCustomerId),
+
+    /** Receives the events of the orders assigned to it. */
+    COURIER(OrderStatusEvent::getCourierId),
+
+    /** Receives the events of the orders it prepares. */
+    RESTAURANT(OrderStatusEvent::getRestaurantId);
+
+    private final Function<OrderStatusEvent, Long> recipient;
+
+    OrderEventAudience(Function<OrderStatusEvent, Long> recipient) {
+        this.recipient = recipient;
+    }
+
+    /**
+     * @param event an order event
+     * @return ID of the party of this kind the event concerns, or null if none
+     */
+    public Long recipientOf(OrderStatusEvent event) {
+        return recipient.apply(event);
+    }
+}
@@ -0,0 +1,154 @@
+package com.delivery.dvApp.event;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes order events to Server-Sent Events streams of customers, couriers and restaurants.
+ *
+ * <p>{@link OrderStatusEvent}s are published through the application event
+ * bus and handed to this component once their transaction has committed, so
+ * clients never see a change that is rolled back. Each event goes to every
+ * stream of its customer, courier and restaurant.</p>
+ *
+ * <p>Streams are asynchronous requests: an idle stream holds no thread, and
+ * each stream buffers at most {@code order-events.buffer-size} events (see
+ * {@link OrderEventSubscriber} for what happens when a client falls behind).
+ * Every {@code order-events.heartbeat-interval} idle streams get a comment
+ * line, and every stream is closed after {@code order-events.timeout}; the
+ * browser's {@code EventSource} reconnects on its own.</p>
+ *
+ * <p>The number of open streams and of dropped events are published under
+ * {@code order.events.subscribers} and {@code order.events.dropped}.</p>
+ */
+@Component
+public class OrderEventStreams implements MeterBinder {
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final Map<OrderEventAudience, ConcurrentHashMap<Long, Set<OrderEventSubscriber>>> subscribers =
+            new EnumMap<>(OrderEventAudience.class);
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * @param bufferSize largest number of events buffered per stream
+     * @param timeout time after which a stream is closed
+     */
+    public OrderEventStreams(@Value("${order-events.buffer-size:32}") int bufferSize,
+                             @Value("${order-events.timeout:PT30M}") Duration timeout) {
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        for (OrderEventAudience audience : OrderEventAudience.values()) {
+            subscribers.put(audience, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Opens a stream of the events concerning one customer, courier or restaurant.
+     *
+     * @param audience kind of party
+     * @param id ID of the party
+     * @return emitter to return from the controller method
+     */
+    public SseEmitter subscribe(OrderEventAudience audience, Long id) {
+        SseEmitter emitter = newEmitter(timeoutMillis);
+        ConcurrentHashMap<Long, Set<OrderEventSubscriber>> byId = subscribers.get(audience);
+        OrderEventSubscriber[] self = new OrderEventSubscriber[1];
+        self[0] = new OrderEventSubscriber(emitter, bufferSize, () -> {
+            byId.computeIfPresent(id, (key, set) -> {
+                set.remove(self[0]);
+                return set.isEmpty() ? null : set;
+            });
+            subscriberCount.decrementAndGet();
+        });
+        byId.compute(id, (key, set) -> {
+            Set<OrderEventSubscriber> next = set != null ? set : ConcurrentHashMap.newKeySet();
+            next.add(self[0]);
+            return next;
+        });
+        subscriberCount.incrementAndGet();
+
+        emitter.onCompletion(self[0]::close);
+        emitter.onTimeout(self[0]::close);
+        emitter.onError(error -> self[0].close());
+        return emitter;
+    }
+
+    /**
+     * Hands a committed order event to the streams it concerns.
+     *
+     * @param event the event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(OrderStatusEvent event) {
+        for (OrderEventAudience audience : OrderEventAudience.values()) {
+            Long id = audience.recipientOf(event);
+            if (id == null) {
+                continue;
+            }
+            Set<OrderEventSubscriber> streams = subscribers.get(audience).get(id);
+            if (streams != null) {
+                for (OrderEventSubscriber stream : streams) {
+                    dropped.addAndGet(stream.offer(event));
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends a heartbeat to every idle stream.
+     */
+    @Scheduled(fixedDelayString = "${order-events.heartbeat-interval:PT30S}")
+    public void heartbeat() {
+        for (ConcurrentHashMap<Long, Set<OrderEventSubscriber>> byId : subscribers.values()) {
+            for (Set<OrderEventSubscriber> streams : byId.values()) {
+                streams.forEach(OrderEventSubscriber::heartbeat);
+            }
+        }
+    }
+
+    /**
+     * @return number of open streams
+     */
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * Publishes the number of open streams and of dropped events.
+     *
+     * @param registry registry to bind to
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("order.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open order event streams")
+                .register(registry);
+        FunctionCounter.builder("order.events.dropped", dropped, AtomicLong::get)
+                .description("Order events dropped because a client fell behind")
+                .register(registry);
+    }
+
+    /**
+     * @param timeoutMillis time after which the stream is closed
+     * @return a new emitter
+     */
+    protected SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+}
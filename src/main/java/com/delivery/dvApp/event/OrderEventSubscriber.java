@@ -0,0 +1,136 @@
+package com.delivery.dvApp.event;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+
+/**
+ * One open event stream with its own bounded buffer.
+ *
+ * <p>Publishing only appends to the buffer. A virtual thread is started
+ * when the buffer gets its first entry and sends until it is empty, so an
+ * idle stream holds no thread and a slow client only ever blocks its own
+ * sender. When the buffer is full, the buffered events are dropped and the
+ * client is sent a single {@value #RESYNC} event instead: it has missed
+ * changes and should reload its orders once.</p>
+ */
+final class OrderEventSubscriber {
+    /** Name of the event carrying an {@link OrderStatusEvent} */
+    static final String ORDER_STATUS = "order-status";
+
+    /** Name of the event telling the client that events were dropped */
+    static final String RESYNC = "resync";
+
+    private final SseEmitter emitter;
+    private final int capacity;
+    private final Runnable onClose;
+    private final ArrayDeque<OrderStatusEvent> buffer;
+    private boolean overflowed;
+    private boolean heartbeatDue;
+    private boolean draining;
+    private boolean closed;
+
+    /**
+     * @param emitter emitter of the stream
+     * @param capacity largest number of buffered events
+     * @param onClose called once when the stream is found to be closed
+     */
+    OrderEventSubscriber(SseEmitter emitter, int capacity, Runnable onClose) {
+        this.emitter = emitter;
+        this.capacity = capacity;
+        this.onClose = onClose;
+        this.buffer = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * Buffers an event for sending.
+     *
+     * @param event the event
+     * @return number of buffered events dropped to make room
+     */
+    synchronized int offer(OrderStatusEvent event) {
+        if (closed) {
+            return 0;
+        }
+        int dropped = 0;
+        if (buffer.size() == capacity) {
+            dropped = buffer.size();
+            buffer.clear();
+            overflowed = true;
+        }
+        buffer.add(event);
+        startDraining();
+        return dropped;
+    }
+
+    /**
+     * Sends a comment line if nothing else is pending, so proxies keep the
+     * connection open and closed connections are noticed.
+     */
+    synchronized void heartbeat() {
+        if (closed) {
+            return;
+        }
+        heartbeatDue = true;
+        startDraining();
+    }
+
+    /**
+     * Stops sending; buffered events are discarded.
+     */
+    void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buffer.clear();
+        }
+        onClose.run();
+    }
+
+    private void startDraining() {
+        if (!draining) {
+            draining = true;
+            Thread.startVirtualThread(this::drain);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            SseEmitter.SseEventBuilder message;
+            synchronized (this) {
+                if (closed) {
+                    draining = false;
+                    return;
+                }
+                if (overflowed) {
+                    overflowed = false;
+                    heartbeatDue = false;
+                    message = SseEmitter.event().name(RESYNC).data("");
+                } else if (!buffer.isEmpty()) {
+                    heartbeatDue = false;
+                    message = SseEmitter.event().name(ORDER_STATUS).data(buffer.poll(), MediaType.APPLICATION_JSON);
+                } else if (heartbeatDue) {
+                    heartbeatDue = false;
+                    message = SseEmitter.event().comment("heartbeat");
+                } else {
+                    draining = false;
+                    return;
+                }
+            }
+            try {
+                emitter.send(message);
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the emitter completed; the container reports the error itself.
+                synchronized (this) {
+                    draining = false;
+                }
+                close();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.delivery.dvApp.event;
+
+import com.delivery.dvApp.enums.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * An order reached a new status or got a courier.
+ *
+ * <p>Published by the order service and the dispatcher within the
+ * transaction of the change. It is written to the order event outbox in
+ * that transaction and delivered to subscribers by {@link OrderEventStreams}
+ * once the change has committed. The courier, customer and restaurant
+ * decide who receives the event.</p>
+ */
+public final class OrderStatusEvent {
+    private final Long orderId;
+    private final OrderStatus status;
+    private final LocalDateTime changedAt;
+    private final Long courierId;
+    private final Long customerId;
+    private final Long restaurantId;
+
+    public OrderStatusEvent(Long orderId, OrderStatus status, LocalDateTime changedAt,
+                            Long courierId, Long customerId, Long restaurantId) {
+        this.orderId = orderId;
+        this.status = status;
+        this.changedAt = changedAt;
+        this.courierId = courierId;
+        this.customerId = customerId;
+        this.restaurantId = restaurantId;
+    }
+
+    /**
+     * @return order ID
+     */
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * @return status of the order after the change
+     */
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return time of the change
+     */
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    /**
+     * @return ID of the assigned courier, or null if none is assigned yet
+     */
+    public Long getCourierId() {
+        return courierId;
+    }
+
+    /**
+     * @return ID of the customer who placed the order
+     */
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    /**
+     * @return ID of the restaurant preparing the order
+     */
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+}
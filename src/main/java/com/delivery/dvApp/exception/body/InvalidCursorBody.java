@@ -0,0 +1,28 @@
+package com.delivery.dvApp.exception.body;
+
+import org.springframework.http.HttpStatus;
+import java.time.ZonedDateTime;
+
+/**
+ * Represents the error response body sent when a pagination cursor is malformed.
+ */
+public class InvalidCursorBody {
+    private final String message;
+    private final HttpStatus status;
+    private final ZonedDateTime timestamp;
+
+    /**
+     * @param message   Explanation of why the cursor was rejected.
+     * @param status    The HTTP status (typically 400 Bad Request).
+     * @param timestamp The exact moment the error was caught.
+     */
+    public InvalidCursorBody(String message, HttpStatus status, ZonedDateTime timestamp) {
+        this.message = message;
+        this.status = status;
+        this.timestamp = timestamp;
+    }
+
+    public String getMessage() { return message; }
+    public HttpStatus getStatus() { return status; }
+    public ZonedDateTime getTimestamp() { return timestamp; }
+}
@@ -0,0 +1,10 @@
+package com.delivery.dvApp.exception.custom;
+/**
+ * Thrown when a paginated request carries a cursor that cannot be decoded
+ * (e.g., it was truncated or not produced by a previous page).
+ */
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message){
+        super(message);
+    }
+}
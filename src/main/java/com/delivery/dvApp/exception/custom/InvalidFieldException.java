@@ -0,0 +1,9 @@
+package com.delivery.dvApp.exception.custom;
+/**
+ * Thrown when a listing is asked for a field it does not offer (e.g., a misspelled name in the fields parameter).
+ */
+public class InvalidFieldException extends RuntimeException {
+    public InvalidFieldException(String message){
+        super(message);
+    }
+}
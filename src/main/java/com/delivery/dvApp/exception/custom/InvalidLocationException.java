@@ -0,0 +1,9 @@
+package com.delivery.dvApp.exception.custom;
+/**
+ * Thrown when a location is missing or outside the valid latitude/longitude range.
+ */
+public class InvalidLocationException extends RuntimeException {
+    public InvalidLocationException(String message){
+        super(message);
+    }
+}
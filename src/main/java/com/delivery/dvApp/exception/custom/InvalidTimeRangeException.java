@@ -0,0 +1,9 @@
+package com.delivery.dvApp.exception.custom;
+/**
+ * Thrown when a time-range query has its end before its start or spans more than the allowed number of days.
+ */
+public class InvalidTimeRangeException extends RuntimeException {
+    public InvalidTimeRangeException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.delivery.dvApp.exception.custom;
+/**
+ * Thrown when a bulk request names more orders than one request may change.
+ */
+public class TooManyOrdersException extends RuntimeException {
+    public TooManyOrdersException(String message){
+        super(message);
+    }
+}
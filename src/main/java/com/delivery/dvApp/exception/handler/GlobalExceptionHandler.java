@@ -205,4 +205,79 @@ public class GlobalExceptionHandler {
 
         return new ResponseEntity<>(orderExistsBody,badRequest);
     }
+
+    /**
+     * Handles malformed pagination cursors.
+     * @return 400 Bad Request with InvalidCursorBody.
+     */
+    @ExceptionHandler(value={InvalidCursorException.class})
+    public ResponseEntity<Object> handleInvalidCursorException(InvalidCursorException ex){
+        HttpStatus badRequest = HttpStatus.BAD_REQUEST;
+        InvalidCursorBody invalidCursorBody = new InvalidCursorBody(
+                ex.getMessage(),
+                badRequest,
+                ZonedDateTime.now()
+        );
+        return new ResponseEntity<>(invalidCursorBody,badRequest);
+    }
+
+    /**
+     * Handles missing or out-of-range coordinates.
+     * @return 400 Bad Request with InvalidLocationBody.
+     */
+    @ExceptionHandler(value={InvalidLocationException.class})
+    public ResponseEntity<Object> handleInvalidLocationException(InvalidLocationException ex){
+        HttpStatus badRequest = HttpStatus.BAD_REQUEST;
+        InvalidLocationBody invalidLocationBody = new InvalidLocationBody(
+                ex.getMessage(),
+                badRequest,
+                ZonedDateTime.now()
+        );
+        return new ResponseEntity<>(invalidLocationBody,badRequest);
+    }
+
+    /**
+     * Handles invalid time ranges.
+     * @return 400 Bad Request with InvalidTimeRangeBody.
+     */
+    @ExceptionHandler(value={InvalidTimeRangeException.class})
+    public ResponseEntity<Object> handleInvalidTimeRangeException(InvalidTimeRangeException ex){
+        HttpStatus badRequest = HttpStatus.BAD_REQUEST;
+        InvalidTimeRangeBody invalidTimeRangeBody = new InvalidTimeRangeBody(
+                ex.getMessage(),
+                badRequest,
+                ZonedDateTime.now()
+        );
+        return new ResponseEntity<>(invalidTimeRangeBody,badRequest);
+    }
+
+    /**
+     * Handles bulk requests naming too many orders.
+     * @return 400 Bad Request with TooManyOrdersBody.
+     */
+    @ExceptionHandler(value={TooManyOrdersException.class})
+    public ResponseEntity<Object> handleTooManyOrdersException(TooManyOrdersException ex){
+        HttpStatus badRequest = HttpStatus.BAD_REQUEST;
+        TooManyOrdersBody tooManyOrdersBody = new TooManyOrdersBody(
+                ex.getMessage(),
+                badRequest,
+                ZonedDateTime.now()
+        );
+        return new ResponseEntity<>(tooManyOrdersBody,badRequest);
+    }
+
+    /**
+     * Handles unknown fields in sparse fieldset requests.
+     * @return 400 Bad Request with InvalidFieldBody.
+     */
+    @ExceptionHandler(value={InvalidFieldException.class})
+    public ResponseEntity<Object> handleInvalidFieldException(InvalidFieldException ex){
+        HttpStatus badRequest = HttpStatus.BAD_REQUEST;
+        InvalidFieldBody invalidFieldBody = new InvalidFieldBody(
+                ex.getMessage(),
+                badRequest,
+                ZonedDateTime.now()
+        );
+        return new ResponseEntity<>(invalidFieldBody,badRequest);
+    }
 }
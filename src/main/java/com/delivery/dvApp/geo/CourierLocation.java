@@ -0,0 +1,48 @@
+package com.delivery.dvApp.geo;
+
+import com.delivery.dvApp.enums.Vehicle;
+
+/**
+ * Last known position of a courier as held by the {@link CourierSpatialIndex}.
+ */
+public final class CourierLocation {
+    private final Long courierId;
+    private final Vehicle vehicle;
+    private final double latitude;
+    private final double longitude;
+
+    public CourierLocation(Long courierId, Vehicle vehicle, double latitude, double longitude) {
+        this.courierId = courierId;
+        this.vehicle = vehicle;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    /**
+     * @return courier ID
+     */
+    public Long getCourierId() {
+        return courierId;
+    }
+
+    /**
+     * @return vehicle of the courier
+     */
+    public Vehicle getVehicle() {
+        return vehicle;
+    }
+
+    /**
+     * @return latitude in degrees
+     */
+    public double getLatitude() {
+        return latitude;
+    }
+
+    /**
+     * @return longitude in degrees
+     */
+    public double getLongitude() {
+        return longitude;
+    }
+}
@@ -0,0 +1,130 @@
+package com.delivery.dvApp.geo;
+
+import com.delivery.dvApp.track.CourierTrackStore;
+import jakarta.annotation.PreDestroy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latest-position store that sits between courier position reports and the database.
+ *
+ * <p>Every report updates the {@link CourierSpatialIndex} straight away, so
+ * nearby searches and dispatch see it immediately. The database is only
+ * written by {@link #flush()}, which runs every
+ * {@code courier.location.flush-interval} and stores the newest position of
+ * each courier that moved since the last run with batched JDBC updates.
+ * However often a courier reports, it costs at most one row update per
+ * interval.</p>
+ *
+ * <p>Only couriers in the spatial index are accepted; {@code CourierService}
+ * indexes live couriers before their first report and removes deleted ones.
+ * Reports older than the newest one already seen for a courier are
+ * ignored, so batches arriving out of order cannot move a courier back.
+ * Every accepted report is also appended to the courier's track in the
+ * {@link CourierTrackStore}.</p>
+ */
+@Component
+public class CourierLocationBuffer {
+    /** Number of rows sent to the database in one JDBC batch */
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private static final String UPDATE_LOCATION_SQL =
+            "update courier set current_latitude = ?, current_longitude = ? where id = ? and deleted = false";
+
+    private final ConcurrentHashMap<Long, ReportedLocation> latest = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final JdbcTemplate jdbcTemplate;
+    private final CourierSpatialIndex courierSpatialIndex;
+    private final CourierTrackStore courierTrackStore;
+
+    /**
+     * @param jdbcTemplate template used for the batched updates
+     * @param courierSpatialIndex index that receives every accepted position
+     * @param courierTrackStore store that records every accepted position
+     */
+    public CourierLocationBuffer(JdbcTemplate jdbcTemplate,
+                                 CourierSpatialIndex courierSpatialIndex,
+                                 CourierTrackStore courierTrackStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.courierSpatialIndex = courierSpatialIndex;
+        this.courierTrackStore = courierTrackStore;
+    }
+
+    /**
+     * Records a position report.
+     *
+     * @param courierId ID of the courier
+     * @param latitude latitude in degrees
+     * @param longitude longitude in degrees
+     * @param recordedAt time the position was measured
+     * @return false if the courier is not indexed or a newer position of it is already known
+     */
+    public boolean offer(Long courierId, double latitude, double longitude, LocalDateTime recordedAt) {
+        if (courierSpatialIndex.get(courierId) == null) {
+            return false;
+        }
+        ReportedLocation report = new ReportedLocation(latitude, longitude, recordedAt);
+        ReportedLocation stored = latest.merge(courierId, report,
+                (current, incoming) -> incoming.recordedAt.isBefore(current.recordedAt) ? current : incoming);
+        if (stored != report) {
+            return false;
+        }
+        courierSpatialIndex.move(courierId, latitude, longitude);
+        courierTrackStore.append(courierId, latitude, longitude, recordedAt);
+        dirty.add(courierId);
+        return true;
+    }
+
+    /**
+     * Writes the newest position of every courier that moved since the last flush.
+     *
+     * <p>Couriers deleted in the meantime are skipped by the update itself.</p>
+     *
+     * @return number of couriers whose position was written
+     */
+    @Scheduled(fixedDelayString = "${courier.location.flush-interval:PT5S}")
+    public int flush() {
+        List<Object[]> rows = new ArrayList<>();
+
+        for (Long courierId : dirty) {
+            dirty.remove(courierId);
+            ReportedLocation location = latest.get(courierId);
+            if (location == null) {
+                continue;
+            }
+            rows.add(new Object[]{location.latitude, location.longitude, courierId});
+        }
+
+        for (int from = 0; from < rows.size(); from += FLUSH_BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(UPDATE_LOCATION_SQL, rows.subList(from, Math.min(from + FLUSH_BATCH_SIZE, rows.size())));
+        }
+        return rows.size();
+    }
+
+    /**
+     * Writes pending positions before the application shuts down.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private static final class ReportedLocation {
+        private final double latitude;
+        private final double longitude;
+        private final LocalDateTime recordedAt;
+
+        private ReportedLocation(double latitude, double longitude, LocalDateTime recordedAt) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.recordedAt = recordedAt;
+        }
+    }
+}
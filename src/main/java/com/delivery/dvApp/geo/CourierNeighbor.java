@@ -0,0 +1,28 @@
+package com.delivery.dvApp.geo;
+
+/**
+ * Courier found by a {@link CourierSpatialIndex} query, with its distance to the query point.
+ */
+public final class CourierNeighbor {
+    private final CourierLocation location;
+    private final double distanceMeters;
+
+    public CourierNeighbor(CourierLocation location, double distanceMeters) {
+        this.location = location;
+        this.distanceMeters = distanceMeters;
+    }
+
+    /**
+     * @return position of the courier when the query ran
+     */
+    public CourierLocation getLocation() {
+        return location;
+    }
+
+    /**
+     * @return great-circle distance to the query point in meters
+     */
+    public double getDistanceMeters() {
+        return distanceMeters;
+    }
+}
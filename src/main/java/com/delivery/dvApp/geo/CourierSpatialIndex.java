@@ -0,0 +1,205 @@
+package com.delivery.dvApp.geo;
+
+import com.delivery.dvApp.enums.Vehicle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory grid index over the positions of active couriers.
+ *
+ * <p>The earth is cut into cells of {@value #CELL_DEGREES} degrees
+ * (about 1.1 km north-south). Each cell keeps the IDs of the couriers
+ * inside it, and a second map keeps the last position of every courier.
+ * Queries walk rings of cells outwards from the query point with
+ * {@link GridRings} and stop as soon as no unvisited ring can hold anything
+ * closer than what has been found, so a lookup only touches the few cells
+ * around the point.</p>
+ *
+ * <p>Updates and queries may run concurrently. Updates of one courier are
+ * serialized; a query running at the same time sees either the old or the
+ * new position. Searches do not wrap around the antimeridian.</p>
+ */
+@Component
+public class CourierSpatialIndex {
+    /** Edge length of a grid cell in degrees */
+    static final double CELL_DEGREES = 0.01;
+
+    /** Upper bound for search radii, keeps the number of visited cells small */
+    public static final double MAX_SEARCH_METERS = 50_000;
+
+    private final ConcurrentHashMap<Long, CourierLocation> locations = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a courier or moves it to a new position.
+     *
+     * @param courierId ID of the courier
+     * @param vehicle vehicle of the courier
+     * @param latitude latitude in degrees
+     * @param longitude longitude in degrees
+     */
+    public void update(Long courierId, Vehicle vehicle, double latitude, double longitude) {
+        CourierLocation next = new CourierLocation(courierId, vehicle, latitude, longitude);
+        locations.compute(courierId, (id, previous) -> place(previous, next));
+    }
+
+    /**
+     * Moves a courier that is already indexed, keeping its vehicle.
+     *
+     * @param courierId ID of the courier
+     * @param latitude latitude in degrees
+     * @param longitude longitude in degrees
+     * @return false if the courier is not in the index
+     */
+    public boolean move(Long courierId, double latitude, double longitude) {
+        return locations.computeIfPresent(courierId, (id, previous) ->
+                place(previous, new CourierLocation(id, previous.getVehicle(), latitude, longitude))) != null;
+    }
+
+    /**
+     * Removes a courier from the index.
+     *
+     * @param courierId ID of the courier
+     */
+    public void remove(Long courierId) {
+        locations.computeIfPresent(courierId, (id, previous) -> {
+            leaveCell(cellKey(previous.getLatitude(), previous.getLongitude()), id);
+            return null;
+        });
+    }
+
+    /**
+     * Removes every courier from the index.
+     */
+    public void clear() {
+        locations.clear();
+        cells.clear();
+    }
+
+    /**
+     * @param courierId ID of the courier
+     * @return last indexed position of the courier, or null if it is not indexed
+     */
+    public CourierLocation get(Long courierId) {
+        return locations.get(courierId);
+    }
+
+    /**
+     * @return copy of every indexed position, in no particular order
+     */
+    public List<CourierLocation> snapshot() {
+        return new ArrayList<>(locations.values());
+    }
+
+    /**
+     * @return number of indexed couriers
+     */
+    public int size() {
+        return locations.size();
+    }
+
+    /**
+     * Finds the {@code k} couriers closest to a point.
+     *
+     * @param latitude latitude of the point in degrees
+     * @param longitude longitude of the point in degrees
+     * @param k maximum number of couriers to return
+     * @param maxMeters couriers further away than this are ignored; capped at {@value #MAX_SEARCH_METERS}
+     * @return couriers ordered by distance, closest first
+     */
+    public List<CourierNeighbor> nearest(double latitude, double longitude, int k, double maxMeters) {
+        if (k <= 0) {
+            return List.of();
+        }
+        double radius = Math.min(maxMeters, MAX_SEARCH_METERS);
+        PriorityQueue<CourierNeighbor> best = new PriorityQueue<>(
+                Comparator.comparingDouble(CourierNeighbor::getDistanceMeters).reversed());
+        Set<Long> seen = new HashSet<>();
+
+        GridRings.walk(latitude, longitude, radius, CELL_DEGREES, (latCell, lonCell) -> {
+            Set<Long> courierIds = cells.get(cellKey(latCell, lonCell));
+            if (courierIds != null) {
+                for (Long courierId : courierIds) {
+                    CourierLocation location = locations.get(courierId);
+                    if (location != null && seen.add(courierId)) {
+                        offer(best, k, location, GeoDistance.meters(latitude, longitude,
+                                location.getLatitude(), location.getLongitude()), radius);
+                    }
+                }
+            }
+            return best.size() == k ? best.peek().getDistanceMeters() : Double.POSITIVE_INFINITY;
+        });
+
+        List<CourierNeighbor> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(CourierNeighbor::getDistanceMeters));
+        return result;
+    }
+
+    /**
+     * Finds every courier within a radius of a point.
+     *
+     * @param latitude latitude of the point in degrees
+     * @param longitude longitude of the point in degrees
+     * @param radiusMeters search radius; capped at {@value #MAX_SEARCH_METERS}
+     * @return couriers ordered by distance, closest first
+     */
+    public List<CourierNeighbor> withinRadius(double latitude, double longitude, double radiusMeters) {
+        return nearest(latitude, longitude, Integer.MAX_VALUE, radiusMeters);
+    }
+
+    private static void offer(PriorityQueue<CourierNeighbor> best, int k, CourierLocation location,
+                              double distance, double radius) {
+        if (distance > radius) {
+            return;
+        }
+        if (best.size() < k) {
+            best.add(new CourierNeighbor(location, distance));
+        } else if (distance < best.peek().getDistanceMeters()) {
+            best.poll();
+            best.add(new CourierNeighbor(location, distance));
+        }
+    }
+
+    private CourierLocation place(CourierLocation previous, CourierLocation next) {
+        long nextCell = cellKey(next.getLatitude(), next.getLongitude());
+        if (previous != null) {
+            long previousCell = cellKey(previous.getLatitude(), previous.getLongitude());
+            if (previousCell == nextCell) {
+                return next;
+            }
+            leaveCell(previousCell, next.getCourierId());
+        }
+        cells.compute(nextCell, (key, courierIds) -> {
+            Set<Long> ids = courierIds == null ? ConcurrentHashMap.newKeySet() : courierIds;
+            ids.add(next.getCourierId());
+            return ids;
+        });
+        return next;
+    }
+
+    private void leaveCell(long cellKey, Long courierId) {
+        cells.computeIfPresent(cellKey, (key, courierIds) -> {
+            courierIds.remove(courierId);
+            return courierIds.isEmpty() ? null : courierIds;
+        });
+    }
+
+    private static int cell(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    private static long cellKey(double latitude, double longitude) {
+        return cellKey(cell(latitude), cell(longitude));
+    }
+
+    private static long cellKey(int latCell, int lonCell) {
+        return ((long) latCell << 32) | (lonCell & 0xffffffffL);
+    }
+}
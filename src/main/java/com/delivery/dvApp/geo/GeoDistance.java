@@ -0,0 +1,44 @@
+package com.delivery.dvApp.geo;
+
+/**
+ * Distance helpers for latitude/longitude coordinates.
+ */
+public final class GeoDistance {
+    /** Mean earth radius in meters */
+    public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+    /** Length of one degree of latitude in meters */
+    public static final double METERS_PER_DEGREE = Math.toRadians(1) * EARTH_RADIUS_METERS;
+
+    private GeoDistance() {
+    }
+
+    /**
+     * Great-circle distance between two points (haversine formula).
+     *
+     * @param lat1 latitude of the first point in degrees
+     * @param lon1 longitude of the first point in degrees
+     * @param lat2 latitude of the second point in degrees
+     * @param lon2 longitude of the second point in degrees
+     * @return distance in meters
+     */
+    public static double meters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * @param latitude latitude in degrees
+     * @param longitude longitude in degrees
+     * @return true if both values are present and within their valid range
+     */
+    public static boolean isValid(Double latitude, Double longitude) {
+        return latitude != null && longitude != null
+                && latitude >= -90 && latitude <= 90
+                && longitude >= -180 && longitude <= 180;
+    }
+}
@@ -0,0 +1,81 @@
+package com.delivery.dvApp.geo;
+
+/**
+ * Ring search over a grid of square-degree cells.
+ *
+ * <p>Cells are visited in rings of growing distance from a point. Ring
+ * {@code r} reaches {@code r} cells north and south, and east and west as
+ * many cells as cover the same distance at the latitude furthest from the
+ * equator within the radius, but never further than the radius itself.
+ * Everything in ring {@code r} is at least {@code r - 1} cell heights away,
+ * so the walk stops once that exceeds the radius or the distance the
+ * visitor still needs. The number of rings therefore depends on the radius
+ * only, and near the poles each ring just gets wider. Searches do not wrap
+ * around the antimeridian.</p>
+ */
+public final class GridRings {
+    /** Latitude used for the width of cells closer to a pole */
+    private static final double MAX_LATITUDE = 89.9;
+
+    private GridRings() {
+    }
+
+    /**
+     * Receives the cells of a ring search.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        /**
+         * Looks at one cell.
+         *
+         * @param latCell row of the cell, {@code floor(latitude / cellDegrees)}
+         * @param lonCell column of the cell, {@code floor(longitude / cellDegrees)}
+         * @return distance in meters beyond which nothing is needed any more,
+         *         {@link Double#POSITIVE_INFINITY} while everything within the radius is
+         */
+        double visit(int latCell, int lonCell);
+    }
+
+    /**
+     * Visits the cells around a point, closest rings first.
+     * Nothing is visited for a radius that is negative or not finite.
+     *
+     * @param latitude latitude of the point in degrees
+     * @param longitude longitude of the point in degrees
+     * @param radiusMeters cells entirely further away than this are skipped
+     * @param cellDegrees edge length of a cell in degrees
+     * @param visitor receives every cell that may hold something within the radius
+     */
+    public static void walk(double latitude, double longitude, double radiusMeters, double cellDegrees,
+                            Visitor visitor) {
+        if (!Double.isFinite(radiusMeters) || radiusMeters < 0) {
+            return;
+        }
+        double cellMeters = cellDegrees * GeoDistance.METERS_PER_DEGREE;
+        double furthestLatitude = Math.min(MAX_LATITUDE, Math.abs(latitude) + radiusMeters / GeoDistance.METERS_PER_DEGREE);
+        double lonCellMeters = cellMeters * Math.cos(Math.toRadians(furthestLatitude));
+        // Columns needed to cover one cell height east-west, and to cover the radius or half the earth.
+        double lonCellsPerRing = cellMeters / lonCellMeters;
+        int maxLonReach = (int) Math.min(Math.ceil(180 / cellDegrees), Math.ceil(radiusMeters / lonCellMeters) + 1);
+
+        int centerLat = (int) Math.floor(latitude / cellDegrees);
+        int centerLon = (int) Math.floor(longitude / cellDegrees);
+        double needed = radiusMeters;
+        int previousLonReach = -1;
+        for (int ring = 0; Math.max(0, ring - 1) * cellMeters <= needed; ring++) {
+            int lonReach = (int) Math.min(maxLonReach, Math.ceil(ring * lonCellsPerRing));
+            for (int dLat = -ring; dLat <= ring; dLat++) {
+                // Rows inside the previous ring were already visited up to its reach.
+                boolean inner = Math.abs(dLat) < ring;
+                for (int dLon = -lonReach; dLon <= lonReach; dLon++) {
+                    if (inner && Math.abs(dLon) <= previousLonReach) {
+                        dLon = previousLonReach;
+                        continue;
+                    }
+                    needed = Math.min(radiusMeters, visitor.visit(centerLat + dLat, centerLon + dLon));
+                }
+            }
+            previousLonReach = lonReach;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.delivery.dvApp.outbox;
+
+import com.delivery.dvApp.entity.OrderOutboxEntry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends order events to a newline-delimited JSON file.
+ *
+ * <p>Each batch is written with one call and forced to disk before
+ * {@link #send(List)} returns, so a batch the relay deletes from the
+ * outbox is never lost. This is the default sink
+ * ({@code outbox.sink=file}); other processes tail the file.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "file", matchIfMissing = true)
+public class FileOrderEventSink implements OrderEventSink {
+    private final FileChannel channel;
+    private final JsonMapper jsonMapper;
+
+    /**
+     * Opens the file for appending, creating it and its directory if needed.
+     *
+     * @param file file the events are appended to
+     * @param jsonMapper mapper used to serialize the events
+     * @throws UncheckedIOException if the file cannot be opened
+     */
+    public FileOrderEventSink(@Value("${outbox.file:data/outbox/order-events.ndjson}") Path file,
+                              JsonMapper jsonMapper) {
+        this.jsonMapper = jsonMapper;
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            this.channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void send(List<OrderOutboxEntry> entries) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream(entries.size() * 160);
+        for (OrderOutboxEntry entry : entries) {
+            lines.write(jsonMapper.writeValueAsBytes(entry));
+            lines.write('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    /**
+     * Closes the file.
+     */
+    @PreDestroy
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
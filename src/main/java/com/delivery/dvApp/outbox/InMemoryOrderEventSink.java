@@ -0,0 +1,32 @@
+package com.delivery.dvApp.outbox;
+
+import com.delivery.dvApp.entity.OrderOutboxEntry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps delivered order events in memory.
+ *
+ * <p>Meant for tests and local runs ({@code outbox.sink=memory}); nothing
+ * is ever removed, so it must not be used in production.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "memory")
+public class InMemoryOrderEventSink implements OrderEventSink {
+    private final List<OrderOutboxEntry> entries = new ArrayList<>();
+
+    @Override
+    public synchronized void send(List<OrderOutboxEntry> batch) {
+        entries.addAll(batch);
+    }
+
+    /**
+     * @return copy of the delivered events, in delivery order
+     */
+    public synchronized List<OrderOutboxEntry> entries() {
+        return List.copyOf(entries);
+    }
+}
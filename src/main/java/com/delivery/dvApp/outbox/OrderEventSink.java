@@ -0,0 +1,25 @@
+package com.delivery.dvApp.outbox;
+
+import com.delivery.dvApp.entity.OrderOutboxEntry;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination the {@link OutboxRelay} delivers order events to.
+ *
+ * <p>Exactly one sink is active, chosen by {@code outbox.sink}. A batch
+ * counts as delivered only when {@link #send(List)} returns; if it throws,
+ * the batch is retried later, so a sink may see an entry more than once
+ * and consumers drop repeats by entry ID.</p>
+ */
+public interface OrderEventSink {
+
+    /**
+     * Delivers a batch of events.
+     *
+     * @param entries events in the order they were written
+     * @throws IOException if the batch could not be delivered
+     */
+    void send(List<OrderOutboxEntry> entries) throws IOException;
+}
@@ -0,0 +1,40 @@
+package com.delivery.dvApp.outbox;
+
+import com.delivery.dvApp.entity.OrderOutboxEntry;
+import com.delivery.dvApp.event.OrderStatusEvent;
+import com.delivery.dvApp.repository.OrderOutboxRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes every order event to the outbox table.
+ *
+ * <p>The listener runs synchronously inside the transaction that published
+ * the event, so the outbox entry commits or rolls back together with the
+ * order change. Publishing outside a transaction is an error. Delivery to
+ * downstream consumers is left to the {@link OutboxRelay}, which keeps it
+ * off the order write path.</p>
+ */
+@Component
+public class OrderOutbox {
+    private final OrderOutboxRepository outboxRepository;
+
+    /**
+     * @param outboxRepository repository for outbox entries
+     */
+    public OrderOutbox(OrderOutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
+    }
+
+    /**
+     * Adds an order event to the outbox.
+     *
+     * @param event the event
+     */
+    @EventListener
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void append(OrderStatusEvent event) {
+        outboxRepository.save(new OrderOutboxEntry(event));
+    }
+}
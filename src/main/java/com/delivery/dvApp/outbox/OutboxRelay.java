@@ -0,0 +1,140 @@
+package com.delivery.dvApp.outbox;
+
+import com.delivery.dvApp.entity.OrderOutboxEntry;
+import com.delivery.dvApp.repository.OrderOutboxRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the order event outbox into the {@link OrderEventSink}.
+ *
+ * <p>Every {@code outbox.relay-interval} the relay takes batches of up to
+ * {@code outbox.batch-size} entries, each in its own short transaction:
+ * the oldest unlocked entries are locked with {@code SKIP LOCKED}, handed
+ * to the sink and deleted. If the sink fails, the transaction rolls back
+ * and the batch is retried with the next run. Several instances can run the
+ * relay at once; they never lock the same entry.</p>
+ *
+ * <p>Delivery is at least once: a crash after the sink accepted a batch but
+ * before the delete committed repeats that batch. Together with the entry
+ * IDs, which consumers use to drop repeats, every change is processed
+ * exactly once.</p>
+ *
+ * <p>Relayed entries and failed batches are counted under
+ * {@code outbox.relayed} and {@code outbox.relay.failures};
+ * {@code outbox.lag} is the age in seconds of the oldest entry the last
+ * batch found, or zero once the outbox is empty.</p>
+ */
+@Component
+public class OutboxRelay implements MeterBinder {
+    /** Largest number of batches relayed in one run, so a backlog cannot hold the scheduler forever */
+    private static final int MAX_BATCHES_PER_RUN = 100;
+
+    private final OrderOutboxRepository outboxRepository;
+    private final OrderEventSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final AtomicLong relayed = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    /**
+     * @param outboxRepository repository for outbox entries
+     * @param sink destination of the events
+     * @param transactionTemplate template running each batch in its own transaction
+     * @param batchSize largest number of entries per batch
+     */
+    public OutboxRelay(OrderOutboxRepository outboxRepository,
+                       OrderEventSink sink,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${outbox.batch-size:500}") int batchSize) {
+        this.outboxRepository = outboxRepository;
+        this.sink = sink;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Relays batches until the outbox is drained or the run limit is reached.
+     *
+     * @return number of relayed entries
+     * @throws UncheckedIOException if the sink fails; the failed batch stays in the outbox
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay-interval:PT1S}")
+    public int relay() {
+        int total = 0;
+        for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+            Integer count;
+            try {
+                count = transactionTemplate.execute(status -> relayBatch());
+            } catch (RuntimeException e) {
+                failures.incrementAndGet();
+                throw e;
+            }
+            total += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Locks, delivers and deletes one batch; runs inside a transaction.
+     *
+     * @return number of relayed entries
+     */
+    private int relayBatch() {
+        List<OrderOutboxEntry> batch = outboxRepository.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            lagMillis.set(0);
+            return 0;
+        }
+        lagMillis.set(Math.max(0, Duration.between(batch.get(0).getChangedAt(), LocalDateTime.now()).toMillis()));
+        try {
+            sink.send(batch);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (OrderOutboxEntry entry : batch) {
+            ids.add(entry.getId());
+        }
+        outboxRepository.deleteAllByIdInBatch(ids);
+        relayed.addAndGet(batch.size());
+        return batch.size();
+    }
+
+    /**
+     * Publishes relay throughput, failures and lag.
+     *
+     * @param registry registry to bind to
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("outbox.relayed", relayed, AtomicLong::get)
+                .description("Order events delivered from the outbox")
+                .register(registry);
+        FunctionCounter.builder("outbox.relay.failures", failures, AtomicLong::get)
+                .description("Outbox batches that could not be delivered")
+                .register(registry);
+        Gauge.builder("outbox.lag", lagMillis, millis -> millis.get() / 1000.0)
+                .description("Age of the oldest undelivered order event")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+}
@@ -5,6 +5,8 @@ import com.delivery.dvApp.entity.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 
 /**
  * Repository interface for managing {@link Courier} entities.
@@ -15,10 +17,17 @@ import org.springframework.stereotype.Repository;
  * </p>
  *
  * <p>
- * No additional custom query methods are defined for now.
- * All basic operations are inherited from JpaRepository.
+ * Additional query methods are defined using Spring Data JPA
+ * method name conventions.
  * </p>
  */
 @Repository
 public interface CourierRepository extends JpaRepository<Courier,Long> {
+
+    /**
+     * Retrieves all couriers that are not soft-deleted.
+     *
+     * @return list of active (non-deleted) couriers
+     */
+    List<Courier> findByDeletedFalse();
 }
@@ -1,9 +1,16 @@
 package com.delivery.dvApp.repository;
 
+import com.delivery.dvApp.dto.MenuItemDto;
 import com.delivery.dvApp.entity.Item;
+import com.delivery.dvApp.search.IndexedItem;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,4 +40,60 @@ public interface ItemRepository extends JpaRepository<Item,Long> {
      */
     Optional<List<Item>> findByRestaurantId(Long restaurantID);
 
+    /**
+     * Retrieves all items whose IDs are contained in the given collection.
+     *
+     * <p>
+     * Used to load every item of an order request in a single query
+     * instead of one lookup per requested item.
+     * </p>
+     *
+     * @param itemIds IDs of the items to load
+     * @return list of matching items; IDs that do not exist are simply absent
+     */
+    List<Item> findByIdIn(Collection<Long> itemIds);
+
+    /**
+     * Retrieves the menu of a restaurant as DTOs.
+     *
+     * <p>
+     * Deleted items are filtered out by the database and only the columns
+     * shown on the menu are selected, so the owning restaurant is not loaded.
+     * </p>
+     *
+     * @param restaurantId ID of the restaurant
+     * @return menu items of the restaurant that are not deleted
+     */
+    @Query("select new com.delivery.dvApp.dto.MenuItemDto(i.name, i.description, i.price) " +
+            "from Item i " +
+            "where i.restaurant.id = :restaurantId and i.deleted = false " +
+            "order by i.id")
+    List<MenuItemDto> findMenuByRestaurantId(@Param("restaurantId") Long restaurantId);
+
+    /**
+     * Soft deletes every item of the given restaurants in one statement.
+     *
+     * <p>
+     * Items that are already deleted are left untouched and are not counted.
+     * </p>
+     *
+     * @param restaurantIds IDs of the restaurants whose items are deleted
+     * @return number of items that were marked as deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Item i set i.deleted = true where i.restaurant.id in :restaurantIds and i.deleted = false")
+    int softDeleteByRestaurantIdIn(@Param("restaurantIds") Collection<Long> restaurantIds);
+
+    /**
+     * Reads the searchable text of the live items of live restaurants, in ID order.
+     *
+     * @param afterId  only items with a larger ID are returned
+     * @param pageable maximum number of rows; the offset is always 0
+     * @return items, smallest ID first
+     */
+    @Query("select new com.delivery.dvApp.search.IndexedItem(i.id, r.id, i.name, i.description) " +
+            "from Item i join i.restaurant r " +
+            "where i.deleted = false and r.deleted = false and i.id > :afterId " +
+            "order by i.id")
+    List<IndexedItem> findIndexedItems(@Param("afterId") Long afterId, Pageable pageable);
 }
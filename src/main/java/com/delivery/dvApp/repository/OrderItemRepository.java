@@ -1,10 +1,15 @@
 package com.delivery.dvApp.repository;
 
-import com.delivery.dvApp.entity.Customer;
+import com.delivery.dvApp.dto.OrderItemDetailsView;
 import com.delivery.dvApp.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Repository interface for managing {@link OrderItem} entities.
  *
@@ -13,11 +18,24 @@ import org.springframework.stereotype.Repository;
  * such as save, findById, findAll, delete, etc.
  * </p>
  *
- * <p>
- * No additional custom query methods are defined for now.
- * All basic operations are inherited from JpaRepository.
- * </p>
  */
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem,Long>{
+
+    /**
+     * Retrieves the item name and quantity of every line of the given orders.
+     *
+     * <p>
+     * Used to attach item details to a page of orders with a single query
+     * instead of walking {@code order.getOrderItems()} per order.
+     * </p>
+     *
+     * @param orderIds IDs of the orders
+     * @return order lines of the given orders, ordered by order and line ID
+     */
+    @Query("select oi.order.id as orderId, i.name as itemName, oi.quantity as quantity " +
+            "from OrderItem oi join oi.item i " +
+            "where oi.order.id in :orderIds " +
+            "order by oi.order.id, oi.id")
+    List<OrderItemDetailsView> findItemDetailsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
 }
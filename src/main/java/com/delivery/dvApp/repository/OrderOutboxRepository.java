@@ -0,0 +1,35 @@
+package com.delivery.dvApp.repository;
+
+import com.delivery.dvApp.entity.OrderOutboxEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for the order event outbox ({@link OrderOutboxEntry}).
+ */
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEntry, Long> {
+
+    /**
+     * Locks the oldest entries that no other relay has locked.
+     *
+     * <p>
+     * Rows locked by a concurrent relay are skipped instead of waited for,
+     * so several application instances can drain the outbox side by side
+     * without handing out the same entry twice. The locks are held until
+     * the surrounding transaction ends.
+     * </p>
+     *
+     * @param limit largest number of entries to lock
+     * @return locked entries, oldest first
+     */
+    @Query(value = "select * from order_outbox " +
+            "order by id " +
+            "limit :limit " +
+            "for update skip locked", nativeQuery = true)
+    List<OrderOutboxEntry> lockNextBatch(@Param("limit") int limit);
+}
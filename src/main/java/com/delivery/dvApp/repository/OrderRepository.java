@@ -1,10 +1,26 @@
 package com.delivery.dvApp.repository;
 
+import com.delivery.dvApp.activeorder.OpenOrder;
+import com.delivery.dvApp.dispatch.PendingOrder;
+import com.delivery.dvApp.dto.ActiveOrderCustomerDto;
+import com.delivery.dvApp.dto.ActiveOrderDto;
+import com.delivery.dvApp.dto.DeliveredOrderDto;
+import com.delivery.dvApp.dto.OrderBoardEntryDto;
+import com.delivery.dvApp.dto.OrderHistoryDto;
 import com.delivery.dvApp.entity.Order;
 import com.delivery.dvApp.enums.OrderStatus;
+import com.delivery.dvApp.enums.Vehicle;
+import com.delivery.dvApp.eta.DeliverySample;
+import com.delivery.dvApp.search.RestaurantPopularity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -19,6 +35,13 @@ import java.util.List;
  * Additional query methods are defined using Spring Data JPA
  * method name conventions.
  * </p>
+ *
+ * <p>
+ * Status transitions are compare-and-set updates: the new status is only
+ * written when the current status is one of the expected source statuses.
+ * The returned row count is 1 on success and 0 when the order does not
+ * exist or is in another status.
+ * </p>
  */
 @Repository
 public interface OrderRepository extends JpaRepository<Order,Long> {
@@ -42,20 +65,392 @@ public interface OrderRepository extends JpaRepository<Order,Long> {
      List<Order> findByCustomerIdAndStatus(Long customerId,OrderStatus status);
 
      /**
-      * Checks if a courier has any orders in the given list of active statuses.
+      * Builds the first page of order summaries a customer sees for orders in the given status.
+      *
+      * <p>
+      * Restaurant and courier are joined in the same statement, so the
+      * result is produced by one query no matter how many orders match.
+      * Item details are loaded separately per page of orders.
+      * </p>
+      *
+      * @param customerId ID of the customer
+      * @param status     status of the orders to retrieve
+      * @param pageable   page size; the offset is always 0
+      * @return order history rows, newest delivery first
+      */
+     @Query("select new com.delivery.dvApp.dto.OrderHistoryDto(" +
+             "o.id, r.name, c.name, c.phoneNumber, o.deliveredAt, o.totalPrice) " +
+             "from Order o join o.restaurant r join o.courier c " +
+             "where o.customer.id = :customerId and o.status = :status " +
+             "order by o.deliveredAt desc, o.id desc")
+     List<OrderHistoryDto> findOrderHistoryByCustomerIdAndStatus(@Param("customerId") Long customerId,
+                                                                 @Param("status") OrderStatus status,
+                                                                 Pageable pageable);
+
+     /**
+      * Builds the next page of order summaries, starting strictly after the
+      * given {@code (deliveredAt, id)} keyset position.
+      *
+      * @param customerId  ID of the customer
+      * @param status      status of the orders to retrieve
+      * @param deliveredAt delivery time of the last row of the previous page
+      * @param orderId     ID of the last row of the previous page
+      * @param pageable    page size; the offset is always 0
+      * @return order history rows, newest delivery first
+      */
+     @Query("select new com.delivery.dvApp.dto.OrderHistoryDto(" +
+             "o.id, r.name, c.name, c.phoneNumber, o.deliveredAt, o.totalPrice) " +
+             "from Order o join o.restaurant r join o.courier c " +
+             "where o.customer.id = :customerId and o.status = :status " +
+             "and (o.deliveredAt < :deliveredAt or (o.deliveredAt = :deliveredAt and o.id < :orderId)) " +
+             "order by o.deliveredAt desc, o.id desc")
+     List<OrderHistoryDto> findOrderHistoryByCustomerIdAndStatusBefore(@Param("customerId") Long customerId,
+                                                                       @Param("status") OrderStatus status,
+                                                                       @Param("deliveredAt") LocalDateTime deliveredAt,
+                                                                       @Param("orderId") Long orderId,
+                                                                       Pageable pageable);
+
+     /**
+      * Reads the orders of a restaurant that are shown on its order board.
+      *
+      * @param restaurantId ID of the restaurant
+      * @param statuses     statuses shown on the board
+      * @return board entries, oldest first
+      */
+     @Query("select new com.delivery.dvApp.dto.OrderBoardEntryDto(o.id, o.status, c.id, o.createdAt) " +
+             "from Order o left join o.courier c " +
+             "where o.restaurant.id = :restaurantId and o.status in :statuses " +
+             "order by o.createdAt, o.id")
+     List<OrderBoardEntryDto> findBoardOrders(@Param("restaurantId") Long restaurantId,
+                                              @Param("statuses") Collection<OrderStatus> statuses);
+
+     /**
+      * Builds the active order summaries a customer sees for orders in the given statuses.
+      * Orders without a courier yet are included, with empty courier fields.
+      *
+      * @param customerId ID of the customer
+      * @param statuses   statuses of the orders to retrieve
+      * @return active order rows, oldest first
+      */
+     @Query("select new com.delivery.dvApp.dto.ActiveOrderCustomerDto(" +
+             "o.id, r.name, c.name, c.phoneNumber, o.createdAt, o.totalPrice, c.id, c.vehicle, " +
+             "o.pickupLatitude, o.pickupLongitude, o.dropoffLatitude, o.dropoffLongitude) " +
+             "from Order o join o.restaurant r left join o.courier c " +
+             "where o.customer.id = :customerId and o.status in :statuses " +
+             "order by o.createdAt, o.id")
+     List<ActiveOrderCustomerDto> findActiveOrdersByCustomerIdAndStatusIn(@Param("customerId") Long customerId,
+                                                                          @Param("statuses") Collection<OrderStatus> statuses);
+
+     /**
+      * Builds the active order summaries a courier sees for orders in the given status.
+      *
+      * @param courierId ID of the courier
+      * @param status    status of the orders to retrieve
+      * @return active order rows, oldest pickup first
+      */
+     @Query("select new com.delivery.dvApp.dto.ActiveOrderDto(" +
+             "o.id, r.name, o.totalPrice, o.pickedAt, cu.address, cu.phoneNumber, " +
+             "o.dropoffLatitude, o.dropoffLongitude) " +
+             "from Order o join o.restaurant r join o.customer cu " +
+             "where o.courier.id = :courierId and o.status = :status " +
+             "order by o.pickedAt, o.id")
+     List<ActiveOrderDto> findActiveOrdersByCourierIdAndStatus(@Param("courierId") Long courierId,
+                                                               @Param("status") OrderStatus status);
+
+     /**
+      * Builds the first page of delivery history rows a courier sees for orders in the given status.
+      *
+      * @param courierId ID of the courier
+      * @param status    status of the orders to retrieve
+      * @param pageable  page size; the offset is always 0
+      * @return delivered order rows, newest delivery first
+      */
+     @Query("select new com.delivery.dvApp.dto.DeliveredOrderDto(" +
+             "o.id, r.name, o.totalPrice, o.deliveredAt, cu.address) " +
+             "from Order o join o.restaurant r join o.customer cu " +
+             "where o.courier.id = :courierId and o.status = :status " +
+             "order by o.deliveredAt desc, o.id desc")
+     List<DeliveredOrderDto> findDeliveredOrdersByCourierIdAndStatus(@Param("courierId") Long courierId,
+                                                                     @Param("status") OrderStatus status,
+                                                                     Pageable pageable);
+
+     /**
+      * Builds the next page of delivery history rows, starting strictly after
+      * the given {@code (deliveredAt, id)} keyset position.
+      *
+      * @param courierId   ID of the courier
+      * @param status      status of the orders to retrieve
+      * @param deliveredAt delivery time of the last row of the previous page
+      * @param orderId     ID of the last row of the previous page
+      * @param pageable    page size; the offset is always 0
+      * @return delivered order rows, newest delivery first
+      */
+     @Query("select new com.delivery.dvApp.dto.DeliveredOrderDto(" +
+             "o.id, r.name, o.totalPrice, o.deliveredAt, cu.address) " +
+             "from Order o join o.restaurant r join o.customer cu " +
+             "where o.courier.id = :courierId and o.status = :status " +
+             "and (o.deliveredAt < :deliveredAt or (o.deliveredAt = :deliveredAt and o.id < :orderId)) " +
+             "order by o.deliveredAt desc, o.id desc")
+     List<DeliveredOrderDto> findDeliveredOrdersByCourierIdAndStatusBefore(@Param("courierId") Long courierId,
+                                                                           @Param("status") OrderStatus status,
+                                                                           @Param("deliveredAt") LocalDateTime deliveredAt,
+                                                                           @Param("orderId") Long orderId,
+                                                                           Pageable pageable);
+
+     /**
+      * Moves an order to {@code target} if its current status is one of {@code sources}.
+      *
+      * @param orderId ID of the order
+      * @param sources statuses the order is allowed to be in
+      * @param target  new status of the order
+      * @return number of updated rows (0 or 1)
+      */
+     @Modifying(flushAutomatically = true, clearAutomatically = true)
+     @Query("update Order o set o.status = :target where o.id = :orderId and o.status in :sources")
+     int updateStatus(@Param("orderId") Long orderId,
+                      @Param("sources") Collection<OrderStatus> sources,
+                      @Param("target") OrderStatus target);
+
+     /**
+      * Moves an order to {@code target} and records the pickup time
+      * if its current status is one of {@code sources}.
+      *
+      * @param orderId  ID of the order
+      * @param sources  statuses the order is allowed to be in
+      * @param target   new status of the order
+      * @param pickedAt pickup timestamp
+      * @return number of updated rows (0 or 1)
+      */
+     @Modifying(flushAutomatically = true, clearAutomatically = true)
+     @Query("update Order o set o.status = :target, o.pickedAt = :pickedAt " +
+             "where o.id = :orderId and o.status in :sources")
+     int updateStatusAndPickedAt(@Param("orderId") Long orderId,
+                                 @Param("sources") Collection<OrderStatus> sources,
+                                 @Param("target") OrderStatus target,
+                                 @Param("pickedAt") LocalDateTime pickedAt);
+
+     /**
+      * Moves an order to {@code target} and records the delivery time
+      * if its current status is one of {@code sources}.
+      *
+      * @param orderId     ID of the order
+      * @param sources     statuses the order is allowed to be in
+      * @param target      new status of the order
+      * @param deliveredAt delivery timestamp
+      * @return number of updated rows (0 or 1)
+      */
+     @Modifying(flushAutomatically = true, clearAutomatically = true)
+     @Query("update Order o set o.status = :target, o.deliveredAt = :deliveredAt " +
+             "where o.id = :orderId and o.status in :sources")
+     int updateStatusAndDeliveredAt(@Param("orderId") Long orderId,
+                                    @Param("sources") Collection<OrderStatus> sources,
+                                    @Param("target") OrderStatus target,
+                                    @Param("deliveredAt") LocalDateTime deliveredAt);
+
+     /**
+      * Moves an order to {@code target} and records the cancellation time
+      * if its current status is one of {@code sources}.
+      *
+      * @param orderId     ID of the order
+      * @param sources     statuses the order is allowed to be in
+      * @param target      new status of the order
+      * @param cancelledAt cancellation timestamp
+      * @return number of updated rows (0 or 1)
+      */
+     @Modifying(flushAutomatically = true, clearAutomatically = true)
+     @Query("update Order o set o.status = :target, o.cancelledAt = :cancelledAt " +
+             "where o.id = :orderId and o.status in :sources")
+     int updateStatusAndCancelledAt(@Param("orderId") Long orderId,
+                                    @Param("sources") Collection<OrderStatus> sources,
+                                    @Param("target") OrderStatus target,
+                                    @Param("cancelledAt") LocalDateTime cancelledAt);
+
+     /**
+      * Locks the given orders for the rest of the transaction, in ID order.
+      *
+      * <p>
+      * Used before a bulk transition so the statuses read afterwards cannot
+      * change until the transition commits. Locking in ID order keeps two
+      * overlapping bulk requests from deadlocking.
+      * </p>
+      *
+      * @param orderIds IDs of the orders
+      * @return IDs of the orders that exist
+      */
+     @Query(value = "select id from cus_order " +
+             "where id in (:orderIds) " +
+             "order by id " +
+             "for update", nativeQuery = true)
+     List<Long> lockOrders(@Param("orderIds") Collection<Long> orderIds);
+
+     /**
+      * Moves every given order whose current status is one of {@code sources} to {@code target}.
+      *
+      * @param orderIds IDs of the orders
+      * @param sources  statuses the orders are allowed to be in
+      * @param target   new status of the orders
+      * @return number of updated rows
+      */
+     @Modifying(flushAutomatically = true, clearAutomatically = true)
+     @Query("update Order o set o.status = :target where o.id in :orderIds and o.status in :sources")
+     int updateStatusIn(@Param("orderIds") Collection<Long> orderIds,
+                        @Param("sources") Collection<OrderStatus> sources,
+                        @Param("target") OrderStatus target);
+
+     /**
+      * Moves the given orders to {@code target} and records the pickup time,
+      * for every order whose current status is one of {@code sources}.
+      *
+      * @param orderIds IDs of the orders
+      * @param sources  statuses the orders are allowed to be in
+      * @param target   new status of the orders
+      * @param pickedAt pickup timestamp
+      * @return number of updated rows
+      */
+     @Modifying(flushAutomatically = true, clearAutomatically = true)
+     @Query("update Order o set o.status = :target, o.pickedAt = :pickedAt " +
+             "where o.id in :orderIds and o.status in :sources")
+     int updateStatusAndPickedAtIn(@Param("orderIds") Collection<Long> orderIds,
+                                   @Param("sources") Collection<OrderStatus> sources,
+                                   @Param("target") OrderStatus target,
+                                   @Param("pickedAt") LocalDateTime pickedAt);
+
+     /**
+      * Moves the given orders to {@code target} and records the delivery time,
+      * for every order whose current status is one of {@code sources}.
+      *
+      * @param orderIds    IDs of the orders
+      * @param sources     statuses the orders are allowed to be in
+      * @param target      new status of the orders
+      * @param deliveredAt delivery timestamp
+      * @return number of updated rows
+      */
+     @Modifying(flushAutomatically = true, clearAutomatically = true)
+     @Query("update Order o set o.status = :target, o.deliveredAt = :deliveredAt " +
+             "where o.id in :orderIds and o.status in :sources")
+     int updateStatusAndDeliveredAtIn(@Param("orderIds") Collection<Long> orderIds,
+                                      @Param("sources") Collection<OrderStatus> sources,
+                                      @Param("target") OrderStatus target,
+                                      @Param("deliveredAt") LocalDateTime deliveredAt);
+
+     /**
+      * Moves the given orders to {@code target} and records the cancellation time,
+      * for every order whose current status is one of {@code sources}.
+      *
+      * @param orderIds    IDs of the orders
+      * @param sources     statuses the orders are allowed to be in
+      * @param target      new status of the orders
+      * @param cancelledAt cancellation timestamp
+      * @return number of updated rows
+      */
+     @Modifying(flushAutomatically = true, clearAutomatically = true)
+     @Query("update Order o set o.status = :target, o.cancelledAt = :cancelledAt " +
+             "where o.id in :orderIds and o.status in :sources")
+     int updateStatusAndCancelledAtIn(@Param("orderIds") Collection<Long> orderIds,
+                                      @Param("sources") Collection<OrderStatus> sources,
+                                      @Param("target") OrderStatus target,
+                                      @Param("cancelledAt") LocalDateTime cancelledAt);
+
+     /**
+      * Finds orders in the given statuses that have no courier yet, oldest first.
+      *
+      * <p>
+      * Orders without a pickup location cannot be dispatched and are skipped.
+      * </p>
+      *
+      * @param statuses statuses in which an order may still get a courier
+      * @param pageable maximum number of orders; the offset is always 0
+      * @return pending orders with their pickup and drop-off locations
+      */
+     @Query("select new com.delivery.dvApp.dispatch.PendingOrder(" +
+             "o.id, o.pickupLatitude, o.pickupLongitude, o.dropoffLatitude, o.dropoffLongitude) " +
+             "from Order o " +
+             "where o.courier is null and o.status in :statuses " +
+             "and o.pickupLatitude is not null and o.pickupLongitude is not null " +
+             "order by o.createdAt, o.id")
+     List<PendingOrder> findPendingDispatch(@Param("statuses") Collection<OrderStatus> statuses,
+                                            Pageable pageable);
+
+     /**
+      * Reads completed deliveries after a given position, ordered by delivery time and ID.
+      * Orders delivered at the same time are told apart by their ID, so pages
+      * never skip or repeat a delivery.
+      *
+      * @param status      status of completed deliveries
+      * @param deliveredAt delivery time of the last order already read
+      * @param afterId     ID of the last order already read, 0 to start at {@code deliveredAt}
+      * @param pageable    maximum number of rows; the offset is always 0
+      * @return delivery durations with the courier's vehicle and the order's locations
+      */
+     @Query("select new com.delivery.dvApp.eta.DeliverySample(" +
+             "o.id, c.vehicle, o.pickedAt, o.deliveredAt, " +
+             "o.pickupLatitude, o.pickupLongitude, o.dropoffLatitude, o.dropoffLongitude) " +
+             "from Order o join o.courier c " +
+             "where o.status = :status and o.pickedAt is not null " +
+             "and (o.deliveredAt > :deliveredAt or (o.deliveredAt = :deliveredAt and o.id > :afterId)) " +
+             "order by o.deliveredAt, o.id")
+     List<DeliverySample> findDeliverySamples(@Param("status") OrderStatus status,
+                                              @Param("deliveredAt") LocalDateTime deliveredAt,
+                                              @Param("afterId") Long afterId,
+                                              Pageable pageable);
+
+     /**
+      * Reads the latest completed deliveries made with one vehicle, newest first.
+      *
+      * @param status   status of completed deliveries
+      * @param vehicle  vehicle of the courier who delivered the order
+      * @param pageable maximum number of rows; the offset is always 0
+      * @return delivery durations with the courier's vehicle and the order's locations
+      */
+     @Query("select new com.delivery.dvApp.eta.DeliverySample(" +
+             "o.id, c.vehicle, o.pickedAt, o.deliveredAt, " +
+             "o.pickupLatitude, o.pickupLongitude, o.dropoffLatitude, o.dropoffLongitude) " +
+             "from Order o join o.courier c " +
+             "where o.status = :status and c.vehicle = :vehicle " +
+             "and o.pickedAt is not null and o.deliveredAt is not null " +
+             "order by o.deliveredAt desc, o.id desc")
+     List<DeliverySample> findLatestDeliverySamples(@Param("status") OrderStatus status,
+                                                    @Param("vehicle") Vehicle vehicle,
+                                                    Pageable pageable);
+
+     /**
+      * Counts the orders of each restaurant delivered after a given time.
+      *
+      * @param status      status of completed deliveries
+      * @param deliveredAt only orders delivered strictly after this time are counted
+      * @return number of orders per restaurant; restaurants without orders are absent
+      */
+     @Query("select new com.delivery.dvApp.search.RestaurantPopularity(r.id, count(o)) " +
+             "from Order o join o.restaurant r " +
+             "where o.status = :status and o.deliveredAt > :deliveredAt " +
+             "group by r.id")
+     List<RestaurantPopularity> countDeliveredOrdersByRestaurant(@Param("status") OrderStatus status,
+                                                                 @Param("deliveredAt") LocalDateTime deliveredAt);
+
+     /**
+      * Reads the orders in the given statuses with their courier, customer and restaurant, in ID order.
       *
-      * @param courierId      ID of the courier
-      * @param activeStatuses list of active order statuses
-      * @return true if the courier has any orders in the specified statuses, false otherwise
+      * @param statuses statuses of the orders to read
+      * @param afterId  only orders with a larger ID are returned
+      * @param pageable maximum number of rows; the offset is always 0
+      * @return order states, smallest ID first
       */
-     boolean existsByCourierIdAndStatusIn(Long courierId, List<OrderStatus> activeStatuses);
+     @Query("select new com.delivery.dvApp.activeorder.OpenOrder(o.id, c.id, cu.id, r.id, o.status) " +
+             "from Order o left join o.courier c left join o.customer cu left join o.restaurant r " +
+             "where o.status in :statuses and o.id > :afterId " +
+             "order by o.id")
+     List<OpenOrder> findOpenOrders(@Param("statuses") Collection<OrderStatus> statuses,
+                                    @Param("afterId") Long afterId,
+                                    Pageable pageable);
 
      /**
-      * Checks if a customer has any orders in the given list of active statuses.
+      * Reads the current status, courier, customer and restaurant of the given orders, whatever their status.
       *
-      * @param customerId     ID of the customer
-      * @param activeStatuses list of active order statuses
-      * @return true if the customer has any orders in the specified statuses, false otherwise
+      * @param orderIds IDs of the orders
+      * @return states of the orders that exist
       */
-     boolean existsByCustomerIdAndStatusIn(Long customerId, List<OrderStatus> activeStatuses);
+     @Query("select new com.delivery.dvApp.activeorder.OpenOrder(o.id, c.id, cu.id, r.id, o.status) " +
+             "from Order o left join o.courier c left join o.customer cu left join o.restaurant r " +
+             "where o.id in :orderIds")
+     List<OpenOrder> findOpenOrderStates(@Param("orderIds") Collection<Long> orderIds);
 }
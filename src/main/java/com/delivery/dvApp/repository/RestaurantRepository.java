@@ -1,10 +1,16 @@
 package com.delivery.dvApp.repository;
 
+import com.delivery.dvApp.dto.RestaurantListingDto;
 import com.delivery.dvApp.entity.Restaurant;
 import com.delivery.dvApp.enums.Category;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -52,4 +58,48 @@ public interface RestaurantRepository extends JpaRepository<Restaurant,Long> {
      * @return list of active (non-deleted) restaurants
      */
     List<Restaurant> findByDeletedFalse();
+
+    /**
+     * Reads the ID, name and category of live restaurants, in ID order.
+     *
+     * <p>
+     * Only these three columns are selected, no entities are loaded.
+     * </p>
+     *
+     * @param afterId  only restaurants with a larger ID are returned
+     * @param pageable maximum number of rows; the offset is always 0
+     * @return restaurants, smallest ID first
+     */
+    @Query("select new com.delivery.dvApp.dto.RestaurantListingDto(r.id, r.name, r.category) " +
+            "from Restaurant r " +
+            "where r.deleted = false and r.id > :afterId " +
+            "order by r.id")
+    List<RestaurantListingDto> findListingSummaries(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Reads every listed column of live restaurants, in ID order.
+     *
+     * @param afterId  only restaurants with a larger ID are returned
+     * @param pageable maximum number of rows; the offset is always 0
+     * @return restaurants, smallest ID first
+     */
+    @Query("select new com.delivery.dvApp.dto.RestaurantListingDto(r.id, r.name, r.address, r.phoneNumber, r.category) " +
+            "from Restaurant r " +
+            "where r.deleted = false and r.id > :afterId " +
+            "order by r.id")
+    List<RestaurantListingDto> findListings(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Soft deletes every restaurant in the given collection in one statement.
+     *
+     * <p>
+     * Restaurants that are already deleted are left untouched and are not counted.
+     * </p>
+     *
+     * @param restaurantIds IDs of the restaurants to delete
+     * @return number of restaurants that were marked as deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Restaurant r set r.deleted = true where r.id in :restaurantIds and r.deleted = false")
+    int softDeleteByIdIn(@Param("restaurantIds") Collection<Long> restaurantIds);
 }
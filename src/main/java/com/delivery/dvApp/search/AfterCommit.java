@@ -0,0 +1,31 @@
+package com.delivery.dvApp.search;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs index changes once the data they describe is committed.
+ */
+final class AfterCommit {
+    private AfterCommit() {
+    }
+
+    /**
+     * Runs an action after the current transaction commits, or immediately
+     * outside of a transaction. The action is dropped on rollback.
+     *
+     * @param action action to run
+     */
+    static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.delivery.dvApp.search;
+
+import com.delivery.dvApp.enums.Category;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sorted restaurant IDs per category.
+ *
+ * <p>Each category keeps its IDs in one ascending {@code long[]}, so a
+ * page after a given ID is found by binary search and copied out, and a
+ * filter on several categories merges their arrays in ID order. New
+ * restaurants get the highest IDs and are appended. Not thread-safe.</p>
+ */
+final class CategoryIndex {
+    private final Map<Category, Ids> ids = new EnumMap<>(Category.class);
+
+    CategoryIndex() {
+        for (Category category : Category.values()) {
+            ids.put(category, new Ids());
+        }
+    }
+
+    /**
+     * Adds a restaurant, or moves it to another category.
+     *
+     * @param restaurantId ID of the restaurant
+     * @param category category of the restaurant
+     */
+    void put(long restaurantId, Category category) {
+        for (Map.Entry<Category, Ids> entry : ids.entrySet()) {
+            if (entry.getKey() == category) {
+                entry.getValue().add(restaurantId);
+            } else {
+                entry.getValue().remove(restaurantId);
+            }
+        }
+    }
+
+    /**
+     * Removes a restaurant.
+     *
+     * @param restaurantId ID of the restaurant
+     */
+    void remove(long restaurantId) {
+        for (Ids categoryIds : ids.values()) {
+            categoryIds.remove(restaurantId);
+        }
+    }
+
+    /**
+     * Returns the smallest restaurant IDs above {@code afterId} in any of the categories.
+     *
+     * @param categories categories to include
+     * @param afterId only larger IDs are returned
+     * @param limit maximum number of IDs
+     * @return IDs in ascending order
+     */
+    List<Long> page(Set<Category> categories, long afterId, int limit) {
+        int n = categories.size();
+        long[][] arrays = new long[n][];
+        int[] ends = new int[n];
+        int[] positions = new int[n];
+        int k = 0;
+        for (Category category : categories) {
+            Ids categoryIds = ids.get(category);
+            arrays[k] = categoryIds.ids;
+            ends[k] = categoryIds.size;
+            positions[k] = categoryIds.after(afterId);
+            k++;
+        }
+
+        List<Long> page = new ArrayList<>(Math.min(limit, 64));
+        while (page.size() < limit) {
+            int smallest = -1;
+            for (int i = 0; i < n; i++) {
+                if (positions[i] < ends[i]
+                        && (smallest < 0 || arrays[i][positions[i]] < arrays[smallest][positions[smallest]])) {
+                    smallest = i;
+                }
+            }
+            if (smallest < 0) {
+                break;
+            }
+            page.add(arrays[smallest][positions[smallest]++]);
+        }
+        return page;
+    }
+
+    /**
+     * @param categories categories to count
+     * @return number of restaurants in any of the categories
+     */
+    int count(Set<Category> categories) {
+        int count = 0;
+        for (Category category : categories) {
+            count += ids.get(category).size;
+        }
+        return count;
+    }
+
+    /**
+     * Ascending IDs of one category.
+     */
+    private static final class Ids {
+        private long[] ids = new long[16];
+        private int size;
+
+        private void add(long id) {
+            if (size > 0 && ids[size - 1] < id) {
+                append(id);
+                return;
+            }
+            int i = Arrays.binarySearch(ids, 0, size, id);
+            if (i >= 0) {
+                return;
+            }
+            int insertAt = -i - 1;
+            append(0);
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - 1 - insertAt);
+            ids[insertAt] = id;
+        }
+
+        private void append(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        private void remove(long id) {
+            int i = Arrays.binarySearch(ids, 0, size, id);
+            if (i >= 0) {
+                System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                size--;
+            }
+        }
+
+        /**
+         * @return position of the first ID larger than {@code id}
+         */
+        private int after(long id) {
+            int i = Arrays.binarySearch(ids, 0, size, id);
+            return i >= 0 ? i + 1 : -i - 1;
+        }
+    }
+}
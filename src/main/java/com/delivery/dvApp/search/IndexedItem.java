@@ -0,0 +1,46 @@
+package com.delivery.dvApp.search;
+
+/**
+ * Menu item as read for the {@link RestaurantSearch} index: only the searchable columns.
+ */
+public final class IndexedItem {
+    private final Long itemId;
+    private final Long restaurantId;
+    private final String name;
+    private final String description;
+
+    public IndexedItem(Long itemId, Long restaurantId, String name, String description) {
+        this.itemId = itemId;
+        this.restaurantId = restaurantId;
+        this.name = name;
+        this.description = description;
+    }
+
+    /**
+     * @return item ID
+     */
+    public Long getItemId() {
+        return itemId;
+    }
+
+    /**
+     * @return ID of the restaurant the item belongs to
+     */
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    /**
+     * @return item name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return item description, may be null
+     */
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,39 @@
+package com.delivery.dvApp.search;
+
+import java.util.Arrays;
+
+/**
+ * Minimal growable int array, used for posting lists.
+ */
+final class IntList {
+    private int[] values;
+    private int size;
+
+    IntList(int initialCapacity) {
+        this.values = new int[initialCapacity];
+    }
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.max(4, values.length * 2));
+        }
+        values[size++] = value;
+    }
+
+    int get(int index) {
+        return values[index];
+    }
+
+    int[] array() {
+        return values;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void removeAt(int index) {
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+    }
+}
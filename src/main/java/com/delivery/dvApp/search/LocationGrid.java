@@ -0,0 +1,202 @@
+package com.delivery.dvApp.search;
+
+import com.delivery.dvApp.enums.Category;
+import com.delivery.dvApp.geo.GeoDistance;
+import com.delivery.dvApp.geo.GridRings;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Grid over the locations of restaurants, split by category.
+ *
+ * <p>Uses the same {@value #CELL_DEGREES} degree cells as the courier
+ * index in {@code geo} and the same {@link GridRings} search: a query
+ * walks rings of cells outwards from the point and stops as soon as no
+ * unvisited ring can hold anything closer than what has been found.
+ * Every cell keeps one array of restaurants per category, so a query
+ * filtered by category only looks at restaurants of that category.
+ * Searches do not wrap around the antimeridian. Not thread-safe.</p>
+ */
+final class LocationGrid {
+    /** Edge length of a grid cell in degrees */
+    static final double CELL_DEGREES = 0.01;
+
+    private static final int CATEGORIES = Category.values().length;
+
+    private static final Comparator<NearbyRestaurant> FURTHEST_FIRST =
+            Comparator.comparingDouble(NearbyRestaurant::getDistanceMeters).reversed();
+
+    private final Map<Long, Place> places = new HashMap<>();
+    private final Map<Long, Cell> cells = new HashMap<>();
+
+    /**
+     * Adds a restaurant or replaces its name, category and location.
+     *
+     * @param restaurantId ID of the restaurant
+     * @param name name of the restaurant
+     * @param category category of the restaurant
+     * @param latitude latitude in degrees
+     * @param longitude longitude in degrees
+     */
+    void put(long restaurantId, String name, Category category, double latitude, double longitude) {
+        remove(restaurantId);
+        Place place = new Place(restaurantId, name, category, latitude, longitude);
+        places.put(restaurantId, place);
+        cells.computeIfAbsent(cellKey(latitude, longitude), key -> new Cell()).add(place);
+    }
+
+    /**
+     * Removes a restaurant.
+     *
+     * @param restaurantId ID of the restaurant
+     */
+    void remove(long restaurantId) {
+        Place place = places.remove(restaurantId);
+        if (place != null) {
+            long key = cellKey(place.latitude, place.longitude);
+            Cell cell = cells.get(key);
+            if (cell.remove(place)) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    /**
+     * @return number of restaurants in the grid
+     */
+    int size() {
+        return places.size();
+    }
+
+    /**
+     * Finds the {@code k} restaurants closest to a point.
+     *
+     * @param latitude latitude of the point in degrees
+     * @param longitude longitude of the point in degrees
+     * @param categories categories to include, every category if empty
+     * @param k maximum number of restaurants to return
+     * @param maxMeters restaurants further away than this are ignored
+     * @return restaurants ordered by distance, closest first
+     */
+    List<NearbyRestaurant> nearest(double latitude, double longitude, Set<Category> categories, int k, double maxMeters) {
+        if (k <= 0 || places.isEmpty()) {
+            return List.of();
+        }
+        int[] wanted = wanted(categories);
+        PriorityQueue<NearbyRestaurant> best = new PriorityQueue<>(FURTHEST_FIRST);
+
+        GridRings.walk(latitude, longitude, maxMeters, CELL_DEGREES, (latCell, lonCell) -> {
+            Cell cell = cells.get(cellKey(latCell, lonCell));
+            if (cell != null) {
+                for (int category : wanted) {
+                    Place[] candidates = cell.places[category];
+                    for (int i = 0, n = cell.sizes[category]; i < n; i++) {
+                        Place place = candidates[i];
+                        double distance = GeoDistance.meters(latitude, longitude, place.latitude, place.longitude);
+                        if (distance > maxMeters) {
+                            continue;
+                        }
+                        if (best.size() < k) {
+                            best.add(place.at(distance));
+                        } else if (distance < best.peek().getDistanceMeters()) {
+                            best.poll();
+                            best.add(place.at(distance));
+                        }
+                    }
+                }
+            }
+            return best.size() == k ? best.peek().getDistanceMeters() : Double.POSITIVE_INFINITY;
+        });
+
+        List<NearbyRestaurant> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(NearbyRestaurant::getDistanceMeters));
+        return result;
+    }
+
+    private static int[] wanted(Set<Category> categories) {
+        if (categories.isEmpty()) {
+            int[] all = new int[CATEGORIES];
+            Arrays.setAll(all, i -> i);
+            return all;
+        }
+        return categories.stream().mapToInt(Category::ordinal).toArray();
+    }
+
+    private static int cell(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    private static long cellKey(double latitude, double longitude) {
+        return cellKey(cell(latitude), cell(longitude));
+    }
+
+    private static long cellKey(int latCell, int lonCell) {
+        return ((long) latCell << 32) | (lonCell & 0xffffffffL);
+    }
+
+    private static final class Place {
+        private final long restaurantId;
+        private final String name;
+        private final Category category;
+        private final double latitude;
+        private final double longitude;
+
+        private Place(long restaurantId, String name, Category category, double latitude, double longitude) {
+            this.restaurantId = restaurantId;
+            this.name = name;
+            this.category = category;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+
+        private NearbyRestaurant at(double distanceMeters) {
+            return new NearbyRestaurant(restaurantId, name, category, latitude, longitude, distanceMeters);
+        }
+    }
+
+    /**
+     * Restaurants of one cell, one array per category ordinal.
+     */
+    private static final class Cell {
+        private final Place[][] places = new Place[CATEGORIES][];
+        private final int[] sizes = new int[CATEGORIES];
+        private int total;
+
+        private Cell() {
+            Arrays.fill(places, new Place[0]);
+        }
+
+        private void add(Place place) {
+            int c = place.category.ordinal();
+            if (sizes[c] == places[c].length) {
+                places[c] = Arrays.copyOf(places[c], Math.max(4, sizes[c] * 2));
+            }
+            places[c][sizes[c]++] = place;
+            total++;
+        }
+
+        /**
+         * @return true if the cell is empty afterwards
+         */
+        private boolean remove(Place place) {
+            int c = place.category.ordinal();
+            Place[] categoryPlaces = places[c];
+            for (int i = 0; i < sizes[c]; i++) {
+                if (categoryPlaces[i] == place) {
+                    categoryPlaces[i] = categoryPlaces[--sizes[c]];
+                    categoryPlaces[sizes[c]] = null;
+                    total--;
+                    break;
+                }
+            }
+            return total == 0;
+        }
+    }
+}
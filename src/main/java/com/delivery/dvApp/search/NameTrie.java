@@ -0,0 +1,371 @@
+package com.delivery.dvApp.search;
+
+import com.delivery.dvApp.dto.RestaurantSuggestionDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Radix trie over normalized restaurant names, for suggestions while typing.
+ *
+ * <p>A name is inserted once for every word it contains, starting at that
+ * word, so "Pizza Di Napoli" is found by "pi", "di n" and "nap". Chains of
+ * nodes with a single child are merged into one edge. Every node keeps
+ * the most popular restaurants below it, so a lookup walks the typed
+ * prefix and returns the list of the node it ends in, without visiting
+ * the subtree. Changes recompute these lists on the paths of the names
+ * they touch, bottom up. Not thread-safe.</p>
+ */
+final class NameTrie {
+    /** Maximum number of words of a name it can be found by */
+    private static final int MAX_WORDS = 8;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Node[] NO_NODES = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private final int topSize;
+    private final Node root = new Node("");
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    /**
+     * @param topSize number of restaurants kept per node, the most a lookup can return
+     */
+    NameTrie(int topSize) {
+        this.topSize = topSize;
+    }
+
+    /**
+     * Adds a restaurant or replaces its name, keeping its popularity.
+     *
+     * @param restaurantId ID of the restaurant
+     * @param name name of the restaurant
+     */
+    void put(long restaurantId, String name) {
+        Entry entry = entries.get(restaurantId);
+        if (entry == null) {
+            entry = new Entry(restaurantId);
+            entries.put(restaurantId, entry);
+        } else {
+            for (String key : entry.keys) {
+                remove(root, key, 0, entry);
+            }
+        }
+        entry.name = name;
+        entry.keys = keys(name);
+        for (String key : entry.keys) {
+            insert(root, key, 0, entry);
+        }
+    }
+
+    /**
+     * Removes a restaurant.
+     *
+     * @param restaurantId ID of the restaurant
+     */
+    void remove(long restaurantId) {
+        Entry entry = entries.remove(restaurantId);
+        if (entry != null) {
+            for (String key : entry.keys) {
+                remove(root, key, 0, entry);
+            }
+        }
+    }
+
+    /**
+     * Raises the popularity of a restaurant.
+     *
+     * @param restaurantId ID of the restaurant
+     * @param delta amount to add
+     */
+    void addPopularity(long restaurantId, long delta) {
+        Entry entry = entries.get(restaurantId);
+        if (entry != null) {
+            entry.popularity += delta;
+            for (String key : entry.keys) {
+                refresh(root, key, 0);
+            }
+        }
+    }
+
+    /**
+     * Replaces the popularity of every restaurant; restaurants that are
+     * not in the map get zero.
+     *
+     * @param popularity popularity per restaurant ID
+     */
+    void setPopularity(Map<Long, Long> popularity) {
+        for (Entry entry : entries.values()) {
+            entry.popularity = popularity.getOrDefault(entry.restaurantId, 0L);
+        }
+        refreshAll(root);
+    }
+
+    /**
+     * @return number of restaurants in the trie
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the most popular restaurants with a word starting with the typed text.
+     *
+     * @param prefix text typed so far
+     * @param limit maximum number of suggestions
+     * @return suggestions, most popular first
+     */
+    List<RestaurantSuggestionDto> suggest(String prefix, int limit) {
+        String key = SEPARATORS.matcher(SearchTokens.normalize(prefix)).replaceAll(" ").stripLeading();
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int c = childIndex(node, key.charAt(i));
+            if (c < 0) {
+                return List.of();
+            }
+            Node child = node.children[c];
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length() && i + common < key.length()) {
+                return List.of();
+            }
+            i += common;
+            node = child;
+        }
+
+        int count = Math.min(limit, node.top.length);
+        List<RestaurantSuggestionDto> suggestions = new ArrayList<>(count);
+        for (int t = 0; t < count; t++) {
+            suggestions.add(new RestaurantSuggestionDto(node.top[t].restaurantId, node.top[t].name));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Normalizes a name and returns it starting at each of its words.
+     */
+    static List<String> keys(String name) {
+        String normalized = SEPARATORS.matcher(SearchTokens.normalize(name)).replaceAll(" ").strip();
+        List<String> keys = new ArrayList<>();
+        if (normalized.isEmpty()) {
+            return keys;
+        }
+        keys.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0 && keys.size() < MAX_WORDS; i = normalized.indexOf(' ', i + 1)) {
+            keys.add(normalized.substring(i + 1));
+        }
+        return keys;
+    }
+
+    private void insert(Node node, String key, int i, Entry entry) {
+        if (i == key.length()) {
+            node.here = with(node.here, entry);
+        } else {
+            int c = childIndex(node, key.charAt(i));
+            if (c < 0) {
+                Node leaf = new Node(key.substring(i));
+                leaf.here = new Entry[]{entry};
+                leaf.top = leaf.here;
+                addChild(node, leaf);
+            } else {
+                Node child = node.children[c];
+                int common = commonPrefix(child.label, key, i);
+                if (common < child.label.length()) {
+                    Node split = new Node(child.label.substring(0, common));
+                    child.label = child.label.substring(common);
+                    split.children = new Node[]{child};
+                    split.top = child.top;
+                    node.children[c] = split;
+                    child = split;
+                }
+                insert(child, key, i + common, entry);
+            }
+        }
+        updateTop(node);
+    }
+
+    private void remove(Node node, String key, int i, Entry entry) {
+        if (i == key.length()) {
+            node.here = without(node.here, entry);
+        } else {
+            int c = childIndex(node, key.charAt(i));
+            if (c < 0 || !key.startsWith(node.children[c].label, i)) {
+                return;
+            }
+            Node child = node.children[c];
+            remove(child, key, i + child.label.length(), entry);
+            if (child.here.length == 0 && child.children.length == 0) {
+                removeChild(node, c);
+            } else if (child.here.length == 0 && child.children.length == 1) {
+                Node only = child.children[0];
+                only.label = child.label + only.label;
+                node.children[c] = only;
+            }
+        }
+        updateTop(node);
+    }
+
+    private void refresh(Node node, String key, int i) {
+        if (i < key.length()) {
+            int c = childIndex(node, key.charAt(i));
+            if (c < 0 || !key.startsWith(node.children[c].label, i)) {
+                return;
+            }
+            Node child = node.children[c];
+            refresh(child, key, i + child.label.length());
+        }
+        updateTop(node);
+    }
+
+    private void refreshAll(Node node) {
+        for (Node child : node.children) {
+            refreshAll(child);
+        }
+        updateTop(node);
+    }
+
+    /**
+     * Recomputes the most popular restaurants of a node from its own
+     * entries and the lists of its children. A restaurant found through
+     * two of its words is kept once.
+     */
+    private void updateTop(Node node) {
+        Entry[] top = new Entry[topSize];
+        int size = 0;
+        for (Entry entry : node.here) {
+            size = offer(top, size, entry);
+        }
+        for (Node child : node.children) {
+            for (Entry entry : child.top) {
+                if (size == topSize && !morePopular(entry, top[size - 1])) {
+                    break;
+                }
+                size = offer(top, size, entry);
+            }
+        }
+        node.top = size == 0 ? NO_ENTRIES : Arrays.copyOf(top, size);
+    }
+
+    /**
+     * Inserts an entry into a list sorted by popularity, dropping the last
+     * one if the list is full.
+     *
+     * @return new size of the list
+     */
+    private static int offer(Entry[] top, int size, Entry entry) {
+        if (size == top.length && !morePopular(entry, top[size - 1])) {
+            return size;
+        }
+        for (int i = 0; i < size; i++) {
+            if (top[i] == entry) {
+                return size;
+            }
+        }
+        int i = Math.min(size, top.length - 1);
+        while (i > 0 && morePopular(entry, top[i - 1])) {
+            top[i] = top[i - 1];
+            i--;
+        }
+        top[i] = entry;
+        return Math.min(size + 1, top.length);
+    }
+
+    private static boolean morePopular(Entry a, Entry b) {
+        return a.popularity != b.popularity ? a.popularity > b.popularity : a.restaurantId < b.restaurantId;
+    }
+
+    private static int childIndex(Node node, char first) {
+        int low = 0;
+        int high = node.children.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char c = node.children[middle].label.charAt(0);
+            if (c < first) {
+                low = middle + 1;
+            } else if (c > first) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private static void addChild(Node node, Node child) {
+        Node[] children = Arrays.copyOf(node.children, node.children.length + 1);
+        int i = children.length - 1;
+        while (i > 0 && children[i - 1].label.charAt(0) > child.label.charAt(0)) {
+            children[i] = children[i - 1];
+            i--;
+        }
+        children[i] = child;
+        node.children = children;
+    }
+
+    private static void removeChild(Node node, int index) {
+        Node[] children = new Node[node.children.length - 1];
+        System.arraycopy(node.children, 0, children, 0, index);
+        System.arraycopy(node.children, index + 1, children, index, children.length - index);
+        node.children = children.length == 0 ? NO_NODES : children;
+    }
+
+    private static int commonPrefix(String label, String key, int from) {
+        int max = Math.min(label.length(), key.length() - from);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(from + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static Entry[] with(Entry[] entries, Entry entry) {
+        for (Entry existing : entries) {
+            if (existing == entry) {
+                return entries;
+            }
+        }
+        Entry[] extended = Arrays.copyOf(entries, entries.length + 1);
+        extended[entries.length] = entry;
+        return extended;
+    }
+
+    private static Entry[] without(Entry[] entries, Entry entry) {
+        int kept = 0;
+        Entry[] remaining = new Entry[entries.length];
+        for (Entry existing : entries) {
+            if (existing != entry) {
+                remaining[kept++] = existing;
+            }
+        }
+        return kept == 0 ? NO_ENTRIES : Arrays.copyOf(remaining, kept);
+    }
+
+    private static final class Node {
+        private String label;
+        private Node[] children = NO_NODES;
+        private Entry[] here = NO_ENTRIES;
+        private Entry[] top = NO_ENTRIES;
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final class Entry {
+        private final long restaurantId;
+        private String name;
+        private long popularity;
+        private List<String> keys = List.of();
+
+        private Entry(long restaurantId) {
+            this.restaurantId = restaurantId;
+        }
+    }
+}
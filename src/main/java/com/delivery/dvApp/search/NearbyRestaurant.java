@@ -0,0 +1,67 @@
+package com.delivery.dvApp.search;
+
+import com.delivery.dvApp.enums.Category;
+
+/**
+ * Restaurant found by a {@link RestaurantLocations} query, with its distance to the query point.
+ */
+public final class NearbyRestaurant {
+    private final Long restaurantId;
+    private final String name;
+    private final Category category;
+    private final double latitude;
+    private final double longitude;
+    private final double distanceMeters;
+
+    public NearbyRestaurant(Long restaurantId, String name, Category category,
+                            double latitude, double longitude, double distanceMeters) {
+        this.restaurantId = restaurantId;
+        this.name = name;
+        this.category = category;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.distanceMeters = distanceMeters;
+    }
+
+    /**
+     * @return restaurant ID
+     */
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    /**
+     * @return name of the restaurant
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return category of the restaurant
+     */
+    public Category getCategory() {
+        return category;
+    }
+
+    /**
+     * @return latitude of the restaurant in degrees
+     */
+    public double getLatitude() {
+        return latitude;
+    }
+
+    /**
+     * @return longitude of the restaurant in degrees
+     */
+    public double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * @return great-circle distance to the query point in meters
+     */
+    public double getDistanceMeters() {
+        return distanceMeters;
+    }
+}
@@ -0,0 +1,107 @@
+package com.delivery.dvApp.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * In-memory index that is loaded from the database and then kept up to date
+ * by changes.
+ *
+ * <p>Reads share a read lock, changes take the write lock for the short time
+ * they need. While a new index is loaded, the old one keeps serving reads;
+ * changes applied in the meantime are applied to both and replayed on the new
+ * index before it replaces the old one. Every change must therefore state the
+ * new state of what it touches, so replaying one the load already saw is
+ * harmless.</p>
+ *
+ * @param <T> type of the index, which does not have to be thread-safe
+ */
+final class ReloadableIndex<T> {
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Guarded by {@link #lock} */
+    private T index;
+
+    /** Changes applied while a load runs, guarded by {@link #lock} */
+    private List<Consumer<T>> pending;
+
+    /**
+     * @param empty index served until the first load completes
+     */
+    ReloadableIndex(T empty) {
+        this.index = empty;
+    }
+
+    /**
+     * Loads a new index and swaps it in. Loads run one at a time; if a load
+     * fails, the old index stays in place.
+     *
+     * @param loader builds the new index from the database
+     */
+    synchronized void reload(Supplier<T> loader) {
+        withWriteLock(() -> pending = new ArrayList<>());
+        T loaded;
+        try {
+            loaded = loader.get();
+        } catch (RuntimeException e) {
+            withWriteLock(() -> pending = null);
+            throw e;
+        }
+        withWriteLock(() -> {
+            pending.forEach(change -> change.accept(loaded));
+            pending = null;
+            index = loaded;
+        });
+    }
+
+    /**
+     * Runs a query on the current index.
+     *
+     * @param query query to run, must not modify the index
+     * @return result of the query
+     */
+    <R> R read(Function<T, R> query) {
+        lock.readLock().lock();
+        try {
+            return query.apply(index);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a change to the current index, and to the one being loaded.
+     *
+     * @param change change to apply
+     */
+    void apply(Consumer<T> change) {
+        withWriteLock(() -> {
+            change.accept(index);
+            if (pending != null) {
+                pending.add(change);
+            }
+        });
+    }
+
+    /**
+     * Applies a change once the current transaction commits, see {@link AfterCommit}.
+     *
+     * @param change change to apply
+     */
+    void applyAfterCommit(Consumer<T> change) {
+        AfterCommit.run(() -> apply(change));
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
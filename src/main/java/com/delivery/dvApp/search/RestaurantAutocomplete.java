@@ -0,0 +1,142 @@
+package com.delivery.dvApp.search;
+
+import com.delivery.dvApp.dto.RestaurantSuggestionDto;
+import com.delivery.dvApp.entity.Restaurant;
+import com.delivery.dvApp.enums.OrderStatus;
+import com.delivery.dvApp.event.OrderStatusEvent;
+import com.delivery.dvApp.repository.OrderRepository;
+import com.delivery.dvApp.repository.RestaurantRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Suggests restaurants while their name is typed, from memory.
+ *
+ * <p>Names of live restaurants are kept in a {@link NameTrie}, ranked by
+ * the number of orders delivered in the last
+ * {@code autocomplete.popularity-window}. The trie is loaded once the
+ * application has started; {@code RestaurantService} adds, renames and
+ * removes restaurants after their transaction commits, and every
+ * delivered order raises the popularity of its restaurant by one. Every
+ * {@code autocomplete.popularity-refresh-interval} the counts are read
+ * again, which lets old orders drop out of the window.</p>
+ *
+ * <p>Lookups only walk the typed prefix. The trie is held by a
+ * {@link ReloadableIndex}; a delivery counted both by a load and by the
+ * replay of its changes is corrected by the next refresh.</p>
+ */
+@Component
+public class RestaurantAutocomplete {
+    /** Maximum number of suggestions returned for a prefix */
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private final RestaurantRepository restaurantRepository;
+    private final OrderRepository orderRepository;
+    private final Duration popularityWindow;
+    private final ReloadableIndex<NameTrie> trie = new ReloadableIndex<>(new NameTrie(MAX_SUGGESTIONS));
+
+    /**
+     * @param restaurantRepository repository the restaurants are loaded from
+     * @param orderRepository repository the delivered orders are counted in
+     * @param popularityWindow how far back delivered orders count towards popularity
+     */
+    public RestaurantAutocomplete(RestaurantRepository restaurantRepository,
+                                  OrderRepository orderRepository,
+                                  @Value("${autocomplete.popularity-window:P30D}") Duration popularityWindow) {
+        this.restaurantRepository = restaurantRepository;
+        this.orderRepository = orderRepository;
+        this.popularityWindow = popularityWindow;
+    }
+
+    /**
+     * Loads every live restaurant with its popularity into a new trie and swaps it in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        trie.reload(() -> {
+            NameTrie loaded = new NameTrie(MAX_SUGGESTIONS);
+            for (Restaurant restaurant : restaurantRepository.findByDeletedFalse()) {
+                loaded.put(restaurant.getId(), restaurant.getName());
+            }
+            loaded.setPopularity(readPopularity());
+            return loaded;
+        });
+    }
+
+    /**
+     * Reads the popularity of every restaurant again.
+     *
+     * <p>Orders delivered between reading and applying the counts are not
+     * counted until the next refresh.</p>
+     */
+    @Scheduled(initialDelayString = "${autocomplete.popularity-refresh-interval:PT1H}",
+            fixedDelayString = "${autocomplete.popularity-refresh-interval:PT1H}")
+    public synchronized void refreshPopularity() {
+        Map<Long, Long> popularity = readPopularity();
+        trie.apply(target -> target.setPopularity(popularity));
+    }
+
+    /**
+     * Counts a delivered order towards the popularity of its restaurant.
+     *
+     * @param event committed status change of an order
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void countDelivery(OrderStatusEvent event) {
+        if (event.getStatus() == OrderStatus.DELIVERED && event.getRestaurantId() != null) {
+            Long restaurantId = event.getRestaurantId();
+            trie.apply(target -> target.addPopularity(restaurantId, 1));
+        }
+    }
+
+    /**
+     * Returns the most popular restaurants with a word starting with the typed text.
+     *
+     * @param prefix text typed so far, case and accents are ignored
+     * @param limit maximum number of suggestions, at most {@value #MAX_SUGGESTIONS}
+     * @return suggestions, most popular first
+     */
+    public List<RestaurantSuggestionDto> suggest(String prefix, int limit) {
+        return trie.read(target -> target.suggest(prefix, limit));
+    }
+
+    /**
+     * Adds a restaurant or updates its name.
+     *
+     * @param restaurantId ID of the restaurant
+     * @param name current name of the restaurant
+     */
+    public void put(Long restaurantId, String name) {
+        trie.applyAfterCommit(target -> target.put(restaurantId, name));
+    }
+
+    /**
+     * Removes restaurants.
+     *
+     * @param restaurantIds IDs of the restaurants
+     */
+    public void remove(Collection<Long> restaurantIds) {
+        List<Long> ids = List.copyOf(restaurantIds);
+        trie.applyAfterCommit(target -> ids.forEach(target::remove));
+    }
+
+    private Map<Long, Long> readPopularity() {
+        Map<Long, Long> popularity = new HashMap<>();
+        LocalDateTime since = LocalDateTime.now().minus(popularityWindow);
+        for (RestaurantPopularity row : orderRepository.countDeliveredOrdersByRestaurant(OrderStatus.DELIVERED, since)) {
+            popularity.put(row.getRestaurantId(), row.getOrders());
+        }
+        return popularity;
+    }
+}
@@ -0,0 +1,89 @@
+package com.delivery.dvApp.search;
+
+import com.delivery.dvApp.entity.Restaurant;
+import com.delivery.dvApp.enums.Category;
+import com.delivery.dvApp.repository.RestaurantRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Live restaurants per category, served from memory.
+ *
+ * <p>The IDs of every restaurant that is not deleted are kept in a
+ * {@link CategoryIndex}, loaded once the application has started.
+ * {@code RestaurantService} adds and removes restaurants after their
+ * transaction commits, so category browsing never scans the restaurant
+ * table and never sees deleted restaurants. The index is held by a
+ * {@link ReloadableIndex}.</p>
+ */
+@Component
+public class RestaurantCategories {
+    private final RestaurantRepository restaurantRepository;
+    private final ReloadableIndex<CategoryIndex> index = new ReloadableIndex<>(new CategoryIndex());
+
+    /**
+     * @param restaurantRepository repository the restaurants are loaded from
+     */
+    public RestaurantCategories(RestaurantRepository restaurantRepository) {
+        this.restaurantRepository = restaurantRepository;
+    }
+
+    /**
+     * Loads every live restaurant into a new index and swaps it in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        index.reload(() -> {
+            CategoryIndex loaded = new CategoryIndex();
+            for (Restaurant restaurant : restaurantRepository.findByDeletedFalse()) {
+                loaded.put(restaurant.getId(), restaurant.getCategory());
+            }
+            return loaded;
+        });
+    }
+
+    /**
+     * Returns the next restaurant IDs in any of the categories.
+     *
+     * @param categories categories to include
+     * @param afterId only larger IDs are returned, 0 for the first page
+     * @param limit maximum number of IDs
+     * @return IDs in ascending order
+     */
+    public List<Long> page(Set<Category> categories, long afterId, int limit) {
+        return index.read(target -> target.page(categories, afterId, limit));
+    }
+
+    /**
+     * @param categories categories to count
+     * @return number of live restaurants in any of the categories
+     */
+    public int count(Set<Category> categories) {
+        return index.read(target -> target.count(categories));
+    }
+
+    /**
+     * Adds a restaurant or moves it to its current category.
+     *
+     * @param restaurantId ID of the restaurant
+     * @param category current category of the restaurant
+     */
+    public void put(Long restaurantId, Category category) {
+        index.applyAfterCommit(target -> target.put(restaurantId, category));
+    }
+
+    /**
+     * Removes restaurants.
+     *
+     * @param restaurantIds IDs of the restaurants
+     */
+    public void remove(Collection<Long> restaurantIds) {
+        List<Long> ids = List.copyOf(restaurantIds);
+        index.applyAfterCommit(target -> ids.forEach(target::remove));
+    }
+}
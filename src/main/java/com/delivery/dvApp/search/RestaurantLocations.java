@@ -0,0 +1,110 @@
+package com.delivery.dvApp.search;
+
+import com.delivery.dvApp.entity.Restaurant;
+import com.delivery.dvApp.enums.Category;
+import com.delivery.dvApp.repository.RestaurantRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Finds live restaurants near a location, served from memory.
+ *
+ * <p>Every live restaurant with a known location is kept in a
+ * {@link LocationGrid} together with its name and category, so a query
+ * never touches the database. The grid is loaded once the application
+ * has started; {@code RestaurantService} adds, moves, renames and removes
+ * restaurants after their transaction commits. The grid is held by a
+ * {@link ReloadableIndex}.</p>
+ */
+@Component
+public class RestaurantLocations {
+    /** Upper bound for search radii, keeps the number of visited cells small */
+    public static final double MAX_SEARCH_METERS = 50_000;
+
+    private final RestaurantRepository restaurantRepository;
+    private final ReloadableIndex<LocationGrid> grid = new ReloadableIndex<>(new LocationGrid());
+
+    /**
+     * @param restaurantRepository repository the restaurants are loaded from
+     */
+    public RestaurantLocations(RestaurantRepository restaurantRepository) {
+        this.restaurantRepository = restaurantRepository;
+    }
+
+    /**
+     * Loads every live restaurant with a location into a new grid and swaps it in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        grid.reload(() -> {
+            LocationGrid loaded = new LocationGrid();
+            for (Restaurant restaurant : restaurantRepository.findByDeletedFalse()) {
+                if (restaurant.getLatitude() != null && restaurant.getLongitude() != null) {
+                    loaded.put(restaurant.getId(), restaurant.getName(), restaurant.getCategory(),
+                            restaurant.getLatitude(), restaurant.getLongitude());
+                }
+            }
+            return loaded;
+        });
+    }
+
+    /**
+     * Finds the restaurants closest to a point.
+     *
+     * @param latitude latitude of the point in degrees
+     * @param longitude longitude of the point in degrees
+     * @param categories categories to include, every category if empty
+     * @param limit maximum number of restaurants to return
+     * @param radiusMeters restaurants further away are ignored; capped at {@value #MAX_SEARCH_METERS}
+     * @return restaurants ordered by distance, closest first; empty if the radius is not a positive number
+     */
+    public List<NearbyRestaurant> nearest(double latitude, double longitude, Set<Category> categories,
+                                          int limit, double radiusMeters) {
+        if (!(radiusMeters > 0)) {
+            return List.of();
+        }
+        double radius = Math.min(radiusMeters, MAX_SEARCH_METERS);
+        return grid.read(target -> target.nearest(latitude, longitude, categories, limit, radius));
+    }
+
+    /**
+     * @return number of restaurants that can be found
+     */
+    public int size() {
+        return grid.read(LocationGrid::size);
+    }
+
+    /**
+     * Adds a restaurant or updates its name, category or location.
+     * A restaurant without a location is removed.
+     *
+     * @param restaurant restaurant in its current state
+     */
+    public void put(Restaurant restaurant) {
+        Long restaurantId = restaurant.getId();
+        String name = restaurant.getName();
+        Category category = restaurant.getCategory();
+        Double latitude = restaurant.getLatitude();
+        Double longitude = restaurant.getLongitude();
+        if (latitude == null || longitude == null) {
+            grid.applyAfterCommit(target -> target.remove(restaurantId));
+        } else {
+            grid.applyAfterCommit(target -> target.put(restaurantId, name, category, latitude, longitude));
+        }
+    }
+
+    /**
+     * Removes restaurants.
+     *
+     * @param restaurantIds IDs of the restaurants
+     */
+    public void remove(Collection<Long> restaurantIds) {
+        List<Long> ids = List.copyOf(restaurantIds);
+        grid.applyAfterCommit(target -> ids.forEach(target::remove));
+    }
+}
@@ -0,0 +1,28 @@
+package com.delivery.dvApp.search;
+
+/**
+ * Number of recently delivered orders of a restaurant, used to rank autocomplete suggestions.
+ */
+public final class RestaurantPopularity {
+    private final Long restaurantId;
+    private final long orders;
+
+    public RestaurantPopularity(Long restaurantId, Long orders) {
+        this.restaurantId = restaurantId;
+        this.orders = orders;
+    }
+
+    /**
+     * @return restaurant ID
+     */
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    /**
+     * @return number of delivered orders
+     */
+    public long getOrders() {
+        return orders;
+    }
+}
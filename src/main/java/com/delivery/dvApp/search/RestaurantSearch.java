@@ -0,0 +1,166 @@
+package com.delivery.dvApp.search;
+
+import com.delivery.dvApp.dto.SearchHitDto;
+import com.delivery.dvApp.entity.Restaurant;
+import com.delivery.dvApp.repository.ItemRepository;
+import com.delivery.dvApp.repository.RestaurantRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Full-text search over restaurant names and menu items, served from memory.
+ *
+ * <p>The index is loaded from the database once the application has
+ * started and then kept up to date by {@code RestaurantService}: changes
+ * made inside a transaction are applied after it commits, changes made
+ * outside of one immediately. Queries never touch the database.</p>
+ *
+ * <p>The index is held by a {@link ReloadableIndex}; every change states
+ * the full new text of a document, so it can be replayed on an index that
+ * is being loaded. Once the index holds too many replaced or removed
+ * documents, a fresh one is loaded on a virtual thread, so no change ever
+ * waits for a compaction. The number of indexed documents is published as
+ * {@code search.documents}.</p>
+ */
+@Component
+public class RestaurantSearch implements MeterBinder {
+    /** Number of items read per query while loading */
+    private static final int PAGE_SIZE = 10_000;
+
+    private final RestaurantRepository restaurantRepository;
+    private final ItemRepository itemRepository;
+    private final ReloadableIndex<TextIndex> index = new ReloadableIndex<>(new TextIndex());
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    /**
+     * @param restaurantRepository repository the restaurants are loaded from
+     * @param itemRepository repository the items are loaded from
+     */
+    public RestaurantSearch(RestaurantRepository restaurantRepository, ItemRepository itemRepository) {
+        this.restaurantRepository = restaurantRepository;
+        this.itemRepository = itemRepository;
+    }
+
+    /**
+     * Loads every live restaurant and item into a new index and swaps it in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        index.reload(this::load);
+    }
+
+    /**
+     * Finds the restaurants and items matching every word of a query.
+     *
+     * @param query text typed by the user
+     * @param limit maximum number of results
+     * @return results, best match first
+     */
+    public List<SearchHitDto> search(String query, int limit) {
+        return index.read(target -> target.search(query, limit));
+    }
+
+    /**
+     * Adds a restaurant or updates its name.
+     *
+     * @param restaurantId ID of the restaurant
+     * @param name current name of the restaurant
+     */
+    public void indexRestaurant(Long restaurantId, String name) {
+        afterCommit(target -> target.putRestaurant(restaurantId, name));
+    }
+
+    /**
+     * Adds a menu item or updates its text. Items of restaurants that are
+     * not indexed are ignored.
+     *
+     * @param restaurantId ID of the restaurant the item belongs to
+     * @param itemId ID of the item
+     * @param name name of the item
+     * @param description description of the item, may be null
+     */
+    public void indexItem(Long restaurantId, Long itemId, String name, String description) {
+        afterCommit(target -> target.putItem(restaurantId, itemId, name, description));
+    }
+
+    /**
+     * Removes a menu item.
+     *
+     * @param restaurantId ID of the restaurant the item belongs to
+     * @param itemId ID of the item
+     */
+    public void removeItem(Long restaurantId, Long itemId) {
+        afterCommit(target -> target.removeItem(restaurantId, itemId));
+    }
+
+    /**
+     * Removes restaurants together with all their items.
+     *
+     * @param restaurantIds IDs of the restaurants
+     */
+    public void removeRestaurants(Collection<Long> restaurantIds) {
+        List<Long> ids = List.copyOf(restaurantIds);
+        afterCommit(target -> ids.forEach(target::removeRestaurant));
+    }
+
+    /**
+     * @return number of restaurants and items that can be found
+     */
+    public int size() {
+        return index.read(TextIndex::size);
+    }
+
+    /**
+     * Publishes the size of the index.
+     *
+     * @param registry registry to bind to
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("search.documents", this, RestaurantSearch::size)
+                .description("Restaurants and menu items in the search index")
+                .register(registry);
+    }
+
+    private TextIndex load() {
+        TextIndex loaded = new TextIndex();
+        for (Restaurant restaurant : restaurantRepository.findByDeletedFalse()) {
+            loaded.putRestaurant(restaurant.getId(), restaurant.getName());
+        }
+        long afterId = 0;
+        List<IndexedItem> page;
+        do {
+            page = itemRepository.findIndexedItems(afterId, PageRequest.of(0, PAGE_SIZE));
+            for (IndexedItem item : page) {
+                loaded.putItem(item.getRestaurantId(), item.getItemId(), item.getName(), item.getDescription());
+                afterId = item.getItemId();
+            }
+        } while (page.size() == PAGE_SIZE);
+        return loaded;
+    }
+
+    private void afterCommit(Consumer<TextIndex> change) {
+        AfterCommit.run(() -> {
+            index.apply(change);
+            if (!compacting.get() && index.read(TextIndex::needsCompaction) && compacting.compareAndSet(false, true)) {
+                Thread.startVirtualThread(() -> {
+                    try {
+                        rebuild();
+                    } finally {
+                        compacting.set(false);
+                    }
+                });
+            }
+        });
+    }
+}
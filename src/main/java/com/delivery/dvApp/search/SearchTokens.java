@@ -0,0 +1,61 @@
+package com.delivery.dvApp.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizes and splits text for searching.
+ *
+ * <p>Text is lower-cased and stripped of accents, so "Crème Brûlée" and
+ * "creme brulee" produce the same words, and split on everything that is
+ * not a letter or a digit.</p>
+ */
+public final class SearchTokens {
+    /** Shortest word that is indexed or searched for */
+    static final int MIN_LENGTH = 2;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchTokens() {
+    }
+
+    /**
+     * Lower-cases a text and removes its accents.
+     *
+     * @param text text to normalize, may be null
+     * @return normalized text, empty for null
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Splits a text into its distinct normalized words, in order of appearance.
+     *
+     * @param text text to split, may be null
+     * @param max maximum number of words returned
+     * @return words of at least {@value #MIN_LENGTH} characters
+     */
+    public static List<String> words(String text, int max) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : SEPARATORS.split(normalize(text))) {
+            if (word.length() >= MIN_LENGTH) {
+                words.add(word);
+                if (words.size() == max) {
+                    break;
+                }
+            }
+        }
+        return new ArrayList<>(words);
+    }
+}
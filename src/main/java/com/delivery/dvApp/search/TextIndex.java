@@ -0,0 +1,637 @@
+package com.delivery.dvApp.search;
+
+import com.delivery.dvApp.dto.SearchHitDto;
+import com.delivery.dvApp.enums.SearchHitType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Inverted index over restaurant names and menu items.
+ *
+ * <p>Every restaurant and every item is a document with a dense number.
+ * Each word points to a posting list of {@code document << 2 | field},
+ * sorted because documents are only ever appended. A query word matches
+ * the word itself, words it is a prefix of (from three letters on), and
+ * words within one edit (two for words of eight letters or more). Typo
+ * candidates are found through a trigram index over the vocabulary, not
+ * over the documents, so its size only depends on the number of distinct
+ * words.</p>
+ *
+ * <p>A document matches when every query word matches one of its words.
+ * Its score is the sum, over the query words, of the best match quality
+ * times the weight of the field times the rarity of the word.</p>
+ *
+ * <p>Changed and removed documents are only marked as dead. Once a
+ * quarter of the documents are dead, {@link #needsCompaction()} tells the
+ * owner to replace the index with a freshly loaded one. Not thread-safe.</p>
+ */
+final class TextIndex {
+    static final int RESTAURANT_NAME = 0;
+    static final int ITEM_NAME = 1;
+    static final int ITEM_DESCRIPTION = 2;
+
+    /** Maximum number of words taken from a query */
+    static final int MAX_QUERY_WORDS = 8;
+
+    /** Maximum number of distinct words indexed per field */
+    static final int MAX_FIELD_WORDS = 64;
+
+    private static final float[] FIELD_WEIGHTS = {3f, 2f, 1f};
+    private static final float EXACT = 1f;
+    private static final float ONE_EDIT = 0.6f;
+    private static final float TWO_EDITS = 0.4f;
+
+    /** Maximum number of vocabulary words a single query word expands to */
+    private static final int MAX_EXPANSIONS = 32;
+
+    /** Shortest query word that also matches longer words starting with it */
+    private static final int MIN_PREFIX_LENGTH = 3;
+
+    /** Maximum number of vocabulary words looked at for a prefix */
+    private static final int PREFIX_SCAN_LIMIT = 2048;
+
+    /** Number of documents scored together while a query runs */
+    private static final int BLOCK = 1 << 14;
+
+    /** Words with fewer postings are not summarized per block */
+    private static final int BLOCK_SUMMARY_MIN_POSTINGS = 4096;
+
+    /** Dead documents tolerated before the index asks to be replaced */
+    private static final int COMPACT_MIN_DEAD = 1024;
+
+    private static final long NO_ITEM = Long.MIN_VALUE;
+
+    private long[] restaurantIds = new long[1024];
+    private long[] itemIds = new long[1024];
+    private String[] names = new String[1024];
+    private final BitSet dead = new BitSet();
+    private int documents;
+    private int deadDocuments;
+
+    private final Map<Long, Integer> restaurantDocs = new HashMap<>();
+    private final Map<Long, IntList> itemDocs = new HashMap<>();
+
+    private final TreeMap<String, Term> terms = new TreeMap<>();
+    private final List<Term> termsById = new ArrayList<>();
+    private final Map<String, IntList> gramTerms = new HashMap<>();
+
+    /**
+     * Adds a restaurant, or replaces the name it was indexed with.
+     *
+     * @param restaurantId ID of the restaurant
+     * @param name name of the restaurant
+     */
+    void putRestaurant(long restaurantId, String name) {
+        Integer previous = restaurantDocs.get(restaurantId);
+        if (previous != null) {
+            kill(previous);
+        }
+        int doc = newDocument(restaurantId, NO_ITEM, name);
+        restaurantDocs.put(restaurantId, doc);
+        index(doc, name, null, null);
+    }
+
+    /**
+     * Adds an item, or replaces the text it was indexed with.
+     *
+     * @param restaurantId ID of the restaurant the item belongs to
+     * @param itemId ID of the item
+     * @param name name of the item
+     * @param description description of the item, may be null
+     * @return false if the restaurant is not indexed, in which case the item is ignored
+     */
+    boolean putItem(long restaurantId, long itemId, String name, String description) {
+        if (!restaurantDocs.containsKey(restaurantId)) {
+            return false;
+        }
+        removeItemDocument(restaurantId, itemId);
+        int doc = newDocument(restaurantId, itemId, name);
+        itemDocs.computeIfAbsent(restaurantId, id -> new IntList(8)).add(doc);
+        index(doc, null, name, description);
+        return true;
+    }
+
+    /**
+     * Removes an item.
+     *
+     * @param restaurantId ID of the restaurant the item belongs to
+     * @param itemId ID of the item
+     */
+    void removeItem(long restaurantId, long itemId) {
+        removeItemDocument(restaurantId, itemId);
+    }
+
+    /**
+     * Removes a restaurant together with all its items.
+     *
+     * @param restaurantId ID of the restaurant
+     */
+    void removeRestaurant(long restaurantId) {
+        Integer doc = restaurantDocs.remove(restaurantId);
+        if (doc != null) {
+            kill(doc);
+        }
+        IntList items = itemDocs.remove(restaurantId);
+        if (items != null) {
+            for (int i = 0; i < items.size(); i++) {
+                kill(items.get(i));
+            }
+        }
+    }
+
+    /**
+     * @return true once so many documents are dead that the index should be rebuilt
+     */
+    boolean needsCompaction() {
+        return deadDocuments >= COMPACT_MIN_DEAD && deadDocuments * 4 >= documents;
+    }
+
+    /**
+     * @return number of restaurants and items in the index
+     */
+    int size() {
+        return documents - deadDocuments;
+    }
+
+    /**
+     * Finds the documents matching every word of a query.
+     *
+     * @param query text typed by the user
+     * @param limit maximum number of results
+     * @return results, best match first
+     */
+    List<SearchHitDto> search(String query, int limit) {
+        List<String> words = SearchTokens.words(query, MAX_QUERY_WORDS);
+        if (words.isEmpty() || size() == 0) {
+            return List.of();
+        }
+
+        List<List<Match>> expansions = new ArrayList<>(words.size());
+        for (String word : words) {
+            List<Match> matches = expand(word);
+            if (matches.isEmpty()) {
+                return List.of();
+            }
+            expansions.add(matches);
+        }
+        expansions.sort(Comparator.comparingLong(TextIndex::cost));
+
+        return top(expansions, limit);
+    }
+
+    private int newDocument(long restaurantId, long itemId, String name) {
+        if (documents == names.length) {
+            int capacity = documents * 2;
+            restaurantIds = Arrays.copyOf(restaurantIds, capacity);
+            itemIds = Arrays.copyOf(itemIds, capacity);
+            names = Arrays.copyOf(names, capacity);
+        }
+        restaurantIds[documents] = restaurantId;
+        itemIds[documents] = itemId;
+        names[documents] = name;
+        return documents++;
+    }
+
+    private void index(int doc, String restaurantName, String itemName, String itemDescription) {
+        Map<String, Integer> fields = new LinkedHashMap<>();
+        addWords(fields, restaurantName, RESTAURANT_NAME);
+        addWords(fields, itemName, ITEM_NAME);
+        addWords(fields, itemDescription, ITEM_DESCRIPTION);
+
+        for (Map.Entry<String, Integer> entry : fields.entrySet()) {
+            Term term = terms.get(entry.getKey());
+            if (term == null) {
+                term = newTerm(entry.getKey());
+            }
+            int mask = entry.getValue();
+            for (int field = RESTAURANT_NAME; field <= ITEM_DESCRIPTION; field++) {
+                if ((mask & (1 << field)) != 0) {
+                    term.add(doc << 2 | field);
+                }
+            }
+        }
+    }
+
+    private static void addWords(Map<String, Integer> fields, String text, int field) {
+        for (String word : SearchTokens.words(text, MAX_FIELD_WORDS)) {
+            fields.merge(word, 1 << field, (a, b) -> a | b);
+        }
+    }
+
+    private Term newTerm(String word) {
+        Term term = new Term(word, termsById.size());
+        terms.put(word, term);
+        termsById.add(term);
+        for (String gram : grams(word)) {
+            gramTerms.computeIfAbsent(gram, g -> new IntList(4)).add(term.id);
+        }
+        return term;
+    }
+
+    private void removeItemDocument(long restaurantId, long itemId) {
+        IntList docs = itemDocs.get(restaurantId);
+        if (docs == null) {
+            return;
+        }
+        for (int i = 0; i < docs.size(); i++) {
+            if (itemIds[docs.get(i)] == itemId) {
+                kill(docs.get(i));
+                docs.removeAt(i);
+                return;
+            }
+        }
+    }
+
+    private void kill(int doc) {
+        if (!dead.get(doc)) {
+            dead.set(doc);
+            deadDocuments++;
+        }
+    }
+
+    /**
+     * Finds the vocabulary words a query word stands for, with the quality of each match.
+     */
+    private List<Match> expand(String word) {
+        Map<Term, Float> quality = new HashMap<>();
+        Term exact = terms.get(word);
+        if (exact != null) {
+            quality.put(exact, EXACT);
+        }
+
+        List<Term> prefixed = new ArrayList<>();
+        if (word.length() >= MIN_PREFIX_LENGTH) {
+            for (Term term : terms.subMap(word, false, word + Character.MAX_VALUE, false).values()) {
+                prefixed.add(term);
+                if (prefixed.size() == PREFIX_SCAN_LIMIT) {
+                    break;
+                }
+            }
+        }
+        prefixed.sort(Comparator.comparingInt((Term term) -> term.postings.size()).reversed());
+        for (Term term : prefixed.subList(0, Math.min(MAX_EXPANSIONS, prefixed.size()))) {
+            quality.put(term, 0.5f + 0.4f * word.length() / term.text.length());
+        }
+
+        int maxEdits = word.length() >= 8 ? 2 : word.length() >= 4 ? 1 : 0;
+        if (maxEdits > 0) {
+            addTypos(word, maxEdits, quality);
+        }
+
+        double liveDocuments = size();
+        List<Match> matches = new ArrayList<>(quality.size());
+        for (Map.Entry<Term, Float> entry : quality.entrySet()) {
+            Term term = entry.getKey();
+            float rarity = (float) Math.log(1 + liveDocuments / (1 + term.postings.size()));
+            matches.add(new Match(term, entry.getValue() * rarity));
+        }
+        return matches;
+    }
+
+    private void addTypos(String word, int maxEdits, Map<Term, Float> quality) {
+        List<String> grams = grams(word);
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            IntList ids = gramTerms.get(gram);
+            if (ids != null) {
+                for (int i = 0; i < ids.size(); i++) {
+                    shared.merge(ids.get(i), 1, Integer::sum);
+                }
+            }
+        }
+
+        // One edit changes at most three trigrams
+        int minShared = grams.size() - 3 * maxEdits;
+        List<Term> close = new ArrayList<>();
+        Map<Term, Integer> edits = new HashMap<>();
+        for (Map.Entry<Integer, Integer> entry : shared.entrySet()) {
+            Term term = termsById.get(entry.getKey());
+            if (entry.getValue() < minShared || quality.containsKey(term)
+                    || Math.abs(term.text.length() - word.length()) > maxEdits) {
+                continue;
+            }
+            int distance = distance(word, term.text, maxEdits);
+            if (distance <= maxEdits) {
+                close.add(term);
+                edits.put(term, distance);
+            }
+        }
+        close.sort(Comparator.comparingInt((Term term) -> edits.get(term))
+                .thenComparing(Comparator.comparingInt((Term term) -> term.postings.size()).reversed()));
+        for (Term term : close.subList(0, Math.min(MAX_EXPANSIONS, close.size()))) {
+            quality.put(term, edits.get(term) == 1 ? ONE_EDIT : TWO_EDITS);
+        }
+    }
+
+    /**
+     * Scores the documents matching every query word and keeps the best.
+     *
+     * <p>The documents are visited in blocks of {@value #BLOCK} numbers. In
+     * a block, the postings of the most selective word are read first; each
+     * further word only scores documents that matched all words before it,
+     * and the block is left as soon as none are left. Postings are read in
+     * order and scores kept in arrays the size of a block, so a word that
+     * occurs in half a million documents is scored in a few milliseconds.
+     * Blocks that cannot hold a better result than the ones already kept
+     * are skipped without reading their postings; see {@link #bound}.</p>
+     */
+    private List<SearchHitDto> top(List<List<Match>> expansions, int limit) {
+        int[][] cursors = new int[expansions.size()][];
+        for (int word = 0; word < expansions.size(); word++) {
+            cursors[word] = new int[expansions.get(word).size()];
+        }
+        float[] total = new float[BLOCK];
+        float[] wordScore = new float[BLOCK];
+        byte[] matchedWords = new byte[BLOCK];
+        int[] firstTouched = new int[BLOCK];
+        int[] touched = new int[BLOCK];
+
+        Comparator<Hit> worstFirst = Comparator.comparingDouble((Hit hit) -> hit.score)
+                .thenComparing(Comparator.comparingInt((Hit hit) -> hit.doc).reversed());
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, worstFirst);
+        boolean checkDead = deadDocuments > 0;
+
+        for (int base = 0; base < documents; base += BLOCK) {
+            if (best.size() == limit && bound(expansions, cursors, base) <= best.peek().score) {
+                continue;
+            }
+            int end = base + BLOCK;
+            int firstCount = 0;
+            int count = 0;
+            for (int word = 0; word < expansions.size(); word++) {
+                int[] into = word == 0 ? firstTouched : touched;
+                count = 0;
+                List<Match> matches = expansions.get(word);
+                for (int m = 0; m < matches.size(); m++) {
+                    Match match = matches.get(m);
+                    int[] postings = match.term.postings.array();
+                    int size = match.term.postings.size();
+                    int i = seek(postings, size, cursors[word][m], base << 2);
+                    for (; i < size; i++) {
+                        int posting = postings[i];
+                        int doc = posting >>> 2;
+                        if (doc >= end) {
+                            break;
+                        }
+                        int offset = doc - base;
+                        if (word == 0 ? checkDead && dead.get(doc) : matchedWords[offset] != word) {
+                            continue;
+                        }
+                        float score = match.weight * FIELD_WEIGHTS[posting & 3];
+                        if (wordScore[offset] == 0) {
+                            into[count++] = offset;
+                            wordScore[offset] = score;
+                        } else if (score > wordScore[offset]) {
+                            wordScore[offset] = score;
+                        }
+                    }
+                    cursors[word][m] = i;
+                }
+                if (word == 0) {
+                    firstCount = count;
+                }
+                for (int t = 0; t < count; t++) {
+                    int offset = into[t];
+                    total[offset] += wordScore[offset];
+                    wordScore[offset] = 0;
+                    matchedWords[offset] = (byte) (word + 1);
+                }
+                if (count == 0) {
+                    break;
+                }
+            }
+
+            int[] matchedAll = expansions.size() == 1 ? firstTouched : touched;
+            for (int t = 0; t < count; t++) {
+                int offset = matchedAll[t];
+                int doc = base + offset;
+                float score = total[offset];
+                if (best.size() < limit) {
+                    best.add(new Hit(doc, score));
+                } else if (score > best.peek().score) {
+                    best.poll();
+                    best.add(new Hit(doc, score));
+                }
+            }
+            for (int t = 0; t < firstCount; t++) {
+                total[firstTouched[t]] = 0;
+                matchedWords[firstTouched[t]] = 0;
+            }
+        }
+
+        SearchHitDto[] hits = new SearchHitDto[best.size()];
+        for (int i = hits.length - 1; i >= 0; i--) {
+            Hit hit = best.poll();
+            hits[i] = toHit(hit.doc, hit.score);
+        }
+        return List.of(hits);
+    }
+
+    /**
+     * Highest score any document of a block can reach. Documents later in
+     * the index lose ties, so a block whose bound does not beat the worst
+     * result kept so far cannot change the results. Moves the cursors to
+     * the start of the block on the way.
+     */
+    private static float bound(List<List<Match>> expansions, int[][] cursors, int base) {
+        float bound = 0;
+        for (int word = 0; word < expansions.size(); word++) {
+            List<Match> matches = expansions.get(word);
+            float best = 0;
+            for (int m = 0; m < matches.size(); m++) {
+                Term term = matches.get(m).term;
+                int[] postings = term.postings.array();
+                int i = seek(postings, term.postings.size(), cursors[word][m], base << 2);
+                cursors[word][m] = i;
+                if (i < term.postings.size() && postings[i] >>> 2 < base + BLOCK) {
+                    best = Math.max(best, matches.get(m).weight * term.bestFieldWeight(base / BLOCK));
+                }
+            }
+            bound += best;
+        }
+        return bound;
+    }
+
+    /**
+     * Finds the first posting at or after a value, starting from a known position.
+     *
+     * <p>Gallops ahead and then searches binary, so skipping a long run of
+     * postings costs only its logarithm.</p>
+     */
+    private static int seek(int[] postings, int size, int from, int target) {
+        if (from >= size || postings[from] >= target) {
+            return from;
+        }
+        int low = from;
+        int step = 1;
+        int high = from + 1;
+        while (high < size && postings[high] < target) {
+            low = high;
+            step <<= 1;
+            high = from + step;
+        }
+        high = Math.min(high, size);
+        while (low + 1 < high) {
+            int middle = (low + high) >>> 1;
+            if (postings[middle] < target) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return high;
+    }
+
+    private SearchHitDto toHit(int doc, float score) {
+        long restaurantId = restaurantIds[doc];
+        if (itemIds[doc] == NO_ITEM) {
+            return new SearchHitDto(SearchHitType.RESTAURANT, restaurantId, names[doc], null, null, score);
+        }
+        String restaurantName = names[restaurantDocs.get(restaurantId)];
+        return new SearchHitDto(SearchHitType.ITEM, restaurantId, restaurantName, itemIds[doc], names[doc], score);
+    }
+
+    private static long cost(List<Match> matches) {
+        long cost = 0;
+        for (Match match : matches) {
+            cost += match.term.postings.size();
+        }
+        return cost;
+    }
+
+    /**
+     * Splits a word, padded with {@code $} on both sides, into its trigrams.
+     */
+    static List<String> grams(String word) {
+        String padded = "$" + word + "$";
+        List<String> grams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Edit distance counting insertions, deletions, substitutions and swaps
+     * of neighbouring letters, giving up once it exceeds a bound.
+     *
+     * @return the distance, or {@code max + 1} if it is larger than {@code max}
+     */
+    static int distance(String a, String b, int max) {
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, beforePrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    private static final class Term {
+        private final String text;
+        private final int id;
+        private final IntList postings;
+
+        /**
+         * Best field the word occurs in per block of documents, as field
+         * plus one, or 0 if it does not occur in the block. Only kept for
+         * words with at least {@link #BLOCK_SUMMARY_MIN_POSTINGS} postings.
+         */
+        private byte[] blockFields;
+
+        private Term(String text, int id) {
+            this.text = text;
+            this.id = id;
+            this.postings = new IntList(2);
+        }
+
+        private void add(int posting) {
+            postings.add(posting);
+            if (blockFields != null) {
+                summarize(posting);
+            } else if (postings.size() >= BLOCK_SUMMARY_MIN_POSTINGS) {
+                summarizeBlocks();
+            }
+        }
+
+        private void summarizeBlocks() {
+            blockFields = new byte[(postings.get(postings.size() - 1) >>> 2) / BLOCK + 1];
+            for (int i = 0; i < postings.size(); i++) {
+                summarize(postings.get(i));
+            }
+        }
+
+        private void summarize(int posting) {
+            int block = (posting >>> 2) / BLOCK;
+            if (block >= blockFields.length) {
+                blockFields = Arrays.copyOf(blockFields, Math.max(block + 1, blockFields.length * 2));
+            }
+            byte field = (byte) ((posting & 3) + 1);
+            if (blockFields[block] == 0 || field < blockFields[block]) {
+                blockFields[block] = field;
+            }
+        }
+
+        /**
+         * @return largest field weight the word can have in a block
+         */
+        private float bestFieldWeight(int block) {
+            if (blockFields == null) {
+                return FIELD_WEIGHTS[RESTAURANT_NAME];
+            }
+            if (block >= blockFields.length || blockFields[block] == 0) {
+                return 0;
+            }
+            return FIELD_WEIGHTS[blockFields[block] - 1];
+        }
+    }
+
+    private static final class Match {
+        private final Term term;
+        private final float weight;
+
+        private Match(Term term, float weight) {
+            this.term = term;
+            this.weight = weight;
+        }
+    }
+
+    private static final class Hit {
+        private final int doc;
+        private final float score;
+
+        private Hit(int doc, float score) {
+            this.doc = doc;
+            this.score = score;
+        }
+    }
+}
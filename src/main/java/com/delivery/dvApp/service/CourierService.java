@@ -1,52 +1,138 @@
 package com.delivery.dvApp.service;
 
+import com.delivery.dvApp.activeorder.ActiveOrderCounters;
+import com.delivery.dvApp.dispatch.RoutePlanner;
 import com.delivery.dvApp.dto.ActiveOrderDto;
+import com.delivery.dvApp.dto.CourierLocationUpdateDto;
+import com.delivery.dvApp.dto.CursorPageDto;
 import com.delivery.dvApp.dto.DeliveredOrderDto;
+import com.delivery.dvApp.dto.LocationBatchResultDto;
+import com.delivery.dvApp.dto.NearbyCourierDto;
+import com.delivery.dvApp.dto.TrackPointDto;
 import com.delivery.dvApp.entity.Courier;
-import com.delivery.dvApp.entity.Order;
 import com.delivery.dvApp.enums.OrderStatus;
+import com.delivery.dvApp.enums.Vehicle;
+import com.delivery.dvApp.eta.EtaEstimator;
+import com.delivery.dvApp.event.OrderEventAudience;
+import com.delivery.dvApp.event.OrderEventStreams;
 import com.delivery.dvApp.exception.custom.ActiveOrderNotFoundException;
 import com.delivery.dvApp.exception.custom.CourierNotFoundException;
+import com.delivery.dvApp.exception.custom.InvalidCursorException;
+import com.delivery.dvApp.exception.custom.InvalidLocationException;
+import com.delivery.dvApp.exception.custom.InvalidTimeRangeException;
 import com.delivery.dvApp.exception.custom.OrderExistsException;
 import com.delivery.dvApp.exception.custom.OrderHistoryNotFoundException;
+import com.delivery.dvApp.geo.CourierLocation;
+import com.delivery.dvApp.geo.CourierLocationBuffer;
+import com.delivery.dvApp.geo.CourierNeighbor;
+import com.delivery.dvApp.geo.CourierSpatialIndex;
+import com.delivery.dvApp.geo.GeoDistance;
 import com.delivery.dvApp.repository.CourierRepository;
 import com.delivery.dvApp.repository.OrderRepository;
+import com.delivery.dvApp.track.CourierTrackStore;
+import com.delivery.dvApp.track.TrackPoint;
 import jakarta.transaction.Transactional;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 
 /**
  * Service layer responsible for courier-related operations.
  *
  * <p>This service handles courier creation, soft deletion,
- * viewing active deliveries, and retrieving delivery history.</p>
+ * viewing active deliveries, retrieving delivery history and
+ * finding couriers near a location.</p>
  */
 @Service
 public class CourierService {
+    /** Maximum number of couriers returned by a nearby search */
+    private static final int MAX_NEARBY_LIMIT = 100;
+
+    /** Reported times further than this from the server clock are moved to its edge */
+    private static final Duration MAX_CLOCK_SKEW = Duration.ofMinutes(2);
+
+    /** Longest time range a track query may cover */
+    private static final Duration MAX_TRACK_RANGE = Duration.ofDays(CourierTrackStore.MAX_QUERY_DAYS);
+
+    /** Number of streamed deliveries read together */
+    private static final int STREAM_CHUNK_SIZE = 200;
+
     private final CourierRepository courierRepository;
     private  final OrderRepository orderRepository;
+    private final CourierSpatialIndex courierSpatialIndex;
+    private final CourierLocationBuffer courierLocationBuffer;
+    private final CourierTrackStore courierTrackStore;
+    private final EtaEstimator etaEstimator;
+    private final ActiveOrderCounters activeOrderCounters;
+    private final OrderEventStreams orderEventStreams;
 
     /**
      * Constructs a CourierService with required repositories.
      *
      * @param courierRepository repository for couriers
      * @param orderRepository repository for orders
+     * @param courierSpatialIndex index of courier positions
+     * @param courierLocationBuffer store that coalesces position reports before they are written
+     * @param courierTrackStore store of recorded courier trajectories
+     * @param etaEstimator estimator for delivery times
+     * @param activeOrderCounters in-memory counts of open orders
+     * @param orderEventStreams streams of order events
      */
-    public CourierService(CourierRepository courierRepository, OrderRepository orderRepository) {
+    public CourierService(CourierRepository courierRepository,
+                          OrderRepository orderRepository,
+                          CourierSpatialIndex courierSpatialIndex,
+                          CourierLocationBuffer courierLocationBuffer,
+                          CourierTrackStore courierTrackStore,
+                          EtaEstimator etaEstimator,
+                          ActiveOrderCounters activeOrderCounters,
+                          OrderEventStreams orderEventStreams) {
         this.courierRepository = courierRepository;
         this.orderRepository = orderRepository;
+        this.courierSpatialIndex = courierSpatialIndex;
+        this.courierLocationBuffer = courierLocationBuffer;
+        this.courierTrackStore = courierTrackStore;
+        this.etaEstimator = etaEstimator;
+        this.activeOrderCounters = activeOrderCounters;
+        this.orderEventStreams = orderEventStreams;
+    }
+
+    /**
+     * Fills the courier spatial index with every active courier that has a valid position.
+     *
+     * <p>Runs once the application has started.</p>
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void indexCourierLocations() {
+        courierSpatialIndex.clear();
+        for (Courier courier : courierRepository.findByDeletedFalse()) {
+            indexLocation(courier);
+        }
     }
 
     /**
      * Adds a new courier.
      *
+     * <p>A courier with a valid position is added to the spatial index right away.</p>
+     *
      * @param courier courier entity to be saved
      */
     public Long addCourier(Courier courier) {
         courierRepository.save(courier);
+        indexLocation(courier);
 
         return courier.getId();
 
@@ -57,7 +143,8 @@ public class CourierService {
      * Soft deletes a courier.
      *
      * <p>A courier cannot be deleted if they have active orders
-     * (ACCEPTED or PICKED_UP).</p>
+     * (ACCEPTED or PICKED_UP). The check is answered by the
+     * {@link ActiveOrderCounters} without querying the orders.</p>
      *
      * @param courierId ID of the courier
      * @throws CourierNotFoundException if courier does not exist
@@ -70,7 +157,7 @@ public class CourierService {
 
 
         List<OrderStatus> activeStatuses = List.of(OrderStatus.ACCEPTED, OrderStatus.PICKED_UP);
-        boolean hasActiveOrders = orderRepository.existsByCourierIdAndStatusIn(courierId, activeStatuses);
+        boolean hasActiveOrders = activeOrderCounters.courierHasOrderIn(courierId, activeStatuses);
 
         if (hasActiveOrders) {
             throw new OrderExistsException("Courier cannot be deleted because they have active orders in progress.");
@@ -78,6 +165,120 @@ public class CourierService {
 
         courier.setDeleted(true);
         courierRepository.save(courier);
+        courierSpatialIndex.remove(courierId);
+    }
+
+    /**
+     * Accepts a batch of courier position reports.
+     *
+     * <p>Reports only go to the in-memory {@link CourierLocationBuffer}; the
+     * database is updated by its periodic flush, so the cost of a request does
+     * not depend on how often couriers report.</p>
+     *
+     * <p>Couriers missing from the spatial index are looked up in one query
+     * and indexed at their first reported position; reports of couriers that
+     * do not exist or were deleted are rejected before anything is recorded.
+     * Report times are clamped to two minutes
+     * around the time of receipt, so a wrong device clock can neither freeze
+     * a courier's position nor write to the track of a distant day.</p>
+     *
+     * @param updates position reports, in any order
+     * @return number of recorded and rejected reports
+     */
+    public LocationBatchResultDto ingestLocations(List<CourierLocationUpdateDto> updates) {
+        LocalDateTime receivedAt = LocalDateTime.now();
+        LocalDateTime earliest = receivedAt.minus(MAX_CLOCK_SKEW);
+        LocalDateTime latest = receivedAt.plus(MAX_CLOCK_SKEW);
+        Map<Long, Courier> unindexed = findUnindexedCouriers(updates);
+        int accepted = 0;
+        int rejected = 0;
+
+        for (CourierLocationUpdateDto update : updates) {
+            Long courierId = update.getCourierId();
+            if (courierId == null || !GeoDistance.isValid(update.getLatitude(), update.getLongitude())) {
+                rejected++;
+                continue;
+            }
+            Courier courier = unindexed.remove(courierId);
+            if (courier != null) {
+                courierSpatialIndex.update(courierId, courier.getVehicle(), update.getLatitude(), update.getLongitude());
+            } else if (courierSpatialIndex.get(courierId) == null) {
+                rejected++;
+                continue;
+            }
+            LocalDateTime recordedAt = update.getRecordedAt() == null ? receivedAt : update.getRecordedAt();
+            if (recordedAt.isBefore(earliest)) {
+                recordedAt = earliest;
+            } else if (recordedAt.isAfter(latest)) {
+                recordedAt = latest;
+            }
+            if (courierLocationBuffer.offer(courierId, update.getLatitude(), update.getLongitude(), recordedAt)) {
+                accepted++;
+            } else {
+                rejected++;
+            }
+        }
+        return new LocationBatchResultDto(accepted, rejected);
+    }
+
+    /**
+     * Retrieves the recorded positions of a courier within a time range.
+     *
+     * @param courierId ID of the courier
+     * @param from start of the range, inclusive
+     * @param to end of the range, inclusive
+     * @return positions in time order
+     * @throws InvalidTimeRangeException if {@code to} is before {@code from} or the range exceeds {@value CourierTrackStore#MAX_QUERY_DAYS} days
+     */
+    public List<TrackPointDto> getCourierTrack(Long courierId, LocalDateTime from, LocalDateTime to) {
+        if (to.isBefore(from)) {
+            throw new InvalidTimeRangeException("End of the range cannot be before its start.");
+        }
+        if (Duration.between(from, to).compareTo(MAX_TRACK_RANGE) > 0) {
+            throw new InvalidTimeRangeException(
+                    "A track can be queried for at most " + CourierTrackStore.MAX_QUERY_DAYS + " days at once.");
+        }
+
+        List<TrackPoint> points = courierTrackStore.query(courierId, from, to);
+        List<TrackPointDto> track = new ArrayList<>(points.size());
+        for (TrackPoint point : points) {
+            track.add(new TrackPointDto(point.getRecordedAt(), point.getLatitude(), point.getLongitude()));
+        }
+        return track;
+    }
+
+    /**
+     * Finds the couriers closest to a location.
+     *
+     * <p>Served from the in-memory {@link CourierSpatialIndex} without touching
+     * the database.</p>
+     *
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @param limit maximum number of couriers, between 1 and {@value #MAX_NEARBY_LIMIT}
+     * @param radiusMeters search radius in meters
+     * @return nearby couriers, closest first
+     * @throws InvalidLocationException if the location is outside the valid range or the radius is not positive
+     */
+    public List<NearbyCourierDto> findNearbyCouriers(Double latitude, Double longitude, int limit, double radiusMeters) {
+        if (!GeoDistance.isValid(latitude, longitude)) {
+            throw new InvalidLocationException("Latitude must be between -90 and 90, longitude between -180 and 180.");
+        }
+        if (!Double.isFinite(radiusMeters) || radiusMeters <= 0) {
+            throw new InvalidLocationException("Radius must be a positive number of meters.");
+        }
+
+        int k = Math.max(1, Math.min(limit, MAX_NEARBY_LIMIT));
+        List<NearbyCourierDto> nearby = new ArrayList<>(k);
+        for (CourierNeighbor neighbor : courierSpatialIndex.nearest(latitude, longitude, k, radiusMeters)) {
+            nearby.add(new NearbyCourierDto(
+                    neighbor.getLocation().getCourierId(),
+                    neighbor.getLocation().getVehicle(),
+                    neighbor.getLocation().getLatitude(),
+                    neighbor.getLocation().getLongitude(),
+                    neighbor.getDistanceMeters()));
+        }
+        return nearby;
     }
 
     /**
@@ -86,8 +287,21 @@ public class CourierService {
      * <p>Only orders with {@link OrderStatus#PICKED_UP} status
      * are considered active deliveries.</p>
      *
+     * <p>Rows are built by a single projection query that joins the
+     * restaurant and customer.</p>
+     *
+     * <p>Deliveries are returned in the order of the courier's planned route,
+     * numbered by {@code stopNumber}: starting from the courier's last known
+     * position, drop-off locations are ordered with
+     * {@link RoutePlanner} (nearest neighbour and 2-opt). Orders without a
+     * drop-off location follow at the end, oldest pickup first.</p>
+     *
+     * <p>Routed deliveries are estimated by adding up the travel time of every
+     * leg before them; the others get the typical delivery time of the
+     * courier's vehicle after pickup. Both come from the {@link EtaEstimator}.</p>
+     *
      * @param courierId ID of the courier
-     * @return list of active order DTOs
+     * @return list of active order DTOs in delivery order
      * @throws CourierNotFoundException if courier does not exist
      * @throws ActiveOrderNotFoundException if no active orders are found
      */
@@ -95,71 +309,195 @@ public class CourierService {
     public List<ActiveOrderDto> getActiveOrders(Long courierId) {
         Courier courier = courierRepository.findById(courierId)
                 .orElseThrow(()-> new CourierNotFoundException("Courier does not exists."));
-        List<Order> orders = orderRepository.findByCourierIdAndStatus(courierId,OrderStatus.PICKED_UP);
+        List<ActiveOrderDto> activeOrders =
+                orderRepository.findActiveOrdersByCourierIdAndStatus(courierId, OrderStatus.PICKED_UP);
 
-        if(orders.isEmpty()){
+        if(activeOrders.isEmpty()){
             throw new ActiveOrderNotFoundException("There is no active orders");
         }
 
-        List<ActiveOrderDto> activeOrders = new ArrayList<>();
-
-
-        for(Order order : orders){
-                ActiveOrderDto activeOrderDto = new ActiveOrderDto();
-                activeOrderDto.setRestaurantName(order.getRestaurant().getName());
-                activeOrderDto.setPickedAt(order.getPickedAt());
-                activeOrderDto.setCustomerAddress(order.getCustomer().getAddress());
-                activeOrderDto.setTotalPrice(order.getTotalPrice());
-                activeOrderDto.setCustomerNumber(order.getCustomer().getPhoneNumber());
-                activeOrderDto.setOrderId(order.getId());
-                activeOrders.add(activeOrderDto);
-
-
+        return planDeliveryRoute(courier, activeOrders);
+    }
 
+    /**
+     * Opens a stream of the status changes of the orders assigned to a courier.
+     *
+     * <p>Replaces polling {@link #getActiveOrders(Long)}: new assignments and
+     * status changes are pushed as soon as they have committed.</p>
+     *
+     * @param courierId ID of the courier
+     * @return Server-Sent Events emitter
+     * @throws CourierNotFoundException if courier does not exist
+     */
+    public SseEmitter subscribeToOrderEvents(Long courierId){
+        if(!courierRepository.existsById(courierId)){
+            throw new CourierNotFoundException("Courier does not exists.");
         }
+        return orderEventStreams.subscribe(OrderEventAudience.COURIER, courierId);
+    }
 
-        return activeOrders;
+    /**
+     * Orders active deliveries along the shortest route found from the courier's position.
+     *
+     * @param courier courier delivering the orders
+     * @param activeOrders orders in pickup order
+     * @return the same orders in delivery order, with stop numbers and estimates set
+     */
+    private List<ActiveOrderDto> planDeliveryRoute(Courier courier, List<ActiveOrderDto> activeOrders){
+        CourierLocation location = courierSpatialIndex.get(courier.getId());
+        Double startLatitude = location != null ? Double.valueOf(location.getLatitude()) : courier.getCurrentLatitude();
+        Double startLongitude = location != null ? Double.valueOf(location.getLongitude()) : courier.getCurrentLongitude();
+
+        boolean startKnown = GeoDistance.isValid(startLatitude, startLongitude);
+        List<ActiveOrderDto> routed = new ArrayList<>(activeOrders.size());
+        List<ActiveOrderDto> unrouted = new ArrayList<>();
+        for(ActiveOrderDto order : activeOrders){
+            if(startKnown && GeoDistance.isValid(order.getDropoffLatitude(), order.getDropoffLongitude())){
+                routed.add(order);
+            } else {
+                unrouted.add(order);
+            }
+        }
 
+        Vehicle vehicle = courier.getVehicle() != null ? courier.getVehicle() : Vehicle.BICYCLE;
+        List<ActiveOrderDto> route = new ArrayList<>(activeOrders.size());
+        if(!routed.isEmpty()){
+            double[] latitudes = new double[routed.size()];
+            double[] longitudes = new double[routed.size()];
+            for(int i = 0; i < routed.size(); i++){
+                latitudes[i] = routed.get(i).getDropoffLatitude();
+                longitudes[i] = routed.get(i).getDropoffLongitude();
+            }
+            LocalDateTime now = LocalDateTime.now();
+            double seconds = 0;
+            double latitude = startLatitude;
+            double longitude = startLongitude;
+            for(int stop : RoutePlanner.plan(startLatitude, startLongitude, latitudes, longitudes)){
+                seconds += etaEstimator.travelSeconds(vehicle,
+                        GeoDistance.meters(latitude, longitude, latitudes[stop], longitudes[stop]));
+                latitude = latitudes[stop];
+                longitude = longitudes[stop];
+                ActiveOrderDto order = routed.get(stop);
+                order.setEstimatedDeliveryAt(now.plus(Duration.ofMillis(Math.round(seconds * 1000))));
+                route.add(order);
+            }
+        }
+        for(ActiveOrderDto order : unrouted){
+            order.setEstimatedDeliveryAt(etaEstimator.estimateAfterPickup(
+                    courier.getId(), vehicle, order.getPickedAt(), null, null));
+            route.add(order);
+        }
 
+        for(int i = 0; i < route.size(); i++){
+            route.get(i).setStopNumber(i + 1);
+        }
+        return route;
     }
 
     /**
-     * Retrieves delivery history for a courier.
+     * Retrieves one page of the delivery history for a courier.
      *
      * <p>Only orders with {@link OrderStatus#DELIVERED} status
      * are included in the delivery history.</p>
      *
+     * <p>Pages are keyset-paginated on {@code (deliveredAt, id)}, newest
+     * first, and each page is built by a single projection query that
+     * joins the restaurant and customer.</p>
+     *
      * @param courierId ID of the courier
-     * @return list of delivered order DTOs
+     * @param cursor cursor returned with the previous page, or null for the first page
+     * @param limit maximum number of orders on the page, clamped to {@code [1, 200]}
+     * @return page of delivered order DTOs with the cursor of the next page
      * @throws CourierNotFoundException if courier does not exist
      * @throws OrderHistoryNotFoundException if no delivery history exists
+     * @throws InvalidCursorException if the cursor cannot be decoded
      */
     @Transactional
-    public List<DeliveredOrderDto> getCourierHistory(Long courierId) {
+    public CursorPageDto<DeliveredOrderDto> getCourierHistory(Long courierId, String cursor, int limit) {
         Courier courier = courierRepository.findById(courierId)
                 .orElseThrow(() -> new CourierNotFoundException("There is no such courier exists."));
 
-        List<Order> orders = orderRepository.findByCourierIdAndStatus(courierId,OrderStatus.DELIVERED);
+        HistoryCursor after = HistoryCursor.decode(cursor);
+        int pageSize = HistoryCursor.clampLimit(limit);
+        // One extra row tells whether another page exists.
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
 
-        if(orders.isEmpty()){
+        List<DeliveredOrderDto> deliveredOrders = after == null
+                ? orderRepository.findDeliveredOrdersByCourierIdAndStatus(courierId, OrderStatus.DELIVERED, pageable)
+                : orderRepository.findDeliveredOrdersByCourierIdAndStatusBefore(courierId, OrderStatus.DELIVERED,
+                        after.getDeliveredAt(), after.getOrderId(), pageable);
+
+        if(deliveredOrders.isEmpty() && after == null){
             throw new OrderHistoryNotFoundException("Delivery history not found.");
         }
 
+        String nextCursor = null;
+        if(deliveredOrders.size() > pageSize){
+            deliveredOrders = new ArrayList<>(deliveredOrders.subList(0, pageSize));
+            DeliveredOrderDto last = deliveredOrders.get(pageSize - 1);
+            nextCursor = new HistoryCursor(last.getDeliveredAt(), last.getOrderId()).encode();
+        }
 
-        List<DeliveredOrderDto> deliveredOrders = new ArrayList<>();
+        return new CursorPageDto<>(deliveredOrders, nextCursor);
+    }
+
+    /**
+     * Streams the complete delivery history of a courier.
+     *
+     * <p>Deliveries are read in keyset pages of {@value #STREAM_CHUNK_SIZE},
+     * each with one short query outside of any surrounding transaction, so
+     * no connection or cursor is held while {@code consumer} writes to a
+     * slow client, and memory use stays constant however many deliveries
+     * the courier has made.</p>
+     *
+     * @param courierId ID of the courier
+     * @param consumer receives every delivered order, newest first
+     * @throws CourierNotFoundException if courier does not exist
+     */
+    public void streamCourierHistory(Long courierId, Consumer<DeliveredOrderDto> consumer) {
+        Courier courier = courierRepository.findById(courierId)
+                .orElseThrow(() -> new CourierNotFoundException("There is no such courier exists."));
 
-        for (Order order : orders){
-                DeliveredOrderDto deliveredOrder =  new DeliveredOrderDto();
-                deliveredOrder.setRestaurantName(order.getRestaurant().getName());
-                deliveredOrder.setCustomerAddress(order.getCustomer().getAddress());
-                deliveredOrder.setDeliveredAt(order.getDeliveredAt());
-                deliveredOrder.setTotalPrice(order.getTotalPrice());
-                deliveredOrder.setOrderId(order.getId());
+        Pageable pageable = PageRequest.of(0, STREAM_CHUNK_SIZE);
+        List<DeliveredOrderDto> chunk = orderRepository.findDeliveredOrdersByCourierIdAndStatus(
+                courierId, OrderStatus.DELIVERED, pageable);
+        while(true){
+            chunk.forEach(consumer);
+            if(chunk.size() < STREAM_CHUNK_SIZE){
+                return;
+            }
+            DeliveredOrderDto last = chunk.get(chunk.size() - 1);
+            chunk = orderRepository.findDeliveredOrdersByCourierIdAndStatusBefore(courierId, OrderStatus.DELIVERED,
+                    last.getDeliveredAt(), last.getOrderId(), pageable);
+        }
+    }
 
-                deliveredOrders.add(deliveredOrder);
+    /**
+     * Looks up the live couriers of a batch that are not in the spatial index yet.
+     */
+    private Map<Long, Courier> findUnindexedCouriers(List<CourierLocationUpdateDto> updates) {
+        Set<Long> courierIds = new HashSet<>();
+        for (CourierLocationUpdateDto update : updates) {
+            if (update.getCourierId() != null && courierSpatialIndex.get(update.getCourierId()) == null) {
+                courierIds.add(update.getCourierId());
+            }
+        }
+        Map<Long, Courier> couriers = new HashMap<>();
+        if (!courierIds.isEmpty()) {
+            for (Courier courier : courierRepository.findAllById(courierIds)) {
+                if (!courier.isDeleted()) {
+                    couriers.put(courier.getId(), courier);
+                }
+            }
+        }
+        return couriers;
+    }
 
+    private void indexLocation(Courier courier) {
+        if (courier.getId() != null
+                && GeoDistance.isValid(courier.getCurrentLatitude(), courier.getCurrentLongitude())) {
+            courierSpatialIndex.update(courier.getId(), courier.getVehicle(),
+                    courier.getCurrentLatitude(), courier.getCurrentLongitude());
         }
-        return deliveredOrders;
     }
 }
-
@@ -1,22 +1,34 @@
 package com.delivery.dvApp.service;
 
+import com.delivery.dvApp.activeorder.ActiveOrderCounters;
 import com.delivery.dvApp.dto.ActiveOrderCustomerDto;
+import com.delivery.dvApp.dto.CursorPageDto;
 import com.delivery.dvApp.dto.ItemDetailsDto;
 import com.delivery.dvApp.dto.OrderHistoryDto;
+import com.delivery.dvApp.dto.OrderItemDetailsView;
 import com.delivery.dvApp.entity.Customer;
-import com.delivery.dvApp.entity.Order;
-import com.delivery.dvApp.entity.OrderItem;
 import com.delivery.dvApp.enums.OrderStatus;
+import com.delivery.dvApp.eta.EtaEstimator;
+import com.delivery.dvApp.event.OrderEventAudience;
+import com.delivery.dvApp.event.OrderEventStreams;
 import com.delivery.dvApp.exception.custom.CustomerNotFoundException;
+import com.delivery.dvApp.exception.custom.InvalidCursorException;
 import com.delivery.dvApp.exception.custom.OrderExistsException;
 import com.delivery.dvApp.repository.CustomerRepository;
 import com.delivery.dvApp.repository.ItemRepository;
+import com.delivery.dvApp.repository.OrderItemRepository;
 import com.delivery.dvApp.repository.OrderRepository;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 
 /**
@@ -28,9 +40,19 @@ import java.util.List;
 @Service
 public class CustomerService {
 
+    /** Number of streamed orders read, and whose items are loaded, together */
+    private static final int STREAM_CHUNK_SIZE = 200;
+
+    /** Statuses of the orders listed as active to a customer */
+    private static final List<OrderStatus> ACTIVE_STATUSES = List.of(OrderStatus.CREATED, OrderStatus.ACCEPTED);
+
     private  final CustomerRepository customerRepository;
     private final  OrderRepository orderRepository;
     private final ItemRepository itemRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final EtaEstimator etaEstimator;
+    private final ActiveOrderCounters activeOrderCounters;
+    private final OrderEventStreams orderEventStreams;
 
     /**
      * Constructs a CustomerService with required repositories.
@@ -38,11 +60,21 @@ public class CustomerService {
      * @param customerRepository repository for customers
      * @param orderRepository repository for orders
      * @param itemRepository repository for items
+     * @param orderItemRepository repository for order items
+     * @param etaEstimator estimator for delivery times
+     * @param activeOrderCounters in-memory counts of open orders
+     * @param orderEventStreams streams of order events
      */
-    public CustomerService(CustomerRepository customerRepository, OrderRepository orderRepository,ItemRepository itemRepository){
+    public CustomerService(CustomerRepository customerRepository, OrderRepository orderRepository,ItemRepository itemRepository,
+                           OrderItemRepository orderItemRepository, EtaEstimator etaEstimator,
+                           ActiveOrderCounters activeOrderCounters, OrderEventStreams orderEventStreams){
           this.customerRepository = customerRepository;
           this.orderRepository = orderRepository;
           this.itemRepository = itemRepository;
+          this.orderItemRepository = orderItemRepository;
+          this.etaEstimator = etaEstimator;
+          this.activeOrderCounters = activeOrderCounters;
+          this.orderEventStreams = orderEventStreams;
     }
 
     /**
@@ -59,7 +91,8 @@ public class CustomerService {
      * Soft deletes a customer.
      *
      * <p>A customer cannot be deleted if they have active orders
-     * (CREATED, ACCEPTED, or PICKED_UP).</p>
+     * (CREATED, ACCEPTED, or PICKED_UP). The check is answered by the
+     * {@link ActiveOrderCounters} without querying the orders.</p>
      *
      * @param customerId ID of the customer
      * @throws CustomerNotFoundException if customer does not exist
@@ -71,7 +104,7 @@ public class CustomerService {
 
         // Check for ACTIVE orders
         List<OrderStatus> activeStatuses = List.of(OrderStatus.CREATED, OrderStatus.ACCEPTED, OrderStatus.PICKED_UP);
-        boolean hasActiveOrders = orderRepository.existsByCustomerIdAndStatusIn(customerId, activeStatuses);
+        boolean hasActiveOrders = activeOrderCounters.customerHasOrderIn(customerId, activeStatuses);
 
         if (hasActiveOrders) {
             throw new OrderExistsException("Cannot delete customer because they have an active order.");
@@ -85,8 +118,16 @@ public class CustomerService {
     /**
      * Retrieves all active orders for a customer.
      *
-     * <p>Currently considers orders with {@link OrderStatus#ACCEPTED}
-     * status as active.</p>
+     * <p>Considers orders with {@link OrderStatus#CREATED} or
+     * {@link OrderStatus#ACCEPTED} status as active.</p>
+     *
+     * <p>Orders are read as projections and their items are loaded with
+     * one additional query, so the number of statements does not depend
+     * on how many orders or items the customer has.</p>
+     *
+     * <p>Each order carries an estimated delivery time from the
+     * {@link EtaEstimator}, which answers from memory without further queries.
+     * Orders still waiting for a courier are listed too, without courier details.</p>
      *
      * @param customerId ID of the customer
      * @return list of active order DTOs
@@ -97,28 +138,22 @@ public class CustomerService {
         Customer customer = customerRepository.findById(customerId)
                 .orElseThrow(()-> new CustomerNotFoundException("Customer not found."));
 
-        List<Order> orders= orderRepository.findByCustomerIdAndStatus(customerId, OrderStatus.ACCEPTED);
-
-        List<ActiveOrderCustomerDto> activeOrderCustomerDtos = new ArrayList<>();
-        for(Order order : orders){
-            ActiveOrderCustomerDto activeOrderCustomerDto = new ActiveOrderCustomerDto();
-            activeOrderCustomerDto.setCourierName(order.getCourier().getName());
-            activeOrderCustomerDto.setCourierNumber(order.getCourier().getPhoneNumber());
-            activeOrderCustomerDto.setTotal(order.getTotalPrice());
-            activeOrderCustomerDto.setRestaurantName(order.getRestaurant().getName());
-            activeOrderCustomerDto.setCreatedAt(order.getCreatedAt());
-
-
-            List<OrderItem> orderItems = order.getOrderItems();
-            List<ItemDetailsDto> itemDetailsDtos = new ArrayList<>();
-            for(OrderItem orderItem : orderItems){
-                ItemDetailsDto itemDetailsDto = new ItemDetailsDto();
-                itemDetailsDto.setItemName(orderItem.getItem().getName());
-                itemDetailsDto.setQuantity(orderItem.getQuantity());
-                itemDetailsDtos.add(itemDetailsDto);
-            }
-            activeOrderCustomerDto.setItemDetailsDtos(itemDetailsDtos);
-            activeOrderCustomerDtos.add(activeOrderCustomerDto);
+        List<ActiveOrderCustomerDto> activeOrderCustomerDtos =
+                orderRepository.findActiveOrdersByCustomerIdAndStatusIn(customerId, ACTIVE_STATUSES);
+
+        List<Long> orderIds = new ArrayList<>(activeOrderCustomerDtos.size());
+        for(ActiveOrderCustomerDto activeOrderCustomerDto : activeOrderCustomerDtos){
+            orderIds.add(activeOrderCustomerDto.getOrderId());
+        }
+
+        Map<Long, List<ItemDetailsDto>> itemDetailsByOrderId = loadItemDetails(orderIds);
+        for(ActiveOrderCustomerDto activeOrderCustomerDto : activeOrderCustomerDtos){
+            activeOrderCustomerDto.setItemDetailsDtos(
+                    itemDetailsByOrderId.getOrDefault(activeOrderCustomerDto.getOrderId(), new ArrayList<>()));
+            activeOrderCustomerDto.setEstimatedDeliveryAt(etaEstimator.estimateBeforePickup(
+                    activeOrderCustomerDto.getCourierId(), activeOrderCustomerDto.getCourierVehicle(),
+                    activeOrderCustomerDto.getPickupLatitude(), activeOrderCustomerDto.getPickupLongitude(),
+                    activeOrderCustomerDto.getDropoffLatitude(), activeOrderCustomerDto.getDropoffLongitude()));
         }
         return activeOrderCustomerDtos;
 
@@ -126,42 +161,136 @@ public class CustomerService {
     }
 
     /**
-     * Retrieves the order history for a customer.
+     * Opens a stream of the status changes of a customer's orders.
+     *
+     * <p>Replaces polling {@link #viewActiveOrders(Long)}: a change is pushed
+     * as soon as it has committed.</p>
+     *
+     * @param customerId ID of the customer
+     * @return Server-Sent Events emitter
+     * @throws CustomerNotFoundException if customer does not exist
+     */
+    public SseEmitter subscribeToOrderEvents(Long customerId){
+        if(!customerRepository.existsById(customerId)){
+            throw new CustomerNotFoundException("Customer not found.");
+        }
+        return orderEventStreams.subscribe(OrderEventAudience.CUSTOMER, customerId);
+    }
+
+    /**
+     * Retrieves one page of the order history for a customer.
      *
      * <p>Only orders with {@link OrderStatus#DELIVERED} status
      * are included in the history.</p>
      *
+     * <p>Pages are keyset-paginated on {@code (deliveredAt, id)}, newest
+     * first: the cursor of the last returned row marks where the next page
+     * starts, so every page costs the same regardless of how deep it is.
+     * Orders are read as projections and their items are loaded with
+     * one additional query per page.</p>
+     *
      * @param customerId ID of the customer
-     * @return list of delivered order history DTOs
+     * @param cursor cursor returned with the previous page, or null for the first page
+     * @param limit maximum number of orders on the page, clamped to {@code [1, 200]}
+     * @return page of delivered order history DTOs with the cursor of the next page
      * @throws CustomerNotFoundException if customer does not exist
+     * @throws InvalidCursorException if the cursor cannot be decoded
      */
     @Transactional
-    public List<OrderHistoryDto> viewOrderHistory(Long customerId){
+    public CursorPageDto<OrderHistoryDto> viewOrderHistory(Long customerId, String cursor, int limit){
         Customer customer = customerRepository.findById(customerId)
                 .orElseThrow(()-> new CustomerNotFoundException("Customer not found."));
 
-        List<Order> orders = orderRepository.findByCustomerIdAndStatus(customerId,OrderStatus.DELIVERED);
-        List<OrderHistoryDto> orderHistory = new ArrayList<>();
-
-        for(Order order : orders){
-            OrderHistoryDto orderHistoryDto = new OrderHistoryDto();
-            orderHistoryDto.setRestaurantName(order.getRestaurant().getName());
-            orderHistoryDto.setCourierName(order.getCourier().getName());
-            orderHistoryDto.setCourierNumber(order.getCourier().getPhoneNumber());
-            orderHistoryDto.setDeliveredAt(order.getDeliveredAt());
-            orderHistoryDto.setTotal(order.getTotalPrice());
-
-            List<OrderItem> orderItems = order.getOrderItems();
-            List<ItemDetailsDto> itemDetailsDtos = new ArrayList<>();
-            for(OrderItem orderItem : orderItems){
-                ItemDetailsDto itemDetailsDto = new ItemDetailsDto();
-                itemDetailsDto.setItemName(orderItem.getItem().getName());
-                itemDetailsDto.setQuantity(orderItem.getQuantity());
-                itemDetailsDtos.add(itemDetailsDto);
+        HistoryCursor after = HistoryCursor.decode(cursor);
+        int pageSize = HistoryCursor.clampLimit(limit);
+        // One extra row tells whether another page exists.
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+
+        List<OrderHistoryDto> orderHistory = after == null
+                ? orderRepository.findOrderHistoryByCustomerIdAndStatus(customerId, OrderStatus.DELIVERED, pageable)
+                : orderRepository.findOrderHistoryByCustomerIdAndStatusBefore(customerId, OrderStatus.DELIVERED,
+                        after.getDeliveredAt(), after.getOrderId(), pageable);
+
+        String nextCursor = null;
+        if(orderHistory.size() > pageSize){
+            orderHistory = new ArrayList<>(orderHistory.subList(0, pageSize));
+            OrderHistoryDto last = orderHistory.get(pageSize - 1);
+            nextCursor = new HistoryCursor(last.getDeliveredAt(), last.getOrderId()).encode();
+        }
+
+        attachItemDetails(orderHistory);
+        return new CursorPageDto<>(orderHistory, nextCursor);
+    }
+
+    /**
+     * Streams the complete order history of a customer.
+     *
+     * <p>Orders are read in keyset pages of {@value #STREAM_CHUNK_SIZE},
+     * and the items of each page are loaded with one query. Every read is
+     * short and runs outside of any surrounding transaction, so no
+     * connection or cursor is held while {@code consumer} writes to a slow
+     * client, and memory use stays constant however long the history is.</p>
+     *
+     * @param customerId ID of the customer
+     * @param consumer receives every delivered order, newest first
+     * @throws CustomerNotFoundException if customer does not exist
+     */
+    public void streamOrderHistory(Long customerId, Consumer<OrderHistoryDto> consumer){
+        Customer customer = customerRepository.findById(customerId)
+                .orElseThrow(()-> new CustomerNotFoundException("Customer not found."));
+
+        Pageable pageable = PageRequest.of(0, STREAM_CHUNK_SIZE);
+        List<OrderHistoryDto> chunk = orderRepository.findOrderHistoryByCustomerIdAndStatus(
+                customerId, OrderStatus.DELIVERED, pageable);
+        while(true){
+            attachItemDetails(chunk);
+            chunk.forEach(consumer);
+            if(chunk.size() < STREAM_CHUNK_SIZE){
+                return;
             }
-            orderHistoryDto.setItemDetailsDtos(itemDetailsDtos);
-            orderHistory.add(orderHistoryDto);
+            OrderHistoryDto last = chunk.get(chunk.size() - 1);
+            chunk = orderRepository.findOrderHistoryByCustomerIdAndStatusBefore(customerId, OrderStatus.DELIVERED,
+                    last.getDeliveredAt(), last.getOrderId(), pageable);
+        }
+    }
+
+    /**
+     * Attaches item details to a page of order history rows with one query.
+     *
+     * @param orderHistory rows to complete
+     */
+    private void attachItemDetails(List<OrderHistoryDto> orderHistory){
+        List<Long> orderIds = new ArrayList<>(orderHistory.size());
+        for(OrderHistoryDto orderHistoryDto : orderHistory){
+            orderIds.add(orderHistoryDto.getOrderId());
+        }
+
+        Map<Long, List<ItemDetailsDto>> itemDetailsByOrderId = loadItemDetails(orderIds);
+        for(OrderHistoryDto orderHistoryDto : orderHistory){
+            orderHistoryDto.setItemDetailsDtos(
+                    itemDetailsByOrderId.getOrDefault(orderHistoryDto.getOrderId(), new ArrayList<>()));
+        }
+    }
+
+    /**
+     * Loads the item details of the given orders with a single query
+     * and groups them by order ID.
+     *
+     * @param orderIds IDs of the orders
+     * @return item details per order ID; orders without items are absent
+     */
+    private Map<Long, List<ItemDetailsDto>> loadItemDetails(List<Long> orderIds){
+        Map<Long, List<ItemDetailsDto>> itemDetailsByOrderId = new HashMap<>();
+        if(orderIds.isEmpty()){
+            return itemDetailsByOrderId;
+        }
+
+        for(OrderItemDetailsView orderItem : orderItemRepository.findItemDetailsByOrderIdIn(orderIds)){
+            ItemDetailsDto itemDetailsDto = new ItemDetailsDto();
+            itemDetailsDto.setItemName(orderItem.getItemName());
+            itemDetailsDto.setQuantity(orderItem.getQuantity());
+            itemDetailsByOrderId.computeIfAbsent(orderItem.getOrderId(), id -> new ArrayList<>()).add(itemDetailsDto);
         }
-        return orderHistory;
+        return itemDetailsByOrderId;
     }
 }
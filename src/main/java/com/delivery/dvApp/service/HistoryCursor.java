@@ -0,0 +1,80 @@
+package com.delivery.dvApp.service;
+
+import com.delivery.dvApp.exception.custom.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position inside a delivery history ordered by
+ * {@code deliveredAt DESC, id DESC}.
+ *
+ * <p>Encoded for clients as an opaque URL-safe Base64 string of
+ * {@code <deliveredAt>|<orderId>}. The next page starts strictly after
+ * this position, so no rows are skipped or repeated even when several
+ * orders share the same delivery time.</p>
+ */
+final class HistoryCursor {
+    /** Largest page a client may request */
+    static final int MAX_LIMIT = 200;
+
+    private final LocalDateTime deliveredAt;
+    private final Long orderId;
+
+    HistoryCursor(LocalDateTime deliveredAt, Long orderId) {
+        this.deliveredAt = deliveredAt;
+        this.orderId = orderId;
+    }
+
+    LocalDateTime getDeliveredAt() {
+        return deliveredAt;
+    }
+
+    Long getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * @return opaque string handed to the client
+     */
+    String encode() {
+        String raw = deliveredAt + "|" + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor received from a client.
+     *
+     * @param cursor opaque cursor, may be null or blank for the first page
+     * @return decoded cursor, or null for the first page
+     * @throws InvalidCursorException if the cursor cannot be decoded
+     */
+    static HistoryCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new InvalidCursorException("Invalid cursor.");
+            }
+            return new HistoryCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor.");
+        }
+    }
+
+    /**
+     * Clamps a requested page size to {@code [1, MAX_LIMIT]}.
+     *
+     * @param limit requested number of rows
+     * @return page size that will be used
+     */
+    static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+}
@@ -1,37 +1,60 @@
 package com.delivery.dvApp.service;
 
+import com.delivery.dvApp.activeorder.ActiveOrderCounters;
+import com.delivery.dvApp.activeorder.OpenOrder;
+import com.delivery.dvApp.dispatch.BatchDispatcher;
+import com.delivery.dvApp.dto.BulkTransitionRequestDto;
+import com.delivery.dvApp.dto.BulkTransitionResultDto;
 import com.delivery.dvApp.dto.ItemDetailsDto;
 import com.delivery.dvApp.dto.ItemQuantityDto;
 import com.delivery.dvApp.dto.OrderRequestDto;
+import com.delivery.dvApp.dto.OrderTransitionDto;
+import com.delivery.dvApp.dto.OrderTransitionOutcomeDto;
 import com.delivery.dvApp.dto.ReceiptDto;
 import com.delivery.dvApp.entity.*;
 import com.delivery.dvApp.enums.OrderStatus;
+import com.delivery.dvApp.enums.OrderTransition;
+import com.delivery.dvApp.enums.TransitionOutcome;
+import com.delivery.dvApp.eta.EtaEstimator;
+import com.delivery.dvApp.event.OrderStatusEvent;
 import com.delivery.dvApp.exception.custom.*;
+import com.delivery.dvApp.geo.GeoDistance;
 import com.delivery.dvApp.repository.*;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Service layer responsible for handling order-related business logic.
  *
  * <p>This service manages order creation, validation, status transitions
- * (accept, pickup, delivery, cancellation), and receipt generation.</p>
+ * (accept, pickup, delivery, cancellation, one order at a time or in bulk),
+ * and receipt generation.</p>
  */
 @Service
 public class OrderService {
+    /** Largest number of orders one bulk transition may change */
+    static final int MAX_BULK_TRANSITION_ORDERS = 500;
+
     private final OrderRepository orderRepository;
     private final RestaurantRepository restaurantRepository;
     private final ItemRepository itemRepository;
     private final CourierRepository courierRepository;
     private final CustomerRepository customerRepository;
     private final OrderItemRepository orderItemRepository;
-
+    private final EtaEstimator etaEstimator;
+    private final ActiveOrderCounters activeOrderCounters;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Constructs an OrderService with required repositories.
@@ -42,19 +65,28 @@ public class OrderService {
      * @param courierRepository repository for couriers
      * @param customerRepository repository for customers
      * @param orderItemRepository repository for order items
+     * @param etaEstimator estimator for delivery times
+     * @param activeOrderCounters in-memory counts of open orders
+     * @param eventPublisher bus the order status events are published on
      */
     public OrderService(OrderRepository orderRepository,
                         RestaurantRepository restaurantRepository,
                         ItemRepository itemRepository,
                         CourierRepository courierRepository,
                         CustomerRepository customerRepository,
-                        OrderItemRepository orderItemRepository) {
+                        OrderItemRepository orderItemRepository,
+                        EtaEstimator etaEstimator,
+                        ActiveOrderCounters activeOrderCounters,
+                        ApplicationEventPublisher eventPublisher) {
         this.orderRepository = orderRepository;
         this.restaurantRepository = restaurantRepository;
         this.itemRepository = itemRepository;
         this.courierRepository = courierRepository;
         this.customerRepository = customerRepository;
         this.orderItemRepository = orderItemRepository;
+        this.etaEstimator = etaEstimator;
+        this.activeOrderCounters = activeOrderCounters;
+        this.eventPublisher = eventPublisher;
     }
 
 
@@ -64,6 +96,17 @@ public class OrderService {
      * <p>This method validates the restaurant, customer, courier, items,
      * quantities, and ensures all items belong to the same restaurant.</p>
      *
+     * <p>All requested items are loaded with a single query and every
+     * {@link OrderItem} is written with one {@code saveAll} call, so the
+     * number of statements does not grow with the size of the basket.</p>
+     *
+     * <p>When the request names no courier, the order is stored without one
+     * and the {@link BatchDispatcher} assigns a courier with its next batch.
+     * The pickup location is required in that case.</p>
+     *
+     * <p>The receipt carries an estimated delivery time computed in memory by
+     * the {@link EtaEstimator}; it is null when the pickup location is unknown.</p>
+     *
      * <p>The order is initially created with {@link OrderStatus#CREATED} status.</p>
      *
      * @param orderRequestDto request containing restaurant, customer, courier,
@@ -72,6 +115,7 @@ public class OrderService {
      * @throws RestaurantNotFoundException if restaurant does not exist
      * @throws CustomerNotFoundException if customer does not exist
      * @throws CourierNotFoundException if courier does not exist
+     * @throws InvalidLocationException if no courier is given and the pickup location is missing or invalid
      * @throws ItemNotFoundException if an item does not exist
      * @throws ItemMisMatchException if an item does not belong to the restaurant
      * @throws InvalidQuantityException if quantity is less than 1
@@ -84,80 +128,98 @@ public class OrderService {
         Customer customer = customerRepository.findById(orderRequestDto.getCustomerId())
                 .orElseThrow(()-> new CustomerNotFoundException("Customer Not Found."));
 
-        Courier courier = courierRepository.findById(orderRequestDto.getCourierId())
-                .orElseThrow(()-> new CourierNotFoundException("Courier Not Found."));
-
-
-            Order order = new Order();
-            order.setRestaurant(restaurant);
-            order.setCustomer(customer);
-
-
-             BigDecimal totalSum = BigDecimal.ZERO;
-
-             List<OrderItem> orderItems = new ArrayList<>();
-
-             List<ItemQuantityDto>   itemQuantities = orderRequestDto.getItemToQuantities();
-
-             ReceiptDto receiptDto = new ReceiptDto();
-
-
-             List<ItemDetailsDto> itemDetails = new ArrayList<>();
-
-
-             for(ItemQuantityDto itemQuantityDto : itemQuantities){
-                     Item item = itemRepository.findById(itemQuantityDto.getItemId())
-                             .orElseThrow(() -> new ItemNotFoundException("Item Not Found"));
-
-
-                     if (!item.getRestaurant().getId().equals(restaurant.getId())){
-                         throw new ItemMisMatchException("This item does not belong to this restaurant");
-                     }
-
-
-                     if(itemQuantityDto.getQuantity() <= 0){
-                         throw new InvalidQuantityException("Quantity cannot be less than 1.");
+        Double pickupLatitude = orderRequestDto.getPickupLatitude();
+        Double pickupLongitude = orderRequestDto.getPickupLongitude();
+        boolean validPickup = GeoDistance.isValid(pickupLatitude, pickupLongitude);
 
-                     }
-
-                     totalSum = totalSum.add(item.getPrice().multiply(BigDecimal.valueOf(itemQuantityDto.getQuantity())));
-
-                     OrderItem orderItem = new OrderItem();
-                     orderItem.setOrder(order);
-                     orderItem.setItem(item);
-                     orderItem.setQuantity(itemQuantityDto.getQuantity());
-                     orderItem.setPriceAtPurchase(item.getPrice());
-
-                     orderItems.add(orderItem);
-                     orderItemRepository.save(orderItem);
-
-
-                     ItemDetailsDto itemDetailsDto = new ItemDetailsDto();
-                     itemDetailsDto.setItemName(item.getName());
-                     itemDetailsDto.setQuantity(itemQuantityDto.getQuantity());
-
-                     itemDetails.add(itemDetailsDto);
-
-
-             }
+        Courier courier = null;
+        if(orderRequestDto.getCourierId() != null){
+            courier = courierRepository.findById(orderRequestDto.getCourierId())
+                    .orElseThrow(()-> new CourierNotFoundException("Courier Not Found."));
+        } else if(!validPickup){
+            throw new InvalidLocationException("A valid pickup location is required when no courier is given.");
+        }
 
-             order.setTotalPrice(totalSum);
-             order.setCourier(courier);
-             order.setOrderItems(orderItems);
-             order.setStatus(OrderStatus.CREATED);
-             order.setCreatedAt(LocalDateTime.now());
-             orderRepository.save(order);
+        List<ItemQuantityDto> itemQuantities = orderRequestDto.getItemToQuantities();
 
+        Set<Long> itemIds = new HashSet<>();
+        for(ItemQuantityDto itemQuantityDto : itemQuantities){
+            if(itemQuantityDto.getQuantity() <= 0){
+                throw new InvalidQuantityException("Quantity cannot be less than 1.");
+            }
+            itemIds.add(itemQuantityDto.getItemId());
+        }
 
-             receiptDto.setRestaurantName(restaurant.getName());
-             receiptDto.setTotal(totalSum);
-             receiptDto.setItemDetails(itemDetails);
-             receiptDto.setCreatedAt(order.getCreatedAt());
-             receiptDto.setOrderId(order.getId());
+        Map<Long, Item> itemsById = new HashMap<>();
+        for(Item item : itemRepository.findByIdIn(itemIds)){
+            itemsById.put(item.getId(), item);
+        }
 
+        Order order = new Order();
+        order.setRestaurant(restaurant);
+        order.setCustomer(customer);
+        order.setCourier(courier);
+        if(validPickup){
+            order.setPickupLatitude(pickupLatitude);
+            order.setPickupLongitude(pickupLongitude);
+        }
+        if(GeoDistance.isValid(orderRequestDto.getDropoffLatitude(), orderRequestDto.getDropoffLongitude())){
+            order.setDropoffLatitude(orderRequestDto.getDropoffLatitude());
+            order.setDropoffLongitude(orderRequestDto.getDropoffLongitude());
+        }
 
+        BigDecimal totalSum = BigDecimal.ZERO;
+        List<OrderItem> orderItems = new ArrayList<>(itemQuantities.size());
+        List<ItemDetailsDto> itemDetails = new ArrayList<>(itemQuantities.size());
+
+        for(ItemQuantityDto itemQuantityDto : itemQuantities){
+            Item item = itemsById.get(itemQuantityDto.getItemId());
+            if(item == null){
+                throw new ItemNotFoundException("Item Not Found");
+            }
+
+            if (!item.getRestaurant().getId().equals(restaurant.getId())){
+                throw new ItemMisMatchException("This item does not belong to this restaurant");
+            }
+
+            totalSum = totalSum.add(item.getPrice().multiply(BigDecimal.valueOf(itemQuantityDto.getQuantity())));
+
+            OrderItem orderItem = new OrderItem();
+            orderItem.setOrder(order);
+            orderItem.setItem(item);
+            orderItem.setQuantity(itemQuantityDto.getQuantity());
+            orderItem.setPriceAtPurchase(item.getPrice());
+            orderItems.add(orderItem);
+
+            ItemDetailsDto itemDetailsDto = new ItemDetailsDto();
+            itemDetailsDto.setItemName(item.getName());
+            itemDetailsDto.setQuantity(itemQuantityDto.getQuantity());
+            itemDetails.add(itemDetailsDto);
+        }
 
-             return receiptDto;
+        order.setTotalPrice(totalSum);
+        order.setOrderItems(orderItems);
+        order.setStatus(OrderStatus.CREATED);
+        order.setCreatedAt(LocalDateTime.now());
+        orderRepository.save(order);
+        orderItemRepository.saveAll(orderItems);
+        activeOrderCounters.created(order.getId(), courier != null ? courier.getId() : null, customer.getId(),
+                restaurant.getId());
+        eventPublisher.publishEvent(new OrderStatusEvent(order.getId(), OrderStatus.CREATED, order.getCreatedAt(),
+                courier != null ? courier.getId() : null, customer.getId(), restaurant.getId()));
+
+        ReceiptDto receiptDto = new ReceiptDto();
+        receiptDto.setRestaurantName(restaurant.getName());
+        receiptDto.setTotal(totalSum);
+        receiptDto.setItemDetails(itemDetails);
+        receiptDto.setCreatedAt(order.getCreatedAt());
+        receiptDto.setOrderId(order.getId());
+        receiptDto.setEstimatedDeliveryAt(etaEstimator.estimateBeforePickup(
+                courier != null ? courier.getId() : null, courier != null ? courier.getVehicle() : null,
+                order.getPickupLatitude(), order.getPickupLongitude(),
+                order.getDropoffLatitude(), order.getDropoffLongitude()));
+
+        return receiptDto;
     }
 
 
@@ -167,21 +229,14 @@ public class OrderService {
      * <p>Only orders with {@link OrderStatus#CREATED} status can be accepted.</p>
      *
      * @param orderId ID of the order
-     * @return updated order
+     * @param expand whether the full order should be included in the result
+     * @return transition result with the new status
      * @throws OrderNotFoundException if order does not exist
      * @throws InvalidOrderStatusException if order status is invalid
      */
     @Transactional
-    public Order acceptOrder(Long orderId){
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new OrderNotFoundException("Order Not Found."));
-
-        if(order.getStatus() != OrderStatus.CREATED){
-            throw new InvalidOrderStatusException("Only CREATED orders can be accepted.");
-        }
-
-        order.setStatus(OrderStatus.ACCEPTED);
-        return orderRepository.save(order);
+    public OrderTransitionDto acceptOrder(Long orderId, boolean expand){
+        return transition(orderId, OrderTransition.ACCEPT, expand);
     }
 
     /**
@@ -190,22 +245,14 @@ public class OrderService {
      * <p>Order must be in {@link OrderStatus#ACCEPTED} state.</p>
      *
      * @param orderId ID of the order
-     * @return updated order
+     * @param expand whether the full order should be included in the result
+     * @return transition result with the new status
      * @throws OrderNotFoundException if order does not exist
      * @throws InvalidOrderStatusException if order status is invalid
      */
     @Transactional
-    public Order pickUpOrder(Long orderId){
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(()-> new OrderNotFoundException("Order Not Found"));
-
-
-        if(order.getStatus() != OrderStatus.ACCEPTED){
-            throw new InvalidOrderStatusException("Order must be ACCEPTED before pickup");
-        }
-        order.setStatus(OrderStatus.PICKED_UP);
-        order.setPickedAt(LocalDateTime.now());
-        return orderRepository.save(order);
+    public OrderTransitionDto pickUpOrder(Long orderId, boolean expand){
+        return transition(orderId, OrderTransition.PICK_UP, expand);
     }
 
     /**
@@ -214,22 +261,14 @@ public class OrderService {
      * <p>Order must be in {@link OrderStatus#PICKED_UP} state.</p>
      *
      * @param orderId ID of the order
-     * @return updated order
+     * @param expand whether the full order should be included in the result
+     * @return transition result with the new status
      * @throws OrderNotFoundException if order does not exist
      * @throws InvalidOrderStatusException if order status is invalid
      */
     @Transactional
-    public Order deliverOrder(Long orderId){
-        Order order  = orderRepository.findById(orderId)
-                .orElseThrow(() -> new OrderNotFoundException("Order Not Found"));
-
-        if(order.getStatus() != OrderStatus.PICKED_UP){
-            throw new InvalidOrderStatusException("Order Must be PICKED_UP before delivery.");
-        }
-
-        order.setStatus(OrderStatus.DELIVERED);
-        order.setDeliveredAt(LocalDateTime.now());
-        return orderRepository.save(order);
+    public OrderTransitionDto deliverOrder(Long orderId, boolean expand){
+        return transition(orderId, OrderTransition.DELIVER, expand);
     }
 
 
@@ -239,24 +278,190 @@ public class OrderService {
      * <p>Delivered orders cannot be cancelled.</p>
      *
      * @param orderId ID of the order
-     * @return updated order
+     * @param expand whether the full order should be included in the result
+     * @return transition result with the new status
      * @throws OrderNotFoundException if order does not exist
      * @throws InvalidOrderStatusException if order has already been delivered
      */
     @Transactional
-    public Order cancelOrder(Long orderId){
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(()-> new OrderNotFoundException("Order Not Found."));
+    public OrderTransitionDto cancelOrder(Long orderId, boolean expand){
+        return transition(orderId, OrderTransition.CANCEL, expand);
+    }
+
+    /**
+     * Moves many orders to the same status at once.
+     *
+     * <p>The orders are locked and their statuses read with one query each;
+     * every order that may move is then changed by a single set-based
+     * update. Orders that do not exist or are in the wrong status do not
+     * fail the request: each order gets its own outcome, in the order the
+     * IDs were given. Every moved order is passed on to the
+     * {@link ActiveOrderCounters} and published as an {@link OrderStatusEvent}.</p>
+     *
+     * @param request IDs of the orders and the status to move them to
+     * @return number of moved orders and the outcome per order
+     * @throws InvalidOrderStatusException if no transition leads to the requested status
+     * @throws TooManyOrdersException if more than {@value #MAX_BULK_TRANSITION_ORDERS} orders are given
+     */
+    @Transactional
+    public BulkTransitionResultDto transitionOrders(BulkTransitionRequestDto request){
+        OrderTransition transition = OrderTransition.toStatus(request.getStatus());
+        if(transition == null){
+            throw new InvalidOrderStatusException("Orders can only be moved to ACCEPTED, PICKED_UP, DELIVERED or CANCELLED.");
+        }
+        List<Long> orderIds = request.getOrderIds() != null
+                ? new ArrayList<>(new LinkedHashSet<>(request.getOrderIds()))
+                : List.of();
+        if(orderIds.size() > MAX_BULK_TRANSITION_ORDERS){
+            throw new TooManyOrdersException("At most " + MAX_BULK_TRANSITION_ORDERS + " orders can be changed at once.");
+        }
 
-        if(order.getStatus() == OrderStatus.DELIVERED){
-            throw new InvalidOrderStatusException("Delivered order cannot be cancelled");
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, OpenOrder> states = new HashMap<>();
+        if(!orderIds.isEmpty()){
+            orderRepository.lockOrders(orderIds);
+            for(OpenOrder state : orderRepository.findOpenOrderStates(orderIds)){
+                states.put(state.getOrderId(), state);
+            }
+        }
+
+        List<OrderTransitionOutcomeDto> outcomes = new ArrayList<>(orderIds.size());
+        List<OpenOrder> movable = new ArrayList<>();
+        for(Long orderId : orderIds){
+            OpenOrder state = states.get(orderId);
+            if(state == null){
+                outcomes.add(new OrderTransitionOutcomeDto(orderId, TransitionOutcome.NOT_FOUND, null, null));
+            } else if(!transition.isAllowedFrom(state.getStatus())){
+                outcomes.add(new OrderTransitionOutcomeDto(orderId, TransitionOutcome.INVALID_STATUS,
+                        state.getStatus(), transition.getInvalidStatusMessage()));
+            } else {
+                outcomes.add(new OrderTransitionOutcomeDto(orderId, TransitionOutcome.APPLIED,
+                        transition.getTarget(), null));
+                movable.add(state);
+            }
+        }
+
+        if(!movable.isEmpty()){
+            List<Long> movableIds = new ArrayList<>(movable.size());
+            movable.forEach(state -> movableIds.add(state.getOrderId()));
+            applyBulkTransition(movableIds, transition, now);
+            for(OpenOrder state : movable){
+                eventPublisher.publishEvent(new OrderStatusEvent(state.getOrderId(), transition.getTarget(), now,
+                        state.getCourierId(), state.getCustomerId(), state.getRestaurantId()));
+                activeOrderCounters.moved(state.getOrderId(), transition.getTarget());
+            }
+        }
+        return new BulkTransitionResultDto(transition.getTarget(), now, movable.size(), outcomes);
+    }
+
+    /**
+     * Applies a status transition as a single conditional update.
+     *
+     * <p>The status check and the write happen in one
+     * {@code UPDATE ... WHERE id = ? AND status IN (...)} statement, so two
+     * callers racing on the same order cannot both succeed. When no row is
+     * updated, an existence check decides between a missing order and an
+     * order in the wrong status.</p>
+     *
+     * <p>The order itself is only loaded when {@code expand} is set;
+     * otherwise the result is built from the values just written. The new
+     * status is passed on to the {@link ActiveOrderCounters} and published
+     * as an {@link OrderStatusEvent}.</p>
+     *
+     * @param orderId ID of the order
+     * @param transition transition to apply
+     * @param expand whether the full order should be included in the result
+     * @return transition result with the new status
+     * @throws OrderNotFoundException if order does not exist
+     * @throws InvalidOrderStatusException if order is not in one of the source statuses
+     */
+    private OrderTransitionDto transition(Long orderId, OrderTransition transition, boolean expand){
+        LocalDateTime now = LocalDateTime.now();
+        int updated = applyTransition(orderId, transition, now);
+
+        if(updated == 0){
+            if(!orderRepository.existsById(orderId)){
+                throw new OrderNotFoundException("Order Not Found.");
+            }
+            throw new InvalidOrderStatusException(transition.getInvalidStatusMessage());
         }
 
-        order.setStatus(OrderStatus.CANCELLED);
-        order.setCancelledAt(LocalDateTime.now());
-        return orderRepository.save(order);
+        publishStatusChange(orderId, transition.getTarget(), now);
+        activeOrderCounters.moved(orderId, transition.getTarget());
+
+        OrderTransitionDto result = new OrderTransitionDto(orderId, transition.getTarget(), now);
+        if(expand){
+            result.setOrder(orderRepository.findById(orderId)
+                    .orElseThrow(() -> new OrderNotFoundException("Order Not Found.")));
+        }
+        return result;
     }
 
+    /**
+     * Publishes the new status of an order to its customer, courier and restaurant.
+     *
+     * <p>The parties come from the {@link ActiveOrderCounters}; only an order
+     * they do not track, such as one changing while they are being loaded,
+     * costs a query.</p>
+     *
+     * @param orderId ID of the order
+     * @param status new status of the order
+     * @param changedAt time of the change
+     */
+    private void publishStatusChange(Long orderId, OrderStatus status, LocalDateTime changedAt){
+        OpenOrder order = activeOrderCounters.find(orderId);
+        if(order == null){
+            List<OpenOrder> states = orderRepository.findOpenOrderStates(List.of(orderId));
+            if(states.isEmpty()){
+                return;
+            }
+            order = states.get(0);
+        }
+        eventPublisher.publishEvent(new OrderStatusEvent(orderId, status, changedAt,
+                order.getCourierId(), order.getCustomerId(), order.getRestaurantId()));
+    }
 
+    /**
+     * Runs the conditional update matching the transition, setting the
+     * lifecycle timestamp that belongs to the target status.
+     *
+     * @param orderId ID of the order
+     * @param transition transition to apply
+     * @param now timestamp recorded for the transition
+     * @return number of updated rows (0 or 1)
+     */
+    private int applyTransition(Long orderId, OrderTransition transition, LocalDateTime now){
+        return switch (transition) {
+            case ACCEPT -> orderRepository.updateStatus(
+                    orderId, transition.getSources(), transition.getTarget());
+            case PICK_UP -> orderRepository.updateStatusAndPickedAt(
+                    orderId, transition.getSources(), transition.getTarget(), now);
+            case DELIVER -> orderRepository.updateStatusAndDeliveredAt(
+                    orderId, transition.getSources(), transition.getTarget(), now);
+            case CANCEL -> orderRepository.updateStatusAndCancelledAt(
+                    orderId, transition.getSources(), transition.getTarget(), now);
+        };
     }
 
+    /**
+     * Runs the set-based update matching the transition for many orders,
+     * setting the lifecycle timestamp that belongs to the target status.
+     *
+     * @param orderIds IDs of the orders
+     * @param transition transition to apply
+     * @param now timestamp recorded for the transition
+     * @return number of updated rows
+     */
+    private int applyBulkTransition(List<Long> orderIds, OrderTransition transition, LocalDateTime now){
+        return switch (transition) {
+            case ACCEPT -> orderRepository.updateStatusIn(
+                    orderIds, transition.getSources(), transition.getTarget());
+            case PICK_UP -> orderRepository.updateStatusAndPickedAtIn(
+                    orderIds, transition.getSources(), transition.getTarget(), now);
+            case DELIVER -> orderRepository.updateStatusAndDeliveredAtIn(
+                    orderIds, transition.getSources(), transition.getTarget(), now);
+            case CANCEL -> orderRepository.updateStatusAndCancelledAtIn(
+                    orderIds, transition.getSources(), transition.getTarget(), now);
+        };
+    }
+}
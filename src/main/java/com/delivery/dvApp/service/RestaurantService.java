@@ -1,22 +1,54 @@
 package com.delivery.dvApp.service;
 
+import com.delivery.dvApp.board.RestaurantOrderBoards;
+import com.delivery.dvApp.cache.CachedMenu;
+import com.delivery.dvApp.cache.MenuCache;
+import com.delivery.dvApp.dto.CursorPageDto;
 import com.delivery.dvApp.dto.MenuItemDto;
+import com.delivery.dvApp.dto.NearbyRestaurantDto;
+import com.delivery.dvApp.dto.OrderBoardDto;
+import com.delivery.dvApp.dto.RestaurantDeletionDto;
+import com.delivery.dvApp.dto.RestaurantListingDto;
+import com.delivery.dvApp.dto.RestaurantListingPageDto;
+import com.delivery.dvApp.dto.RestaurantSuggestionDto;
+import com.delivery.dvApp.dto.SearchHitDto;
 import com.delivery.dvApp.entity.Item;
 import com.delivery.dvApp.entity.Restaurant;
 import com.delivery.dvApp.enums.Category;
+import com.delivery.dvApp.event.OrderEventAudience;
+import com.delivery.dvApp.event.OrderEventStreams;
+import com.delivery.dvApp.exception.custom.InvalidCursorException;
+import com.delivery.dvApp.exception.custom.InvalidFieldException;
+import com.delivery.dvApp.exception.custom.InvalidLocationException;
 import com.delivery.dvApp.exception.custom.ItemMisMatchException;
 import com.delivery.dvApp.exception.custom.ItemNotFoundException;
 import com.delivery.dvApp.exception.custom.NameAlreadyExistsException;
 import com.delivery.dvApp.exception.custom.RestaurantNotFoundException;
+import com.delivery.dvApp.geo.GeoDistance;
 import com.delivery.dvApp.repository.ItemRepository;
+import com.delivery.dvApp.repository.OrderRepository;
 import com.delivery.dvApp.repository.RestaurantRepository;
+import com.delivery.dvApp.search.NearbyRestaurant;
+import com.delivery.dvApp.search.RestaurantAutocomplete;
+import com.delivery.dvApp.search.RestaurantCategories;
+import com.delivery.dvApp.search.RestaurantLocations;
+import com.delivery.dvApp.search.RestaurantSearch;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Service layer responsible for handling business logic related to
@@ -27,30 +59,134 @@ import java.util.Locale;
  */
 @Service
 public class RestaurantService {
+    /** Maximum number of restaurant IDs bound into one bulk delete statement */
+    private static final int BULK_DELETE_CHUNK_SIZE = 1000;
+
+    /** Maximum number of search results returned at once */
+    private static final int MAX_SEARCH_RESULTS = 50;
+
+    /** Maximum number of restaurants on one category or listing page */
+    private static final int MAX_PAGE_SIZE = 200;
+
+    /** Maximum number of restaurants returned by a nearby search */
+    private static final int MAX_NEARBY_LIMIT = 100;
+
+    /** Fields a restaurant listing can return */
+    private static final Set<String> LISTING_FIELDS = Set.of("id", "name", "address", "phoneNumber", "category");
+
+    /** Fields a restaurant listing can return without reading the address and phone number */
+    private static final Set<String> LISTING_SUMMARY_FIELDS = Set.of("id", "name", "category");
 
     private  final RestaurantRepository restaurantRepository;
     private  final ItemRepository  itemRepository;
+    private  final MenuCache menuCache;
+    private final OrderEventStreams orderEventStreams;
+    private final OrderRepository orderRepository;
+    private final RestaurantOrderBoards restaurantOrderBoards;
+    private final RestaurantSearch restaurantSearch;
+    private final RestaurantAutocomplete restaurantAutocomplete;
+    private final RestaurantCategories restaurantCategories;
+    private final RestaurantLocations restaurantLocations;
 
     /**
      * Constructs a RestaurantService with required repositories.
      *
      * @param restaurantRepository repository for restaurant persistence
      * @param itemRepository repository for item persistence
+     * @param menuCache cache of restaurant menus
+     * @param orderEventStreams streams of order events
+     * @param orderRepository repository for orders
+     * @param restaurantOrderBoards in-memory order boards
+     * @param restaurantSearch in-memory search index
+     * @param restaurantAutocomplete in-memory restaurant name suggestions
+     * @param restaurantCategories in-memory restaurant IDs per category
+     * @param restaurantLocations in-memory restaurant locations
      */
     public RestaurantService(RestaurantRepository restaurantRepository,
-                             ItemRepository itemRepository){
+                             ItemRepository itemRepository,
+                             MenuCache menuCache,
+                             OrderEventStreams orderEventStreams,
+                             OrderRepository orderRepository,
+                             RestaurantOrderBoards restaurantOrderBoards,
+                             RestaurantSearch restaurantSearch,
+                             RestaurantAutocomplete restaurantAutocomplete,
+                             RestaurantCategories restaurantCategories,
+                             RestaurantLocations restaurantLocations){
               this.restaurantRepository = restaurantRepository;
               this.itemRepository = itemRepository;
+              this.menuCache = menuCache;
+              this.orderEventStreams = orderEventStreams;
+              this.orderRepository = orderRepository;
+              this.restaurantOrderBoards = restaurantOrderBoards;
+              this.restaurantSearch = restaurantSearch;
+              this.restaurantAutocomplete = restaurantAutocomplete;
+              this.restaurantCategories = restaurantCategories;
+              this.restaurantLocations = restaurantLocations;
     }
 
 
     /**
-     * Retrieves all restaurants that are not marked as deleted.
+     * Retrieves one page of the restaurants that are not marked as deleted.
+     *
+     * <p>Rows are read with a keyset query ordered by ID and selected as a
+     * projection, never as entities. When only the ID, name and category
+     * are requested, the other columns are not read at all; fields that
+     * were not requested are left empty. The total is taken from the
+     * in-memory {@link RestaurantCategories} index instead of a count
+     * query.</p>
      *
-     * @return list of active restaurants
+     * @param fields fields to return, all of them if null or empty
+     * @param cursor cursor returned with the previous page, or null for the first page
+     * @param limit maximum number of restaurants on the page, clamped to {@code [1, 200]}
+     * @return page of restaurants with the cursor of the next page and an estimated total
+     * @throws InvalidFieldException if a field does not exist
+     * @throws InvalidCursorException if the cursor cannot be decoded
      */
-    public List<Restaurant> findAllRestaurants(){
-        return restaurantRepository.findByDeletedFalse();
+    public RestaurantListingPageDto listRestaurants(Collection<String> fields, String cursor, int limit){
+        Set<String> requested = parseListingFields(fields);
+        long afterId = decodeIdCursor(cursor);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // One extra row tells whether another page exists.
+        PageRequest pageable = PageRequest.of(0, pageSize + 1);
+        List<RestaurantListingDto> restaurants = LISTING_SUMMARY_FIELDS.containsAll(requested)
+                ? restaurantRepository.findListingSummaries(afterId, pageable)
+                : restaurantRepository.findListings(afterId, pageable);
+
+        String nextCursor = null;
+        if(restaurants.size() > pageSize){
+            restaurants = new ArrayList<>(restaurants.subList(0, pageSize));
+            nextCursor = String.valueOf(restaurants.get(pageSize - 1).getId());
+        }
+        if(!requested.containsAll(LISTING_FIELDS)){
+            restaurants.forEach(restaurant -> retainFields(restaurant, requested));
+        }
+
+        long estimatedTotal = restaurantCategories.count(EnumSet.allOf(Category.class));
+        return new RestaurantListingPageDto(restaurants, nextCursor, estimatedTotal);
+    }
+
+    private static Set<String> parseListingFields(Collection<String> fields) {
+        if(fields == null || fields.isEmpty()){
+            return LISTING_FIELDS;
+        }
+        Set<String> requested = new HashSet<>();
+        for (String field : fields) {
+            String trimmed = field.trim();
+            if(!LISTING_FIELDS.contains(trimmed)){
+                throw new InvalidFieldException("Unknown field: " + trimmed);
+            }
+            requested.add(trimmed);
+        }
+        return requested;
+    }
+
+    private static void retainFields(RestaurantListingDto restaurant, Set<String> fields) {
+        restaurant.setId(fields.contains("id") ? restaurant.getId() : null);
+        restaurant.setName(fields.contains("name") ? restaurant.getName() : null);
+        restaurant.setAddress(fields.contains("address") ? restaurant.getAddress() : null);
+        restaurant.setPhoneNumber(fields.contains("phoneNumber") ? restaurant.getPhoneNumber() : null);
+        restaurant.setCategory(fields.contains("category") ? restaurant.getCategory() : null);
     }
 
     /**
@@ -73,15 +209,140 @@ public class RestaurantService {
 
 
     /**
-     * Retrieves restaurants belonging to a specific category.
+     * Retrieves one page of the live restaurants in any of the given categories.
      *
-     * @param category category name (case-insensitive)
-     * @return list of restaurants in the given category
-     * @throws IllegalArgumentException if category is invalid
+     * <p>The IDs of the page are taken from the in-memory
+     * {@link RestaurantCategories} index, ordered by ID; only the restaurants
+     * on the page are then loaded by primary key. The cursor is the ID of
+     * the last restaurant of the previous page.</p>
+     *
+     * @param categories category names (case-insensitive), e.g. VEGAN and DESSERT
+     * @param cursor cursor returned with the previous page, or null for the first page
+     * @param limit maximum number of restaurants on the page, clamped to {@code [1, 200]}
+     * @return page of restaurants with the cursor of the next page
+     * @throws IllegalArgumentException if a category is invalid
+     * @throws InvalidCursorException if the cursor cannot be decoded
      */
-    public List<Restaurant> getRestaurantsByCategory(String category) {
-        Category enumCategory = Category.valueOf(category.toUpperCase());
-        return restaurantRepository.findByCategory(enumCategory);
+    public CursorPageDto<Restaurant> getRestaurantsByCategory(Collection<String> categories, String cursor, int limit) {
+        Set<Category> enumCategories = parseCategories(categories);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // One extra ID tells whether another page exists.
+        List<Long> ids = restaurantCategories.page(enumCategories, decodeIdCursor(cursor), pageSize + 1);
+        String nextCursor = null;
+        if(ids.size() > pageSize){
+            ids = ids.subList(0, pageSize);
+            nextCursor = String.valueOf(ids.get(pageSize - 1));
+        }
+
+        Map<Long, Restaurant> byId = new HashMap<>();
+        for (Restaurant restaurant : restaurantRepository.findAllById(ids)) {
+            byId.put(restaurant.getId(), restaurant);
+        }
+        List<Restaurant> restaurants = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Restaurant restaurant = byId.get(id);
+            // Deleted after the IDs were read, before the index caught up.
+            if(restaurant != null && !restaurant.isDeleted()){
+                restaurants.add(restaurant);
+            }
+        }
+        return new CursorPageDto<>(restaurants, nextCursor);
+    }
+
+    /**
+     * Finds the live restaurants closest to a location, optionally of some categories only.
+     *
+     * <p>Served from the in-memory {@link RestaurantLocations} grid without
+     * touching the database. Restaurants without a known location are
+     * never returned.</p>
+     *
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @param categories category names (case-insensitive), every category if null or empty
+     * @param limit maximum number of restaurants, between 1 and {@value #MAX_NEARBY_LIMIT}
+     * @param radiusMeters search radius in meters
+     * @return nearby restaurants, closest first
+     * @throws InvalidLocationException if the location is outside the valid range or the radius is not positive
+     * @throws IllegalArgumentException if a category is invalid
+     */
+    public List<NearbyRestaurantDto> findNearbyRestaurants(Double latitude, Double longitude, Collection<String> categories,
+                                                           int limit, double radiusMeters){
+        if(!GeoDistance.isValid(latitude, longitude)){
+            throw new InvalidLocationException("Latitude must be between -90 and 90, longitude between -180 and 180.");
+        }
+        if(!Double.isFinite(radiusMeters) || radiusMeters <= 0){
+            throw new InvalidLocationException("Radius must be a positive number of meters.");
+        }
+
+        Set<Category> enumCategories = categories == null ? EnumSet.noneOf(Category.class) : parseCategories(categories);
+        int k = Math.max(1, Math.min(limit, MAX_NEARBY_LIMIT));
+        List<NearbyRestaurantDto> nearby = new ArrayList<>(k);
+        for (NearbyRestaurant restaurant : restaurantLocations.nearest(latitude, longitude, enumCategories, k, radiusMeters)) {
+            nearby.add(new NearbyRestaurantDto(
+                    restaurant.getRestaurantId(),
+                    restaurant.getName(),
+                    restaurant.getCategory(),
+                    restaurant.getLatitude(),
+                    restaurant.getLongitude(),
+                    restaurant.getDistanceMeters()));
+        }
+        return nearby;
+    }
+
+    private static Set<Category> parseCategories(Collection<String> categories) {
+        Set<Category> enumCategories = EnumSet.noneOf(Category.class);
+        for (String category : categories) {
+            enumCategories.add(Category.valueOf(category.trim().toUpperCase(Locale.ROOT)));
+        }
+        return enumCategories;
+    }
+
+    /**
+     * Decodes a cursor holding the ID of the last restaurant of the previous page.
+     *
+     * @param cursor cursor received from the client, may be null or blank for the first page
+     * @return ID to continue after, 0 for the first page
+     * @throws InvalidCursorException if the cursor is not a number
+     */
+    private static long decodeIdCursor(String cursor) {
+        if(cursor == null || cursor.isBlank()){
+            return 0;
+        }
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Invalid cursor.");
+        }
+    }
+
+    /**
+     * Searches restaurant names and menu items.
+     *
+     * <p>Served from the in-memory {@link RestaurantSearch} index. Every word
+     * of the query has to match, either exactly, as the start of a word or
+     * with a small typo.</p>
+     *
+     * @param query text typed by the user
+     * @param limit maximum number of results, between 1 and {@value #MAX_SEARCH_RESULTS}
+     * @return matching restaurants and items, best match first
+     */
+    public List<SearchHitDto> search(String query, int limit){
+        return restaurantSearch.search(query, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+    }
+
+    /**
+     * Suggests live restaurants whose name has a word starting with the typed text.
+     *
+     * <p>Served from the in-memory {@link RestaurantAutocomplete} trie,
+     * most popular restaurants first.</p>
+     *
+     * @param prefix text typed so far
+     * @param limit maximum number of suggestions, between 1 and {@value RestaurantAutocomplete#MAX_SUGGESTIONS}
+     * @return suggested restaurants
+     */
+    public List<RestaurantSuggestionDto> suggestRestaurants(String prefix, int limit){
+        return restaurantAutocomplete.suggest(prefix, Math.max(1, Math.min(limit, RestaurantAutocomplete.MAX_SUGGESTIONS)));
     }
 
     /**
@@ -90,31 +351,41 @@ public class RestaurantService {
      * <p>Only items that are not marked as deleted are included.</p>
      *
      * @param restaurantId ID of the restaurant
-     * @return list of menu item DTOs
+     * @return unmodifiable list of menu item DTOs
      * @throws RestaurantNotFoundException if restaurant does not exist
-     * @throws ItemNotFoundException if no items are found
      */
-    @Transactional
     public List<MenuItemDto> getMenuOfRestaurant(Long restaurantId){
-        Restaurant restaurant = restaurantRepository.findById(restaurantId)
-                .orElseThrow(()-> new RestaurantNotFoundException("Restaurant Not Found"));
-
-        List<Item> items = itemRepository.findByRestaurantId(restaurantId)
-                .orElseThrow(()-> new ItemNotFoundException("There is no items found in this restaurant"));
+        return getMenu(restaurantId).getItems();
+    }
 
+    /**
+     * Retrieves the cached menu of a restaurant together with its
+     * pre-serialized JSON and ETag.
+     *
+     * <p>Menus are served from the {@link MenuCache}. On a miss the restaurant
+     * is checked and its menu is loaded with a single projection query.</p>
+     *
+     * @param restaurantId ID of the restaurant
+     * @return cached menu
+     * @throws RestaurantNotFoundException if restaurant does not exist
+     */
+    public CachedMenu getMenu(Long restaurantId){
+        return menuCache.get(restaurantId, this::loadMenu);
+    }
 
-        List<MenuItemDto> menu = new ArrayList<>();
+    /**
+     * Loads the menu of a restaurant from the database.
+     *
+     * @param restaurantId ID of the restaurant
+     * @return menu items that are not deleted
+     * @throws RestaurantNotFoundException if restaurant does not exist
+     */
+    private List<MenuItemDto> loadMenu(Long restaurantId){
+        if(!restaurantRepository.existsById(restaurantId)){
+            throw new RestaurantNotFoundException("Restaurant Not Found");
+        }
 
-            for (Item item : items){
-                if(!item.isDeleted()) {
-                    MenuItemDto dto = new MenuItemDto();
-                    dto.setName(item.getName());
-                    dto.setDescription(item.getDescription());
-                    dto.setPrice(item.getPrice());
-                    menu.add(dto);
-                }
-            }
-            return menu;
+        return itemRepository.findMenuByRestaurantId(restaurantId);
     }
 
 
@@ -137,6 +408,11 @@ public class RestaurantService {
           restaurant.setName(newName);
 
           restaurantRepository.save(restaurant);
+          if(!restaurant.isDeleted()){
+              restaurantSearch.indexRestaurant(restaurantId, newName);
+              restaurantAutocomplete.put(restaurantId, newName);
+              restaurantLocations.put(restaurant);
+          }
     }
 
     /**
@@ -159,6 +435,30 @@ public class RestaurantService {
         restaurantRepository.save(restaurant);
     }
 
+    /**
+     * Changes the location of a restaurant.
+     *
+     * @param restaurantId ID of the restaurant
+     * @param latitude new latitude in degrees
+     * @param longitude new longitude in degrees
+     * @throws InvalidLocationException if the location is outside the valid range
+     * @throws RestaurantNotFoundException if restaurant does not exist
+     */
+    public void changeRestaurantLocation(Long restaurantId, Double latitude, Double longitude){
+        if(!GeoDistance.isValid(latitude, longitude)){
+            throw new InvalidLocationException("Latitude must be between -90 and 90, longitude between -180 and 180.");
+        }
+        Restaurant restaurant = restaurantRepository.findById(restaurantId)
+                .orElseThrow(() -> new RestaurantNotFoundException("Restaurant Not Found."));
+
+        restaurant.setLatitude(latitude);
+        restaurant.setLongitude(longitude);
+        restaurantRepository.save(restaurant);
+        if(!restaurant.isDeleted()){
+            restaurantLocations.put(restaurant);
+        }
+    }
+
     /**
      * Updates the price of an item.
      *
@@ -173,7 +473,7 @@ public class RestaurantService {
         item.setPrice(newPrice);
 
          itemRepository.save(item);
-
+         menuCache.invalidate(item.getRestaurant().getId());
 
     }
 
@@ -182,9 +482,20 @@ public class RestaurantService {
      * Adds a new restaurant.
      *
      * @param restaurant restaurant entity to be saved
+     * @throws InvalidLocationException if a location is given but outside the valid range
      */
     public Long addRestaurant(Restaurant restaurant){
+        if((restaurant.getLatitude() != null || restaurant.getLongitude() != null)
+                && !GeoDistance.isValid(restaurant.getLatitude(), restaurant.getLongitude())){
+            throw new InvalidLocationException("Latitude must be between -90 and 90, longitude between -180 and 180.");
+        }
         restaurantRepository.save(restaurant);
+        if(!restaurant.isDeleted()){
+            restaurantSearch.indexRestaurant(restaurant.getId(), restaurant.getName());
+            restaurantAutocomplete.put(restaurant.getId(), restaurant.getName());
+            restaurantCategories.put(restaurant.getId(), restaurant.getCategory());
+            restaurantLocations.put(restaurant);
+        }
         return restaurant.getId();
 
     }
@@ -209,6 +520,8 @@ public class RestaurantService {
         item.setPrice(itemDto.getPrice());
 
         itemRepository.save(item);
+        menuCache.invalidate(restaurantId);
+        restaurantSearch.indexItem(restaurantId, item.getId(), item.getName(), item.getDescription());
         return item.getId();
 
     }
@@ -216,25 +529,58 @@ public class RestaurantService {
     /**
      * Soft deletes a restaurant and all its items.
      *
+     * <p>The restaurant and its items are flagged with two bulk updates in
+     * one transaction, so the items are never loaded and a failure cannot
+     * leave a half-deleted restaurant behind.</p>
+     *
      * @param restaurantId ID of the restaurant
      * @throws RestaurantNotFoundException if restaurant does not exist
      */
+    @Transactional
     public void deleteRestaurant(Long restaurantId){
-        Restaurant restaurant = restaurantRepository.findById(restaurantId)
-                .orElseThrow(() -> new RestaurantNotFoundException("Restaurant Not Found"));
+        List<Long> restaurantIds = List.of(restaurantId);
 
+        int deleted = restaurantRepository.softDeleteByIdIn(restaurantIds);
+        if(deleted == 0 && !restaurantRepository.existsById(restaurantId)){
+            throw new RestaurantNotFoundException("Restaurant Not Found");
+        }
 
-        List<Item> items = itemRepository.findByRestaurantId(restaurantId)
-                .orElse(new ArrayList<>());
+        itemRepository.softDeleteByRestaurantIdIn(restaurantIds);
+        menuCache.invalidate(restaurantIds);
+        restaurantSearch.removeRestaurants(restaurantIds);
+        restaurantAutocomplete.remove(restaurantIds);
+        restaurantCategories.remove(restaurantIds);
+        restaurantLocations.remove(restaurantIds);
+    }
 
-        for (Item item : items) {
-            item.setDeleted(true);
+    /**
+     * Soft deletes many restaurants and all their items, e.g. when a franchise is offboarded.
+     *
+     * <p>IDs are processed in chunks of {@value #BULK_DELETE_CHUNK_SIZE}, two
+     * bulk updates per chunk, all in one transaction. Unknown or already
+     * deleted restaurants are skipped and not counted.</p>
+     *
+     * @param restaurantIds IDs of the restaurants
+     * @return number of restaurants and items that were marked as deleted
+     */
+    @Transactional
+    public RestaurantDeletionDto deleteRestaurants(Collection<Long> restaurantIds){
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(restaurantIds));
+        int restaurantsDeleted = 0;
+        int itemsDeleted = 0;
+
+        for(int from = 0; from < ids.size(); from += BULK_DELETE_CHUNK_SIZE){
+            List<Long> chunk = ids.subList(from, Math.min(from + BULK_DELETE_CHUNK_SIZE, ids.size()));
+            restaurantsDeleted += restaurantRepository.softDeleteByIdIn(chunk);
+            itemsDeleted += itemRepository.softDeleteByRestaurantIdIn(chunk);
         }
-        itemRepository.saveAll(items);
-
 
-        restaurant.setDeleted(true);
-        restaurantRepository.save(restaurant);
+        menuCache.invalidate(ids);
+        restaurantSearch.removeRestaurants(ids);
+        restaurantAutocomplete.remove(ids);
+        restaurantCategories.remove(ids);
+        restaurantLocations.remove(ids);
+        return new RestaurantDeletionDto(restaurantsDeleted, itemsDeleted);
     }
 
 
@@ -260,7 +606,50 @@ public class RestaurantService {
         }
         item.setDeleted(true);
         itemRepository.save(item);
+        menuCache.invalidate(restaurantId);
+        restaurantSearch.removeItem(restaurantId, itemId);
+
+    }
+
+    /**
+     * Opens a stream of the status changes of the orders a restaurant prepares.
+     *
+     * @param restaurantId ID of the restaurant
+     * @return Server-Sent Events emitter
+     * @throws RestaurantNotFoundException if restaurant does not exist
+     */
+    public SseEmitter subscribeToOrderEvents(Long restaurantId){
+        if(!restaurantRepository.existsById(restaurantId)){
+            throw new RestaurantNotFoundException("Restaurant Not Found");
+        }
+        return orderEventStreams.subscribe(OrderEventAudience.RESTAURANT, restaurantId);
+    }
 
+    /**
+     * Returns a restaurant's order board, or the changes to it since a version.
+     *
+     * <p>Without {@code since}, or when the changes after it are no longer
+     * kept in memory, the whole board is read from the database and
+     * returned as a snapshot. Otherwise only the changes are returned,
+     * without touching the database.</p>
+     *
+     * @param restaurantId ID of the restaurant
+     * @param since board version the client has seen, or null for a snapshot
+     * @return snapshot or changes, with the new board version
+     * @throws RestaurantNotFoundException if restaurant does not exist
+     */
+    public OrderBoardDto getOrderBoard(Long restaurantId, Long since){
+        if(since != null){
+            OrderBoardDto changes = restaurantOrderBoards.changesSince(restaurantId, since);
+            if(changes != null){
+                return changes;
+            }
+        }
+        if(!restaurantRepository.existsById(restaurantId)){
+            throw new RestaurantNotFoundException("Restaurant Not Found");
+        }
+        return restaurantOrderBoards.snapshot(restaurantId,
+                () -> orderRepository.findBoardOrders(restaurantId, RestaurantOrderBoards.BOARD_STATUSES));
     }
 
 }
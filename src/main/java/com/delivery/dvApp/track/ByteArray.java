@@ -0,0 +1,34 @@
+package com.delivery.dvApp.track;
+
+import java.util.Arrays;
+
+/**
+ * Minimal growable byte array, used to build blocks before they are written.
+ */
+final class ByteArray {
+    private byte[] bytes;
+    private int size;
+
+    ByteArray(int initialCapacity) {
+        this.bytes = new byte[initialCapacity];
+    }
+
+    void add(byte b) {
+        if (size == bytes.length) {
+            bytes = Arrays.copyOf(bytes, bytes.length * 2);
+        }
+        bytes[size++] = b;
+    }
+
+    byte[] array() {
+        return bytes;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+    }
+}
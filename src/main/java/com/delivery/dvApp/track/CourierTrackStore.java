@@ -0,0 +1,323 @@
+package com.delivery.dvApp.track;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only store of courier trajectories.
+ *
+ * <p>Points of each courier are collected in an in-memory block of up to
+ * {@value #BLOCK_BYTES} bytes, delta/varint encoded by {@link TrackBlockWriter}.
+ * Full blocks, blocks idle for longer than {@code courier.track.seal-after}
+ * and blocks that cross midnight are appended to the memory-mapped segment
+ * files of their day ({@code track-YYYY-MM-DD-NNN.seg} in
+ * {@code courier.track.directory}). A moving courier costs roughly four to
+ * six bytes per point.</p>
+ *
+ * <p>Each day written to keeps an in-memory index of block positions and
+ * time spans per courier, so a time-range query only decodes the blocks it
+ * overlaps. Up to {@value #MAX_OPEN_DAYS} such days stay open. Days that are
+ * not open are never opened by a query: their block headers, which carry
+ * the time span, are scanned for the courier instead, and a query covers at
+ * most {@value #MAX_QUERY_DAYS} days. Days are opened and closed under their
+ * own lock, so a slow open only holds up writers of that day. Points still
+ * in an unsealed block are lost if the process dies.</p>
+ */
+@Component
+public class CourierTrackStore {
+    /** A block is sealed once its payload reaches this size */
+    private static final int BLOCK_BYTES = 1024;
+
+    /** Number of days whose segments and index are kept open */
+    private static final int MAX_OPEN_DAYS = 8;
+
+    /** Longest time range of a query, in days */
+    public static final int MAX_QUERY_DAYS = 7;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long sealAfterNanos;
+    private final ConcurrentHashMap<Long, OpenBlock> openBlocks = new ConcurrentHashMap<>();
+    /** Days written to, least recently used first; guarded by itself */
+    private final Map<LocalDate, OpenDay> days = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Creates the store and its directory.
+     *
+     * @param directory directory of the segment files
+     * @param segmentBytes size of a segment file in bytes
+     * @param sealAfter idle time after which an unfilled block is written
+     * @throws UncheckedIOException if the directory cannot be created
+     */
+    public CourierTrackStore(@Value("${courier.track.directory:data/tracks}") Path directory,
+                             @Value("${courier.track.segment-bytes:67108864}") int segmentBytes,
+                             @Value("${courier.track.seal-after:PT1M}") Duration sealAfter) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.sealAfterNanos = sealAfter.toNanos();
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Appends a position to a courier's track.
+     *
+     * <p>Positions are expected in time order per courier; an older one
+     * starts a new block, so it is still stored.</p>
+     *
+     * @param courierId ID of the courier
+     * @param latitude latitude in degrees
+     * @param longitude longitude in degrees
+     * @param recordedAt time of the position
+     */
+    public void append(Long courierId, double latitude, double longitude, LocalDateTime recordedAt) {
+        long millis = toMillis(recordedAt);
+        LocalDate day = recordedAt.toLocalDate();
+        while (true) {
+            OpenBlock block = openBlocks.computeIfAbsent(courierId, id -> new OpenBlock());
+            synchronized (block) {
+                if (block.retired) {
+                    continue;
+                }
+                add(courierId, block, day, millis, latitude, longitude);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the positions of a courier within a time range.
+     *
+     * @param courierId ID of the courier
+     * @param from start of the range, inclusive
+     * @param to end of the range, inclusive
+     * @return positions in time order
+     */
+    public List<TrackPoint> query(Long courierId, LocalDateTime from, LocalDateTime to) {
+        long fromMillis = toMillis(from);
+        long toMillis = toMillis(to);
+        List<TrackPoint> points = new ArrayList<>();
+        OpenBlock block = openBlocks.get(courierId);
+
+        if (block == null) {
+            readStored(courierId, from.toLocalDate(), to.toLocalDate(), fromMillis, toMillis, points);
+        } else {
+            // Holding the block keeps a concurrent seal from moving points between the two reads.
+            synchronized (block) {
+                readStored(courierId, from.toLocalDate(), to.toLocalDate(), fromMillis, toMillis, points);
+                block.writer.decode(fromMillis, toMillis, points);
+            }
+        }
+        points.sort(Comparator.comparingLong(TrackPoint::getEpochMillis));
+        return points;
+    }
+
+    /**
+     * Writes blocks that have not received a point for {@code courier.track.seal-after}
+     * and syncs the open segments to disk.
+     */
+    @Scheduled(fixedDelayString = "${courier.track.seal-interval:PT30S}")
+    public void sealIdleBlocks() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<Long, OpenBlock>> iterator = openBlocks.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, OpenBlock> entry = iterator.next();
+            OpenBlock block = entry.getValue();
+            synchronized (block) {
+                if (now - block.touchedAt < sealAfterNanos) {
+                    continue;
+                }
+                if (block.writer.count() > 0) {
+                    seal(entry.getKey(), block);
+                }
+                block.retired = true;
+                iterator.remove();
+            }
+        }
+        for (OpenDay openDay : openDays()) {
+            synchronized (openDay) {
+                if (!openDay.closed && openDay.track != null) {
+                    openDay.track.force();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes every open block and closes the segment files.
+     */
+    @PreDestroy
+    public void close() {
+        openBlocks.forEach((courierId, block) -> {
+            synchronized (block) {
+                if (block.writer.count() > 0) {
+                    seal(courierId, block);
+                }
+            }
+        });
+        openBlocks.clear();
+        List<OpenDay> open = openDays();
+        synchronized (days) {
+            days.clear();
+        }
+        open.forEach(this::closeDay);
+    }
+
+    private void add(Long courierId, OpenBlock block, LocalDate day, long millis, double latitude, double longitude) {
+        TrackBlockWriter writer = block.writer;
+        if (writer.count() > 0 && (!day.equals(block.day) || millis < writer.lastMillis())) {
+            seal(courierId, block);
+        }
+        block.day = day;
+        writer.add(millis, TrackPoint.toE6(latitude), TrackPoint.toE6(longitude));
+        block.touchedAt = System.nanoTime();
+        if (writer.size() >= BLOCK_BYTES) {
+            seal(courierId, block);
+        }
+    }
+
+    private void readStored(Long courierId, LocalDate fromDay, LocalDate toDay,
+                            long fromMillis, long toMillis, List<TrackPoint> out) {
+        for (LocalDate day = fromDay; !day.isAfter(toDay); day = day.plusDays(1)) {
+            DayTrack track = openTrack(day);
+            try {
+                if (track != null) {
+                    track.read(courierId, fromMillis, toMillis, out);
+                } else {
+                    DayTrack.readUnopened(directory, day, courierId, fromMillis, toMillis, out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void seal(Long courierId, OpenBlock block) {
+        while (true) {
+            OpenDay openDay = openDay(block.day);
+            synchronized (openDay) {
+                if (openDay.closed) {
+                    continue;
+                }
+                try {
+                    if (openDay.track == null) {
+                        openDay.track = DayTrack.open(directory, openDay.day, segmentBytes);
+                    }
+                    openDay.track.append(courierId, block.writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                break;
+            }
+        }
+        block.writer.reset();
+    }
+
+    /**
+     * @return index of a day if it is open, null otherwise
+     */
+    private DayTrack openTrack(LocalDate day) {
+        OpenDay openDay;
+        synchronized (days) {
+            openDay = days.get(day);
+        }
+        if (openDay == null) {
+            return null;
+        }
+        synchronized (openDay) {
+            return openDay.closed ? null : openDay.track;
+        }
+    }
+
+    /**
+     * Returns the slot of a day, adding it if needed and closing the least
+     * recently used days beyond {@value #MAX_OPEN_DAYS}. Only the map is
+     * changed under {@code days}; segments are opened and closed under the
+     * slot's own lock.
+     */
+    private OpenDay openDay(LocalDate day) {
+        OpenDay openDay;
+        List<OpenDay> evicted = new ArrayList<>();
+        synchronized (days) {
+            openDay = days.computeIfAbsent(day, OpenDay::new);
+            Iterator<OpenDay> iterator = days.values().iterator();
+            while (days.size() > MAX_OPEN_DAYS && iterator.hasNext()) {
+                evicted.add(iterator.next());
+                iterator.remove();
+            }
+        }
+        evicted.forEach(this::closeDay);
+        return openDay;
+    }
+
+    private List<OpenDay> openDays() {
+        synchronized (days) {
+            return new ArrayList<>(days.values());
+        }
+    }
+
+    private void closeDay(OpenDay openDay) {
+        synchronized (openDay) {
+            openDay.closed = true;
+            if (openDay.track != null) {
+                try {
+                    openDay.track.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Slot of a day that is written to. Its index is created on the first
+     * append; once closed, appenders must fetch a new slot.
+     */
+    private static final class OpenDay {
+        private final LocalDate day;
+        /** Guarded by this slot */
+        private DayTrack track;
+        /** Guarded by this slot */
+        private boolean closed;
+
+        private OpenDay(LocalDate day) {
+            this.day = day;
+        }
+    }
+
+    /**
+     * Points of one courier that have not been written to a segment yet.
+     */
+    private static final class OpenBlock {
+        private final TrackBlockWriter writer = new TrackBlockWriter();
+        private LocalDate day;
+        private long touchedAt;
+        /** Set once the block has been removed from the map; appenders must fetch a new one */
+        private boolean retired;
+    }
+}
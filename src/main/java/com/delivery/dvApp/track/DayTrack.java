@@ -0,0 +1,186 @@
+package com.delivery.dvApp.track;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Segments of one day and an index of the blocks they hold, per courier.
+ *
+ * <p>A day starts with segment {@code 000}; when it is full the next
+ * part is created. Appends are serialized by the caller; lookups may run
+ * concurrently with them. Indexing only reads block headers, so opening a
+ * day does not decode any points.</p>
+ */
+final class DayTrack {
+
+    /**
+     * Location and time span of one block.
+     */
+    static final class BlockRef {
+        final TrackSegment segment;
+        final int payloadOffset;
+        final int payloadLength;
+        final int count;
+        final long firstMillis;
+        final long lastMillis;
+
+        BlockRef(TrackSegment segment, int payloadOffset, int payloadLength, int count,
+                 long firstMillis, long lastMillis) {
+            this.segment = segment;
+            this.payloadOffset = payloadOffset;
+            this.payloadLength = payloadLength;
+            this.count = count;
+            this.firstMillis = firstMillis;
+            this.lastMillis = lastMillis;
+        }
+    }
+
+    private final Path directory;
+    private final LocalDate day;
+    private final int segmentBytes;
+    private final List<TrackSegment> segments = new CopyOnWriteArrayList<>();
+    private final ConcurrentHashMap<Long, List<BlockRef>> blocks = new ConcurrentHashMap<>();
+
+    private DayTrack(Path directory, LocalDate day, int segmentBytes) {
+        this.directory = directory;
+        this.day = day;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Opens every existing segment of a day and indexes its blocks.
+     *
+     * @param directory directory holding the segment files
+     * @param day day to open
+     * @param segmentBytes size of newly created segments
+     * @return the opened day, possibly without any segment yet
+     * @throws IOException if a segment cannot be read
+     */
+    static DayTrack open(Path directory, LocalDate day, int segmentBytes) throws IOException {
+        DayTrack track = new DayTrack(directory, day, segmentBytes);
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, filePrefix(day) + "*.seg")) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        for (Path file : files) {
+            TrackSegment segment = TrackSegment.open(file, segmentBytes);
+            segment.scan((courierId, count, offset, length, first, last) ->
+                    track.index(new BlockRef(segment, offset, length, count, first, last), courierId));
+            track.segments.add(segment);
+        }
+        return track;
+    }
+
+    /**
+     * Adds the stored points of a courier within a time range to a list,
+     * reading the segments of a day that is not open without indexing them.
+     *
+     * @param directory directory holding the segment files
+     * @param day day to read
+     * @param courierId ID of the courier
+     * @param fromMillis start of the range, inclusive
+     * @param toMillis end of the range, inclusive
+     * @param out list the points are added to
+     * @throws IOException if a segment cannot be read
+     */
+    static void readUnopened(Path directory, LocalDate day, long courierId, long fromMillis, long toMillis,
+                             List<TrackPoint> out) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, filePrefix(day) + "*.seg")) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        for (Path file : files) {
+            TrackSegment segment = TrackSegment.open(file, 0);
+            try {
+                segment.scan((id, count, offset, length, first, last) -> {
+                    if (id == courierId && last >= fromMillis && first <= toMillis) {
+                        TrackBlockWriter.decode(segment.payload(offset, length), count, fromMillis, toMillis, out);
+                    }
+                });
+            } finally {
+                segment.close();
+            }
+        }
+    }
+
+    /**
+     * Writes a block to the current segment, starting a new one when it is full.
+     *
+     * @param courierId ID of the courier
+     * @param block encoded points
+     * @throws IOException if a new segment cannot be created
+     */
+    void append(long courierId, TrackBlockWriter block) throws IOException {
+        TrackSegment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        int offset = segment == null ? -1 : segment.append(courierId, block);
+        if (offset < 0) {
+            segment = TrackSegment.open(directory.resolve(filePrefix(day) + String.format("%03d.seg", segments.size())),
+                    segmentBytes);
+            segment.scan((id, count, payloadOffset, length, first, last) -> { });
+            segments.add(segment);
+            offset = segment.append(courierId, block);
+            if (offset < 0) {
+                throw new IOException("Track block of " + block.size() + " bytes does not fit into a segment");
+            }
+        }
+        index(new BlockRef(segment, offset, block.size(), block.count(), block.firstMillis(), block.lastMillis()),
+                courierId);
+    }
+
+    /**
+     * Adds the stored points of a courier within a time range to a list.
+     *
+     * @param courierId ID of the courier
+     * @param fromMillis start of the range, inclusive
+     * @param toMillis end of the range, inclusive
+     * @param out list the points are added to
+     */
+    void read(long courierId, long fromMillis, long toMillis, List<TrackPoint> out) {
+        List<BlockRef> refs = blocks.get(courierId);
+        if (refs == null) {
+            return;
+        }
+        for (BlockRef ref : refs) {
+            if (ref.lastMillis < fromMillis || ref.firstMillis > toMillis) {
+                continue;
+            }
+            TrackBlockWriter.decode(ref.segment.payload(ref.payloadOffset, ref.payloadLength),
+                    ref.count, fromMillis, toMillis, out);
+        }
+    }
+
+    /**
+     * Writes modified pages of every segment back to disk.
+     */
+    void force() {
+        segments.forEach(TrackSegment::force);
+    }
+
+    /**
+     * Closes every segment of the day.
+     *
+     * @throws IOException if a segment cannot be closed
+     */
+    void close() throws IOException {
+        for (TrackSegment segment : segments) {
+            segment.close();
+        }
+    }
+
+    private void index(BlockRef ref, long courierId) {
+        blocks.computeIfAbsent(courierId, id -> new CopyOnWriteArrayList<>()).add(ref);
+    }
+
+    private static String filePrefix(LocalDate day) {
+        return "track-" + day + "-";
+    }
+}
@@ -0,0 +1,105 @@
+package com.delivery.dvApp.track;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Builds the payload of one block of a courier's track.
+ *
+ * <p>The first point is stored with absolute values, every following point
+ * as the difference to its predecessor: elapsed milliseconds as an unsigned
+ * varint, latitude and longitude changes as zig-zag varints. A courier
+ * reporting every few seconds while moving at city speed needs about two
+ * bytes for the time and one or two bytes per coordinate.</p>
+ */
+final class TrackBlockWriter {
+    private final ByteArray payload = new ByteArray(256);
+    private int count;
+    private long firstMillis;
+    private long lastMillis;
+    private int lastLatitudeE6;
+    private int lastLongitudeE6;
+
+    /**
+     * Appends a point; its time must not be before the previous point's.
+     */
+    void add(long epochMillis, int latitudeE6, int longitudeE6) {
+        if (count == 0) {
+            firstMillis = epochMillis;
+            Varints.writeUnsigned(payload, epochMillis);
+            Varints.writeSigned(payload, latitudeE6);
+            Varints.writeSigned(payload, longitudeE6);
+        } else {
+            Varints.writeUnsigned(payload, epochMillis - lastMillis);
+            Varints.writeSigned(payload, (long) latitudeE6 - lastLatitudeE6);
+            Varints.writeSigned(payload, (long) longitudeE6 - lastLongitudeE6);
+        }
+        lastMillis = epochMillis;
+        lastLatitudeE6 = latitudeE6;
+        lastLongitudeE6 = longitudeE6;
+        count++;
+    }
+
+    int count() {
+        return count;
+    }
+
+    int size() {
+        return payload.size();
+    }
+
+    byte[] bytes() {
+        return payload.array();
+    }
+
+    long firstMillis() {
+        return firstMillis;
+    }
+
+    long lastMillis() {
+        return lastMillis;
+    }
+
+    void reset() {
+        payload.clear();
+        count = 0;
+    }
+
+    /**
+     * Decodes the points not yet written to a segment.
+     */
+    void decode(long fromMillis, long toMillis, List<TrackPoint> out) {
+        if (count > 0) {
+            decode(ByteBuffer.wrap(payload.array(), 0, payload.size()), count, fromMillis, toMillis, out);
+        }
+    }
+
+    /**
+     * Decodes a block payload, keeping the points within the time range.
+     *
+     * @param in payload, positioned at its first byte
+     * @param count number of points in the payload
+     * @param fromMillis start of the range, inclusive
+     * @param toMillis end of the range, inclusive
+     * @param out list the matching points are added to
+     */
+    static void decode(ByteBuffer in, int count, long fromMillis, long toMillis, List<TrackPoint> out) {
+        long millis = Varints.readUnsigned(in);
+        long latitude = Varints.readSigned(in);
+        long longitude = Varints.readSigned(in);
+        for (int i = 0; ; i++) {
+            if (millis > toMillis) {
+                return;
+            }
+            if (millis >= fromMillis) {
+                out.add(new TrackPoint(millis, (int) latitude, (int) longitude));
+            }
+            if (i + 1 == count) {
+                return;
+            }
+            millis += Varints.readUnsigned(in);
+            latitude += Varints.readSigned(in);
+            longitude += Varints.readSigned(in);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.delivery.dvApp.track;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * One stored position of a courier.
+ *
+ * <p>Coordinates are kept in millionths of a degree (about 11 cm), time in
+ * epoch milliseconds; these are the values the track store encodes.</p>
+ */
+public final class TrackPoint {
+    private final long epochMillis;
+    private final int latitudeE6;
+    private final int longitudeE6;
+
+    TrackPoint(long epochMillis, int latitudeE6, int longitudeE6) {
+        this.epochMillis = epochMillis;
+        this.latitudeE6 = latitudeE6;
+        this.longitudeE6 = longitudeE6;
+    }
+
+    /**
+     * @return time of the position in epoch milliseconds
+     */
+    public long getEpochMillis() {
+        return epochMillis;
+    }
+
+    /**
+     * @return time of the position in the server time zone
+     */
+    public LocalDateTime getRecordedAt() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    /**
+     * @return latitude in degrees
+     */
+    public double getLatitude() {
+        return latitudeE6 / 1_000_000d;
+    }
+
+    /**
+     * @return longitude in degrees
+     */
+    public double getLongitude() {
+        return longitudeE6 / 1_000_000d;
+    }
+
+    static int toE6(double degrees) {
+        return (int) Math.round(degrees * 1_000_000d);
+    }
+}
@@ -0,0 +1,147 @@
+package com.delivery.dvApp.track;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One memory-mapped, append-only segment file of the track store.
+ *
+ * <p>The file is a sequence of blocks, each laid out as
+ * {@code MAGIC courierId count payloadLength firstMillis spanMillis payload}
+ * with the five numbers as unsigned varints; {@code spanMillis} is the time
+ * between the first and the last point. The time span in the header lets a
+ * scan index or skip a block without decoding it. The magic byte of a block is written last,
+ * so a crash in the middle of an append leaves a block that the next scan
+ * does not see. The unused tail of the file is zero.</p>
+ */
+final class TrackSegment {
+    /** Marks the start of a complete block */
+    static final byte BLOCK_MAGIC = 0x7C;
+
+    /** Upper bound for the header of a block: magic and five varints */
+    private static final int MAX_HEADER_BYTES = 1 + 10 + 5 + 5 + 10 + 10;
+
+    /**
+     * Receives the blocks found while scanning an existing segment.
+     */
+    interface BlockVisitor {
+        void visit(long courierId, int count, int payloadOffset, int payloadLength, long firstMillis, long lastMillis);
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int writePosition;
+
+    private TrackSegment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Opens or creates a segment file and maps it into memory.
+     *
+     * @param path file of the segment
+     * @param capacity size of a new segment in bytes; existing files keep their size if larger
+     * @return the mapped segment, positioned at its start until {@link #scan} is called
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    static TrackSegment open(Path path, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = Math.max(capacity, channel.size());
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        return new TrackSegment(path, channel, buffer);
+    }
+
+    /**
+     * Walks every complete block and moves the write position behind the last one.
+     *
+     * @param visitor receives each block
+     */
+    synchronized void scan(BlockVisitor visitor) {
+        ByteBuffer in = buffer.duplicate();
+        int position = 0;
+        while (position < in.limit() && in.get(position) == BLOCK_MAGIC) {
+            in.position(position + 1);
+            long courierId = Varints.readUnsigned(in);
+            int count = (int) Varints.readUnsigned(in);
+            int length = (int) Varints.readUnsigned(in);
+            long firstMillis = Varints.readUnsigned(in);
+            long lastMillis = firstMillis + Varints.readUnsigned(in);
+            int payloadOffset = in.position();
+            if (payloadOffset + length > in.limit()) {
+                break;
+            }
+            visitor.visit(courierId, count, payloadOffset, length, firstMillis, lastMillis);
+            position = payloadOffset + length;
+        }
+        writePosition = position;
+    }
+
+    /**
+     * Appends a block.
+     *
+     * @param courierId ID of the courier the block belongs to
+     * @param block encoded points
+     * @return offset of the payload in this segment, or -1 if the segment is full
+     */
+    synchronized int append(long courierId, TrackBlockWriter block) {
+        ByteArray header = new ByteArray(MAX_HEADER_BYTES);
+        Varints.writeUnsigned(header, courierId);
+        Varints.writeUnsigned(header, block.count());
+        Varints.writeUnsigned(header, block.size());
+        Varints.writeUnsigned(header, block.firstMillis());
+        Varints.writeUnsigned(header, block.lastMillis() - block.firstMillis());
+
+        int start = writePosition;
+        int payloadOffset = start + 1 + header.size();
+        if (payloadOffset + block.size() > buffer.capacity()) {
+            return -1;
+        }
+        buffer.put(start + 1, header.array(), 0, header.size());
+        buffer.put(payloadOffset, block.bytes(), 0, block.size());
+        buffer.put(start, BLOCK_MAGIC);
+        writePosition = payloadOffset + block.size();
+        return payloadOffset;
+    }
+
+    /**
+     * @param offset offset of a payload returned by {@link #append} or {@link #scan}
+     * @param length length of the payload
+     * @return independent read-only view of the payload
+     */
+    ByteBuffer payload(int offset, int length) {
+        return buffer.slice(offset, length).asReadOnlyBuffer();
+    }
+
+    /**
+     * @return file of the segment
+     */
+    Path path() {
+        return path;
+    }
+
+    /**
+     * Writes modified pages of the mapping back to the file.
+     */
+    synchronized void force() {
+        buffer.force();
+    }
+
+    /**
+     * Flushes the segment and closes its file. Views handed out by
+     * {@link #payload} stay readable until they are garbage collected.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+}
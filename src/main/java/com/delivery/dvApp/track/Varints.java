@@ -0,0 +1,68 @@
+package com.delivery.dvApp.track;
+
+import java.nio.ByteBuffer;
+
+/**
+ * LEB128 variable-length integers with zig-zag encoding for signed values.
+ *
+ * <p>Small magnitudes take a single byte: values below 128 (or between -64
+ * and 63 when zig-zag encoded) need one byte, below 16384 two, and so on.</p>
+ */
+final class Varints {
+
+    private Varints() {
+    }
+
+    /**
+     * Appends an unsigned variable-length integer.
+     *
+     * @param out buffer to write to
+     * @param value value to write, treated as unsigned
+     */
+    static void writeUnsigned(ByteArray out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.add((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.add((byte) value);
+    }
+
+    /**
+     * Appends a signed variable-length integer using zig-zag encoding.
+     *
+     * @param out buffer to write to
+     * @param value value to write
+     */
+    static void writeSigned(ByteArray out, long value) {
+        writeUnsigned(out, (value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Reads an unsigned variable-length integer at the buffer's position.
+     *
+     * @param in buffer to read from; its position is advanced
+     * @return decoded value
+     */
+    static long readUnsigned(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * Reads a zig-zag encoded signed variable-length integer at the buffer's position.
+     *
+     * @param in buffer to read from; its position is advanced
+     * @return decoded value
+     */
+    static long readSigned(ByteBuffer in) {
+        long raw = readUnsigned(in);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+}
@@ -0,0 +1,32 @@
+-- Moves each id sequence past the highest id already present in its table.
+--
+-- Tables created before the switch to sequence generation were filled by
+-- IDENTITY columns, so a freshly created sequence would start at 1 and
+-- collide with existing rows. The ids use the pooled-lo optimizer with an
+-- allocation size of 50: the value returned by nextval is the first id of
+-- the block.
+--
+-- Instances of a rolling deploy run this while others already take ids, so
+-- a sequence is only ever moved with nextval. Reading it and then calling
+-- setval could move it back behind a block another instance has just taken;
+-- nextval never hands out a value twice. A sequence that is already past
+-- its table is only read, which is the case on every start-up but the first.
+--
+-- The whole file is a single statement, see spring.sql.init.separator.
+
+DO $$
+DECLARE
+    table_name text;
+    max_id bigint;
+    next_id bigint;
+BEGIN
+    FOREACH table_name IN ARRAY ARRAY['restaurant', 'item', 'customer', 'courier', 'cus_order', 'order_item'] LOOP
+        EXECUTE format('SELECT COALESCE(MAX(id), 0) FROM %I', table_name) INTO max_id;
+        EXECUTE format('SELECT CASE WHEN is_called THEN last_value + 50 ELSE last_value END FROM %I',
+                table_name || '_seq') INTO next_id;
+        WHILE next_id <= max_id LOOP
+            next_id := nextval((table_name || '_seq')::regclass);
+        END LOOP;
+    END LOOP;
+END
+$$
@@ -0,0 +1,94 @@
+package com.delivery.dvApp.serviceTests;
+
+import com.delivery.dvApp.activeorder.ActiveOrderCounters;
+import com.delivery.dvApp.enums.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ActiveOrderCounters}.
+ * <p>
+ * Focuses on how order lifecycle changes move the per-courier and per-customer counts.
+ */
+public class ActiveOrderCountersTest {
+    private final ActiveOrderCounters counters = new ActiveOrderCounters();
+
+    /**
+     * Verifies that counts follow an order through its lifecycle.
+     * <p>
+     * <b>Scenario:</b> An order is created without a courier, dispatched, accepted,
+     * picked up and delivered.
+     * <br><b>Expectation:</b>
+     * <ul>
+     * <li>Every step is visible for the courier and the customer in the new status only.</li>
+     * <li>Once delivered, the order is no longer tracked.</li>
+     * </ul>
+     */
+    @Test
+    void transitions_shouldMoveCountsWithTheOrder(){
+        //Act & Assert
+        counters.created(1L, null, 100L, 50L);
+        assertTrue(counters.customerHasOrderIn(100L, List.of(OrderStatus.CREATED)));
+        assertFalse(counters.courierHasOrderIn(7L, ActiveOrderCounters.OPEN_STATUSES));
+
+        counters.assigned(1L, 7L);
+        assertTrue(counters.courierHasOrderIn(7L, List.of(OrderStatus.CREATED)));
+
+        counters.moved(1L, OrderStatus.ACCEPTED);
+        counters.moved(1L, OrderStatus.PICKED_UP);
+        assertTrue(counters.courierHasOrderIn(7L, List.of(OrderStatus.PICKED_UP)));
+        assertFalse(counters.courierHasOrderIn(7L, List.of(OrderStatus.CREATED, OrderStatus.ACCEPTED)));
+        assertTrue(counters.customerHasOrderIn(100L, List.of(OrderStatus.PICKED_UP)));
+
+        counters.moved(1L, OrderStatus.DELIVERED);
+        assertFalse(counters.courierHasOrderIn(7L, ActiveOrderCounters.OPEN_STATUSES));
+        assertFalse(counters.customerHasOrderIn(100L, ActiveOrderCounters.OPEN_STATUSES));
+        assertEquals(0, counters.size());
+    }
+
+    /**
+     * Verifies that repeated changes are applied once.
+     * <p>
+     * <b>Scenario:</b> A customer has two orders. One is accepted twice and cancelled twice.
+     * <br><b>Expectation:</b> The other order still counts, and the customer has no accepted order left.
+     */
+    @Test
+    void transitions_shouldBeIdempotent(){
+        //Arrange
+        counters.created(1L, 7L, 100L, 50L);
+        counters.created(2L, 8L, 100L, 50L);
+
+        //Act
+        counters.moved(1L, OrderStatus.ACCEPTED);
+        counters.moved(1L, OrderStatus.ACCEPTED);
+        counters.moved(1L, OrderStatus.CANCELLED);
+        counters.moved(1L, OrderStatus.CANCELLED);
+
+        //Assert
+        assertEquals(1, counters.size());
+        assertFalse(counters.customerHasOrderIn(100L, List.of(OrderStatus.ACCEPTED)));
+        assertTrue(counters.customerHasOrderIn(100L, List.of(OrderStatus.CREATED)));
+        assertFalse(counters.courierHasOrderIn(7L, ActiveOrderCounters.OPEN_STATUSES));
+        assertTrue(counters.courierHasOrderIn(8L, ActiveOrderCounters.OPEN_STATUSES));
+    }
+
+    /**
+     * Verifies that changes to untracked orders are ignored.
+     * <p>
+     * <b>Scenario:</b> An order that was never tracked is assigned and accepted.
+     * <br><b>Expectation:</b> Nothing is tracked; the reconciler picks the order up later.
+     */
+    @Test
+    void transitions_shouldIgnoreUntrackedOrders(){
+        //Act
+        counters.assigned(5L, 7L);
+        counters.moved(5L, OrderStatus.ACCEPTED);
+
+        //Assert
+        assertEquals(0, counters.size());
+        assertFalse(counters.courierHasOrderIn(7L, ActiveOrderCounters.OPEN_STATUSES));
+    }
+}
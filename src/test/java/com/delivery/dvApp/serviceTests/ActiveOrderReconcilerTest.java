@@ -0,0 +1,120 @@
+package com.delivery.dvApp.serviceTests;
+
+import com.delivery.dvApp.activeorder.ActiveOrderCounters;
+import com.delivery.dvApp.activeorder.ActiveOrderReconciler;
+import com.delivery.dvApp.activeorder.OpenOrder;
+import com.delivery.dvApp.enums.OrderStatus;
+import com.delivery.dvApp.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ActiveOrderReconciler}.
+ * <p>
+ * Focuses on loading the counters and correcting them against the database.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ActiveOrderReconcilerTest {
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Spy
+    private ActiveOrderCounters activeOrderCounters = new ActiveOrderCounters();
+
+    @InjectMocks
+    private ActiveOrderReconciler reconciler;
+
+    /**
+     * Verifies that the counters are filled at start-up.
+     * <p>
+     * <b>Scenario:</b> The database holds two open orders of one customer.
+     * <br><b>Expectation:</b> Both orders are tracked with their courier and status.
+     */
+    @Test
+    void rebuild_shouldLoadOpenOrders(){
+        //Arrange
+        when(orderRepository.findOpenOrders(anyCollection(), eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new OpenOrder(1L, null, 100L, 50L, OrderStatus.CREATED),
+                new OpenOrder(2L, 7L, 100L, 50L, OrderStatus.PICKED_UP)));
+
+        //Act
+        reconciler.rebuild();
+
+        //Assert
+        assertEquals(2, activeOrderCounters.size());
+        assertTrue(activeOrderCounters.courierHasOrderIn(7L, List.of(OrderStatus.PICKED_UP)));
+        assertTrue(activeOrderCounters.customerHasOrderIn(100L, List.of(OrderStatus.CREATED)));
+    }
+
+    /**
+     * Verifies that drift between the counters and the database is corrected.
+     * <p>
+     * <b>Scenario:</b> The counters track order 1, which the database shows as delivered,
+     * and miss order 2, which is open in the database. Order 3 matches.
+     * <br><b>Expectation:</b>
+     * <ul>
+     * <li>Two orders are corrected, order 3 is not read again.</li>
+     * <li>The counters then match the database.</li>
+     * </ul>
+     */
+    @Test
+    void reconcile_shouldCorrectOrdersThatDiffer(){
+        //Arrange
+        activeOrderCounters.created(1L, 7L, 100L, 50L);
+        activeOrderCounters.created(3L, 9L, 102L, 50L);
+        when(orderRepository.findOpenOrders(anyCollection(), eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new OpenOrder(2L, 8L, 101L, 50L, OrderStatus.ACCEPTED),
+                new OpenOrder(3L, 9L, 102L, 50L, OrderStatus.CREATED)));
+        when(orderRepository.findOpenOrderStates(argThat(ids -> ids.size() == 2
+                && ids.containsAll(List.of(1L, 2L))))).thenReturn(List.of(
+                new OpenOrder(1L, 7L, 100L, 50L, OrderStatus.DELIVERED),
+                new OpenOrder(2L, 8L, 101L, 50L, OrderStatus.ACCEPTED)));
+
+        //Act
+        int corrected = reconciler.reconcile();
+
+        //Assert
+        assertEquals(2, corrected);
+        assertEquals(2, activeOrderCounters.size());
+        assertFalse(activeOrderCounters.courierHasOrderIn(7L, ActiveOrderCounters.OPEN_STATUSES));
+        assertTrue(activeOrderCounters.courierHasOrderIn(8L, List.of(OrderStatus.ACCEPTED)));
+        assertTrue(activeOrderCounters.courierHasOrderIn(9L, List.of(OrderStatus.CREATED)));
+    }
+
+    /**
+     * Verifies that a transition committing during the comparison is not overwritten.
+     * <p>
+     * <b>Scenario:</b> Order 1 is tracked as created while the database already shows it
+     * accepted; before the difference is read again, the accept reaches the counters and
+     * the order is picked up in the database.
+     * <br><b>Expectation:</b> Nothing is corrected and the counters keep the accepted state.
+     */
+    @Test
+    void reconcile_shouldSkipOrdersChangedMeanwhile(){
+        //Arrange
+        activeOrderCounters.created(1L, 7L, 100L, 50L);
+        when(orderRepository.findOpenOrders(anyCollection(), eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new OpenOrder(1L, 7L, 100L, 50L, OrderStatus.ACCEPTED)));
+        when(orderRepository.findOpenOrderStates(anyCollection())).thenAnswer(invocation -> {
+            activeOrderCounters.moved(1L, OrderStatus.ACCEPTED);
+            return List.of(new OpenOrder(1L, 7L, 100L, 50L, OrderStatus.PICKED_UP));
+        });
+
+        //Act
+        int corrected = reconciler.reconcile();
+
+        //Assert
+        assertEquals(0, corrected);
+        assertTrue(activeOrderCounters.courierHasOrderIn(7L, List.of(OrderStatus.ACCEPTED)));
+    }
+}
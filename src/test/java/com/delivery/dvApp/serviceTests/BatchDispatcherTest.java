@@ -0,0 +1,118 @@
+package com.delivery.dvApp.serviceTests;
+
+import com.delivery.dvApp.activeorder.ActiveOrderCounters;
+import com.delivery.dvApp.dispatch.BatchDispatcher;
+import com.delivery.dvApp.dispatch.PendingOrder;
+import com.delivery.dvApp.enums.OrderStatus;
+import com.delivery.dvApp.enums.Vehicle;
+import com.delivery.dvApp.event.OrderStatusEvent;
+import com.delivery.dvApp.geo.CourierSpatialIndex;
+import com.delivery.dvApp.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link BatchDispatcher}.
+ * <p>
+ * Focuses on which couriers take part in a run and how assignments are written.
+ */
+@ExtendWith(MockitoExtension.class)
+public class BatchDispatcherTest {
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Spy
+    private CourierSpatialIndex courierSpatialIndex = new CourierSpatialIndex();
+
+    @Spy
+    private ActiveOrderCounters activeOrderCounters = new ActiveOrderCounters();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private BatchDispatcher batchDispatcher;
+
+    /**
+     * Verifies that pending orders are matched with idle couriers only, in one batch.
+     * <p>
+     * <b>Scenario:</b> Two orders are pending. Of three indexed couriers the
+     * closest one has an order in progress.
+     * <br><b>Expectation:</b>
+     * <ul>
+     * <li>The busy courier is not assigned.</li>
+     * <li>Both assignments are written with a single JDBC batch.</li>
+     * <li>The assigned couriers count as busy afterwards.</li>
+     * <li>Each assignment is published as an event for the new courier.</li>
+     * </ul>
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void dispatch_shouldAssignIdleCouriersInOneBatch(){
+        //Arrange
+        courierSpatialIndex.update(1L, Vehicle.CAR, 52.2297, 21.0122);
+        courierSpatialIndex.update(2L, Vehicle.BICYCLE, 52.2310, 21.0122);
+        courierSpatialIndex.update(3L, Vehicle.MOTORBIKE, 52.2400, 21.0122);
+        when(orderRepository.findPendingDispatch(anyCollection(), any(Pageable.class))).thenReturn(List.of(
+                new PendingOrder(10L, 52.2300, 21.0122),
+                new PendingOrder(11L, 52.2390, 21.0122)));
+        activeOrderCounters.created(1L, 1L, 100L, 50L);
+        activeOrderCounters.created(10L, null, 101L, 50L);
+        activeOrderCounters.created(11L, null, 102L, 50L);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 1});
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+
+        //Act
+        int assigned = batchDispatcher.dispatch();
+
+        //Assert
+        assertEquals(2, assigned);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), rows.capture());
+        assertEquals(2, rows.getValue().size());
+        assertArrayEquals(new Object[]{2L, 10L}, rows.getValue().get(0));
+        assertArrayEquals(new Object[]{3L, 11L}, rows.getValue().get(1));
+        assertTrue(activeOrderCounters.courierHasOrderIn(2L, List.of(OrderStatus.CREATED)));
+        assertTrue(activeOrderCounters.courierHasOrderIn(3L, List.of(OrderStatus.CREATED)));
+        ArgumentCaptor<OrderStatusEvent> events = ArgumentCaptor.forClass(OrderStatusEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(2L, events.getAllValues().get(0).getCourierId());
+        assertEquals(101L, events.getAllValues().get(0).getCustomerId());
+        assertEquals(3L, events.getAllValues().get(1).getCourierId());
+    }
+
+    /**
+     * Verifies that a run without pending orders does not touch the database further.
+     * <p>
+     * <b>Scenario:</b> No order is waiting for a courier.
+     * <br><b>Expectation:</b> Nothing is written.
+     */
+    @Test
+    void dispatch_shouldDoNothingWithoutPendingOrders(){
+        //Arrange
+        when(orderRepository.findPendingDispatch(anyCollection(), any(Pageable.class))).thenReturn(List.of());
+
+        //Act
+        int assigned = batchDispatcher.dispatch();
+
+        //Assert
+        assertEquals(0, assigned);
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,97 @@
+package com.delivery.dvApp.serviceTests;
+
+import com.delivery.dvApp.enums.Vehicle;
+import com.delivery.dvApp.geo.CourierLocationBuffer;
+import com.delivery.dvApp.geo.CourierSpatialIndex;
+import com.delivery.dvApp.track.CourierTrackStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link CourierLocationBuffer}.
+ * <p>
+ * Focuses on coalescing position reports and flushing them in batches.
+ */
+@ExtendWith(MockitoExtension.class)
+public class CourierLocationBufferTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private CourierTrackStore courierTrackStore;
+
+    @Spy
+    private CourierSpatialIndex courierSpatialIndex = new CourierSpatialIndex();
+
+    @InjectMocks
+    private CourierLocationBuffer courierLocationBuffer;
+
+    /**
+     * Verifies that many reports of one courier are written as a single row.
+     * <p>
+     * <b>Scenario:</b> An indexed courier reports three times, the last report
+     * arriving out of order.
+     * <br><b>Expectation:</b>
+     * <ul>
+     * <li>The stale report is ignored.</li>
+     * <li>One flush writes only the newest position, in one JDBC batch.</li>
+     * <li>A second flush without new reports writes nothing.</li>
+     * </ul>
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_shouldWriteNewestPositionOncePerCourier(){
+        //Arrange
+        LocalDateTime now = LocalDateTime.of(2026, 1, 1, 12, 0);
+        courierSpatialIndex.update(1L, Vehicle.BICYCLE, 52.2000, 21.0000);
+
+        courierLocationBuffer.offer(1L, 52.2100, 21.0100, now);
+        courierLocationBuffer.offer(1L, 52.2200, 21.0200, now.plusSeconds(3));
+        boolean staleAccepted = courierLocationBuffer.offer(1L, 52.2150, 21.0150, now.plusSeconds(1));
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+
+        //Act
+        int written = courierLocationBuffer.flush();
+        int writtenAgain = courierLocationBuffer.flush();
+
+        //Assert
+        assertFalse(staleAccepted);
+        assertEquals(1, written);
+        assertEquals(0, writtenAgain);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), rows.capture());
+        assertArrayEquals(new Object[]{52.2200, 21.0200, 1L}, rows.getValue().get(0));
+        assertEquals(52.2200, courierSpatialIndex.get(1L).getLatitude());
+        verify(courierTrackStore, times(2)).append(eq(1L), anyDouble(), anyDouble(), any(LocalDateTime.class));
+    }
+
+    /**
+     * Verifies that reports of couriers missing from the index are not recorded.
+     * <p>
+     * <b>Scenario:</b> A courier that is not in the spatial index reports a position.
+     * <br><b>Expectation:</b> The report is rejected, nothing is appended to the track
+     * and the next flush writes nothing.
+     */
+    @Test
+    void offer_shouldRejectCouriersThatAreNotIndexed(){
+        //Act
+        boolean accepted = courierLocationBuffer.offer(99L, 52.23, 21.01, LocalDateTime.now());
+
+        //Assert
+        assertFalse(accepted);
+        assertEquals(0, courierLocationBuffer.flush());
+        verifyNoInteractions(courierTrackStore, jdbcTemplate);
+    }
+}
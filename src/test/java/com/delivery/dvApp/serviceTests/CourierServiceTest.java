@@ -1,31 +1,53 @@
 package com.delivery.dvApp.serviceTests;
 
+import com.delivery.dvApp.activeorder.ActiveOrderCounters;
+import com.delivery.dvApp.dto.ActiveOrderDto;
+import com.delivery.dvApp.dto.CourierLocationUpdateDto;
+import com.delivery.dvApp.dto.CursorPageDto;
 import com.delivery.dvApp.dto.DeliveredOrderDto;
+import com.delivery.dvApp.dto.LocationBatchResultDto;
+import com.delivery.dvApp.dto.NearbyCourierDto;
 import com.delivery.dvApp.entity.Courier;
-import com.delivery.dvApp.entity.Customer;
-import com.delivery.dvApp.entity.Order;
-import com.delivery.dvApp.entity.Restaurant;
 import com.delivery.dvApp.enums.OrderStatus;
 import com.delivery.dvApp.enums.Vehicle;
+import com.delivery.dvApp.event.OrderEventStreams;
+import com.delivery.dvApp.eta.EtaEstimator;
 import com.delivery.dvApp.exception.custom.CourierNotFoundException;
+import com.delivery.dvApp.exception.custom.InvalidCursorException;
+import com.delivery.dvApp.exception.custom.InvalidLocationException;
+import com.delivery.dvApp.exception.custom.OrderExistsException;
 import com.delivery.dvApp.exception.custom.OrderHistoryNotFoundException;
+import com.delivery.dvApp.geo.CourierLocationBuffer;
+import com.delivery.dvApp.geo.CourierNeighbor;
+import com.delivery.dvApp.geo.CourierSpatialIndex;
 import com.delivery.dvApp.repository.CourierRepository;
 import com.delivery.dvApp.repository.OrderRepository;
 import com.delivery.dvApp.service.CourierService;
+import com.delivery.dvApp.track.CourierTrackStore;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 /**
@@ -41,6 +63,24 @@ public class CourierServiceTest {
     @Mock
     OrderRepository orderRepository;
 
+    @Spy
+    CourierSpatialIndex courierSpatialIndex = new CourierSpatialIndex();
+
+    @Mock
+    CourierLocationBuffer courierLocationBuffer;
+
+    @Mock
+    CourierTrackStore courierTrackStore;
+
+    @Mock
+    EtaEstimator etaEstimator;
+
+    @Mock
+    ActiveOrderCounters activeOrderCounters;
+
+    @Mock
+    OrderEventStreams orderEventStreams;
+
     @InjectMocks
     CourierService courierService;
 
@@ -70,7 +110,7 @@ public class CourierServiceTest {
      * <br><b>Expectation:</b>
      * <ul>
      * <li>Returns a list of {@link DeliveredOrderDto}.</li>
-     * <li>Data maps correctly from Order/Restaurant/Customer entities to the DTO.</li>
+     * <li>The projected rows are returned unchanged.</li>
      * </ul>
      */
     @Test
@@ -80,26 +120,21 @@ public class CourierServiceTest {
         courier.setId(1L);
 
 
-        Restaurant restaurant = new Restaurant();
-        restaurant.setName("Burger King");
-
-        Customer customer = new Customer();
-        customer.setAddress("Zlota 59");
-
-        Order order = new Order();
-        order.setId(2L);
-        order.setRestaurant(restaurant);
-        order.setCustomer(customer);
-        order.setDeliveredAt(LocalDateTime.of(2025, 10, 5, 12, 0));
-        order.setTotalPrice(BigDecimal.valueOf(25.50));
+        DeliveredOrderDto deliveredOrder = new DeliveredOrderDto(
+                2L,
+                "Burger King",
+                BigDecimal.valueOf(25.50),
+                LocalDateTime.of(2025, 10, 5, 12, 0),
+                "Zlota 59");
 
 
         when(courierRepository.findById(1L)).thenReturn(Optional.of(courier));
-        when(orderRepository.findByCourierIdAndStatus(1L, OrderStatus.DELIVERED))
-                .thenReturn(List.of(order));
+        when(orderRepository.findDeliveredOrdersByCourierIdAndStatus(eq(1L), eq(OrderStatus.DELIVERED), any(Pageable.class)))
+                .thenReturn(List.of(deliveredOrder));
 
         // Act
-        List<DeliveredOrderDto> result = courierService.getCourierHistory(1L);
+        CursorPageDto<DeliveredOrderDto> page = courierService.getCourierHistory(1L, null, 50);
+        List<DeliveredOrderDto> result = page.getItems();
 
         // Assert
         assertEquals(result.size(),1);
@@ -111,7 +146,8 @@ public class CourierServiceTest {
         assertEquals(dto.getTotalPrice(),BigDecimal.valueOf(25.50));
 
         verify(courierRepository).findById(1L);
-        verify(orderRepository).findByCourierIdAndStatus(1L, OrderStatus.DELIVERED);
+        assertNull(page.getNextCursor());
+        verify(orderRepository).findDeliveredOrdersByCourierIdAndStatus(1L, OrderStatus.DELIVERED, PageRequest.of(0, 51));
     }
 
     /**
@@ -127,7 +163,7 @@ public class CourierServiceTest {
 
         // Act and Assert
         CourierNotFoundException exception = assertThrows(CourierNotFoundException.class, () -> {
-            courierService.getCourierHistory(courierId);
+            courierService.getCourierHistory(courierId, null, 50);
         });
 
         assertEquals(exception.getMessage(),"There is no such courier exists.");
@@ -148,15 +184,311 @@ public class CourierServiceTest {
         when(courierRepository.findById(10L)).thenReturn(Optional.of(courier));
 
         // But order list is empty
-        when(orderRepository.findByCourierIdAndStatus(10L, OrderStatus.DELIVERED))
+        when(orderRepository.findDeliveredOrdersByCourierIdAndStatus(eq(10L), eq(OrderStatus.DELIVERED), any(Pageable.class)))
                 .thenReturn(Collections.emptyList());
 
         // Act and Assert
         OrderHistoryNotFoundException exception = assertThrows(OrderHistoryNotFoundException.class, () -> {
-            courierService.getCourierHistory(10L);
+            courierService.getCourierHistory(10L, null, 50);
         });
 
         assertEquals(exception.getMessage(),"Delivery history not found.");
     }
-}
 
+    /**
+     * Verifies keyset pagination of the delivery history.
+     * <p>
+     * <b>Scenario:</b> The courier has three deliveries and pages of two are requested.
+     * <br><b>Expectation:</b>
+     * <ul>
+     * <li>The first page holds two rows and a cursor pointing after the second row.</li>
+     * <li>The second page is read with the keyset of that row and has no further cursor.</li>
+     * </ul>
+     */
+    @Test
+    void getCourierHistory_ShouldPageWithKeysetCursor() {
+        // Arrange
+        Courier courier = new Courier();
+        courier.setId(1L);
+
+        LocalDateTime noon = LocalDateTime.of(2025, 10, 5, 12, 0);
+        DeliveredOrderDto newest = new DeliveredOrderDto(9L, "Burger King", BigDecimal.TEN, noon.plusHours(2), "Zlota 59");
+        DeliveredOrderDto middle = new DeliveredOrderDto(7L, "Burger King", BigDecimal.TEN, noon, "Zlota 59");
+        DeliveredOrderDto oldest = new DeliveredOrderDto(4L, "Burger King", BigDecimal.TEN, noon, "Zlota 59");
+
+        when(courierRepository.findById(1L)).thenReturn(Optional.of(courier));
+        when(orderRepository.findDeliveredOrdersByCourierIdAndStatus(1L, OrderStatus.DELIVERED, PageRequest.of(0, 3)))
+                .thenReturn(List.of(newest, middle, oldest));
+        when(orderRepository.findDeliveredOrdersByCourierIdAndStatusBefore(
+                1L, OrderStatus.DELIVERED, noon, 7L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(oldest));
+
+        // Act
+        CursorPageDto<DeliveredOrderDto> firstPage = courierService.getCourierHistory(1L, null, 2);
+        CursorPageDto<DeliveredOrderDto> secondPage = courierService.getCourierHistory(1L, firstPage.getNextCursor(), 2);
+
+        // Assert
+        assertEquals(List.of(newest, middle), firstPage.getItems());
+        assertNotNull(firstPage.getNextCursor());
+        assertEquals(List.of(oldest), secondPage.getItems());
+        assertNull(secondPage.getNextCursor());
+    }
+
+    /**
+     * Verifies that a cursor that was not produced by the service is rejected.
+     * <p>
+     * <b>Expectation:</b> Throws {@link InvalidCursorException} before the history is queried.
+     */
+    @Test
+    void getCourierHistory_ShouldThrowExceptionIfCursorIsInvalid() {
+        when(courierRepository.findById(1L)).thenReturn(Optional.of(new Courier()));
+
+        assertThrows(InvalidCursorException.class, () -> courierService.getCourierHistory(1L, "not-a-cursor", 50));
+        verifyNoInteractions(orderRepository);
+    }
+
+    /**
+     * Verifies that the streamed delivery history is read in keyset pages.
+     * <p>
+     * <b>Scenario:</b> The courier has 201 deliveries, all completed at the same time.
+     * <br><b>Expectation:</b> A full first page is followed by a page after the last
+     * order of the first one, and every delivery is handed over once, in order.
+     */
+    @Test
+    void streamCourierHistory_ShouldReadKeysetPages() {
+        //Arrange
+        LocalDateTime deliveredAt = LocalDateTime.of(2025, 10, 5, 12, 0);
+        List<DeliveredOrderDto> firstPage = new ArrayList<>();
+        for (long orderId = 300; orderId > 100; orderId--) {
+            firstPage.add(new DeliveredOrderDto(orderId, "Burger King", BigDecimal.TEN, deliveredAt, "Zlota 59"));
+        }
+        DeliveredOrderDto lastDelivery = new DeliveredOrderDto(100L, "Burger King", BigDecimal.TEN, deliveredAt, "Zlota 59");
+        when(courierRepository.findById(1L)).thenReturn(Optional.of(new Courier()));
+        when(orderRepository.findDeliveredOrdersByCourierIdAndStatus(1L, OrderStatus.DELIVERED, PageRequest.of(0, 200)))
+                .thenReturn(firstPage);
+        when(orderRepository.findDeliveredOrdersByCourierIdAndStatusBefore(1L, OrderStatus.DELIVERED,
+                deliveredAt, 101L, PageRequest.of(0, 200))).thenReturn(List.of(lastDelivery));
+
+        //Act
+        List<DeliveredOrderDto> streamed = new ArrayList<>();
+        courierService.streamCourierHistory(1L, streamed::add);
+
+        //Assert
+        assertEquals(201, streamed.size());
+        assertEquals(300L, streamed.get(0).getOrderId());
+        assertEquals(100L, streamed.get(200).getOrderId());
+    }
+
+    /**
+     * Verifies that nearby couriers are found from the in-memory index.
+     * <p>
+     * <b>Scenario:</b> Active couriers are loaded at startup; one of them is far away
+     * and one has no valid position.
+     * <br><b>Expectation:</b>
+     * <ul>
+     * <li>Only couriers within the radius are returned, closest first.</li>
+     * <li>A deleted courier disappears from the results.</li>
+     * </ul>
+     */
+    @Test
+    void findNearbyCouriers_shouldReturnClosestIndexedCouriers(){
+        //Arrange
+        Courier near = new Courier("Anna", Vehicle.BICYCLE, 52.2300, 21.0120, "+48111111111");
+        near.setId(1L);
+        Courier nearer = new Courier("Piotr", Vehicle.E_SCOOTER, 52.2298, 21.0123, "+48222222222");
+        nearer.setId(2L);
+        Courier far = new Courier("Jan", Vehicle.CAR, 50.0600, 19.9400, "+48333333333");
+        far.setId(3L);
+        Courier unknownPosition = new Courier("Ewa", Vehicle.CAR, null, null, "+48444444444");
+        unknownPosition.setId(4L);
+
+        when(courierRepository.findByDeletedFalse()).thenReturn(List.of(near, nearer, far, unknownPosition));
+        when(courierRepository.findById(2L)).thenReturn(Optional.of(nearer));
+        courierService.indexCourierLocations();
+
+        //Act
+        List<NearbyCourierDto> before = courierService.findNearbyCouriers(52.2297, 21.0122, 10, 5000);
+        courierService.deleteCourier(2L);
+        List<NearbyCourierDto> after = courierService.findNearbyCouriers(52.2297, 21.0122, 10, 5000);
+
+        //Assert
+        assertEquals(List.of(2L, 1L), before.stream().map(NearbyCourierDto::getCourierId).toList());
+        assertEquals(List.of(1L), after.stream().map(NearbyCourierDto::getCourierId).toList());
+    }
+
+    /**
+     * Verifies that a courier with orders in progress cannot be deleted.
+     * <p>
+     * <b>Scenario:</b> The active order counters report an accepted or picked up order for the courier.
+     * <br><b>Expectation:</b> An {@link OrderExistsException} is thrown, the courier is not saved
+     * and no order query is run.
+     */
+    @Test
+    void deleteCourier_shouldRejectCourierWithActiveOrders(){
+        //Arrange
+        Courier courier = new Courier("Alex", Vehicle.BICYCLE, 52.2300, 21.0000, "+48555444333");
+        courier.setId(1L);
+        when(courierRepository.findById(1L)).thenReturn(Optional.of(courier));
+        when(activeOrderCounters.courierHasOrderIn(1L, List.of(OrderStatus.ACCEPTED, OrderStatus.PICKED_UP)))
+                .thenReturn(true);
+
+        //Act & Assert
+        assertThrows(OrderExistsException.class, () -> courierService.deleteCourier(1L));
+        verify(courierRepository, never()).save(any(Courier.class));
+        verifyNoInteractions(orderRepository);
+    }
+
+    /**
+     * Verifies that a nearby search rejects coordinates outside the valid range.
+     */
+    @Test
+    void findNearbyCouriers_shouldRejectInvalidLocation(){
+        assertThrows(InvalidLocationException.class,
+                () -> courierService.findNearbyCouriers(151.15, 21.0, 10, 5000));
+    }
+
+    /**
+     * Verifies that a nearby search rejects a radius that is not a positive number.
+     * <p>
+     * <b>Scenario:</b> The radius is NaN, infinite, zero or negative, and the index is
+     * also asked directly with a NaN radius.
+     * <br><b>Expectation:</b> The service throws {@link InvalidLocationException}; the
+     * index returns nothing instead of searching forever.
+     */
+    @Test
+    void findNearbyCouriers_shouldRejectInvalidRadius(){
+        //Arrange
+        courierSpatialIndex.update(1L, Vehicle.CAR, 10.0, 10.0);
+
+        //Act & Assert
+        for (double radius : new double[]{Double.NaN, Double.POSITIVE_INFINITY, 0, -1}) {
+            assertThrows(InvalidLocationException.class,
+                    () -> courierService.findNearbyCouriers(10.0, 10.0, 10, radius));
+        }
+        List<CourierNeighbor> nearest = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> courierSpatialIndex.nearest(10, 10, 10, Double.NaN));
+        assertTrue(nearest.isEmpty());
+    }
+
+    /**
+     * Verifies that a nearby search close to a pole stays fast and complete.
+     * <p>
+     * <b>Scenario:</b> Couriers are indexed 0.1 degree from the north pole at longitudes
+     * 30 and 120 away from the search point, and 0.5 degree from it; the search uses the
+     * largest radius.
+     * <br><b>Expectation:</b> All three are found in distance order well within a few seconds.
+     */
+    @Test
+    void findNearbyCouriers_shouldSearchNearThePole(){
+        //Arrange
+        courierSpatialIndex.update(1L, Vehicle.CAR, 89.5, 0.0);
+        courierSpatialIndex.update(2L, Vehicle.CAR, 89.9, 120.0);
+        courierSpatialIndex.update(3L, Vehicle.CAR, 89.9, 30.0);
+
+        //Act
+        List<NearbyCourierDto> nearby = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> courierService.findNearbyCouriers(89.9, 0.0, 10, CourierSpatialIndex.MAX_SEARCH_METERS));
+
+        //Assert
+        assertEquals(List.of(3L, 2L, 1L), nearby.stream().map(NearbyCourierDto::getCourierId).toList());
+    }
+
+    /**
+     * Verifies that position reports are validated and handed to the location buffer.
+     * <p>
+     * <b>Scenario:</b> A batch holds reports of an indexed courier, one of them
+     * dated days ahead and one stale, a live courier that is not indexed yet, a
+     * deleted and an unknown courier, a report without a courier and one with an
+     * impossible latitude.
+     * <br><b>Expectation:</b>
+     * <ul>
+     * <li>The live courier is indexed with its vehicle; deleted and unknown couriers never reach the buffer.</li>
+     * <li>The future timestamp is clamped to shortly after the time of receipt.</li>
+     * <li>Only reports the buffer records are counted as accepted.</li>
+     * </ul>
+     */
+    @Test
+    void ingestLocations_shouldBufferValidReportsAndRejectInvalidOnes(){
+        //Arrange
+        courierSpatialIndex.update(1L, Vehicle.BICYCLE, 52.20, 21.00);
+        Courier live = new Courier("Alex", Vehicle.CAR, null, null, "+48555444333");
+        live.setId(2L);
+        Courier deleted = new Courier("Sam", Vehicle.CAR, null, null, "+48555444334");
+        deleted.setId(4L);
+        deleted.setDeleted(true);
+        when(courierRepository.findAllById(anyCollection())).thenReturn(List.of(live, deleted));
+        when(courierLocationBuffer.offer(anyLong(), anyDouble(), anyDouble(), any(LocalDateTime.class)))
+                .thenReturn(true, true, false);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<CourierLocationUpdateDto> updates = List.of(
+                new CourierLocationUpdateDto(1L, 52.23, 21.01, now.plusDays(3)),
+                new CourierLocationUpdateDto(2L, 52.24, 21.02, null),
+                new CourierLocationUpdateDto(4L, 52.25, 21.03, null),
+                new CourierLocationUpdateDto(5L, 52.26, 21.04, null),
+                new CourierLocationUpdateDto(null, 52.25, 21.03, now),
+                new CourierLocationUpdateDto(3L, 152.25, 21.03, now),
+                new CourierLocationUpdateDto(1L, 52.22, 21.00, now.minusSeconds(10)));
+        ArgumentCaptor<LocalDateTime> recordedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+
+        //Act
+        LocationBatchResultDto result = courierService.ingestLocations(updates);
+
+        //Assert
+        assertEquals(2, result.getAccepted());
+        assertEquals(5, result.getRejected());
+        assertEquals(Vehicle.CAR, courierSpatialIndex.get(2L).getVehicle());
+        assertNull(courierSpatialIndex.get(4L));
+        verify(courierLocationBuffer).offer(eq(1L), eq(52.23), eq(21.01), recordedAt.capture());
+        assertTrue(recordedAt.getValue().isBefore(now.plusMinutes(3)));
+        verify(courierLocationBuffer).offer(eq(2L), eq(52.24), eq(21.02), any(LocalDateTime.class));
+        verify(courierLocationBuffer, never()).offer(eq(4L), anyDouble(), anyDouble(), any());
+        verify(courierLocationBuffer, never()).offer(eq(5L), anyDouble(), anyDouble(), any());
+        verify(courierLocationBuffer, never()).offer(eq(3L), anyDouble(), anyDouble(), any());
+        verify(courierRepository, never()).save(any(Courier.class));
+    }
+
+    /**
+     * Verifies that active deliveries are returned in the order of the planned route.
+     * <p>
+     * <b>Scenario:</b> A courier at the west end of a street carries three orders
+     * picked up in the order east, west, middle, and one order without a drop-off location.
+     * <br><b>Expectation:</b>
+     * <ul>
+     * <li>Deliveries are ordered west to east, the unknown drop-off last.</li>
+     * <li>Stop numbers run from 1 in that order.</li>
+     * <li>Estimates add up the travel time of every leg; the unknown drop-off gets the typical estimate.</li>
+     * </ul>
+     */
+    @Test
+    void getActiveOrders_shouldFollowPlannedRoute(){
+        //Arrange
+        Courier courier = new Courier("Alex", Vehicle.BICYCLE, 52.2300, 21.0000, "+48555444333");
+        courier.setId(1L);
+        LocalDateTime now = LocalDateTime.now();
+        List<ActiveOrderDto> rows = List.of(
+                new ActiveOrderDto(10L, "Pizza", BigDecimal.TEN, now.minusMinutes(4), "East", "+481", 52.2300, 21.0300),
+                new ActiveOrderDto(11L, "Pizza", BigDecimal.TEN, now.minusMinutes(3), "Unknown", "+482", null, null),
+                new ActiveOrderDto(12L, "Pizza", BigDecimal.TEN, now.minusMinutes(2), "West", "+483", 52.2300, 21.0100),
+                new ActiveOrderDto(13L, "Pizza", BigDecimal.TEN, now.minusMinutes(1), "Middle", "+484", 52.2300, 21.0200));
+
+        when(courierRepository.findById(1L)).thenReturn(Optional.of(courier));
+        when(orderRepository.findActiveOrdersByCourierIdAndStatus(1L, OrderStatus.PICKED_UP)).thenReturn(rows);
+        when(etaEstimator.travelSeconds(eq(Vehicle.BICYCLE), anyDouble())).thenReturn(60.0);
+        LocalDateTime typical = now.plusMinutes(20);
+        when(etaEstimator.estimateAfterPickup(1L, Vehicle.BICYCLE, now.minusMinutes(3), null, null))
+                .thenReturn(typical);
+
+        //Act
+        List<ActiveOrderDto> result = courierService.getActiveOrders(1L);
+
+        //Assert
+        assertEquals(List.of(12L, 13L, 10L, 11L), result.stream().map(ActiveOrderDto::getOrderId).toList());
+        assertEquals(List.of(1, 2, 3, 4), result.stream().map(ActiveOrderDto::getStopNumber).toList());
+        assertEquals(Duration.ofMinutes(1), Duration.between(
+                result.get(0).getEstimatedDeliveryAt(), result.get(1).getEstimatedDeliveryAt()));
+        assertEquals(Duration.ofMinutes(1), Duration.between(
+                result.get(1).getEstimatedDeliveryAt(), result.get(2).getEstimatedDeliveryAt()));
+        assertEquals(typical, result.get(3).getEstimatedDeliveryAt());
+    }
+}
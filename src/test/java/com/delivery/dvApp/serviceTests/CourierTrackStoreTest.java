@@ -0,0 +1,171 @@
+package com.delivery.dvApp.serviceTests;
+
+import com.delivery.dvApp.track.CourierTrackStore;
+import com.delivery.dvApp.track.TrackPoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CourierTrackStore}.
+ * <p>
+ * Runs the store against segment files in a temporary directory.
+ */
+public class CourierTrackStoreTest {
+    private static final int SEGMENT_BYTES = 1 << 20;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Verifies that a time-range query returns exactly the points inside the range.
+     * <p>
+     * <b>Scenario:</b> A courier reports every 5 seconds for an hour, so most
+     * points are sealed into segments and the last ones are still in memory.
+     * <br><b>Expectation:</b> The query for a ten-minute window returns its
+     * 121 points in time order with the original coordinates (to 6 decimals).
+     */
+    @Test
+    void query_shouldReturnPointsWithinRange(){
+        //Arrange
+        CourierTrackStore store = new CourierTrackStore(directory, SEGMENT_BYTES, Duration.ofMinutes(1));
+        LocalDateTime start = LocalDateTime.of(2026, 3, 1, 10, 0);
+        for (int i = 0; i < 720; i++) {
+            store.append(1L, 52.2297 + i * 0.00001, 21.0122 - i * 0.00001, start.plusSeconds(i * 5L));
+        }
+        store.append(2L, 50.0, 19.0, start.plusMinutes(20));
+
+        //Act
+        List<TrackPoint> points = store.query(1L, start.plusMinutes(20), start.plusMinutes(30));
+
+        //Assert
+        assertEquals(121, points.size());
+        assertEquals(start.plusMinutes(20), points.get(0).getRecordedAt());
+        assertEquals(start.plusMinutes(30), points.get(120).getRecordedAt());
+        assertEquals(52.2297 + 240 * 0.00001, points.get(0).getLatitude(), 1e-6);
+        assertEquals(21.0122 - 240 * 0.00001, points.get(0).getLongitude(), 1e-6);
+        for (int i = 1; i < points.size(); i++) {
+            assertTrue(points.get(i - 1).getEpochMillis() < points.get(i).getEpochMillis());
+        }
+        store.close();
+    }
+
+    /**
+     * Verifies that tracks survive a restart and are split by day.
+     * <p>
+     * <b>Scenario:</b> A courier reports across midnight; the store is closed
+     * and a new one is opened on the same directory.
+     * <br><b>Expectation:</b>
+     * <ul>
+     * <li>Each day has its own segment file.</li>
+     * <li>The new store returns every point of both days.</li>
+     * <li>The files hold fewer than 8 bytes per point.</li>
+     * </ul>
+     */
+    @Test
+    void close_shouldPersistTracksAcrossRestarts() throws IOException {
+        //Arrange
+        CourierTrackStore store = new CourierTrackStore(directory, SEGMENT_BYTES, Duration.ofMinutes(1));
+        LocalDateTime start = LocalDateTime.of(2026, 3, 1, 23, 50);
+        for (int i = 0; i < 240; i++) {
+            store.append(7L, 52.2297 + i * 0.00002, 21.0122, start.plusSeconds(i * 5L));
+        }
+
+        //Act
+        store.close();
+        CourierTrackStore reopened = new CourierTrackStore(directory, SEGMENT_BYTES, Duration.ofMinutes(1));
+        List<TrackPoint> points = reopened.query(7L, start, start.plusHours(1));
+
+        //Assert
+        assertTrue(Files.exists(directory.resolve("track-2026-03-01-000.seg")));
+        assertTrue(Files.exists(directory.resolve("track-2026-03-02-000.seg")));
+        assertEquals(240, points.size());
+        assertEquals(start, points.get(0).getRecordedAt());
+        assertEquals(start.plusSeconds(239 * 5L), points.get(239).getRecordedAt());
+        assertTrue(usedBytes() < 240 * 8, "bytes per point");
+        reopened.close();
+    }
+
+    /**
+     * Verifies that days closed to make room for newer ones can still be queried.
+     * <p>
+     * <b>Scenario:</b> A courier reports positions on ten consecutive days, more
+     * than the store keeps open, and the blocks are written.
+     * <br><b>Expectation:</b> A query over the first, closed, days returns their points
+     * from the files, and the last day is still served from its open index.
+     */
+    @Test
+    void query_shouldReadDaysThatAreNoLongerOpen(){
+        //Arrange
+        CourierTrackStore store = new CourierTrackStore(directory, SEGMENT_BYTES, Duration.ZERO);
+        LocalDateTime start = LocalDateTime.of(2026, 3, 1, 12, 0);
+        for (int day = 0; day < 10; day++) {
+            for (int i = 0; i < 10; i++) {
+                store.append(7L, 52.2297 + i * 0.00002, 21.0122, start.plusDays(day).plusSeconds(i * 5L));
+            }
+            store.sealIdleBlocks();
+        }
+
+        //Act
+        List<TrackPoint> firstDays = store.query(7L, start, start.plusDays(2).plusHours(1));
+        List<TrackPoint> lastDay = store.query(7L, start.plusDays(9), start.plusDays(9).plusHours(1));
+
+        //Assert
+        assertEquals(30, firstDays.size());
+        assertEquals(start, firstDays.get(0).getRecordedAt());
+        assertEquals(10, lastDay.size());
+        store.close();
+    }
+
+    /**
+     * Verifies that an out-of-order report is stored rather than dropped.
+     * <p>
+     * <b>Scenario:</b> A report older than the previous one arrives.
+     * <br><b>Expectation:</b> The query returns all points sorted by time.
+     */
+    @Test
+    void append_shouldKeepOutOfOrderPoints(){
+        //Arrange
+        CourierTrackStore store = new CourierTrackStore(directory, SEGMENT_BYTES, Duration.ofMinutes(1));
+        LocalDateTime start = LocalDateTime.of(2026, 3, 1, 12, 0);
+        store.append(3L, 52.0, 21.0, start.plusSeconds(10));
+        store.append(3L, 52.1, 21.1, start);
+        store.append(3L, 52.2, 21.2, start.plusSeconds(20));
+
+        //Act
+        List<TrackPoint> points = store.query(3L, start, start.plusMinutes(1));
+
+        //Assert
+        assertEquals(3, points.size());
+        assertEquals(start, points.get(0).getRecordedAt());
+        assertEquals(52.1, points.get(0).getLatitude(), 1e-6);
+        store.close();
+    }
+
+    /**
+     * Counts the non-zero prefix of every segment file, i.e. the bytes actually written.
+     */
+    private long usedBytes() throws IOException {
+        long total = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                byte[] content = Files.readAllBytes(file);
+                int end = content.length;
+                while (end > 0 && content[end - 1] == 0) {
+                    end--;
+                }
+                total += end;
+            }
+        }
+        return total;
+    }
+}
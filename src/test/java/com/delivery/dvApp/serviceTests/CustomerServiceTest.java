@@ -1,10 +1,16 @@
 package com.delivery.dvApp.serviceTests;
 
+import com.delivery.dvApp.activeorder.ActiveOrderCounters;
 import com.delivery.dvApp.dto.ActiveOrderCustomerDto;
+import com.delivery.dvApp.dto.OrderItemDetailsView;
 import com.delivery.dvApp.entity.*;
 import com.delivery.dvApp.enums.OrderStatus;
+import com.delivery.dvApp.enums.Vehicle;
+import com.delivery.dvApp.event.OrderEventStreams;
+import com.delivery.dvApp.eta.EtaEstimator;
 import com.delivery.dvApp.exception.custom.CustomerNotFoundException;
 import com.delivery.dvApp.repository.CustomerRepository;
+import com.delivery.dvApp.repository.OrderItemRepository;
 import com.delivery.dvApp.repository.OrderRepository;
 import com.delivery.dvApp.service.CustomerService;
 import org.junit.jupiter.api.Test;
@@ -36,6 +42,18 @@ public class CustomerServiceTest {
     @Mock
     OrderRepository orderRepository;
 
+    @Mock
+    OrderItemRepository orderItemRepository;
+
+    @Mock
+    EtaEstimator etaEstimator;
+
+    @Mock
+    ActiveOrderCounters activeOrderCounters;
+
+    @Mock
+    OrderEventStreams orderEventStreams;
+
     @InjectMocks
     CustomerService customerService;
 
@@ -65,7 +83,9 @@ public class CustomerServiceTest {
      * <br><b>Expectation:</b>
      * <ul>
      * <li>Returns a list containing exactly one {@link ActiveOrderCustomerDto}.</li>
-     * <li>The DTO fields (Courier Name, Restaurant Name, Total, Items) match the entity data.</li>
+     * <li>The projected fields (Courier Name, Restaurant Name, Total) are kept.</li>
+     * <li>Items are attached from a single batched order line query.</li>
+     * <li>The delivery estimate comes from the in-memory estimator.</li>
      * </ul>
      */
     @Test
@@ -74,32 +94,33 @@ public class CustomerServiceTest {
         Customer customer = new Customer();
         customer.setId(1L);
 
-        Courier courier = new Courier();
-        courier.setName("Bruce Wayne");
-        courier.setPhoneNumber("+48123456789");
-
-        Restaurant restaurant = new Restaurant();
-        restaurant.setName("Gotham Pizza");
-
-        Item item = new Item();
-        item.setName("Pepperoni Pizza");
-
-
-        OrderItem orderItem = new OrderItem();
-        orderItem.setItem(item);
-        orderItem.setQuantity(2);
-
-
-        Order order = new Order();
-        order.setCourier(courier);
-        order.setRestaurant(restaurant);
-        order.setOrderItems(List.of(orderItem));
-        order.setTotalPrice(BigDecimal.valueOf(50.00));
-        order.setCreatedAt(LocalDateTime.now());
+        ActiveOrderCustomerDto activeOrder = new ActiveOrderCustomerDto(
+                5L,
+                "Gotham Pizza",
+                "Bruce Wayne",
+                "+48123456789",
+                LocalDateTime.now(),
+                BigDecimal.valueOf(50.00),
+                7L,
+                Vehicle.CAR,
+                52.2297,
+                21.0122,
+                52.2400,
+                21.0300);
+        LocalDateTime estimate = LocalDateTime.now().plusMinutes(15);
+
+        OrderItemDetailsView orderItem = mock(OrderItemDetailsView.class);
+        when(orderItem.getOrderId()).thenReturn(5L);
+        when(orderItem.getItemName()).thenReturn("Pepperoni Pizza");
+        when(orderItem.getQuantity()).thenReturn(2);
 
         when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
-        when(orderRepository.findByCustomerIdAndStatus(1L, OrderStatus.ACCEPTED))
-                .thenReturn(List.of(order));
+        when(orderRepository.findActiveOrdersByCustomerIdAndStatusIn(1L, List.of(OrderStatus.CREATED, OrderStatus.ACCEPTED)))
+                .thenReturn(List.of(activeOrder));
+        when(orderItemRepository.findItemDetailsByOrderIdIn(List.of(5L)))
+                .thenReturn(List.of(orderItem));
+        when(etaEstimator.estimateBeforePickup(7L, Vehicle.CAR, 52.2297, 21.0122, 52.2400, 21.0300))
+                .thenReturn(estimate);
 
         // Act
         List<ActiveOrderCustomerDto> result = customerService.viewActiveOrders(1l);
@@ -113,6 +134,7 @@ public class CustomerServiceTest {
         assertEquals(dto.getCourierName(),"Bruce Wayne");
         assertEquals(dto.getRestaurantName(),"Gotham Pizza");
         assertEquals(dto.getTotal(),BigDecimal.valueOf(50.00));
+        assertEquals(estimate, dto.getEstimatedDeliveryAt());
 
 
         assertEquals(dto.getItemDetailsDtos().size(),1);
@@ -121,7 +143,8 @@ public class CustomerServiceTest {
 
 
         verify(customerRepository).findById(1L);
-        verify(orderRepository).findByCustomerIdAndStatus(1L, OrderStatus.ACCEPTED);
+        verify(orderRepository).findActiveOrdersByCustomerIdAndStatusIn(1L, List.of(OrderStatus.CREATED, OrderStatus.ACCEPTED));
+        verify(orderItemRepository, times(1)).findItemDetailsByOrderIdIn(anyCollection());
     }
 
     /**
@@ -156,7 +179,7 @@ public class CustomerServiceTest {
         customer.setId(1L);
 
         when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
-        when(orderRepository.findByCustomerIdAndStatus(1L, OrderStatus.ACCEPTED))
+        when(orderRepository.findActiveOrdersByCustomerIdAndStatusIn(1L, List.of(OrderStatus.CREATED, OrderStatus.ACCEPTED)))
                 .thenReturn(Collections.emptyList());
 
         //Act
@@ -164,6 +187,25 @@ public class CustomerServiceTest {
 
         //Assert
         assertThat(result).isEmpty();
+        verifyNoInteractions(orderItemRepository);
     }
-}
 
+    /**
+     * Verifies that no event stream is opened for an unknown customer.
+     * <p>
+     * <b>Expectation:</b> Throws {@link CustomerNotFoundException} and no stream is registered.
+     */
+    @Test
+    void subscribeToOrderEvents_ShouldThrowExceptionIfCustomerIsNotFound() {
+        //Arrange
+        when(customerRepository.existsById(99L)).thenReturn(false);
+
+        //Act
+        CustomerNotFoundException exception = assertThrows(CustomerNotFoundException.class,
+                () -> customerService.subscribeToOrderEvents(99L));
+
+        //Assert
+        assertEquals("Customer not found.", exception.getMessage());
+        verifyNoInteractions(orderEventStreams);
+    }
+}
@@ -0,0 +1,64 @@
+package com.delivery.dvApp.serviceTests;
+
+import com.delivery.dvApp.dispatch.DispatchAssignment;
+import com.delivery.dvApp.dispatch.DispatchPlanner;
+import com.delivery.dvApp.dispatch.PendingOrder;
+import com.delivery.dvApp.enums.Vehicle;
+import com.delivery.dvApp.geo.CourierLocation;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark for {@link DispatchPlanner} on a city-sized batch.
+ * <p>
+ * Timing depends on the machine, so this class is not part of the regular
+ * test run; run it with {@code mvn test -Pbenchmark}.
+ */
+public class DispatchPlannerBenchmark {
+    private final DispatchPlanner planner = new DispatchPlanner(16, 10_000);
+
+    /**
+     * 5,000 pending orders and 5,000 idle couriers spread over a 20 km city.
+     * <p>
+     * <b>Scenario:</b> The planner is warmed up, then plans one full batch.
+     * <br><b>Expectation:</b>
+     * <ul>
+     * <li>The batch is planned in well under a second.</li>
+     * <li>No courier is assigned twice and almost every order gets a courier.</li>
+     * </ul>
+     */
+    @Test
+    void plan_shouldHandleFiveThousandOrdersAndCouriersUnderOneSecond(){
+        //Arrange
+        Random random = new Random(42);
+        List<PendingOrder> orders = new ArrayList<>();
+        List<CourierLocation> couriers = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            orders.add(new PendingOrder((long) i, 52.13 + random.nextDouble() * 0.2, 20.9 + random.nextDouble() * 0.32));
+            couriers.add(new CourierLocation((long) i, Vehicle.values()[i % Vehicle.values().length],
+                    52.13 + random.nextDouble() * 0.2, 20.9 + random.nextDouble() * 0.32));
+        }
+        for (int i = 0; i < 3; i++) {
+            planner.plan(orders, couriers);
+        }
+
+        //Act
+        long start = System.nanoTime();
+        List<DispatchAssignment> assignments = planner.plan(orders, couriers);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        //Assert
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(1)) < 0, "planning took " + elapsed.toMillis() + " ms");
+        Set<Long> usedCouriers = new HashSet<>();
+        assignments.forEach(assignment -> assertTrue(usedCouriers.add(assignment.getCourierId())));
+        assertTrue(assignments.size() > 4_900, "assigned " + assignments.size());
+    }
+}
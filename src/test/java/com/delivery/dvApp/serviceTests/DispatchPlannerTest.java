@@ -0,0 +1,110 @@
+package com.delivery.dvApp.serviceTests;
+
+import com.delivery.dvApp.dispatch.DispatchAssignment;
+import com.delivery.dvApp.dispatch.DispatchPlanner;
+import com.delivery.dvApp.dispatch.PendingOrder;
+import com.delivery.dvApp.enums.Vehicle;
+import com.delivery.dvApp.geo.CourierLocation;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link DispatchPlanner}.
+ * <p>
+ * Covers the quality of the matching; its speed on a city-sized batch is
+ * measured by {@link DispatchPlannerBenchmark}.
+ */
+public class DispatchPlannerTest {
+    private final DispatchPlanner planner = new DispatchPlanner(16, 10_000);
+
+    /**
+     * Verifies that the batch minimizes total travel time instead of serving orders greedily.
+     * <p>
+     * <b>Scenario:</b> Order A is 600 m from courier 1 and 1 km from courier 2;
+     * order B is 400 m from courier 1 and 2 km from courier 2.
+     * <br><b>Expectation:</b> A gets courier 2 and B gets courier 1, although
+     * courier 1 is the nearest one for both.
+     */
+    @Test
+    void plan_shouldMinimizeTotalTravelTime(){
+        //Arrange
+        double metersPerDegree = 111_195;
+        List<PendingOrder> orders = List.of(
+                new PendingOrder(100L, 52.2297, 21.0),
+                new PendingOrder(200L, 52.2297 + 1000 / metersPerDegree, 21.0));
+        List<CourierLocation> couriers = List.of(
+                new CourierLocation(1L, Vehicle.BICYCLE, 52.2297 + 600 / metersPerDegree, 21.0),
+                new CourierLocation(2L, Vehicle.BICYCLE, 52.2297 - 1000 / metersPerDegree, 21.0));
+
+        //Act
+        List<DispatchAssignment> assignments = planner.plan(orders, couriers);
+
+        //Assert
+        assertEquals(2, assignments.size());
+        assertEquals(2L, courierOf(assignments, 100L));
+        assertEquals(1L, courierOf(assignments, 200L));
+    }
+
+    /**
+     * Verifies that vehicle speed is part of the cost.
+     * <p>
+     * <b>Scenario:</b> A bicycle is 1 km from the pickup location and a car 1.5 km.
+     * <br><b>Expectation:</b> The car is assigned because it arrives sooner.
+     */
+    @Test
+    void plan_shouldPreferFasterVehicle(){
+        //Arrange
+        double metersPerDegree = 111_195;
+        List<PendingOrder> orders = List.of(new PendingOrder(100L, 52.2297, 21.0));
+        List<CourierLocation> couriers = List.of(
+                new CourierLocation(1L, Vehicle.BICYCLE, 52.2297 + 1000 / metersPerDegree, 21.0),
+                new CourierLocation(2L, Vehicle.CAR, 52.2297 - 1500 / metersPerDegree, 21.0));
+
+        //Act
+        List<DispatchAssignment> assignments = planner.plan(orders, couriers);
+
+        //Assert
+        assertEquals(2L, courierOf(assignments, 100L));
+        assertEquals(Vehicle.CAR.travelSeconds(1500), assignments.get(0).getTravelSeconds(), 1);
+    }
+
+    /**
+     * Verifies that compatible orders are bundled onto one courier.
+     * <p>
+     * <b>Scenario:</b> Three orders are picked up at the same restaurant; two go
+     * to neighbouring streets, the third to the other side of the city. Two
+     * couriers are idle.
+     * <br><b>Expectation:</b> The two neighbouring orders share a courier; the
+     * third one gets the other courier.
+     */
+    @Test
+    void plan_shouldBundleOrdersWithNearbyPickupAndDropoff(){
+        //Arrange
+        List<PendingOrder> orders = List.of(
+                new PendingOrder(100L, 52.2297, 21.0122, 52.2400, 21.0300),
+                new PendingOrder(200L, 52.2298, 21.0123, 52.2100, 20.9500),
+                new PendingOrder(300L, 52.2296, 21.0121, 52.2410, 21.0320));
+        List<CourierLocation> couriers = List.of(
+                new CourierLocation(1L, Vehicle.BICYCLE, 52.2290, 21.0122),
+                new CourierLocation(2L, Vehicle.BICYCLE, 52.2310, 21.0122));
+
+        //Act
+        List<DispatchAssignment> assignments = planner.plan(orders, couriers);
+
+        //Assert
+        assertEquals(3, assignments.size());
+        assertEquals(courierOf(assignments, 100L), courierOf(assignments, 300L));
+        assertNotEquals(courierOf(assignments, 100L), courierOf(assignments, 200L));
+    }
+
+    private static Long courierOf(List<DispatchAssignment> assignments, Long orderId) {
+        return assignments.stream()
+                .filter(assignment -> assignment.getOrderId().equals(orderId))
+                .findFirst()
+                .map(DispatchAssignment::getCourierId)
+                .orElse(null);
+    }
+}
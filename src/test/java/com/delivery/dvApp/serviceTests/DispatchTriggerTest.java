@@ -0,0 +1,51 @@
+package com.delivery.dvApp.serviceTests;
+
+import com.delivery.dvApp.dispatch.BatchDispatcher;
+import com.delivery.dvApp.dispatch.DispatchTrigger;
+import com.delivery.dvApp.enums.OrderStatus;
+import com.delivery.dvApp.event.OrderStatusEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link DispatchTrigger}.
+ * <p>
+ * Focuses on which order events start a dispatch run.
+ */
+@ExtendWith(MockitoExtension.class)
+public class DispatchTriggerTest {
+    @Mock
+    private BatchDispatcher batchDispatcher;
+
+    @InjectMocks
+    private DispatchTrigger dispatchTrigger;
+
+    /**
+     * Verifies that a new order without a courier starts a run right away.
+     * <p>
+     * <b>Scenario:</b> An order is created without a courier, another one with a
+     * courier, and a third order is accepted.
+     * <br><b>Expectation:</b> Exactly one run is started, for the order without a courier.
+     */
+    @Test
+    void orderCreated_shouldStartRunForOrdersWithoutCourier(){
+        //Arrange
+        LocalDateTime now = LocalDateTime.now();
+
+        //Act
+        dispatchTrigger.orderCreated(new OrderStatusEvent(1L, OrderStatus.CREATED, now, null, 10L, 20L));
+        dispatchTrigger.orderCreated(new OrderStatusEvent(2L, OrderStatus.CREATED, now, 5L, 10L, 20L));
+        dispatchTrigger.orderCreated(new OrderStatusEvent(3L, OrderStatus.ACCEPTED, now, null, 10L, 20L));
+
+        //Assert
+        verify(batchDispatcher, timeout(1000).times(1)).dispatch();
+        verify(batchDispatcher, after(100).times(1)).dispatch();
+    }
+}
@@ -0,0 +1,215 @@
+package com.delivery.dvApp.serviceTests;
+
+import com.delivery.dvApp.enums.OrderStatus;
+import com.delivery.dvApp.enums.Vehicle;
+import com.delivery.dvApp.eta.DeliverySample;
+import com.delivery.dvApp.eta.EtaEstimator;
+import com.delivery.dvApp.geo.CourierSpatialIndex;
+import com.delivery.dvApp.geo.GeoDistance;
+import com.delivery.dvApp.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link EtaEstimator}.
+ * <p>
+ * Focuses on how observed deliveries shape the estimates and which courier position is used.
+ */
+@ExtendWith(MockitoExtension.class)
+public class EtaEstimatorTest {
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Spy
+    private CourierSpatialIndex courierSpatialIndex = new CourierSpatialIndex();
+
+    @InjectMocks
+    private EtaEstimator etaEstimator;
+
+    /**
+     * Verifies that observed deliveries correct the speed profile of their vehicle only.
+     * <p>
+     * <b>Scenario:</b> The refresh reads 200 car deliveries that covered 2 km in 10 minutes,
+     * slower than the default car profile.
+     * <br><b>Expectation:</b>
+     * <ul>
+     * <li>Car travel times grow towards the observed speed.</li>
+     * <li>Typical car delivery time moves towards 10 minutes.</li>
+     * <li>Other vehicles keep their profile.</li>
+     * </ul>
+     */
+    @Test
+    void refresh_shouldShiftEstimatesTowardsObservedDeliveries(){
+        //Arrange
+        double carBefore = etaEstimator.travelSeconds(Vehicle.CAR, 2_000);
+        double bicycleBefore = etaEstimator.travelSeconds(Vehicle.BICYCLE, 2_000);
+        double dropoffLatitude = 52.2297 + 2_000 / GeoDistance.METERS_PER_DEGREE;
+
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        List<DeliverySample> samples = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime pickedAt = start.plusMinutes(i);
+            samples.add(new DeliverySample((long) i + 1, Vehicle.CAR, pickedAt, pickedAt.plusMinutes(10),
+                    52.2297, 21.0122, dropoffLatitude, 21.0122));
+        }
+        when(orderRepository.findDeliverySamples(eq(OrderStatus.DELIVERED), any(LocalDateTime.class),
+                anyLong(), any(Pageable.class))).thenReturn(samples);
+
+        //Act
+        etaEstimator.refresh();
+
+        //Assert
+        double carAfter = etaEstimator.travelSeconds(Vehicle.CAR, 2_000);
+        assertTrue(carAfter > carBefore);
+        assertTrue(carAfter <= 600 * 1.01);
+        assertTrue(etaEstimator.deliverySeconds(Vehicle.CAR) < 20 * 60);
+        assertTrue(etaEstimator.deliverySeconds(Vehicle.CAR) > 10 * 60);
+        assertEquals(bicycleBefore, etaEstimator.travelSeconds(Vehicle.BICYCLE, 2_000));
+        assertEquals(20 * 60, etaEstimator.deliverySeconds(Vehicle.BICYCLE));
+    }
+
+    /**
+     * Verifies that a refresh pages on delivery time and order ID.
+     * <p>
+     * <b>Scenario:</b> A full page of deliveries all completed at the same moment is
+     * followed by one more delivery from that moment.
+     * <br><b>Expectation:</b> The second page continues after the last order ID of the
+     * first page at the same delivery time, and the refresh stops after the short page.
+     */
+    @Test
+    void refresh_shouldPageOnDeliveryTimeAndId(){
+        //Arrange
+        LocalDateTime deliveredAt = LocalDateTime.now().plusSeconds(1);
+        List<DeliverySample> first = new ArrayList<>();
+        for (long orderId = 1; orderId <= 5_000; orderId++) {
+            first.add(sample(orderId, deliveredAt.minusMinutes(15), deliveredAt));
+        }
+        when(orderRepository.findDeliverySamples(eq(OrderStatus.DELIVERED), any(LocalDateTime.class),
+                eq(0L), any(Pageable.class))).thenReturn(first);
+        when(orderRepository.findDeliverySamples(OrderStatus.DELIVERED, deliveredAt, 5_000L, PageRequest.of(0, 5_000)))
+                .thenReturn(List.of(sample(5_001L, deliveredAt.minusMinutes(15), deliveredAt)));
+
+        //Act
+        etaEstimator.refresh();
+
+        //Assert
+        verify(orderRepository, times(2)).findDeliverySamples(eq(OrderStatus.DELIVERED), any(LocalDateTime.class),
+                anyLong(), any(Pageable.class));
+        assertTrue(etaEstimator.deliverySeconds(Vehicle.CAR) < 20 * 60);
+    }
+
+    /**
+     * Verifies that start-up reads only the latest deliveries of each vehicle and that
+     * a refresh picks up late commits without counting anything twice.
+     * <p>
+     * <b>Scenario:</b> Start-up reads one 10 minute car delivery. The next refresh
+     * reads it again together with a 30 minute delivery that was completed a minute
+     * earlier but committed later.
+     * <br><b>Expectation:</b>
+     * <ul>
+     * <li>Every vehicle asks for at most its window of latest deliveries.</li>
+     * <li>The refresh starts five minutes before the newest delivery seen.</li>
+     * <li>Both deliveries count exactly once.</li>
+     * </ul>
+     */
+    @Test
+    void refresh_shouldReadLateCommitsOnce(){
+        //Arrange
+        LocalDateTime deliveredAt = LocalDateTime.now().plusSeconds(1);
+        DeliverySample onTime = sample(1L, deliveredAt.minusMinutes(10), deliveredAt);
+        DeliverySample late = sample(2L, deliveredAt.minusMinutes(31), deliveredAt.minusMinutes(1));
+        when(orderRepository.findLatestDeliverySamples(eq(OrderStatus.DELIVERED), any(Vehicle.class),
+                eq(PageRequest.of(0, 256)))).thenReturn(List.of());
+        when(orderRepository.findLatestDeliverySamples(OrderStatus.DELIVERED, Vehicle.CAR, PageRequest.of(0, 256)))
+                .thenReturn(List.of(onTime));
+        when(orderRepository.findDeliverySamples(OrderStatus.DELIVERED, deliveredAt.minusMinutes(5), 0L,
+                PageRequest.of(0, 5_000))).thenReturn(List.of(late, onTime));
+
+        //Act
+        etaEstimator.load();
+        etaEstimator.refresh();
+
+        //Assert
+        verify(orderRepository, times(Vehicle.values().length)).findLatestDeliverySamples(
+                eq(OrderStatus.DELIVERED), any(Vehicle.class), eq(PageRequest.of(0, 256)));
+        assertEquals((20 * 60 * 20 + 10 * 60 + 30 * 60) / 22.0, etaEstimator.deliverySeconds(Vehicle.CAR), 1e-9);
+    }
+
+    /**
+     * Verifies the estimate of an order that has no courier yet.
+     * <p>
+     * <b>Scenario:</b> A motorbike courier is indexed 1 km from the pickup location;
+     * the order has no drop-off location.
+     * <br><b>Expectation:</b> The estimate is the motorbike's travel time to the pickup
+     * plus its typical delivery time.
+     */
+    @Test
+    void estimateBeforePickup_shouldUseNearestCourierWhenUnassigned(){
+        //Arrange
+        courierSpatialIndex.update(5L, Vehicle.MOTORBIKE, 52.2297 + 1_000 / GeoDistance.METERS_PER_DEGREE, 21.0122);
+        double expected = etaEstimator.travelSeconds(Vehicle.MOTORBIKE, 1_000)
+                + etaEstimator.deliverySeconds(Vehicle.MOTORBIKE);
+
+        //Act
+        LocalDateTime before = LocalDateTime.now();
+        LocalDateTime estimate = etaEstimator.estimateBeforePickup(null, null, 52.2297, 21.0122, null, null);
+        LocalDateTime after = LocalDateTime.now();
+
+        //Assert
+        long expectedMillis = Math.round(expected * 1000);
+        assertFalse(estimate.isBefore(before.plus(Duration.ofMillis(expectedMillis - 1000))));
+        assertFalse(estimate.isAfter(after.plus(Duration.ofMillis(expectedMillis + 1000))));
+    }
+
+    /**
+     * Verifies that nothing is estimated without a pickup location.
+     * <p>
+     * <b>Scenario:</b> The pickup coordinates are missing.
+     * <br><b>Expectation:</b> The estimate is null.
+     */
+    @Test
+    void estimateBeforePickup_shouldReturnNullWithoutPickupLocation(){
+        //Act
+        LocalDateTime estimate = etaEstimator.estimateBeforePickup(1L, Vehicle.CAR, null, null, 52.0, 21.0);
+
+        //Assert
+        assertNull(estimate);
+    }
+
+    /**
+     * Verifies the estimate of a picked up order whose courier position is unknown.
+     * <p>
+     * <b>Scenario:</b> The order was picked up 5 minutes ago by a bicycle courier
+     * that is not in the index.
+     * <br><b>Expectation:</b> The estimate is the pickup time plus the typical delivery time.
+     */
+    @Test
+    void estimateAfterPickup_shouldFallBackToTypicalDeliveryTime(){
+        //Arrange
+        LocalDateTime pickedAt = LocalDateTime.now().minusMinutes(5);
+
+        //Act
+        LocalDateTime estimate = etaEstimator.estimateAfterPickup(9L, Vehicle.BICYCLE, pickedAt, 52.0, 21.0);
+
+        //Assert
+        assertEquals(pickedAt.plusMinutes(20), estimate);
+    }
+
+    private static DeliverySample sample(Long orderId, LocalDateTime pickedAt, LocalDateTime deliveredAt) {
+        return new DeliverySample(orderId, Vehicle.CAR, pickedAt, deliveredAt, null, null, null, null);
+    }
+}
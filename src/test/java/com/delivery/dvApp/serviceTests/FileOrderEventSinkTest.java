@@ -0,0 +1,63 @@
+package com.delivery.dvApp.serviceTests;
+
+import com.delivery.dvApp.entity.OrderOutboxEntry;
+import com.delivery.dvApp.enums.OrderStatus;
+import com.delivery.dvApp.event.OrderStatusEvent;
+import com.delivery.dvApp.outbox.FileOrderEventSink;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link FileOrderEventSink}.
+ * <p>
+ * Focuses on the newline-delimited JSON written for each batch.
+ */
+public class FileOrderEventSinkTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * Verifies that batches are appended one JSON object per line.
+     * <p>
+     * <b>Scenario:</b> Two batches are sent; the file lives in a directory that does not exist yet.
+     * <br><b>Expectation:</b> The file holds one line per entry, in order, with the entry ID
+     * and the order status.
+     */
+    @Test
+    void send_shouldAppendOneLinePerEntry() throws IOException {
+        //Arrange
+        JsonMapper jsonMapper = JsonMapper.builder().build();
+        Path file = directory.resolve("outbox").resolve("order-events.ndjson");
+        FileOrderEventSink sink = new FileOrderEventSink(file, jsonMapper);
+
+        //Act
+        sink.send(List.of(entry(1L, OrderStatus.CREATED), entry(2L, OrderStatus.ACCEPTED)));
+        sink.send(List.of(entry(3L, OrderStatus.DELIVERED)));
+        sink.close();
+
+        //Assert
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(3, lines.size());
+        JsonNode last = jsonMapper.readTree(lines.get(2));
+        assertEquals(3L, last.get("id").asLong());
+        assertEquals("DELIVERED", last.get("status").asString());
+        assertEquals(30L, last.get("orderId").asLong());
+    }
+
+    private static OrderOutboxEntry entry(Long id, OrderStatus status){
+        OrderOutboxEntry entry = new OrderOutboxEntry(
+                new OrderStatusEvent(id * 10, status, LocalDateTime.now(), 7L, 100L, 50L));
+        entry.setId(id);
+        return entry;
+    }
+}
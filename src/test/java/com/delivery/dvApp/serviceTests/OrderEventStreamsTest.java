@@ -0,0 +1,171 @@
+package com.delivery.dvApp.serviceTests;
+
+import com.delivery.dvApp.enums.OrderStatus;
+import com.delivery.dvApp.event.OrderEventAudience;
+import com.delivery.dvApp.event.OrderEventStreams;
+import com.delivery.dvApp.event.OrderStatusEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link OrderEventStreams}.
+ * <p>
+ * Focuses on routing events to the right streams and on bounded buffering for slow clients.
+ */
+public class OrderEventStreamsTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    /**
+     * Verifies that an event only reaches the streams of the parties it concerns.
+     * <p>
+     * <b>Scenario:</b> Two customers and a restaurant are subscribed; an order of the
+     * first customer at that restaurant is accepted.
+     * <br><b>Expectation:</b> The first customer and the restaurant receive the event,
+     * the second customer receives nothing.
+     */
+    @Test
+    void publish_shouldReachOnlyTheOrdersParties() throws InterruptedException {
+        //Arrange
+        RecordingStreams streams = new RecordingStreams(8);
+        RecordingEmitter customer = streams.subscribeRecording(OrderEventAudience.CUSTOMER, 100L);
+        RecordingEmitter otherCustomer = streams.subscribeRecording(OrderEventAudience.CUSTOMER, 101L);
+        RecordingEmitter restaurant = streams.subscribeRecording(OrderEventAudience.RESTAURANT, 50L);
+
+        //Act
+        streams.publish(new OrderStatusEvent(1L, OrderStatus.ACCEPTED, NOW, 7L, 100L, 50L));
+
+        //Assert
+        assertTrue(customer.next().contains("event:order-status"));
+        assertTrue(restaurant.next().contains("event:order-status"));
+        assertNull(otherCustomer.sent.poll(100, TimeUnit.MILLISECONDS));
+        assertEquals(3, streams.subscriberCount());
+    }
+
+    /**
+     * Verifies that a slow client never buffers more than the limit.
+     * <p>
+     * <b>Scenario:</b> With a buffer of two, the client is still receiving the first event
+     * while three more are published.
+     * <br><b>Expectation:</b> The client receives the first event, one {@code resync} event
+     * in place of the dropped ones and then the latest event.
+     */
+    @Test
+    void publish_shouldReplaceOverflowWithResync() throws InterruptedException {
+        //Arrange
+        RecordingStreams streams = new RecordingStreams(2);
+        RecordingEmitter customer = streams.subscribeRecording(OrderEventAudience.CUSTOMER, 100L);
+        CountDownLatch release = customer.block();
+
+        //Act
+        streams.publish(new OrderStatusEvent(1L, OrderStatus.CREATED, NOW, null, 100L, 50L));
+        assertTrue(customer.blocked.await(5, TimeUnit.SECONDS));
+        streams.publish(new OrderStatusEvent(2L, OrderStatus.CREATED, NOW, null, 100L, 50L));
+        streams.publish(new OrderStatusEvent(3L, OrderStatus.CREATED, NOW, null, 100L, 50L));
+        streams.publish(new OrderStatusEvent(4L, OrderStatus.CREATED, NOW, null, 100L, 50L));
+        release.countDown();
+
+        //Assert
+        assertTrue(customer.next().contains("event:order-status"));
+        assertTrue(customer.next().contains("event:resync"));
+        assertTrue(customer.next().contains("event:order-status"));
+        assertNull(customer.sent.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Verifies that a stream is forgotten once its client goes away.
+     * <p>
+     * <b>Scenario:</b> Sending to the only stream fails.
+     * <br><b>Expectation:</b> The stream is removed.
+     */
+    @Test
+    void publish_shouldRemoveFailedStreams() throws InterruptedException {
+        //Arrange
+        RecordingStreams streams = new RecordingStreams(8);
+        RecordingEmitter courier = streams.subscribeRecording(OrderEventAudience.COURIER, 7L);
+        courier.fail = true;
+
+        //Act
+        streams.publish(new OrderStatusEvent(1L, OrderStatus.PICKED_UP, NOW, 7L, 100L, 50L));
+
+        //Assert
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (streams.subscriberCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, streams.subscriberCount());
+    }
+
+    /** Streams whose emitters record what they send. */
+    private static class RecordingStreams extends OrderEventStreams {
+        private RecordingEmitter last;
+
+        RecordingStreams(int bufferSize) {
+            super(bufferSize, Duration.ofMinutes(30));
+        }
+
+        RecordingEmitter subscribeRecording(OrderEventAudience audience, Long id) {
+            subscribe(audience, id);
+            return last;
+        }
+
+        @Override
+        protected SseEmitter newEmitter(long timeoutMillis) {
+            last = new RecordingEmitter(timeoutMillis);
+            return last;
+        }
+    }
+
+    /** Emitter that records sent events and can be made slow or broken. */
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private volatile CountDownLatch release;
+        private volatile boolean fail;
+
+        RecordingEmitter(long timeoutMillis) {
+            super(timeoutMillis);
+        }
+
+        CountDownLatch block() {
+            release = new CountDownLatch(1);
+            return release;
+        }
+
+        String next() throws InterruptedException {
+            String message = sent.poll(5, TimeUnit.SECONDS);
+            assertNotNull(message, "no event was sent");
+            return message;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (fail) {
+                throw new IOException("Broken pipe");
+            }
+            sent.add(builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining()));
+            CountDownLatch gate = release;
+            if (gate != null) {
+                release = null;
+                blocked.countDown();
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
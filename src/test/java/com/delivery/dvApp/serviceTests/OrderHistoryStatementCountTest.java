@@ -0,0 +1,199 @@
+package com.delivery.dvApp.serviceTests;
+
+import com.delivery.dvApp.dto.ActiveOrderCustomerDto;
+import com.delivery.dvApp.dto.ActiveOrderDto;
+import com.delivery.dvApp.dto.CursorPageDto;
+import com.delivery.dvApp.dto.DeliveredOrderDto;
+import com.delivery.dvApp.dto.OrderHistoryDto;
+import com.delivery.dvApp.entity.*;
+import com.delivery.dvApp.enums.Category;
+import com.delivery.dvApp.enums.OrderStatus;
+import com.delivery.dvApp.enums.Vehicle;
+import com.delivery.dvApp.service.CourierService;
+import com.delivery.dvApp.service.CustomerService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Statement count tests for the order history and active order views.
+ * <p>
+ * Runs the real services against an in-memory H2 database and counts the
+ * JDBC statements Hibernate prepares for each call. Every view must be
+ * served by a fixed number of statements, no matter how many orders and
+ * order lines the customer or courier has:
+ * <ul>
+ * <li>Customer views: customer lookup, order projection, order line projection.</li>
+ * <li>Courier views: courier lookup, order projection.</li>
+ * </ul>
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statement-count;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.sql.init.mode=never",
+        "scheduling.enabled=false"
+})
+@Transactional
+public class OrderHistoryStatementCountTest {
+    private static final int ORDER_COUNT = 25;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CourierService courierService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Customer customer;
+    private Courier courier;
+
+    /**
+     * Stores one customer and one courier with {@value #ORDER_COUNT} orders
+     * in every status, each with {@value #ITEMS_PER_ORDER} items, then clears
+     * the persistence context so every view has to go to the database.
+     */
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Restaurant restaurant = new Restaurant("Gotham Pizza", "Zlota 59", "+48111222333", Category.PIZZA);
+        entityManager.persist(restaurant);
+
+        customer = new Customer("Bruce Wayne", "Aleja Disney 13/64 02-888", "+48999888777");
+        entityManager.persist(customer);
+
+        courier = new Courier("Alex", Vehicle.MOTORBIKE, 52.23, 21.01, "+48555444333");
+        entityManager.persist(courier);
+
+        for (OrderStatus status : List.of(OrderStatus.ACCEPTED, OrderStatus.PICKED_UP, OrderStatus.DELIVERED)) {
+            for (int i = 0; i < ORDER_COUNT; i++) {
+                Order order = new Order();
+                order.setRestaurant(restaurant);
+                order.setCustomer(customer);
+                order.setCourier(courier);
+                order.setStatus(status);
+                order.setTotalPrice(BigDecimal.TEN);
+                order.setCreatedAt(LocalDateTime.now());
+                order.setPickedAt(LocalDateTime.now());
+                order.setDeliveredAt(LocalDateTime.now());
+                entityManager.persist(order);
+
+                for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+                    Item item = new Item("Pizza " + j, "Cheesy", restaurant, BigDecimal.valueOf(10));
+                    entityManager.persist(item);
+                    entityManager.persist(new OrderItem(order, item, 1, item.getPrice()));
+                }
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Customer order history: three statements per page of delivered orders and their items,
+     * for the first page as well as for a page reached through a cursor. The persistence
+     * context is cleared between the pages, so the second page cannot reuse the customer
+     * loaded by the first one.
+     */
+    @Test
+    void viewOrderHistory_ShouldUseConstantNumberOfStatements() {
+        CursorPageDto<OrderHistoryDto> firstPage =
+                countStatements(3, () -> customerService.viewOrderHistory(customer.getId(), null, 10));
+        entityManager.clear();
+        CursorPageDto<OrderHistoryDto> secondPage =
+                countStatements(3, () -> customerService.viewOrderHistory(customer.getId(), firstPage.getNextCursor(), 100));
+
+        assertEquals(10, firstPage.getItems().size());
+        assertEquals(ORDER_COUNT - 10, secondPage.getItems().size());
+        assertNull(secondPage.getNextCursor());
+        secondPage.getItems().forEach(order -> assertEquals(ITEMS_PER_ORDER, order.getItemDetailsDtos().size()));
+    }
+
+    /**
+     * Streamed customer order history: the statement count does not grow with the number of orders.
+     */
+    @Test
+    void streamOrderHistory_ShouldUseConstantNumberOfStatements() {
+        List<OrderHistoryDto> history = new ArrayList<>();
+        countStatements(3, () -> {
+            customerService.streamOrderHistory(customer.getId(), history::add);
+            return history;
+        });
+
+        assertEquals(ORDER_COUNT, history.size());
+        history.forEach(order -> assertEquals(ITEMS_PER_ORDER, order.getItemDetailsDtos().size()));
+    }
+
+    /**
+     * Customer active orders: three statements for all accepted orders and their items.
+     */
+    @Test
+    void viewActiveOrders_ShouldUseConstantNumberOfStatements() {
+        List<ActiveOrderCustomerDto> activeOrders =
+                countStatements(3, () -> customerService.viewActiveOrders(customer.getId()));
+
+        assertEquals(ORDER_COUNT, activeOrders.size());
+        activeOrders.forEach(order -> assertEquals(ITEMS_PER_ORDER, order.getItemDetailsDtos().size()));
+    }
+
+    /**
+     * Courier active orders: two statements for all picked up orders.
+     */
+    @Test
+    void getActiveOrders_ShouldUseConstantNumberOfStatements() {
+        List<ActiveOrderDto> activeOrders = countStatements(2, () -> courierService.getActiveOrders(courier.getId()));
+
+        assertEquals(ORDER_COUNT, activeOrders.size());
+    }
+
+    /**
+     * Courier delivery history: two statements per page of delivered orders.
+     */
+    @Test
+    void getCourierHistory_ShouldUseConstantNumberOfStatements() {
+        CursorPageDto<DeliveredOrderDto> history =
+                countStatements(2, () -> courierService.getCourierHistory(courier.getId(), null, 100));
+
+        assertEquals(ORDER_COUNT, history.getItems().size());
+    }
+
+    /**
+     * Runs the call and asserts how many JDBC statements it prepared.
+     *
+     * @param expected expected number of statements
+     * @param call     service call to measure
+     * @return result of the call
+     */
+    private <T> T countStatements(long expected, Supplier<T> call) {
+        statistics.clear();
+        T result = call.get();
+        assertEquals(expected, statistics.getPrepareStatementCount(), "prepared JDBC statements");
+        return result;
+    }
+}
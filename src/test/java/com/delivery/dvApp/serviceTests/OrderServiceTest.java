@@ -1,13 +1,27 @@
 package com.delivery.dvApp.serviceTests;
 
+import com.delivery.dvApp.activeorder.ActiveOrderCounters;
+import com.delivery.dvApp.activeorder.OpenOrder;
+import com.delivery.dvApp.dto.BulkTransitionRequestDto;
+import com.delivery.dvApp.dto.BulkTransitionResultDto;
 import com.delivery.dvApp.dto.ItemQuantityDto;
 import com.delivery.dvApp.dto.OrderRequestDto;
+import com.delivery.dvApp.dto.OrderTransitionDto;
+import com.delivery.dvApp.dto.OrderTransitionOutcomeDto;
 import com.delivery.dvApp.dto.ReceiptDto;
 import com.delivery.dvApp.entity.*;
 import com.delivery.dvApp.enums.Category;
 import com.delivery.dvApp.enums.OrderStatus;
+import com.delivery.dvApp.enums.TransitionOutcome;
 import com.delivery.dvApp.enums.Vehicle;
+import com.delivery.dvApp.eta.EtaEstimator;
+import com.delivery.dvApp.event.OrderStatusEvent;
+import com.delivery.dvApp.exception.custom.InvalidLocationException;
 import com.delivery.dvApp.exception.custom.InvalidOrderStatusException;
+import com.delivery.dvApp.exception.custom.InvalidQuantityException;
+import com.delivery.dvApp.exception.custom.ItemNotFoundException;
+import com.delivery.dvApp.exception.custom.OrderNotFoundException;
+import com.delivery.dvApp.exception.custom.TooManyOrdersException;
 import com.delivery.dvApp.repository.*;
 import com.delivery.dvApp.service.OrderService;
 import org.junit.jupiter.api.Test;
@@ -16,10 +30,14 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -55,6 +73,15 @@ public class OrderServiceTest {
     @Mock
     private OrderItemRepository orderItemRepository;
 
+    @Mock
+    private EtaEstimator etaEstimator;
+
+    @Mock
+    private ActiveOrderCounters activeOrderCounters;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -132,8 +159,7 @@ public class OrderServiceTest {
         when(restaurantRepository.findById(1L)).thenReturn(Optional.of(restaurant));
         when(customerRepository.findById(2L)).thenReturn(Optional.of(customer));
         when(courierRepository.findById(3L)).thenReturn(Optional.of(courier));
-        when(itemRepository.findById(10L)).thenReturn(Optional.of(item1));
-        when(itemRepository.findById(11L)).thenReturn(Optional.of(item2));
+        when(itemRepository.findByIdIn(Set.of(10L, 11L))).thenReturn(List.of(item1, item2));
 
         ArgumentCaptor<Order> orderCaptor = ArgumentCaptor.forClass(Order.class);
 
@@ -142,7 +168,10 @@ public class OrderServiceTest {
 
         // Assert
         verify(orderRepository).save(orderCaptor.capture());
-        verify(orderItemRepository, times(2)).save(any(OrderItem.class));
+        verify(itemRepository, times(1)).findByIdIn(anyCollection());
+        verify(itemRepository, never()).findById(anyLong());
+        verify(orderItemRepository, times(1)).saveAll(argThat(items -> ((List<OrderItem>) items).size() == 2));
+        verify(orderItemRepository, never()).save(any(OrderItem.class));
 
         Order savedOrder = orderCaptor.getValue();
 
@@ -204,8 +233,8 @@ public class OrderServiceTest {
                 .thenReturn(Optional.of(customer));
         when(courierRepository.findById(1L))
                 .thenReturn(Optional.of(courier));
-        when(itemRepository.findById(10L))
-                .thenReturn(Optional.of(item));
+        when(itemRepository.findByIdIn(Set.of(10L)))
+                .thenReturn(List.of(item));
 
         // THEN
         RuntimeException exception = assertThrows(
@@ -299,16 +328,14 @@ public class OrderServiceTest {
         when(restaurantRepository.findById(1L)).thenReturn(Optional.of(restaurant));
         when(customerRepository.findById(2L)).thenReturn(Optional.of(customer));
         when(courierRepository.findById(3L)).thenReturn(Optional.of(courier));
-        when(itemRepository.findById(10L)).thenReturn(Optional.of(item1));
-        when(itemRepository.findById(11L)).thenReturn(Optional.of(item2));
-        when(itemRepository.findById(12L)).thenReturn(Optional.of(item3));
+        when(itemRepository.findByIdIn(Set.of(10L, 11L, 12L))).thenReturn(List.of(item1, item2, item3));
 
         ArgumentCaptor<Order> orderCaptor = ArgumentCaptor.forClass(Order.class);
         //Act
         ReceiptDto receipt = orderService.createOrder(requestDto);
 
         verify(orderRepository).save(orderCaptor.capture());
-        verify(orderItemRepository, times(3)).save(any(OrderItem.class));
+        verify(orderItemRepository, times(1)).saveAll(argThat(items -> ((List<OrderItem>) items).size() == 3));
 
         Order savedOrder = orderCaptor.getValue();
 
@@ -318,25 +345,81 @@ public class OrderServiceTest {
 
     }
 
+    /**
+     * Verifies that a request referencing an unknown item is rejected.
+     * <p>
+     * <b>Scenario:</b> The batched item lookup returns fewer items than requested.
+     * <br><b>Expectation:</b> An {@link ItemNotFoundException} is thrown and nothing is saved.
+     */
+    @Test
+    void createOrder_shouldThrowExceptionWhenItemIsMissing() {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(1L);
+
+        ItemQuantityDto itemQuantityDto = new ItemQuantityDto();
+        itemQuantityDto.setItemId(42L);
+        itemQuantityDto.setQuantity(1);
+
+        OrderRequestDto requestDto = new OrderRequestDto(1L, 1L, 1L, List.of(itemQuantityDto));
+
+        when(restaurantRepository.findById(1L)).thenReturn(Optional.of(restaurant));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(new Customer()));
+        when(courierRepository.findById(1L)).thenReturn(Optional.of(new Courier()));
+        when(itemRepository.findByIdIn(Set.of(42L))).thenReturn(List.of());
+
+        ItemNotFoundException exception = assertThrows(
+                ItemNotFoundException.class,
+                () -> orderService.createOrder(requestDto)
+        );
+
+        assertEquals("Item Not Found", exception.getMessage());
+        verifyNoInteractions(orderItemRepository);
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    /**
+     * Verifies that quantities are validated before any item is loaded.
+     * <p>
+     * <b>Expectation:</b> An {@link InvalidQuantityException} is thrown without querying items.
+     */
+    @Test
+    void createOrder_shouldThrowExceptionWhenQuantityIsNotPositive() {
+        ItemQuantityDto itemQuantityDto = new ItemQuantityDto();
+        itemQuantityDto.setItemId(10L);
+        itemQuantityDto.setQuantity(0);
+
+        OrderRequestDto requestDto = new OrderRequestDto(1L, 1L, 1L, List.of(itemQuantityDto));
+
+        when(restaurantRepository.findById(1L)).thenReturn(Optional.of(new Restaurant()));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(new Customer()));
+        when(courierRepository.findById(1L)).thenReturn(Optional.of(new Courier()));
+
+        assertThrows(InvalidQuantityException.class, () -> orderService.createOrder(requestDto));
+        verifyNoInteractions(itemRepository);
+    }
+
     /**
      * Verifies the state transition from {@code CREATED} to {@code ACCEPTED}.
+     * <p>
+     * <b>Expectation:</b> The status is changed by a conditional update
+     * instead of saving the whole entity, and the order is not reloaded
+     * unless the caller expands it.
      */
     @Test
     void acceptOrder_shouldChangeStatusFromCreatedToAccepted(){
         // Arrange
-        Order order = new Order();
-        order.setId(1L);
-        order.setStatus(OrderStatus.CREATED);
-
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
-        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderRepository.updateStatus(1L, Set.of(OrderStatus.CREATED), OrderStatus.ACCEPTED)).thenReturn(1);
 
         // Act
-        Order acceptedOrder = orderService.acceptOrder(1L);
+        OrderTransitionDto acceptedOrder = orderService.acceptOrder(1L, false);
 
         // Assert
+        assertEquals(1L, acceptedOrder.getOrderId());
         assertEquals(OrderStatus.ACCEPTED, acceptedOrder.getStatus());
-        verify(orderRepository).save(order);
+        assertNotNull(acceptedOrder.getChangedAt());
+        assertNull(acceptedOrder.getOrder());
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(orderRepository, never()).findById(anyLong());
     }
 
     /**
@@ -345,19 +428,16 @@ public class OrderServiceTest {
     @Test
     void pickUpOrder_ShouldChangeStatusFromAcceptedToPickedUp(){
         //Arrange
-        Order order = new Order();
-        order.setId(1L);
-        order.setStatus(OrderStatus.ACCEPTED);
-
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
-        when(orderRepository.save(any(Order.class))).thenAnswer(invocation ->invocation.getArgument(0));
+        when(orderRepository.updateStatusAndPickedAt(
+                eq(1L), eq(Set.of(OrderStatus.ACCEPTED)), eq(OrderStatus.PICKED_UP), any(LocalDateTime.class)))
+                .thenReturn(1);
 
         //Act
-        Order pickedUpOrder = orderService.pickUpOrder(1L);
+        OrderTransitionDto pickedUpOrder = orderService.pickUpOrder(1L, false);
 
         //Assert
         assertEquals(OrderStatus.PICKED_UP,pickedUpOrder.getStatus());
-        verify(orderRepository).save(order);
+        verify(orderRepository, never()).save(any(Order.class));
     }
 
     /**
@@ -367,68 +447,81 @@ public class OrderServiceTest {
     void deliverOrder_ShouldChangeStatusFromPickedUpToDelivered(){
 
         //Arrange
-        Order order = new Order();
-        order.setId(1L);
-        order.setStatus(OrderStatus.PICKED_UP);
-
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
-        when(orderRepository.save(any(Order.class))).thenAnswer(invocation ->invocation.getArgument(0));
+        when(orderRepository.updateStatusAndDeliveredAt(
+                eq(1L), eq(Set.of(OrderStatus.PICKED_UP)), eq(OrderStatus.DELIVERED), any(LocalDateTime.class)))
+                .thenReturn(1);
 
         //Act
-        Order deliveredOrder = orderService.deliverOrder(1L);
+        OrderTransitionDto deliveredOrder = orderService.deliverOrder(1L, false);
 
         //Assert
         assertEquals(OrderStatus.DELIVERED,deliveredOrder.getStatus());
-        verify(orderRepository).save(order);
+        verify(orderRepository, never()).save(any(Order.class));
 
     }
 
     /**
      * Verifies that an order can be cancelled if it has not yet been delivered.
      * <p>
-     * <b>Scenario:</b> Order is currently {@code PICKED_UP} (or Created/Accepted).
-     * <br><b>Expectation:</b> Status changes to {@code CANCELLED}.
+     * <b>Scenario:</b> Order is currently {@code PICKED_UP} (or Created/Accepted)
+     * and the caller asks for the expanded order.
+     * <br><b>Expectation:</b> Status changes to {@code CANCELLED}, the full order is included,
+     * the order stops counting as active and its parties are notified.
      */
     @Test
     void cancelOrder_ShouldCancelOrderIfItIsNotDelivered(){
         //Arrange
         Order order = new Order();
         order.setId(1L);
-        order.setStatus(OrderStatus.PICKED_UP);
+        order.setStatus(OrderStatus.CANCELLED);
 
+        when(orderRepository.updateStatusAndCancelledAt(
+                eq(1L), argThat(sources -> sources.contains(OrderStatus.PICKED_UP)
+                        && !sources.contains(OrderStatus.DELIVERED)),
+                eq(OrderStatus.CANCELLED), any(LocalDateTime.class)))
+                .thenReturn(1);
         when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
-        when(orderRepository.save(any(Order.class))).thenAnswer(invocation ->invocation.getArgument(0));
+        when(activeOrderCounters.find(1L)).thenReturn(new OpenOrder(1L, 7L, 100L, 50L, OrderStatus.PICKED_UP));
 
         //Act
-        Order cancelledOrder = orderService.cancelOrder(1L);
+        OrderTransitionDto cancelledOrder = orderService.cancelOrder(1L, true);
 
         //Assert
         assertEquals(OrderStatus.CANCELLED,cancelledOrder.getStatus());
-        verify(orderRepository).save(order);
+        assertSame(order, cancelledOrder.getOrder());
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(activeOrderCounters).moved(1L, OrderStatus.CANCELLED);
+        ArgumentCaptor<OrderStatusEvent> event = ArgumentCaptor.forClass(OrderStatusEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(OrderStatus.CANCELLED, event.getValue().getStatus());
+        assertEquals(7L, event.getValue().getCourierId());
+        assertEquals(100L, event.getValue().getCustomerId());
+        assertEquals(50L, event.getValue().getRestaurantId());
 
     }
 
     /**
      * Verifies that a {@code DELIVERED} order cannot be cancelled.
      * <p>
-     * <b>Expectation:</b> An {@link InvalidOrderStatusException} is thrown.
+     * <b>Scenario:</b> The conditional update matches no row, but the order exists.
+     * <br><b>Expectation:</b> An {@link InvalidOrderStatusException} is thrown.
      */
     @Test
     void cancelOrder_ShouldThrowExceptionIfItOrderDelivered(){
         //GIVEN
-        Order order = new Order();
-        order.setId(1L);
-        order.setStatus(OrderStatus.DELIVERED); // It has to be CREATED OR ACCEPTED in order to cancel the order
-
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.updateStatusAndCancelledAt(eq(1L), anyCollection(), eq(OrderStatus.CANCELLED), any(LocalDateTime.class)))
+                .thenReturn(0);
+        when(orderRepository.existsById(1L)).thenReturn(true);
 
       //THEN
         InvalidOrderStatusException exception = assertThrows(
                 InvalidOrderStatusException.class,
-                () -> orderService.cancelOrder(1L)
+                () -> orderService.cancelOrder(1L, false)
         );
 
         assertEquals("Delivered order cannot be cancelled", exception.getMessage());
+        verifyNoInteractions(activeOrderCounters);
+        verifyNoInteractions(eventPublisher);
     }
 
 
@@ -436,23 +529,190 @@ public class OrderServiceTest {
      * Verifies strict order flow enforcement: an order cannot be delivered
      * unless it has previously been marked as {@code PICKED_UP}.
      * <p>
-     * <b>Scenario:</b> Attempting to deliver an {@code ACCEPTED} order.
+     * <b>Scenario:</b> Attempting to deliver an {@code ACCEPTED} order, so the conditional update matches no row.
      * <br><b>Expectation:</b> An {@link InvalidOrderStatusException} is thrown.
      */
     @Test
     void deliverOrder_ShouldThrowException_IfOrderNotPickedUp() {
-        Order order = new Order();
-        order.setId(1L);
-        order.setStatus(OrderStatus.ACCEPTED); // Order has to be PICKED_UP before delivery
-
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.updateStatusAndDeliveredAt(eq(1L), anyCollection(), eq(OrderStatus.DELIVERED), any(LocalDateTime.class)))
+                .thenReturn(0);
+        when(orderRepository.existsById(1L)).thenReturn(true);
 
         InvalidOrderStatusException exception = assertThrows(
                 InvalidOrderStatusException.class,
-                () -> orderService.deliverOrder(1L)
+                () -> orderService.deliverOrder(1L, false)
         );
 
         assertEquals("Order Must be PICKED_UP before delivery.", exception.getMessage());
     }
 
+    /**
+     * Verifies that a transition on an unknown order reports the order as missing.
+     * <p>
+     * <b>Scenario:</b> The conditional update matches no row and the order does not exist.
+     * <br><b>Expectation:</b> An {@link OrderNotFoundException} is thrown.
+     */
+    @Test
+    void acceptOrder_ShouldThrowException_IfOrderDoesNotExist() {
+        when(orderRepository.updateStatus(eq(99L), anyCollection(), eq(OrderStatus.ACCEPTED))).thenReturn(0);
+        when(orderRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(OrderNotFoundException.class, () -> orderService.acceptOrder(99L, false));
+        verify(orderRepository, never()).findById(anyLong());
+    }
+
+    /**
+     * Verifies that an order without a courier is left for batch dispatch.
+     * <p>
+     * <b>Scenario:</b> A customer orders without naming a courier and gives the pickup location.
+     * <br><b>Expectation:</b>
+     * <ul>
+     * <li>The order is saved without a courier and with the pickup location.</li>
+     * <li>No courier is looked up.</li>
+     * <li>The receipt carries the estimate made without a courier.</li>
+     * </ul>
+     */
+    @Test
+    void createOrder_shouldLeaveOrderForDispatchWhenNoCourierGiven(){
+        //Arrange
+        Restaurant restaurant = new Restaurant("Vegan Place", "Aleja Parisowska 99/15", "+48111222333", Category.VEGAN);
+        restaurant.setId(1L);
+        Customer customer = new Customer("John", "Aleja Disney 13/64 02-888", "+48999888777");
+        customer.setId(2L);
+        Item item = new Item("Vegan Burger", "Plant based", restaurant, BigDecimal.valueOf(25));
+        item.setId(10L);
+
+        ItemQuantityDto quantity = new ItemQuantityDto();
+        quantity.setItemId(10L);
+        quantity.setQuantity(1);
+
+        OrderRequestDto requestDto = new OrderRequestDto();
+        requestDto.setRestaurantId(1L);
+        requestDto.setCustomerId(2L);
+        requestDto.setPickupLatitude(52.2297);
+        requestDto.setPickupLongitude(21.0122);
+        requestDto.setItemToQuantities(List.of(quantity));
+
+        when(restaurantRepository.findById(1L)).thenReturn(Optional.of(restaurant));
+        when(customerRepository.findById(2L)).thenReturn(Optional.of(customer));
+        when(itemRepository.findByIdIn(Set.of(10L))).thenReturn(List.of(item));
+        LocalDateTime estimate = LocalDateTime.now().plusMinutes(25);
+        when(etaEstimator.estimateBeforePickup(null, null, 52.2297, 21.0122, null, null)).thenReturn(estimate);
+
+        ArgumentCaptor<Order> orderCaptor = ArgumentCaptor.forClass(Order.class);
+
+        //Act
+        ReceiptDto receipt = orderService.createOrder(requestDto);
+
+        //Assert
+        verify(orderRepository).save(orderCaptor.capture());
+        assertNull(orderCaptor.getValue().getCourier());
+        assertEquals(52.2297, orderCaptor.getValue().getPickupLatitude());
+        assertEquals(21.0122, orderCaptor.getValue().getPickupLongitude());
+        verify(courierRepository, never()).findById(anyLong());
+        assertEquals(estimate, receipt.getEstimatedDeliveryAt());
+    }
+
+    /**
+     * Verifies that an order without a courier requires a pickup location.
+     * <p>
+     * <b>Scenario:</b> Neither a courier nor pickup coordinates are given.
+     * <br><b>Expectation:</b> An {@link InvalidLocationException} is thrown.
+     */
+    @Test
+    void createOrder_shouldThrowWhenAutoAssignHasNoPickupLocation(){
+        //Arrange
+        Restaurant restaurant = new Restaurant("Vegan Place", "Aleja Parisowska 99/15", "+48111222333", Category.VEGAN);
+        Customer customer = new Customer("John", "Aleja Disney 13/64 02-888", "+48999888777");
+
+        OrderRequestDto requestDto = new OrderRequestDto();
+        requestDto.setRestaurantId(1L);
+        requestDto.setCustomerId(2L);
+
+        when(restaurantRepository.findById(1L)).thenReturn(Optional.of(restaurant));
+        when(customerRepository.findById(2L)).thenReturn(Optional.of(customer));
+
+        //Act & Assert
+        assertThrows(InvalidLocationException.class, () -> orderService.createOrder(requestDto));
+    }
+
+    /**
+     * Verifies that a bulk accept moves every eligible order with one update
+     * and reports the others individually.
+     * <p>
+     * <b>Scenario:</b> Four IDs are given, one of them twice: two created orders,
+     * one already accepted order and one that does not exist.
+     * <br><b>Expectation:</b>
+     * <ul>
+     * <li>The created orders are accepted by a single set-based update.</li>
+     * <li>The accepted order is reported with its status, the missing one as not found,
+     * in the order the IDs were given.</li>
+     * <li>Each moved order is published and passed to the counters.</li>
+     * </ul>
+     */
+    @Test
+    void transitionOrders_shouldApplyAllowedTransitionsInOneUpdate(){
+        //Arrange
+        List<Long> orderIds = List.of(1L, 2L, 3L, 1L, 4L);
+        when(orderRepository.findOpenOrderStates(List.of(1L, 2L, 3L, 4L))).thenReturn(List.of(
+                new OpenOrder(1L, null, 100L, 50L, OrderStatus.CREATED),
+                new OpenOrder(2L, 7L, 101L, 50L, OrderStatus.ACCEPTED),
+                new OpenOrder(4L, null, 102L, 50L, OrderStatus.CREATED)));
+        when(orderRepository.updateStatusIn(List.of(1L, 4L), Set.of(OrderStatus.CREATED), OrderStatus.ACCEPTED))
+                .thenReturn(2);
+
+        //Act
+        BulkTransitionResultDto result = orderService.transitionOrders(
+                new BulkTransitionRequestDto(orderIds, OrderStatus.ACCEPTED));
+
+        //Assert
+        assertEquals(2, result.getApplied());
+        assertEquals(OrderStatus.ACCEPTED, result.getStatus());
+        List<OrderTransitionOutcomeDto> outcomes = result.getOutcomes();
+        assertEquals(4, outcomes.size());
+        assertEquals(TransitionOutcome.APPLIED, outcomes.get(0).getOutcome());
+        assertEquals(TransitionOutcome.INVALID_STATUS, outcomes.get(1).getOutcome());
+        assertEquals(OrderStatus.ACCEPTED, outcomes.get(1).getStatus());
+        assertEquals(TransitionOutcome.NOT_FOUND, outcomes.get(2).getOutcome());
+        assertEquals(4L, outcomes.get(3).getOrderId());
+        verify(orderRepository).lockOrders(List.of(1L, 2L, 3L, 4L));
+        verify(orderRepository, times(1)).updateStatusIn(anyCollection(), anyCollection(), any());
+        verify(orderRepository, never()).updateStatus(anyLong(), anyCollection(), any());
+        verify(eventPublisher, times(2)).publishEvent(any(OrderStatusEvent.class));
+        verify(activeOrderCounters).moved(1L, OrderStatus.ACCEPTED);
+        verify(activeOrderCounters).moved(4L, OrderStatus.ACCEPTED);
+    }
+
+    /**
+     * Verifies that a bulk request cannot move orders back to {@code CREATED}.
+     * <p>
+     * <b>Expectation:</b> An {@link InvalidOrderStatusException} is thrown and nothing is read or written.
+     */
+    @Test
+    void transitionOrders_shouldRejectStatusWithoutTransition(){
+        //Act & Assert
+        assertThrows(InvalidOrderStatusException.class, () -> orderService.transitionOrders(
+                new BulkTransitionRequestDto(List.of(1L), OrderStatus.CREATED)));
+        verifyNoInteractions(orderRepository, eventPublisher);
+    }
+
+    /**
+     * Verifies that a bulk request is limited in size.
+     * <p>
+     * <b>Scenario:</b> One order more than the limit is given.
+     * <br><b>Expectation:</b> A {@link TooManyOrdersException} is thrown before any order is locked.
+     */
+    @Test
+    void transitionOrders_shouldRejectTooManyOrders(){
+        //Arrange
+        List<Long> orderIds = new ArrayList<>();
+        for(long id = 1; id <= 501; id++){
+            orderIds.add(id);
+        }
+
+        //Act & Assert
+        assertThrows(TooManyOrdersException.class, () -> orderService.transitionOrders(
+                new BulkTransitionRequestDto(orderIds, OrderStatus.CANCELLED)));
+        verifyNoInteractions(orderRepository);
+    }
 }
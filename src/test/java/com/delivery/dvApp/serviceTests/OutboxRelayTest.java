@@ -0,0 +1,129 @@
+package com.delivery.dvApp.serviceTests;
+
+import com.delivery.dvApp.entity.OrderOutboxEntry;
+import com.delivery.dvApp.enums.OrderStatus;
+import com.delivery.dvApp.event.OrderStatusEvent;
+import com.delivery.dvApp.outbox.InMemoryOrderEventSink;
+import com.delivery.dvApp.outbox.OrderEventSink;
+import com.delivery.dvApp.outbox.OutboxRelay;
+import com.delivery.dvApp.repository.OrderOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link OutboxRelay}.
+ * <p>
+ * Focuses on draining the outbox in batches and keeping entries the sink did not accept.
+ */
+@ExtendWith(MockitoExtension.class)
+public class OutboxRelayTest {
+    @Mock
+    private OrderOutboxRepository outboxRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void runCallbacksInline(){
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    /**
+     * Verifies that the outbox is drained batch by batch.
+     * <p>
+     * <b>Scenario:</b> With a batch size of two, the outbox holds three entries.
+     * <br><b>Expectation:</b>
+     * <ul>
+     * <li>Two batches are relayed, each in its own transaction.</li>
+     * <li>The sink receives all entries in order.</li>
+     * <li>Every relayed entry is deleted.</li>
+     * </ul>
+     */
+    @Test
+    void relay_shouldDrainOutboxInBatches(){
+        //Arrange
+        InMemoryOrderEventSink sink = new InMemoryOrderEventSink();
+        OutboxRelay relay = new OutboxRelay(outboxRepository, sink, transactionTemplate, 2);
+        when(outboxRepository.lockNextBatch(2)).thenReturn(
+                List.of(entry(1L, OrderStatus.CREATED), entry(2L, OrderStatus.ACCEPTED)),
+                List.of(entry(3L, OrderStatus.PICKED_UP)));
+
+        //Act
+        int relayed = relay.relay();
+
+        //Assert
+        assertEquals(3, relayed);
+        verify(transactionTemplate, times(2)).execute(any());
+        List<Long> ids = new ArrayList<>();
+        sink.entries().forEach(entry -> ids.add(entry.getId()));
+        assertEquals(List.of(1L, 2L, 3L), ids);
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(3L));
+    }
+
+    /**
+     * Verifies that a batch the sink rejects stays in the outbox.
+     * <p>
+     * <b>Scenario:</b> The sink fails with an I/O error.
+     * <br><b>Expectation:</b> The error is rethrown, so the transaction rolls back,
+     * and nothing is deleted.
+     */
+    @Test
+    void relay_shouldKeepEntriesWhenSinkFails() throws IOException {
+        //Arrange
+        OrderEventSink sink = mock(OrderEventSink.class);
+        doThrow(new IOException("disk full")).when(sink).send(anyList());
+        OutboxRelay relay = new OutboxRelay(outboxRepository, sink, transactionTemplate, 2);
+        when(outboxRepository.lockNextBatch(2)).thenReturn(List.of(entry(1L, OrderStatus.CREATED)));
+
+        //Act
+        assertThrows(UncheckedIOException.class, relay::relay);
+
+        //Assert
+        verify(outboxRepository, never()).deleteAllByIdInBatch(anyList());
+    }
+
+    /**
+     * Verifies that an empty outbox costs a single query.
+     * <p>
+     * <b>Scenario:</b> The outbox holds no entries.
+     * <br><b>Expectation:</b> Nothing is relayed or deleted.
+     */
+    @Test
+    void relay_shouldDoNothingWhenOutboxIsEmpty(){
+        //Arrange
+        InMemoryOrderEventSink sink = new InMemoryOrderEventSink();
+        OutboxRelay relay = new OutboxRelay(outboxRepository, sink, transactionTemplate, 2);
+        when(outboxRepository.lockNextBatch(2)).thenReturn(List.of());
+
+        //Act
+        int relayed = relay.relay();
+
+        //Assert
+        assertEquals(0, relayed);
+        assertTrue(sink.entries().isEmpty());
+        verify(outboxRepository, never()).deleteAllByIdInBatch(anyList());
+    }
+
+    private static OrderOutboxEntry entry(Long id, OrderStatus status){
+        OrderOutboxEntry entry = new OrderOutboxEntry(
+                new OrderStatusEvent(id * 10, status, LocalDateTime.now(), 7L, 100L, 50L));
+        entry.setId(id);
+        return entry;
+    }
+}
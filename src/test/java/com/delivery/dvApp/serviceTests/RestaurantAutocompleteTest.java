@@ -0,0 +1,123 @@
+package com.delivery.dvApp.serviceTests;
+
+import com.delivery.dvApp.dto.RestaurantSuggestionDto;
+import com.delivery.dvApp.entity.Restaurant;
+import com.delivery.dvApp.enums.Category;
+import com.delivery.dvApp.enums.OrderStatus;
+import com.delivery.dvApp.event.OrderStatusEvent;
+import com.delivery.dvApp.repository.OrderRepository;
+import com.delivery.dvApp.repository.RestaurantRepository;
+import com.delivery.dvApp.search.RestaurantAutocomplete;
+import com.delivery.dvApp.search.RestaurantPopularity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link RestaurantAutocomplete}.
+ * <p>
+ * Focuses on prefix matching, popularity ranking and incremental updates.
+ */
+@ExtendWith(MockitoExtension.class)
+public class RestaurantAutocompleteTest {
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    /**
+     * Verifies that any word of a name can be completed, most popular restaurant first.
+     * <p>
+     * <b>Scenario:</b> Four restaurants with different delivery counts are loaded and
+     * looked up by the start of their first word, a later word, an accent-free spelling
+     * and a prefix that matches nothing.
+     * <br><b>Expectation:</b> Each lookup returns the restaurants with a matching word,
+     * ordered by popularity and cut at the limit.
+     */
+    @Test
+    void suggest_shouldMatchWordPrefixesByPopularity(){
+        //Arrange
+        RestaurantAutocomplete autocomplete = loadedAutocomplete();
+
+        //Act
+        List<RestaurantSuggestionDto> piz = autocomplete.suggest("piz", 10);
+        List<RestaurantSuggestionDto> napo = autocomplete.suggest("NAPO", 10);
+        List<RestaurantSuggestionDto> cafe = autocomplete.suggest("cafe c", 10);
+        List<RestaurantSuggestionDto> pizzaDi = autocomplete.suggest("pizza di", 10);
+
+        //Assert
+        assertEquals(List.of(2L, 1L), ids(piz));
+        assertEquals(List.of(3L, 1L), ids(napo));
+        assertEquals(List.of(4L), ids(cafe));
+        assertEquals("Café Crème", cafe.get(0).getName());
+        assertEquals(List.of(1L), ids(pizzaDi));
+        assertEquals(List.of(2L), ids(autocomplete.suggest("piz", 1)));
+        assertTrue(autocomplete.suggest("sushi", 10).isEmpty());
+        assertTrue(autocomplete.suggest("  ", 10).isEmpty());
+    }
+
+    /**
+     * Verifies that renames, removals and deliveries are reflected immediately.
+     * <p>
+     * <b>Scenario:</b> One restaurant is renamed, another removed, and a third one
+     * gets two more deliveries than the restaurant ahead of it.
+     * <br><b>Expectation:</b> The old name and the removed restaurant are no longer
+     * suggested, the new name is, and the ranking follows the new delivery counts.
+     */
+    @Test
+    void suggest_shouldFollowRenamesRemovalsAndDeliveries(){
+        //Arrange
+        RestaurantAutocomplete autocomplete = loadedAutocomplete();
+
+        //Act
+        autocomplete.put(1L, "Trattoria Napoli");
+        autocomplete.remove(List.of(2L));
+        for (int i = 0; i < 21; i++) {
+            autocomplete.countDelivery(new OrderStatusEvent((long) i, OrderStatus.DELIVERED,
+                    LocalDateTime.now(), 7L, 100L, 1L));
+        }
+        autocomplete.countDelivery(new OrderStatusEvent(99L, OrderStatus.PICKED_UP, LocalDateTime.now(), 7L, 100L, 3L));
+
+        //Assert
+        assertTrue(autocomplete.suggest("piz", 10).isEmpty());
+        assertEquals(List.of(1L), ids(autocomplete.suggest("trat", 10)));
+        assertEquals(List.of(1L, 3L), ids(autocomplete.suggest("napoli", 10)));
+    }
+
+    private RestaurantAutocomplete loadedAutocomplete() {
+        when(restaurantRepository.findByDeletedFalse()).thenReturn(List.of(
+                restaurant(1L, "Pizza Di Napoli"),
+                restaurant(2L, "Pizzeria Roma"),
+                restaurant(3L, "Napoli Express"),
+                restaurant(4L, "Café Crème")));
+        when(orderRepository.countDeliveredOrdersByRestaurant(eq(OrderStatus.DELIVERED), any())).thenReturn(List.of(
+                new RestaurantPopularity(1L, 10L),
+                new RestaurantPopularity(2L, 50L),
+                new RestaurantPopularity(3L, 30L)));
+        RestaurantAutocomplete autocomplete = new RestaurantAutocomplete(restaurantRepository, orderRepository,
+                Duration.ofDays(30));
+        autocomplete.rebuild();
+        return autocomplete;
+    }
+
+    private static Restaurant restaurant(Long id, String name) {
+        Restaurant restaurant = new Restaurant(name, "Marszalkowska 1", "+48123456789", Category.PIZZA);
+        restaurant.setId(id);
+        return restaurant;
+    }
+
+    private static List<Long> ids(List<RestaurantSuggestionDto> suggestions) {
+        return suggestions.stream().map(RestaurantSuggestionDto::getRestaurantId).toList();
+    }
+}
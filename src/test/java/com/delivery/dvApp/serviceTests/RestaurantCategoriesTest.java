@@ -0,0 +1,99 @@
+package com.delivery.dvApp.serviceTests;
+
+import com.delivery.dvApp.entity.Restaurant;
+import com.delivery.dvApp.enums.Category;
+import com.delivery.dvApp.repository.RestaurantRepository;
+import com.delivery.dvApp.search.RestaurantCategories;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link RestaurantCategories}.
+ * <p>
+ * Focuses on paging, combined category filters and keeping the index up to date.
+ */
+@ExtendWith(MockitoExtension.class)
+public class RestaurantCategoriesTest {
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @InjectMocks
+    private RestaurantCategories restaurantCategories;
+
+    /**
+     * Verifies that several categories are paged through together in ID order.
+     * <p>
+     * <b>Scenario:</b> Vegan, dessert and pizza restaurants are loaded, and vegan and
+     * dessert restaurants are read in pages of two.
+     * <br><b>Expectation:</b> The pages interleave both categories by ID, continue after
+     * the given ID, never contain a pizza restaurant and end with a short page.
+     */
+    @Test
+    void page_shouldMergeCategoriesInIdOrder(){
+        //Arrange
+        when(restaurantRepository.findByDeletedFalse()).thenReturn(List.of(
+                restaurant(1L, Category.VEGAN),
+                restaurant(2L, Category.PIZZA),
+                restaurant(4L, Category.DESSERT),
+                restaurant(5L, Category.VEGAN),
+                restaurant(8L, Category.DESSERT)));
+        restaurantCategories.rebuild();
+        Set<Category> categories = EnumSet.of(Category.VEGAN, Category.DESSERT);
+
+        //Act
+        List<Long> first = restaurantCategories.page(categories, 0L, 2);
+        List<Long> second = restaurantCategories.page(categories, 4L, 2);
+        List<Long> last = restaurantCategories.page(categories, 5L, 2);
+
+        //Assert
+        assertEquals(List.of(1L, 4L), first);
+        assertEquals(List.of(5L, 8L), second);
+        assertEquals(List.of(8L), last);
+        assertEquals(4, restaurantCategories.count(categories));
+        assertEquals(List.of(2L), restaurantCategories.page(EnumSet.of(Category.PIZZA), 0L, 10));
+        assertTrue(restaurantCategories.page(EnumSet.of(Category.SUSHI), 0L, 10).isEmpty());
+    }
+
+    /**
+     * Verifies that added, moved and removed restaurants are reflected immediately.
+     * <p>
+     * <b>Scenario:</b> A restaurant is added with a lower ID than an existing one,
+     * another one moves from burger to vegan, and a third one is removed.
+     * <br><b>Expectation:</b> Every category lists exactly its live restaurants in ID order.
+     */
+    @Test
+    void page_shouldFollowAddsMovesAndRemovals(){
+        //Arrange
+        when(restaurantRepository.findByDeletedFalse()).thenReturn(List.of(
+                restaurant(3L, Category.BURGER),
+                restaurant(6L, Category.VEGAN),
+                restaurant(9L, Category.VEGAN)));
+        restaurantCategories.rebuild();
+
+        //Act
+        restaurantCategories.put(2L, Category.VEGAN);
+        restaurantCategories.put(3L, Category.VEGAN);
+        restaurantCategories.remove(List.of(6L));
+
+        //Assert
+        assertEquals(List.of(2L, 3L, 9L), restaurantCategories.page(EnumSet.of(Category.VEGAN), 0L, 10));
+        assertTrue(restaurantCategories.page(EnumSet.of(Category.BURGER), 0L, 10).isEmpty());
+        assertEquals(3, restaurantCategories.count(EnumSet.allOf(Category.class)));
+    }
+
+    private static Restaurant restaurant(Long id, Category category) {
+        Restaurant restaurant = new Restaurant("Restaurant " + id, "Marszalkowska 1", "+48123456789", category);
+        restaurant.setId(id);
+        return restaurant;
+    }
+}
@@ -0,0 +1,135 @@
+package com.delivery.dvApp.serviceTests;
+
+import com.delivery.dvApp.entity.Restaurant;
+import com.delivery.dvApp.enums.Category;
+import com.delivery.dvApp.repository.RestaurantRepository;
+import com.delivery.dvApp.search.NearbyRestaurant;
+import com.delivery.dvApp.search.RestaurantLocations;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link RestaurantLocations}.
+ * <p>
+ * Focuses on distance ordering, radius and category filters, and keeping the grid up to date.
+ */
+@ExtendWith(MockitoExtension.class)
+public class RestaurantLocationsTest {
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @InjectMocks
+    private RestaurantLocations restaurantLocations;
+
+    /**
+     * Verifies that the closest restaurants are found, filtered by radius and category.
+     * <p>
+     * <b>Scenario:</b> Four restaurants around central Warsaw and one in Krakow are loaded,
+     * one of them without a location, and searched for from the Palace of Culture.
+     * <br><b>Expectation:</b> Results are ordered by distance, stop at the radius and the
+     * limit, only include the requested categories, and skip the restaurant without a location.
+     */
+    @Test
+    void nearest_shouldOrderByDistanceWithinRadiusAndCategories(){
+        //Arrange
+        when(restaurantRepository.findByDeletedFalse()).thenReturn(List.of(
+                restaurant(1L, Category.PIZZA, 52.2319, 21.0067),
+                restaurant(2L, Category.VEGAN, 52.2370, 21.0175),
+                restaurant(3L, Category.DESSERT, 52.2200, 21.0100),
+                restaurant(4L, Category.PIZZA, 50.0614, 19.9366),
+                restaurant(5L, Category.VEGAN, null, null)));
+        restaurantLocations.rebuild();
+
+        //Act
+        List<NearbyRestaurant> all = restaurantLocations.nearest(52.2318, 21.0060, EnumSet.noneOf(Category.class), 10, 5000);
+        List<NearbyRestaurant> closest = restaurantLocations.nearest(52.2318, 21.0060, EnumSet.noneOf(Category.class), 1, 5000);
+        List<NearbyRestaurant> veganOrDessert = restaurantLocations.nearest(52.2318, 21.0060,
+                EnumSet.of(Category.VEGAN, Category.DESSERT), 10, 5000);
+
+        //Assert
+        assertEquals(List.of(1L, 2L, 3L), ids(all));
+        assertTrue(all.get(0).getDistanceMeters() < 100);
+        assertEquals(List.of(1L), ids(closest));
+        assertEquals(List.of(2L, 3L), ids(veganOrDessert));
+        assertEquals(4, restaurantLocations.size());
+    }
+
+    /**
+     * Verifies that moves and removals are reflected immediately.
+     * <p>
+     * <b>Scenario:</b> A restaurant moves next to the search point, another loses its
+     * location, and a third one is removed.
+     * <br><b>Expectation:</b> Only the moved restaurant is found, at its new distance.
+     */
+    @Test
+    void nearest_shouldFollowMovesAndRemovals(){
+        //Arrange
+        when(restaurantRepository.findByDeletedFalse()).thenReturn(List.of(
+                restaurant(1L, Category.SUSHI, 52.2319, 21.0067),
+                restaurant(2L, Category.SUSHI, 52.2370, 21.0175),
+                restaurant(3L, Category.SUSHI, 50.0614, 19.9366)));
+        restaurantLocations.rebuild();
+
+        //Act
+        restaurantLocations.put(restaurant(3L, Category.SUSHI, 52.2320, 21.0060));
+        restaurantLocations.put(restaurant(2L, Category.SUSHI, null, null));
+        restaurantLocations.remove(List.of(1L));
+
+        //Assert
+        List<NearbyRestaurant> nearby = restaurantLocations.nearest(52.2318, 21.0060, EnumSet.of(Category.SUSHI), 10, 5000);
+        assertEquals(List.of(3L), ids(nearby));
+        assertTrue(nearby.get(0).getDistanceMeters() < 50);
+        assertEquals(1, restaurantLocations.size());
+    }
+
+    /**
+     * Verifies that searches with a NaN radius or close to a pole return promptly.
+     * <p>
+     * <b>Scenario:</b> Restaurants are loaded 0.1 degree from the north pole at longitudes
+     * 30 and 120 away from the search point, and 0.5 degree from it. They are searched
+     * for with a NaN radius and with the largest radius.
+     * <br><b>Expectation:</b> The NaN search finds nothing, the other finds all three in
+     * distance order, and both finish well within a few seconds.
+     */
+    @Test
+    void nearest_shouldHandleNaNRadiusAndThePole(){
+        //Arrange
+        when(restaurantRepository.findByDeletedFalse()).thenReturn(List.of(
+                restaurant(1L, Category.PIZZA, 89.5, 0.0),
+                restaurant(2L, Category.PIZZA, 89.9, 120.0),
+                restaurant(3L, Category.PIZZA, 89.9, 30.0)));
+        restaurantLocations.rebuild();
+
+        //Act
+        List<NearbyRestaurant> none = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> restaurantLocations.nearest(
+                89.9, 0.0, EnumSet.noneOf(Category.class), 10, Double.NaN));
+        List<NearbyRestaurant> polar = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> restaurantLocations.nearest(
+                89.9, 0.0, EnumSet.noneOf(Category.class), 10, RestaurantLocations.MAX_SEARCH_METERS));
+
+        //Assert
+        assertTrue(none.isEmpty());
+        assertEquals(List.of(3L, 2L, 1L), ids(polar));
+    }
+
+    private static Restaurant restaurant(Long id, Category category, Double latitude, Double longitude) {
+        Restaurant restaurant = new Restaurant("Restaurant " + id, "Marszalkowska 1", "+48123456789", category);
+        restaurant.setId(id);
+        restaurant.setLatitude(latitude);
+        restaurant.setLongitude(longitude);
+        return restaurant;
+    }
+
+    private static List<Long> ids(List<NearbyRestaurant> restaurants) {
+        return restaurants.stream().map(NearbyRestaurant::getRestaurantId).toList();
+    }
+}
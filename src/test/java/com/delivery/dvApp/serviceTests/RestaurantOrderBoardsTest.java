@@ -0,0 +1,96 @@
+package com.delivery.dvApp.serviceTests;
+
+import com.delivery.dvApp.board.RestaurantOrderBoards;
+import com.delivery.dvApp.dto.OrderBoardDto;
+import com.delivery.dvApp.enums.OrderStatus;
+import com.delivery.dvApp.event.OrderStatusEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RestaurantOrderBoards}.
+ * <p>
+ * Focuses on versioning and on serving changes from the bounded history.
+ */
+public class RestaurantOrderBoardsTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    /**
+     * Verifies that a client receives exactly the changes after its version.
+     * <p>
+     * <b>Scenario:</b> A client takes a snapshot, then two orders of its restaurant and one
+     * of another restaurant change.
+     * <br><b>Expectation:</b> The delta holds the two changes in order and the version
+     * rises by two; asking again with the new version returns nothing.
+     */
+    @Test
+    void changesSince_shouldReturnChangesAfterVersion(){
+        //Arrange
+        RestaurantOrderBoards boards = new RestaurantOrderBoards(8);
+        OrderBoardDto snapshot = boards.snapshot(50L, List::of);
+        boards.record(new OrderStatusEvent(1L, OrderStatus.CREATED, NOW, null, 100L, 50L));
+        boards.record(new OrderStatusEvent(2L, OrderStatus.CREATED, NOW, null, 101L, 51L));
+        boards.record(new OrderStatusEvent(1L, OrderStatus.ACCEPTED, NOW, 7L, 100L, 50L));
+
+        //Act
+        OrderBoardDto delta = boards.changesSince(50L, snapshot.getVersion());
+
+        //Assert
+        assertFalse(delta.isSnapshot());
+        assertEquals(snapshot.getVersion() + 2, delta.getVersion());
+        assertEquals(2, delta.getOrders().size());
+        assertEquals(OrderStatus.CREATED, delta.getOrders().get(0).getStatus());
+        assertEquals(OrderStatus.ACCEPTED, delta.getOrders().get(1).getStatus());
+        assertEquals(7L, delta.getOrders().get(1).getCourierId());
+        assertTrue(boards.changesSince(50L, delta.getVersion()).getOrders().isEmpty());
+    }
+
+    /**
+     * Verifies that a client too far behind is sent back to a snapshot.
+     * <p>
+     * <b>Scenario:</b> With a history of two changes, three changes happen after the client's version.
+     * <br><b>Expectation:</b> No delta is returned; a client one change behind still gets one.
+     */
+    @Test
+    void changesSince_shouldRequireSnapshotWhenHistoryWasOverwritten(){
+        //Arrange
+        RestaurantOrderBoards boards = new RestaurantOrderBoards(2);
+        long version = boards.version(50L);
+        for (long orderId = 1; orderId <= 3; orderId++) {
+            boards.record(new OrderStatusEvent(orderId, OrderStatus.CREATED, NOW, null, 100L, 50L));
+        }
+
+        //Act
+        OrderBoardDto tooOld = boards.changesSince(50L, version);
+        OrderBoardDto recent = boards.changesSince(50L, version + 2);
+
+        //Assert
+        assertNull(tooOld);
+        assertEquals(1, recent.getOrders().size());
+        assertEquals(3L, recent.getOrders().get(0).getOrderId());
+    }
+
+    /**
+     * Verifies that versions from before a restart are not trusted.
+     * <p>
+     * <b>Scenario:</b> A client presents a version lower than any this instance handed out,
+     * and another client one higher than the current version.
+     * <br><b>Expectation:</b> Both are sent back to a snapshot.
+     */
+    @Test
+    void changesSince_shouldRejectUnknownVersions(){
+        //Arrange
+        RestaurantOrderBoards boards = new RestaurantOrderBoards(8);
+        boards.record(new OrderStatusEvent(1L, OrderStatus.CREATED, NOW, null, 100L, 50L));
+        long version = boards.version(50L);
+
+        //Act & Assert
+        assertNull(boards.changesSince(50L, 5L));
+        assertNull(boards.changesSince(50L, version + 1));
+        assertNull(boards.changesSince(51L, 5L));
+    }
+}
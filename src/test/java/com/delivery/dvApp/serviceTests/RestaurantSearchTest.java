@@ -0,0 +1,148 @@
+package com.delivery.dvApp.serviceTests;
+
+import com.delivery.dvApp.dto.SearchHitDto;
+import com.delivery.dvApp.entity.Restaurant;
+import com.delivery.dvApp.enums.Category;
+import com.delivery.dvApp.enums.SearchHitType;
+import com.delivery.dvApp.repository.ItemRepository;
+import com.delivery.dvApp.repository.RestaurantRepository;
+import com.delivery.dvApp.search.IndexedItem;
+import com.delivery.dvApp.search.RestaurantSearch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link RestaurantSearch}.
+ * <p>
+ * Focuses on matching, ranking and keeping the index up to date.
+ */
+@ExtendWith(MockitoExtension.class)
+public class RestaurantSearchTest {
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @InjectMocks
+    private RestaurantSearch restaurantSearch;
+
+    /**
+     * Verifies that partial and misspelled words find what the user meant.
+     * <p>
+     * <b>Scenario:</b> A pizzeria and a ramen bar with a few items are indexed and
+     * searched for with a prefix, a typo, an accent-free spelling and two words.
+     * <br><b>Expectation:</b> Every query finds the intended item; all words of a
+     * query must match, and a restaurant name ranks above an item with the same word.
+     */
+    @Test
+    void search_shouldMatchPrefixesAndTyposAndRankRestaurantNamesFirst(){
+        //Arrange
+        restaurantSearch.indexRestaurant(1L, "Pizza Di Napoli");
+        restaurantSearch.indexItem(1L, 10L, "Margherita", "Tomato, mozzarella and basil");
+        restaurantSearch.indexItem(1L, 11L, "Crème Brûlée", null);
+        restaurantSearch.indexRestaurant(2L, "Ramen Bar");
+        restaurantSearch.indexItem(2L, 20L, "Spicy Ramen", "Pork broth with chili oil");
+        restaurantSearch.indexItem(2L, 21L, "Miso Ramen", "Soy and miso broth");
+
+        //Act
+        List<SearchHitDto> prefix = restaurantSearch.search("margh", 10);
+        List<SearchHitDto> typo = restaurantSearch.search("mozarela", 10);
+        List<SearchHitDto> accents = restaurantSearch.search("creme brulee", 10);
+        List<SearchHitDto> twoWords = restaurantSearch.search("spicy ramen", 10);
+        List<SearchHitDto> ramen = restaurantSearch.search("RAMEN", 10);
+
+        //Assert
+        assertEquals(10L, prefix.get(0).getItemId());
+        assertEquals("Pizza Di Napoli", prefix.get(0).getRestaurantName());
+        assertEquals(10L, typo.get(0).getItemId());
+        assertEquals(11L, accents.get(0).getItemId());
+        assertEquals(1, twoWords.size());
+        assertEquals(20L, twoWords.get(0).getItemId());
+        assertEquals(3, ramen.size());
+        assertEquals(SearchHitType.RESTAURANT, ramen.get(0).getType());
+        assertEquals(2L, ramen.get(0).getRestaurantId());
+        assertTrue(restaurantSearch.search("sushi", 10).isEmpty());
+    }
+
+    /**
+     * Verifies that changes are visible in the next search.
+     * <p>
+     * <b>Scenario:</b> A restaurant is renamed, one of its items removed, and another
+     * restaurant with many items is removed, which leaves so many dead documents that
+     * the index is reloaded in the background.
+     * <br><b>Expectation:</b> The reload is started; only the new name and the remaining
+     * item are found, and nothing of the removed restaurant is.
+     */
+    @Test
+    void search_shouldReflectRenamesAndRemovals(){
+        //Arrange
+        restaurantSearch.indexRestaurant(1L, "Burger Town");
+        restaurantSearch.indexItem(1L, 10L, "Cheeseburger", null);
+        restaurantSearch.indexItem(1L, 11L, "Veggie Burger", null);
+        restaurantSearch.indexRestaurant(2L, "Noodle House");
+        for (long itemId = 100; itemId < 2100; itemId++) {
+            restaurantSearch.indexItem(2L, itemId, "Noodle " + itemId, "Wheat noodles");
+        }
+        Restaurant renamed = new Restaurant("Burger City", "Zlota 59", "+48123456789", Category.BURGER);
+        renamed.setId(1L);
+        when(restaurantRepository.findByDeletedFalse()).thenReturn(List.of(renamed));
+        when(itemRepository.findIndexedItems(eq(0L), any()))
+                .thenReturn(List.of(new IndexedItem(11L, 1L, "Veggie Burger", null)));
+
+        //Act
+        restaurantSearch.indexRestaurant(1L, "Burger City");
+        restaurantSearch.removeItem(1L, 10L);
+        restaurantSearch.removeRestaurants(List.of(2L));
+
+        //Assert
+        verify(itemRepository, timeout(2000)).findIndexedItems(eq(0L), any());
+        assertTrue(restaurantSearch.search("town", 10).isEmpty());
+        assertEquals(1L, restaurantSearch.search("city", 10).get(0).getRestaurantId());
+        assertTrue(restaurantSearch.search("cheeseburger", 10).isEmpty());
+        assertEquals("Burger City", restaurantSearch.search("veggie", 10).get(0).getRestaurantName());
+        assertTrue(restaurantSearch.search("noodle", 10).isEmpty());
+        assertEquals(2, restaurantSearch.size());
+    }
+
+    /**
+     * Verifies that the index is loaded from the database.
+     * <p>
+     * <b>Scenario:</b> The repositories return one restaurant and two items, one of
+     * which belongs to a restaurant that was not returned.
+     * <br><b>Expectation:</b> The restaurant and its item can be found, the orphaned
+     * item cannot.
+     */
+    @Test
+    void rebuild_shouldLoadLiveRestaurantsAndItems(){
+        //Arrange
+        Restaurant restaurant = new Restaurant("Taco Loco", "Mokotowska 1", "+48123456789", Category.KEBAB);
+        restaurant.setId(5L);
+        when(restaurantRepository.findByDeletedFalse()).thenReturn(List.of(restaurant));
+        when(itemRepository.findIndexedItems(eq(0L), any())).thenReturn(List.of(
+                new IndexedItem(50L, 5L, "Taco al Pastor", "Pork and pineapple"),
+                new IndexedItem(51L, 6L, "Pineapple Pizza", null)));
+
+        //Act
+        restaurantSearch.rebuild();
+
+        //Assert
+        assertEquals(2, restaurantSearch.size());
+        List<SearchHitDto> hits = restaurantSearch.search("pineapple", 10);
+        assertEquals(1, hits.size());
+        assertEquals(50L, hits.get(0).getItemId());
+        assertEquals("Taco Loco", hits.get(0).getRestaurantName());
+    }
+}
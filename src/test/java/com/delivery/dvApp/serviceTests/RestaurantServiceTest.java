@@ -1,24 +1,52 @@
 package com.delivery.dvApp.serviceTests;
 
+import com.delivery.dvApp.board.RestaurantOrderBoards;
+import com.delivery.dvApp.cache.CachedMenu;
+import com.delivery.dvApp.cache.MenuCache;
+import com.delivery.dvApp.dto.CursorPageDto;
 import com.delivery.dvApp.dto.MenuItemDto;
+import com.delivery.dvApp.dto.OrderBoardDto;
+import com.delivery.dvApp.dto.OrderBoardEntryDto;
+import com.delivery.dvApp.dto.RestaurantDeletionDto;
+import com.delivery.dvApp.dto.RestaurantListingDto;
+import com.delivery.dvApp.dto.RestaurantListingPageDto;
+import com.delivery.dvApp.exception.custom.InvalidFieldException;
+import com.delivery.dvApp.exception.custom.InvalidLocationException;
+import com.delivery.dvApp.exception.custom.RestaurantNotFoundException;
 import com.delivery.dvApp.entity.Item;
 import com.delivery.dvApp.entity.Restaurant;
 import com.delivery.dvApp.enums.Category;
+import com.delivery.dvApp.enums.OrderStatus;
+import com.delivery.dvApp.event.OrderEventStreams;
+import com.delivery.dvApp.event.OrderStatusEvent;
 import com.delivery.dvApp.repository.ItemRepository;
+import com.delivery.dvApp.repository.OrderRepository;
 import com.delivery.dvApp.repository.RestaurantRepository;
+import com.delivery.dvApp.search.RestaurantAutocomplete;
+import com.delivery.dvApp.search.RestaurantCategories;
+import com.delivery.dvApp.search.RestaurantLocations;
+import com.delivery.dvApp.search.RestaurantSearch;
 import com.delivery.dvApp.service.RestaurantService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
 
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 /**
@@ -34,6 +62,30 @@ public class RestaurantServiceTest {
     @Mock
      private ItemRepository itemRepository;
 
+    @Spy
+     private MenuCache menuCache = new MenuCache(100, Duration.ofMinutes(10), JsonMapper.builder().build());
+
+    @Mock
+    private OrderEventStreams orderEventStreams;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Spy
+    private RestaurantOrderBoards restaurantOrderBoards = new RestaurantOrderBoards(16);
+
+    @Mock
+    private RestaurantSearch restaurantSearch;
+
+    @Mock
+    private RestaurantAutocomplete restaurantAutocomplete;
+
+    @Mock
+    private RestaurantCategories restaurantCategories;
+
+    @Mock
+    private RestaurantLocations restaurantLocations;
+
     @InjectMocks
      private RestaurantService restaurantService;
 
@@ -104,4 +156,371 @@ public class RestaurantServiceTest {
        assertEquals(restaurant,savedItem.getRestaurant());
 
     }
+
+    /**
+     * Verifies that a menu is loaded once and then served from the cache.
+     * <p>
+     * <b>Scenario:</b> The menu of the same restaurant is requested twice.
+     * <br><b>Expectation:</b> The database is queried only for the first request
+     * and both requests return the same items.
+     */
+    @Test
+    void getMenuOfRestaurant_shouldServeRepeatedRequestsFromCache(){
+        //Arrange
+        Long restaurantId = 1L;
+        List<MenuItemDto> menu = List.of(new MenuItemDto("Margherita", "Tomato and mozzarella", BigDecimal.valueOf(29.99)));
+
+        when(restaurantRepository.existsById(restaurantId)).thenReturn(true);
+        when(itemRepository.findMenuByRestaurantId(restaurantId)).thenReturn(menu);
+
+        //Act
+        List<MenuItemDto> first = restaurantService.getMenuOfRestaurant(restaurantId);
+        List<MenuItemDto> second = restaurantService.getMenuOfRestaurant(restaurantId);
+
+        //Assert
+        assertEquals(1, first.size());
+        assertEquals("Margherita", second.get(0).getName());
+        verify(restaurantRepository, times(1)).existsById(restaurantId);
+        verify(itemRepository, times(1)).findMenuByRestaurantId(restaurantId);
+    }
+
+    /**
+     * Verifies that adding an item invalidates the cached menu.
+     * <p>
+     * <b>Scenario:</b> A cached menu exists and a new item is added to the restaurant.
+     * <br><b>Expectation:</b>
+     * <ul>
+     * <li>The menu version of the restaurant is bumped.</li>
+     * <li>The next menu request reloads the menu from the database.</li>
+     * </ul>
+     */
+    @Test
+    void addItem_shouldInvalidateCachedMenu(){
+        //Arrange
+        Long restaurantId = 1L;
+        Restaurant restaurant = new Restaurant("Pizza Di Napoli",
+                "Warsaw Center",
+                "+48123456789",
+                Category.PIZZA);
+        MenuItemDto itemDto = new MenuItemDto("Diavola", "Spicy salami", BigDecimal.valueOf(32.50));
+
+        when(restaurantRepository.existsById(restaurantId)).thenReturn(true);
+        when(restaurantRepository.findById(restaurantId)).thenReturn(Optional.of(restaurant));
+        when(itemRepository.findMenuByRestaurantId(restaurantId))
+                .thenReturn(List.of())
+                .thenReturn(List.of(itemDto));
+
+        restaurantService.getMenuOfRestaurant(restaurantId);
+        long versionBefore = menuCache.getVersion(restaurantId);
+
+        //Act
+        restaurantService.addItem(restaurantId, itemDto);
+        List<MenuItemDto> menu = restaurantService.getMenuOfRestaurant(restaurantId);
+
+        //Assert
+        assertEquals(versionBefore + 1, menuCache.getVersion(restaurantId));
+        assertEquals(1, menu.size());
+        verify(itemRepository, times(2)).findMenuByRestaurantId(restaurantId);
+    }
+
+    /**
+     * Verifies that the cached menu carries its JSON and a version based ETag.
+     * <p>
+     * <b>Scenario:</b> A menu is loaded, then an item is removed from the restaurant.
+     * <br><b>Expectation:</b>
+     * <ul>
+     * <li>The JSON bytes contain the menu items.</li>
+     * <li>Small menus are not gzip compressed.</li>
+     * <li>The reloaded menu has a different ETag.</li>
+     * </ul>
+     */
+    @Test
+    void getMenu_shouldPreSerializeMenuAndChangeEtagOnUpdate(){
+        //Arrange
+        Long restaurantId = 1L;
+        Long itemId = 7L;
+        Restaurant restaurant = new Restaurant("Pizza Di Napoli",
+                "Warsaw Center",
+                "+48123456789",
+                Category.PIZZA);
+        restaurant.setId(restaurantId);
+        Item item = new Item("Margherita", "Tomato and mozzarella", restaurant, BigDecimal.valueOf(29.99));
+
+        when(restaurantRepository.existsById(restaurantId)).thenReturn(true);
+        when(restaurantRepository.findById(restaurantId)).thenReturn(Optional.of(restaurant));
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(itemRepository.findMenuByRestaurantId(restaurantId))
+                .thenReturn(List.of(new MenuItemDto("Margherita", "Tomato and mozzarella", BigDecimal.valueOf(29.99))))
+                .thenReturn(List.of());
+
+        //Act
+        CachedMenu before = restaurantService.getMenu(restaurantId);
+        restaurantService.removeItem(restaurantId, itemId);
+        CachedMenu after = restaurantService.getMenu(restaurantId);
+
+        //Assert
+        assertTrue(new String(before.getJson(), StandardCharsets.UTF_8).contains("\"name\":\"Margherita\""));
+        assertFalse(before.hasGzippedJson());
+        assertEquals("[]", new String(after.getJson(), StandardCharsets.UTF_8));
+        assertNotEquals(before.getEtag(), after.getEtag());
+    }
+
+    /**
+     * Verifies that a restaurant and its items are deleted with bulk updates.
+     * <p>
+     * <b>Scenario:</b> An existing restaurant is deleted.
+     * <br><b>Expectation:</b> One update flags the restaurant, one flags its items,
+     * and no item is loaded into memory.
+     */
+    @Test
+    void deleteRestaurant_shouldSoftDeleteRestaurantAndItemsInBulk(){
+        //Arrange
+        Long restaurantId = 1L;
+        when(restaurantRepository.softDeleteByIdIn(List.of(restaurantId))).thenReturn(1);
+
+        //Act
+        restaurantService.deleteRestaurant(restaurantId);
+
+        //Assert
+        verify(itemRepository, times(1)).softDeleteByRestaurantIdIn(List.of(restaurantId));
+        verify(itemRepository, never()).findByRestaurantId(any());
+        verify(itemRepository, never()).saveAll(any());
+        assertEquals(1, menuCache.getVersion(restaurantId));
+    }
+
+    /**
+     * Verifies that deleting an unknown restaurant fails without touching items.
+     * <p>
+     * <b>Scenario:</b> No restaurant exists with the given ID.
+     * <br><b>Expectation:</b> {@link RestaurantNotFoundException} is thrown.
+     */
+    @Test
+    void deleteRestaurant_shouldThrowWhenRestaurantDoesNotExist(){
+        //Arrange
+        Long restaurantId = 99L;
+        when(restaurantRepository.softDeleteByIdIn(List.of(restaurantId))).thenReturn(0);
+        when(restaurantRepository.existsById(restaurantId)).thenReturn(false);
+
+        //Act & Assert
+        assertThrows(RestaurantNotFoundException.class, () -> restaurantService.deleteRestaurant(restaurantId));
+        verify(itemRepository, never()).softDeleteByRestaurantIdIn(any());
+    }
+
+    /**
+     * Verifies that many restaurants are deleted at once and the counts are summed.
+     * <p>
+     * <b>Scenario:</b> Three restaurant IDs are given, one of them twice.
+     * <br><b>Expectation:</b> Duplicate IDs are dropped, both bulk updates run once,
+     * and the result reports the rows they changed.
+     */
+    @Test
+    void deleteRestaurants_shouldDeleteAllRestaurantsAndReportCounts(){
+        //Arrange
+        List<Long> restaurantIds = List.of(1L, 2L, 3L);
+        when(restaurantRepository.softDeleteByIdIn(restaurantIds)).thenReturn(3);
+        when(itemRepository.softDeleteByRestaurantIdIn(restaurantIds)).thenReturn(1200);
+
+        //Act
+        RestaurantDeletionDto result = restaurantService.deleteRestaurants(List.of(1L, 2L, 2L, 3L));
+
+        //Assert
+        assertEquals(3, result.getRestaurantsDeleted());
+        assertEquals(1200, result.getItemsDeleted());
+        restaurantIds.forEach(id -> assertEquals(1, menuCache.getVersion(id)));
+    }
+
+    /**
+     * Verifies that a client without a version gets the whole board.
+     * <p>
+     * <b>Scenario:</b> The restaurant has one created order and no version is given.
+     * <br><b>Expectation:</b> A snapshot with the order and the current board version is returned.
+     */
+    @Test
+    void getOrderBoard_shouldReturnSnapshotWithoutVersion(){
+        //Arrange
+        when(restaurantRepository.existsById(50L)).thenReturn(true);
+        when(orderRepository.findBoardOrders(50L, RestaurantOrderBoards.BOARD_STATUSES)).thenReturn(List.of(
+                new OrderBoardEntryDto(1L, OrderStatus.CREATED, null, LocalDateTime.now())));
+
+        //Act
+        OrderBoardDto board = restaurantService.getOrderBoard(50L, null);
+
+        //Assert
+        assertTrue(board.isSnapshot());
+        assertEquals(1, board.getOrders().size());
+        assertEquals(restaurantOrderBoards.version(50L), board.getVersion());
+    }
+
+    /**
+     * Verifies that a client with a recent version is answered from memory.
+     * <p>
+     * <b>Scenario:</b> One order changes after the client's version.
+     * <br><b>Expectation:</b> Only that change is returned and the database is not queried.
+     */
+    @Test
+    void getOrderBoard_shouldReturnChangesSinceVersion(){
+        //Arrange
+        long version = restaurantOrderBoards.version(50L);
+        restaurantOrderBoards.record(new OrderStatusEvent(1L, OrderStatus.ACCEPTED, LocalDateTime.now(), 7L, 100L, 50L));
+
+        //Act
+        OrderBoardDto board = restaurantService.getOrderBoard(50L, version);
+
+        //Assert
+        assertFalse(board.isSnapshot());
+        assertEquals(version + 1, board.getVersion());
+        assertEquals(OrderStatus.ACCEPTED, board.getOrders().get(0).getStatus());
+        verifyNoInteractions(orderRepository, restaurantRepository);
+    }
+
+    /**
+     * Verifies that a renamed restaurant is found under its new name.
+     * <p>
+     * <b>Scenario:</b> A live restaurant is renamed.
+     * <br><b>Expectation:</b> The new name is saved and handed to the search index
+     * and to the autocomplete trie.
+     */
+    @Test
+    void changeRestaurantName_shouldUpdateSearchIndex(){
+        //Arrange
+        Restaurant restaurant = new Restaurant("Pizza Di Napoli", "Warsaw Center", "+48123456789", Category.PIZZA);
+        restaurant.setId(1L);
+        when(restaurantRepository.findById(1L)).thenReturn(Optional.of(restaurant));
+
+        //Act
+        restaurantService.changeRestaurantName(1L, "Pizza Di Roma");
+
+        //Assert
+        verify(restaurantRepository, times(1)).save(restaurant);
+        verify(restaurantSearch, times(1)).indexRestaurant(1L, "Pizza Di Roma");
+        verify(restaurantAutocomplete, times(1)).put(1L, "Pizza Di Roma");
+    }
+
+    /**
+     * Verifies that category pages come from the in-memory index.
+     * <p>
+     * <b>Scenario:</b> Two categories are requested with a page size of two; the index
+     * returns three IDs and the repository returns the first two restaurants out of order.
+     * <br><b>Expectation:</b> The page holds the first two restaurants in ID order, the
+     * cursor points after the second one, and no category query is run.
+     */
+    @Test
+    void getRestaurantsByCategory_shouldLoadPageFromIndex(){
+        //Arrange
+        Restaurant vegan = new Restaurant("Green Bowl", "Warsaw Center", "+48123456789", Category.VEGAN);
+        vegan.setId(3L);
+        Restaurant dessert = new Restaurant("Sweet Spot", "Warsaw Center", "+48123456789", Category.DESSERT);
+        dessert.setId(7L);
+        when(restaurantCategories.page(EnumSet.of(Category.VEGAN, Category.DESSERT), 0L, 3))
+                .thenReturn(List.of(3L, 7L, 9L));
+        when(restaurantRepository.findAllById(List.of(3L, 7L))).thenReturn(List.of(dessert, vegan));
+
+        //Act
+        CursorPageDto<Restaurant> page = restaurantService.getRestaurantsByCategory(List.of("vegan", "DESSERT"), null, 2);
+
+        //Assert
+        assertEquals(List.of(vegan, dessert), page.getItems());
+        assertEquals("7", page.getNextCursor());
+        verify(restaurantRepository, never()).findByCategory(any());
+    }
+
+    /**
+     * Verifies that a sparse listing reads the narrow projection and returns only the requested fields.
+     * <p>
+     * <b>Scenario:</b> The ID and name of two restaurants after ID 10 are requested; the
+     * summary query returns three rows.
+     * <br><b>Expectation:</b> Two rows without a category are returned, the cursor points
+     * after the second one, the total comes from the category index, and neither the full
+     * projection nor the entities are read.
+     */
+    @Test
+    void listRestaurants_shouldReadSummaryProjectionWithRequestedFields(){
+        //Arrange
+        when(restaurantRepository.findListingSummaries(10L, PageRequest.of(0, 3))).thenReturn(List.of(
+                new RestaurantListingDto(11L, "Green Bowl", Category.VEGAN),
+                new RestaurantListingDto(12L, "Sweet Spot", Category.DESSERT),
+                new RestaurantListingDto(15L, "Pizza Di Napoli", Category.PIZZA)));
+        when(restaurantCategories.count(EnumSet.allOf(Category.class))).thenReturn(1234);
+
+        //Act
+        RestaurantListingPageDto page = restaurantService.listRestaurants(List.of("id", "name"), "10", 2);
+
+        //Assert
+        assertEquals(2, page.getItems().size());
+        assertEquals("Sweet Spot", page.getItems().get(1).getName());
+        assertNull(page.getItems().get(1).getCategory());
+        assertEquals("12", page.getNextCursor());
+        assertEquals(1234, page.getEstimatedTotal());
+        verify(restaurantRepository, never()).findListings(any(), any());
+        verify(restaurantRepository, never()).findByDeletedFalse();
+    }
+
+    /**
+     * Verifies that a listing asking for an unknown field is rejected.
+     * <p>
+     * <b>Scenario:</b> The fields include a misspelled name.
+     * <br><b>Expectation:</b> An InvalidFieldException is thrown before the database is queried.
+     */
+    @Test
+    void listRestaurants_shouldRejectUnknownField(){
+        //Act & Assert
+        assertThrows(InvalidFieldException.class,
+                () -> restaurantService.listRestaurants(List.of("id", "nmae"), null, 50));
+        verifyNoInteractions(restaurantRepository);
+    }
+
+    /**
+     * Verifies that a new location is saved and handed to the location index.
+     * <p>
+     * <b>Scenario:</b> A live restaurant without a location gets one.
+     * <br><b>Expectation:</b> The coordinates are saved and the restaurant is put into
+     * the location index.
+     */
+    @Test
+    void changeRestaurantLocation_shouldSaveAndIndexLocation(){
+        //Arrange
+        Restaurant restaurant = new Restaurant("Pizza Di Napoli", "Warsaw Center", "+48123456789", Category.PIZZA);
+        restaurant.setId(1L);
+        when(restaurantRepository.findById(1L)).thenReturn(Optional.of(restaurant));
+
+        //Act
+        restaurantService.changeRestaurantLocation(1L, 52.2297, 21.0122);
+
+        //Assert
+        assertEquals(52.2297, restaurant.getLatitude());
+        assertEquals(21.0122, restaurant.getLongitude());
+        verify(restaurantRepository, times(1)).save(restaurant);
+        verify(restaurantLocations, times(1)).put(restaurant);
+    }
+
+    /**
+     * Verifies that a nearby search with coordinates out of range is rejected.
+     * <p>
+     * <b>Scenario:</b> The latitude is above 90 degrees.
+     * <br><b>Expectation:</b> An InvalidLocationException is thrown and the location index is not queried.
+     */
+    @Test
+    void findNearbyRestaurants_shouldRejectInvalidLocation(){
+        //Act & Assert
+        assertThrows(InvalidLocationException.class,
+                () -> restaurantService.findNearbyRestaurants(91.0, 21.0, null, 20, 5000));
+        verifyNoInteractions(restaurantLocations);
+    }
+
+    /**
+     * Verifies that a nearby search with a radius that is not a positive number is rejected.
+     * <p>
+     * <b>Scenario:</b> The radius is NaN, infinite, zero or negative.
+     * <br><b>Expectation:</b> An InvalidLocationException is thrown and the location index is not queried.
+     */
+    @Test
+    void findNearbyRestaurants_shouldRejectInvalidRadius(){
+        //Act & Assert
+        for (double radius : new double[]{Double.NaN, Double.POSITIVE_INFINITY, 0, -1}) {
+            assertThrows(InvalidLocationException.class,
+                    () -> restaurantService.findNearbyRestaurants(52.2297, 21.0122, null, 20, radius));
+        }
+        verifyNoInteractions(restaurantLocations);
+    }
+
 }